@@ -19,6 +19,7 @@ package bisq.application;
 
 import bisq.common.application.DevMode;
 import bisq.common.application.Service;
+import bisq.common.application.StartupTimeline;
 import bisq.common.currency.FiatCurrencyRepository;
 import bisq.common.locale.CountryRepository;
 import bisq.common.locale.LanguageRepository;
@@ -83,7 +84,8 @@ public abstract class ApplicationService implements Service {
                     config.getBoolean("devMode"),
                     config.getString("keyIds"),
                     config.getBoolean("ignoreSigningKeyInResourcesCheck"),
-                    config.getBoolean("ignoreSignatureVerification"));
+                    config.getBoolean("ignoreSignatureVerification"),
+                    config.getBoolean("compressPersistedStores"));
         }
 
         private final Path baseDir;
@@ -93,6 +95,8 @@ public abstract class ApplicationService implements Service {
         private final List<String> keyIds;
         private final boolean ignoreSigningKeyInResourcesCheck;
         private final boolean ignoreSignatureVerification;
+        // If true, the network data and cache stores are written compressed
+        private final boolean compressPersistedStores;
 
         public Config(Path baseDir,
                       String appName,
@@ -100,7 +104,8 @@ public abstract class ApplicationService implements Service {
                       boolean devMode,
                       String keyIds,
                       boolean ignoreSigningKeyInResourcesCheck,
-                      boolean ignoreSignatureVerification) {
+                      boolean ignoreSignatureVerification,
+                      boolean compressPersistedStores) {
             this.baseDir = baseDir;
             this.appName = appName;
             this.version = new Version(version);
@@ -111,6 +116,7 @@ public abstract class ApplicationService implements Service {
             this.keyIds = List.of(keyIds.split(","));
             this.ignoreSigningKeyInResourcesCheck = ignoreSigningKeyInResourcesCheck;
             this.ignoreSignatureVerification = ignoreSignatureVerification;
+            this.compressPersistedStores = compressPersistedStores;
         }
     }
 
@@ -150,7 +156,7 @@ public abstract class ApplicationService implements Service {
         ResolverConfig.config();
 
         String absoluteDataDirPath = dataDir.toAbsolutePath().toString();
-        persistenceService = new PersistenceService(absoluteDataDirPath);
+        persistenceService = new PersistenceService(absoluteDataDirPath, config.isCompressPersistedStores());
     }
 
     private void checkInstanceLock() {
@@ -173,6 +179,24 @@ public abstract class ApplicationService implements Service {
         return persistenceService.readAllPersisted();
     }
 
+    /**
+     * Initializes the service and adds the duration to the startup timeline.
+     */
+    protected CompletableFuture<Boolean> initializeService(Service service) {
+        long ts = System.nanoTime();
+        return service.initialize()
+                .whenComplete((result, throwable) -> StartupTimeline.record("init", service.getClass().getSimpleName(), ts));
+    }
+
+    /**
+     * The network data stores might still get read when initialize is called (see Executable), thus the network
+     * service needs to be initialized with that method.
+     */
+    protected CompletableFuture<Boolean> initializeNetworkService(Service networkService) {
+        return persistenceService.whenNetworkDataRead()
+                .thenCompose(result -> initializeService(networkService));
+    }
+
     public abstract CompletableFuture<Boolean> initialize();
 
     public abstract CompletableFuture<Boolean> shutdown();
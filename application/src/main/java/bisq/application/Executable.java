@@ -1,5 +1,6 @@
 package bisq.application;
 
+import bisq.common.application.StartupTimeline;
 import bisq.common.util.OsUtils;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,7 +22,10 @@ public abstract class Executable<T extends ApplicationService> implements ShutDo
         Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
 
         applicationService = createApplicationService(args);
-        applicationService.readAllPersisted().join();
+        // We only wait for the local data. The network data stores are read in the background, the network service
+        // waits for them at initialize.
+        applicationService.readAllPersisted();
+        applicationService.getPersistenceService().whenLocalDataRead().join();
         launchApplication(args);
     }
 
@@ -61,6 +65,7 @@ public abstract class Executable<T extends ApplicationService> implements ShutDo
 
     protected void onApplicationLaunched() {
         applicationService.initialize()
+                .whenComplete((result, throwable) -> StartupTimeline.logReport())
                 .whenComplete(this::onApplicationServiceInitialized);
     }
 
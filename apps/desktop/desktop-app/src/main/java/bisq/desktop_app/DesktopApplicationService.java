@@ -195,12 +195,12 @@ public class DesktopApplicationService extends ApplicationService {
 
     @Override
     public CompletableFuture<Boolean> initialize() {
-        return securityService.initialize()
+        return initializeService(securityService)
                 .thenCompose(result -> {
                     setState(State.INITIALIZE_NETWORK);
 
-                    CompletableFuture<Boolean> networkFuture = networkService.initialize();
-                    CompletableFuture<Boolean> walletFuture = walletService.map(Service::initialize)
+                    CompletableFuture<Boolean> networkFuture = initializeNetworkService(networkService);
+                    CompletableFuture<Boolean> walletFuture = walletService.map(this::initializeService)
                             .orElse(CompletableFuture.completedFuture(true));
 
                     networkFuture.whenComplete((r, throwable) -> {
@@ -222,19 +222,19 @@ public class DesktopApplicationService extends ApplicationService {
                         setState(State.INITIALIZE_SERVICES);
                     }
                 })
-                .thenCompose(result -> identityService.initialize())
-                .thenCompose(result -> bondedRolesService.initialize())
-                .thenCompose(result -> accountService.initialize())
-                .thenCompose(result -> contractService.initialize())
-                .thenCompose(result -> userService.initialize())
-                .thenCompose(result -> settingsService.initialize())
-                .thenCompose(result -> offerService.initialize())
-                .thenCompose(result -> chatService.initialize())
-                .thenCompose(result -> sendNotificationService.initialize()) // We initialize after chatService to avoid flooding the notification center
-                .thenCompose(result -> supportService.initialize())
-                .thenCompose(result -> tradeService.initialize())
-                .thenCompose(result -> updaterService.initialize())
-                .thenCompose(result -> bisqEasyService.initialize())
+                .thenCompose(result -> initializeService(identityService))
+                .thenCompose(result -> initializeService(bondedRolesService))
+                .thenCompose(result -> initializeService(accountService))
+                .thenCompose(result -> initializeService(contractService))
+                .thenCompose(result -> initializeService(userService))
+                .thenCompose(result -> initializeService(settingsService))
+                .thenCompose(result -> initializeService(offerService))
+                .thenCompose(result -> initializeService(chatService))
+                .thenCompose(result -> initializeService(sendNotificationService)) // We initialize after chatService to avoid flooding the notification center
+                .thenCompose(result -> initializeService(supportService))
+                .thenCompose(result -> initializeService(tradeService))
+                .thenCompose(result -> initializeService(updaterService))
+                .thenCompose(result -> initializeService(bisqEasyService))
                 .orTimeout(5, TimeUnit.MINUTES)
                 .handle((result, throwable) -> {
                     if (throwable == null) {
@@ -20,6 +20,7 @@ package bisq.oracle_node_app;
 import bisq.application.ApplicationService;
 import bisq.bonded_roles.bonded_role.AuthorizedBondedRolesService;
 import bisq.bonded_roles.market_price.MarketPriceRequestService;
+import bisq.common.metrics.MetricsHttpServer;
 import bisq.identity.IdentityService;
 import bisq.network.NetworkService;
 import bisq.network.NetworkServiceConfig;
@@ -41,6 +42,7 @@ public class OracleNodeApplicationService extends ApplicationService {
     private final NetworkService networkService;
     private final OracleNodeService oracleNodeService;
     private final AuthorizedBondedRolesService authorizedBondedRolesService;
+    private final MetricsHttpServer metricsHttpServer;
 
     public OracleNodeApplicationService(String[] args) {
         super("oracle_node", args);
@@ -76,15 +78,21 @@ public class OracleNodeApplicationService extends ApplicationService {
                 persistenceService,
                 authorizedBondedRolesService,
                 marketPriceRequestService);
+
+        MetricsHttpServer.Config metricsConfig = hasConfig("metrics")
+                ? MetricsHttpServer.Config.from(getConfig("metrics"))
+                : new MetricsHttpServer.Config(false, "127.0.0.1", 0);
+        metricsHttpServer = new MetricsHttpServer(metricsConfig);
     }
 
     @Override
     public CompletableFuture<Boolean> initialize() {
-        return securityService.initialize()
-                .thenCompose(result -> networkService.initialize())
-                .thenCompose(result -> identityService.initialize())
-                .thenCompose(result -> authorizedBondedRolesService.initialize())
-                .thenCompose(result -> oracleNodeService.initialize())
+        metricsHttpServer.start();
+        return initializeService(securityService)
+                .thenCompose(result -> initializeNetworkService(networkService))
+                .thenCompose(result -> initializeService(identityService))
+                .thenCompose(result -> initializeService(authorizedBondedRolesService))
+                .thenCompose(result -> initializeService(oracleNodeService))
                 .orTimeout(5, TimeUnit.MINUTES)
                 .whenComplete((success, throwable) -> {
                     if (success) {
@@ -103,6 +111,7 @@ public class OracleNodeApplicationService extends ApplicationService {
                 .thenCompose(result -> identityService.shutdown())
                 .thenCompose(result -> networkService.shutdown())
                 .thenCompose(result -> securityService.shutdown())
+                .whenComplete((result, throwable) -> metricsHttpServer.shutdown())
                 .orTimeout(2, TimeUnit.MINUTES)
                 .handle((result, throwable) -> throwable == null)
                 .join());
@@ -171,12 +171,12 @@ public class RestApiApplicationService extends ApplicationService {
 
     @Override
     public CompletableFuture<Boolean> initialize() {
-        return securityService.initialize()
+        return initializeService(securityService)
                 .thenCompose(result -> {
                     setState(State.INITIALIZE_NETWORK);
 
-                    CompletableFuture<Boolean> networkFuture = networkService.initialize();
-                    CompletableFuture<Boolean> walletFuture = walletService.map(Service::initialize)
+                    CompletableFuture<Boolean> networkFuture = initializeNetworkService(networkService);
+                    CompletableFuture<Boolean> walletFuture = walletService.map(this::initializeService)
                             .orElse(CompletableFuture.completedFuture(true));
 
                     networkFuture.whenComplete((r, throwable) -> {
@@ -198,18 +198,18 @@ public class RestApiApplicationService extends ApplicationService {
                         setState(State.INITIALIZE_SERVICES);
                     }
                 })
-                .thenCompose(result -> identityService.initialize())
-                .thenCompose(result -> bondedRolesService.initialize())
-                .thenCompose(result -> accountService.initialize())
-                .thenCompose(result -> contractService.initialize())
-                .thenCompose(result -> userService.initialize())
-                .thenCompose(result -> settingsService.initialize())
-                .thenCompose(result -> sendNotificationService.initialize())
-                .thenCompose(result -> offerService.initialize())
-                .thenCompose(result -> chatService.initialize())
-                .thenCompose(result -> supportService.initialize())
-                .thenCompose(result -> tradeService.initialize())
-                .thenCompose(result -> bisqEasyService.initialize())
+                .thenCompose(result -> initializeService(identityService))
+                .thenCompose(result -> initializeService(bondedRolesService))
+                .thenCompose(result -> initializeService(accountService))
+                .thenCompose(result -> initializeService(contractService))
+                .thenCompose(result -> initializeService(userService))
+                .thenCompose(result -> initializeService(settingsService))
+                .thenCompose(result -> initializeService(sendNotificationService))
+                .thenCompose(result -> initializeService(offerService))
+                .thenCompose(result -> initializeService(chatService))
+                .thenCompose(result -> initializeService(supportService))
+                .thenCompose(result -> initializeService(tradeService))
+                .thenCompose(result -> initializeService(bisqEasyService))
                 .orTimeout(5, TimeUnit.MINUTES)
                 .whenComplete((success, throwable) -> {
                     if (throwable == null) {
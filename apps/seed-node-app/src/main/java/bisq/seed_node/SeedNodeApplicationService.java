@@ -19,6 +19,7 @@ package bisq.seed_node;
 
 import bisq.application.ApplicationService;
 import bisq.bonded_roles.bonded_role.AuthorizedBondedRolesService;
+import bisq.common.metrics.MetricsHttpServer;
 import bisq.identity.IdentityService;
 import bisq.network.NetworkService;
 import bisq.network.NetworkServiceConfig;
@@ -47,6 +48,7 @@ public class SeedNodeApplicationService extends ApplicationService {
     protected final SecurityService securityService;
     private final AuthorizedBondedRolesService authorizedBondedRolesService;
     private final SeedNodeService seedNodeService;
+    private final MetricsHttpServer metricsHttpServer;
 
     public SeedNodeApplicationService(String[] args) {
         super("seed_node", args);
@@ -71,15 +73,21 @@ public class SeedNodeApplicationService extends ApplicationService {
 
         Optional<SeedNodeService.Config> seedNodeConfig = hasConfig("seedNode") ? Optional.of(SeedNodeService.Config.from(getConfig("seedNode"))) : Optional.empty();
         seedNodeService = new SeedNodeService(seedNodeConfig, networkService, identityService, securityService.getKeyBundleService());
+
+        MetricsHttpServer.Config metricsConfig = hasConfig("metrics")
+                ? MetricsHttpServer.Config.from(getConfig("metrics"))
+                : new MetricsHttpServer.Config(false, "127.0.0.1", 0);
+        metricsHttpServer = new MetricsHttpServer(metricsConfig);
     }
 
     @Override
     public CompletableFuture<Boolean> initialize() {
-        return securityService.initialize()
-                .thenCompose(result -> networkService.initialize())
-                .thenCompose(result -> identityService.initialize())
-                .thenCompose(result -> authorizedBondedRolesService.initialize())
-                .thenCompose(result -> seedNodeService.initialize())
+        metricsHttpServer.start();
+        return initializeService(securityService)
+                .thenCompose(result -> initializeNetworkService(networkService))
+                .thenCompose(result -> initializeService(identityService))
+                .thenCompose(result -> initializeService(authorizedBondedRolesService))
+                .thenCompose(result -> initializeService(seedNodeService))
                 .orTimeout(5, TimeUnit.MINUTES)
                 .whenComplete((success, throwable) -> {
                     if (success) {
@@ -98,6 +106,7 @@ public class SeedNodeApplicationService extends ApplicationService {
                 .thenCompose(result -> identityService.shutdown())
                 .thenCompose(result -> networkService.shutdown())
                 .thenCompose(result -> securityService.shutdown())
+                .whenComplete((result, throwable) -> metricsHttpServer.shutdown())
                 .orTimeout(10, TimeUnit.SECONDS)
                 .handle((result, throwable) -> throwable == null)
                 .join());
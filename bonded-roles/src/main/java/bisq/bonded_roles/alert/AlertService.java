@@ -47,7 +47,7 @@ public class AlertService implements Service, AuthorizedBondedRolesService.Liste
 
     @Override
     public CompletableFuture<Boolean> initialize() {
-        authorizedBondedRolesService.addListener(this);
+        authorizedBondedRolesService.addListener(this, AuthorizedAlertData.class);
         return CompletableFuture.completedFuture(true);
     }
 
@@ -21,6 +21,7 @@ import bisq.bonded_roles.BondedRoleType;
 import bisq.bonded_roles.oracle.AuthorizedOracleNode;
 import bisq.common.application.Service;
 import bisq.common.encoding.Hex;
+import bisq.common.observable.ClassRoutedListeners;
 import bisq.common.observable.collection.ObservableSet;
 import bisq.common.timer.Scheduler;
 import bisq.common.util.StringUtils;
@@ -70,7 +71,8 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
     private final DataService.Listener initialDataServiceListener;
     private final Set<AuthorizedData> failedAuthorizedData = new CopyOnWriteArraySet<>();
     private Scheduler initialDataScheduler, reprocessScheduler;
-    private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
+    private final ClassRoutedListeners<Listener> listeners = new ClassRoutedListeners<>("bisq_bonded_roles_listener_ms",
+            "Time an AuthorizedBondedRolesService listener takes for handling an added or removed AuthorizedData");
 
     public AuthorizedBondedRolesService(NetworkService networkService,
                                         boolean ignoreSecurityManager) {
@@ -99,7 +101,7 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
     @Override
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
-        networkService.addDataServiceListener(initialDataServiceListener);
+        networkService.addDataServiceListener(initialDataServiceListener, AuthorizedDistributedData.class);
         // It can be that there are no new data received from the inventory request, so we apply the existing data
         applyInitialData();
         return CompletableFuture.completedFuture(true);
@@ -119,16 +121,14 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
         // Start with the AuthorizedOracleNode
         networkService.getDataService()
                 .ifPresent(dataService -> {
-                    dataService.getAuthorizedData()
-                            .filter(e -> e.getAuthorizedDistributedData() instanceof AuthorizedOracleNode)
+                    dataService.getAuthorizedData(AuthorizedOracleNode.class)
                             .forEach(this::onAuthorizedDataAdded);
                 });
 
         // Then we process the AuthorizedBondedRole of type ORACLE_NODE
         networkService.getDataService()
                 .ifPresent(dataService -> {
-                    dataService.getAuthorizedData()
-                            .filter(e -> e.getAuthorizedDistributedData() instanceof AuthorizedBondedRole)
+                    dataService.getAuthorizedData(AuthorizedBondedRole.class)
                             .filter(e -> ((AuthorizedBondedRole) e.getAuthorizedDistributedData()).getBondedRoleType() == BondedRoleType.ORACLE_NODE)
                             .forEach(this::onAuthorizedDataAdded);
                 });
@@ -136,8 +136,7 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
         // Then we process the other AuthorizedBondedRoles
         networkService.getDataService()
                 .ifPresent(dataService -> {
-                    dataService.getAuthorizedData()
-                            .filter(e -> e.getAuthorizedDistributedData() instanceof AuthorizedBondedRole)
+                    dataService.getAuthorizedData(AuthorizedBondedRole.class)
                             .filter(e -> ((AuthorizedBondedRole) e.getAuthorizedDistributedData()).getBondedRoleType() != BondedRoleType.ORACLE_NODE)
                             .forEach(this::onAuthorizedDataAdded);
                 });
@@ -151,7 +150,7 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
                             .forEach(this::onAuthorizedDataAdded);
                 });
 
-        networkService.addDataServiceListener(this);
+        networkService.addDataServiceListener(this, AuthorizedDistributedData.class);
     }
 
 
@@ -176,13 +175,7 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
             });
             reProcessFailedAuthorizedData();
         }
-        listeners.forEach(listener -> {
-            try {
-                listener.onAuthorizedDataAdded(authorizedData);
-            } catch (Exception e) {
-                log.error("Error at onAuthorizedDataAdded", e);
-            }
-        });
+        listeners.notify(data.getClass(), "onAuthorizedDataAdded", listener -> listener.onAuthorizedDataAdded(authorizedData));
     }
 
     @Override
@@ -199,13 +192,7 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
                 }
             });
         }
-        listeners.forEach(listener -> {
-            try {
-                listener.onAuthorizedDataRemoved(authorizedData);
-            } catch (Exception e) {
-                log.error("Error at onAuthorizedDataAdded", e);
-            }
-        });
+        listeners.notify(data.getClass(), "onAuthorizedDataRemoved", listener -> listener.onAuthorizedDataRemoved(authorizedData));
     }
 
 
@@ -274,6 +261,14 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
         listeners.add(listener);
     }
 
+    /**
+     * Adds a listener which gets notified only about AuthorizedData holding the given data class. Can be called
+     * repeatedly to subscribe for several classes.
+     */
+    public void addListener(Listener listener, Class<? extends AuthorizedDistributedData> dataClass) {
+        listeners.add(listener, dataClass);
+    }
+
     public void removeListener(Listener listener) {
         listeners.remove(listener);
     }
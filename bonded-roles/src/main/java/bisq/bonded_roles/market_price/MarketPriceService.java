@@ -78,7 +78,7 @@ public class MarketPriceService implements Service, PersistenceClient<MarketPric
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
 
-        authorizedBondedRolesService.addListener(this);
+        authorizedBondedRolesService.addListener(this, AuthorizedMarketPriceData.class);
 
         setSelectedMarket(MarketRepository.getDefault());
 
@@ -48,7 +48,7 @@ public class ReleaseNotificationsService implements Service, AuthorizedBondedRol
 
     @Override
     public CompletableFuture<Boolean> initialize() {
-        authorizedBondedRolesService.addListener(this);
+        authorizedBondedRolesService.addListener(this, ReleaseNotification.class);
         return CompletableFuture.completedFuture(true);
     }
 
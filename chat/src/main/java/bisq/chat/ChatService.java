@@ -136,11 +136,15 @@ public class ChatService implements Service {
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
 
-        List<CompletableFuture<Boolean>> list = new ArrayList<>(List.of(bisqEasyOfferbookChannelService.initialize(),
-                bisqEasyOpenTradeChannelService.initialize()));
-        list.addAll(commonPublicChatChannelServices.values().stream()
-                .map(CommonPublicChatChannelService::initialize)
-                .collect(Collectors.toList()));
+        List<CompletableFuture<Boolean>> list = new ArrayList<>();
+        // The public chat channel services get the stored chat messages replayed in a single pass
+        networkService.batchDataServiceReplay(() -> {
+            list.add(bisqEasyOfferbookChannelService.initialize());
+            list.addAll(commonPublicChatChannelServices.values().stream()
+                    .map(CommonPublicChatChannelService::initialize)
+                    .collect(Collectors.toList()));
+        });
+        list.add(bisqEasyOpenTradeChannelService.initialize());
         list.addAll(twoPartyPrivateChatChannelServices.values().stream()
                 .map(PrivateChatChannelService::initialize)
                 .collect(Collectors.toList()));
@@ -81,6 +81,11 @@ public class BisqEasyOfferbookChannelService extends PublicChatChannelService<Bi
         }
     }
 
+    @Override
+    protected Class<BisqEasyOfferbookMessage> getChatMessageClass() {
+        return BisqEasyOfferbookMessage.class;
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // API 
     ///////////////////////////////////////////////////////////////////////////////////////////////////
@@ -87,6 +87,11 @@ public final class CommonPublicChatChannelService extends PublicChatChannelServi
         }
     }
 
+    @Override
+    protected Class<CommonPublicChatMessage> getChatMessageClass() {
+        return CommonPublicChatMessage.class;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // API 
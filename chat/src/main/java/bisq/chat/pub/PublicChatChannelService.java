@@ -54,15 +54,16 @@ public abstract class PublicChatChannelService<M extends PublicChatMessage, C ex
 
         maybeAddDefaultChannels();
 
-        networkService.addDataServiceListener(this);
-        networkService.getDataService().ifPresent(dataService ->
-                dataService.getAuthenticatedData().forEach(this::handleAuthenticatedDataAdded));
+        networkService.addDataServiceListenerAndReplay(this, getChatMessageClass());
 
         return CompletableFuture.completedFuture(true);
     }
 
     protected abstract void handleAuthenticatedDataAdded(AuthenticatedData authenticatedData);
 
+    // Used for subscribing only to the chat messages handled by this service
+    protected abstract Class<M> getChatMessageClass();
+
     @Override
     public CompletableFuture<Boolean> shutdown() {
         log.info("shutdown");
@@ -1,6 +1,7 @@
 plugins {
     id("bisq.java-conventions")
     id("bisq.protobuf")
+    id("bisq.java-integration-tests")
 }
 
 dependencies {
@@ -0,0 +1,118 @@
+package bisq.common.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class FixedSizeByteArrayMapIntegrationTest {
+    private static final int KEY_SIZE = 20;
+
+    // Simple benchmark against the ConcurrentHashMap<ByteArray, T> we used before in DataStore.
+    // A slot costs keySize + 8 bytes, so depending on the fill level (0.35 - 0.7) an entry needs 40-80 bytes, compared
+    // to about 100 bytes for the ConcurrentHashMap node with its ByteArray key. Lookup throughput was about the same.
+    // A copy followed by a write took about 0.02 ms instead of 10 ms with 100k entries.
+    @Test
+    void benchmarkAgainstConcurrentHashMap() {
+        int numEntries = 100_000;
+        Random random = new Random(3);
+        List<ByteArray> keys = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            keys.add(randomKey(random));
+        }
+        // Lookups use other instances than the keys the maps got
+        List<ByteArray> lookupKeys = new ArrayList<>();
+        for (ByteArray key : keys) {
+            lookupKeys.add(new ByteArray(key.getBytes().clone()));
+        }
+
+        Map<ByteArray, Integer> concurrentHashMap = fill(new ConcurrentHashMap<>(), keys);
+        Map<ByteArray, Integer> fixedSizeMap = fill(new FixedSizeByteArrayMap<>(KEY_SIZE), keys);
+        assertEquals(numEntries, fixedSizeMap.size());
+        assertEquals(concurrentHashMap, fixedSizeMap);
+
+        // Warm up
+        for (int i = 0; i < 3; i++) {
+            sumLookups(concurrentHashMap, lookupKeys);
+            sumLookups(fixedSizeMap, lookupKeys);
+        }
+
+        int rounds = 10;
+        long ts = System.nanoTime();
+        long concurrentHashMapSum = 0;
+        for (int round = 0; round < rounds; round++) {
+            concurrentHashMapSum += sumLookups(concurrentHashMap, lookupKeys);
+        }
+        double concurrentHashMapLookups = rounds * numEntries / ((System.nanoTime() - ts) / 1e6);
+
+        ts = System.nanoTime();
+        long fixedSizeMapSum = 0;
+        for (int round = 0; round < rounds; round++) {
+            fixedSizeMapSum += sumLookups(fixedSizeMap, lookupKeys);
+        }
+        double fixedSizeMapLookups = rounds * numEntries / ((System.nanoTime() - ts) / 1e6);
+
+        log.info("Lookups/ms: ConcurrentHashMap {}; FixedSizeByteArrayMap {}",
+                Math.round(concurrentHashMapLookups), Math.round(fixedSizeMapLookups));
+        // Each key maps to its index, so all lookups must have found the value of their key
+        long expectedSum = rounds * ((long) numEntries * (numEntries - 1) / 2);
+        assertEquals(expectedSum, concurrentHashMapSum);
+        assertEquals(expectedSum, fixedSizeMapSum);
+
+        // Copy followed by a write, as done by the persistence of a DataStore
+        double concurrentHashMapCopyMs = measureCopyAndWrite(() -> new ConcurrentHashMap<>(concurrentHashMap), concurrentHashMap, keys);
+        double fixedSizeMapCopyMs = measureCopyAndWrite(() -> {
+            FixedSizeByteArrayMap<Integer> copy = new FixedSizeByteArrayMap<>(KEY_SIZE);
+            copy.putAll(fixedSizeMap);
+            return copy;
+        }, fixedSizeMap, keys);
+        log.info("Copy and write with {} entries: ConcurrentHashMap {} ms; FixedSizeByteArrayMap {} ms",
+                numEntries, concurrentHashMapCopyMs, fixedSizeMapCopyMs);
+        assertEquals(concurrentHashMap, fixedSizeMap);
+    }
+
+    private static ByteArray randomKey(Random random) {
+        byte[] bytes = new byte[KEY_SIZE];
+        random.nextBytes(bytes);
+        return new ByteArray(bytes);
+    }
+
+    private static Map<ByteArray, Integer> fill(Map<ByteArray, Integer> map, List<ByteArray> keys) {
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+        return map;
+    }
+
+    private static double measureCopyAndWrite(Supplier<Map<ByteArray, Integer>> copySupplier,
+                                              Map<ByteArray, Integer> source,
+                                              List<ByteArray> keys) {
+        int rounds = 100;
+        long ts = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            Map<ByteArray, Integer> copy = copySupplier.get();
+            ByteArray key = keys.get(round);
+            source.put(key, -round);
+            // The copy must not see writes to the source after it was taken
+            assertEquals(round, (int) copy.get(key));
+            assertEquals(keys.size(), copy.size());
+        }
+        return (System.nanoTime() - ts) / 1e6 / rounds;
+    }
+
+    private static long sumLookups(Map<ByteArray, Integer> map, List<ByteArray> lookupKeys) {
+        long sum = 0;
+        for (ByteArray key : lookupKeys) {
+            sum += map.get(key);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.application;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Collects the durations of the startup steps (e.g. reading a store, initializing a service) and logs them as a
+ * timeline, so that it is visible which steps ran in parallel and which ones delayed the startup.
+ */
+@Slf4j
+public class StartupTimeline {
+    private static final class Step {
+        private final String category;
+        private final String name;
+        private final long startNanos;
+        private final long endNanos;
+
+        private Step(String category, String name, long startNanos, long endNanos) {
+            this.category = category;
+            this.name = name;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+    }
+
+    private static final List<Step> steps = new ArrayList<>();
+
+    /**
+     * Records a step which started at startNanos (from System.nanoTime) and ends now.
+     */
+    public static void record(String category, String name, long startNanos) {
+        Step step = new Step(category, name, startNanos, System.nanoTime());
+        synchronized (steps) {
+            steps.add(step);
+        }
+    }
+
+    public static String getReport() {
+        List<Step> sorted;
+        synchronized (steps) {
+            sorted = new ArrayList<>(steps);
+        }
+        if (sorted.isEmpty()) {
+            return "No startup steps recorded";
+        }
+        sorted.sort(Comparator.comparingLong(step -> step.startNanos));
+        long start = sorted.get(0).startNanos;
+        long end = sorted.stream().mapToLong(step -> step.endNanos).max().orElse(start);
+        StringBuilder report = new StringBuilder("Startup timeline (start and duration in ms), total ")
+                .append((end - start) / 1_000_000)
+                .append(" ms:");
+        sorted.forEach(step -> report.append(String.format("%n%7d %7d  %-8s %s",
+                (step.startNanos - start) / 1_000_000,
+                (step.endNanos - step.startNanos) / 1_000_000,
+                step.category,
+                step.name)));
+        return report.toString();
+    }
+
+    public static void logReport() {
+        log.info(getReport());
+    }
+}
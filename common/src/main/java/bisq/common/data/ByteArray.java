@@ -20,14 +20,20 @@ package bisq.common.data;
 import bisq.common.encoding.Hex;
 import bisq.common.proto.PersistableProto;
 import com.google.protobuf.ByteString;
+import lombok.AccessLevel;
 import lombok.Getter;
 
-import java.math.BigInteger;
 import java.util.Arrays;
 
+/**
+ * Wrapper for byte arrays to be used as map key. The bytes must not be mutated after construction as the hashCode is
+ * cached (ByteArray is used as key for all maps in the network data stores and gets hashed at every lookup).
+ */
 @Getter
 public final class ByteArray implements PersistableProto, Comparable<ByteArray> {
     private final byte[] bytes;
+    @Getter(AccessLevel.NONE)
+    private transient int hashCode;
 
     public ByteArray(byte[] bytes) {
         this.bytes = bytes;
@@ -51,7 +57,13 @@ public final class ByteArray implements PersistableProto, Comparable<ByteArray>
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(bytes);
+        // Benign data race as in String.hashCode. A hash of 0 is just recomputed.
+        int result = hashCode;
+        if (result == 0) {
+            result = Arrays.hashCode(bytes);
+            hashCode = result;
+        }
+        return result;
     }
 
     @Override
@@ -59,8 +71,33 @@ public final class ByteArray implements PersistableProto, Comparable<ByteArray>
         return Hex.encode(bytes);
     }
 
+    /**
+     * Compares the bytes as big-endian two's complement numbers, which is the same order as
+     * {@code new BigInteger(bytes)} would give (Inventory sorts by it, thus it must not change) but without the
+     * allocations. An empty array is treated as zero.
+     */
     @Override
     public int compareTo(ByteArray o) {
-        return new BigInteger(this.getBytes()).compareTo(new BigInteger(o.getBytes()));
+        byte[] a = this.bytes;
+        byte[] b = o.bytes;
+        boolean aNegative = a.length > 0 && a[0] < 0;
+        boolean bNegative = b.length > 0 && b[0] < 0;
+        if (aNegative != bNegative) {
+            return aNegative ? -1 : 1;
+        }
+
+        // With the same sign we compare the sign extended arrays as unsigned bytes
+        int length = Math.max(a.length, b.length);
+        int signExtension = aNegative ? 0xFF : 0;
+        int aOffset = length - a.length;
+        int bOffset = length - b.length;
+        for (int i = 0; i < length; i++) {
+            int aValue = i < aOffset ? signExtension : a[i - aOffset] & 0xFF;
+            int bValue = i < bOffset ? signExtension : b[i - bOffset] & 0xFF;
+            if (aValue != bValue) {
+                return aValue < bValue ? -1 : 1;
+            }
+        }
+        return 0;
     }
 }
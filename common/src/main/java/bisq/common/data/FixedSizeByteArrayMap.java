@@ -0,0 +1,826 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.common.data;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Open-addressing (linear probing) hash map for {@link ByteArray} keys of a fixed size, like the 20 byte hashes used
+ * as keys in the network data stores.
+ * <p>
+ * Keys are packed into byte arrays, their hashCodes into int arrays and the values into object arrays. At the
+ * max. load factor an entry costs about (keySize + 8) / 0.7 bytes, compared to about 100 bytes for a
+ * ConcurrentHashMap node with its ByteArray key and the wrapped byte array. Keys with a different size are kept in a
+ * small overflow map.
+ * <p>
+ * The slots are split into pages of 64 slots, which are grouped into chunks of 64 pages. Copies (via {@link #putAll}
+ * into an empty map) and the snapshots used by iterators share the chunks and pages with the source map in O(1). Each
+ * map only modifies chunks and pages it owns and copies a shared one at the first write to it, so a write after a
+ * snapshot costs a copy of one page, of its chunk and of the chunk directory (one reference per 4096 slots) instead of
+ * a copy of the whole map.
+ * <p>
+ * Values can be added lazily with {@link #putLazy}. They are loaded at the first access and the result is kept. If
+ * the loader returns null (e.g. the persisted value could not be deserialized), the entry is treated as not existing
+ * by get and the iterators until it gets removed by {@link #loadAll}.
+ * <p>
+ * Thread safe: Writes are serialized by a StampedLock, reads are optimistic and only fall back to the read lock if a
+ * write happened concurrently. As with ConcurrentHashMap, null keys and values are not supported. Iterators operate on
+ * a snapshot taken when they are created, never throw ConcurrentModificationException and support remove. Keys
+ * returned by iterators are new ByteArray instances.
+ */
+public final class FixedSizeByteArrayMap<V> extends AbstractMap<ByteArray, V> {
+    private static final int PAGE_SHIFT = 6;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MIN_CAPACITY = PAGE_SIZE;
+    private static final float MAX_LOAD_FACTOR = 0.7f;
+
+    private static final class Page {
+        private final Object owner;
+        private final int[] hashes;
+        private final byte[] keys;
+        // A null value marks an empty slot
+        private final Object[] values;
+
+        private Page(Object owner, int keySize) {
+            this.owner = owner;
+            hashes = new int[PAGE_SIZE];
+            keys = new byte[PAGE_SIZE * keySize];
+            values = new Object[PAGE_SIZE];
+        }
+
+        private Page(Object owner, Page page) {
+            this.owner = owner;
+            hashes = page.hashes.clone();
+            keys = page.keys.clone();
+            values = page.values.clone();
+        }
+    }
+
+    private static final class Chunk {
+        private final Object owner;
+        private final Page[] pages;
+
+        private Chunk(Object owner, int numPages, int keySize) {
+            this.owner = owner;
+            pages = new Page[numPages];
+            for (int i = 0; i < numPages; i++) {
+                pages[i] = new Page(owner, keySize);
+            }
+        }
+
+        private Chunk(Object owner, Chunk chunk) {
+            this.owner = owner;
+            pages = chunk.pages.clone();
+        }
+    }
+
+    private static final class Table {
+        private final Object owner;
+        private final Chunk[] chunks;
+        private final int mask;
+        private final int threshold;
+
+        private Table(Object owner, int capacity, int keySize) {
+            this.owner = owner;
+            // The capacity is a power of 2 and at least one page, so all chunks have the same number of pages
+            int numPages = capacity >>> PAGE_SHIFT;
+            chunks = new Chunk[Math.max(1, numPages >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = new Chunk(owner, Math.min(numPages, CHUNK_SIZE), keySize);
+            }
+            mask = capacity - 1;
+            threshold = (int) (capacity * MAX_LOAD_FACTOR);
+        }
+
+        private Table(Object owner, Table table) {
+            this.owner = owner;
+            chunks = table.chunks.clone();
+            mask = table.mask;
+            threshold = table.threshold;
+        }
+
+        private int capacity() {
+            return mask + 1;
+        }
+
+        private int numPages() {
+            return capacity() >>> PAGE_SHIFT;
+        }
+
+        private Page pageAt(int pageIndex) {
+            return chunks[pageIndex >>> CHUNK_SHIFT].pages[pageIndex & CHUNK_MASK];
+        }
+
+        private Page pageOf(int index) {
+            return pageAt(index >>> PAGE_SHIFT);
+        }
+
+        private Object valueAt(int index) {
+            return pageOf(index).values[index & PAGE_MASK];
+        }
+
+        private int hashAt(int index) {
+            return pageOf(index).hashes[index & PAGE_MASK];
+        }
+    }
+
+    private static final class LazyValue<V> {
+        // Set to null once loaded. Written after value, so a reader seeing null also sees the value.
+        private volatile Supplier<? extends V> loader;
+        private V value;
+
+        private LazyValue(Supplier<? extends V> loader) {
+            this.loader = loader;
+        }
+
+        private V get() {
+            if (loader == null) {
+                return value;
+            }
+            synchronized (this) {
+                Supplier<? extends V> loader = this.loader;
+                if (loader != null) {
+                    value = loader.get();
+                    this.loader = null;
+                }
+                return value;
+            }
+        }
+    }
+
+    private final int keySize;
+    private final StampedLock lock = new StampedLock();
+    // Only written while holding the write lock
+    private final Map<ByteArray, V> overflow = new ConcurrentHashMap<>();
+    // Pages and tables created with another owner are shared and must not be modified. Only accessed while holding
+    // the write lock.
+    private Object owner = new Object();
+    private volatile Table table;
+    private volatile int size;
+
+    public FixedSizeByteArrayMap(int keySize) {
+        this(keySize, MIN_CAPACITY);
+    }
+
+    public FixedSizeByteArrayMap(int keySize, int expectedSize) {
+        if (keySize <= 0) {
+            throw new IllegalArgumentException("keySize must be positive");
+        }
+        this.keySize = keySize;
+        table = new Table(owner, capacityFor(expectedSize), keySize);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Map
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int size() {
+        return size + overflow.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        ByteArray byteArray = toByteArray(key);
+        if (byteArray == null) {
+            return null;
+        }
+        byte[] bytes = byteArray.getBytes();
+        if (bytes.length != keySize) {
+            return overflow.get(byteArray);
+        }
+
+        int hash = byteArray.hashCode();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            // Indices are always masked by the table we read from, so a concurrent write can give us a wrong result
+            // but no exception. The result is discarded if the stamp is not valid anymore.
+            Table table = this.table;
+            int index = indexOf(table, bytes, hash);
+            Object value = index >= 0 ? table.valueAt(index) : null;
+            if (lock.validate(stamp)) {
+                return resolve(value);
+            }
+        }
+
+        Object value;
+        stamp = lock.readLock();
+        try {
+            Table table = this.table;
+            int index = indexOf(table, bytes, hash);
+            value = index >= 0 ? table.valueAt(index) : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        // A lazy value is loaded outside the lock
+        return resolve(value);
+    }
+
+    @Override
+    public V put(ByteArray key, V value) {
+        return put(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(ByteArray key, V value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Adds a value which gets loaded by the given loader at the first access. The loader is called at most once and
+     * must not access this map. Keys with another size than the keySize are loaded immediately.
+     */
+    public void putLazy(ByteArray key, Supplier<? extends V> loader) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(loader);
+        if (key.getBytes().length != keySize) {
+            V value = loader.get();
+            if (value != null) {
+                put(key, value);
+            }
+            return;
+        }
+        put(key, new LazyValue<>(loader), false);
+    }
+
+    /**
+     * Loads all lazy values and removes the entries for which the loader returned null.
+     *
+     * @return The number of removed entries.
+     */
+    public int loadAll() {
+        Table table = snapshot().table;
+        int numRemoved = 0;
+        for (int pageIndex = 0; pageIndex < table.numPages(); pageIndex++) {
+            Page page = table.pageAt(pageIndex);
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                Object value = page.values[slot];
+                if (value instanceof LazyValue && ((LazyValue<?>) value).get() == null) {
+                    int from = slot * keySize;
+                    if (remove(new ByteArray(Arrays.copyOfRange(page.keys, from, from + keySize)), value)) {
+                        numRemoved++;
+                    }
+                }
+            }
+        }
+        return numRemoved;
+    }
+
+    /**
+     * Passes all entries to the given consumers without loading the lazy values. Entries with a value which is not
+     * loaded yet are passed with their loader to the loaderConsumer, all others with their value to the valueConsumer.
+     * Entries of values which could not be loaded are skipped.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachEntry(BiConsumer<ByteArray, ? super V> valueConsumer,
+                             BiConsumer<ByteArray, Supplier<? extends V>> loaderConsumer) {
+        Snapshot snapshot = snapshot();
+        Table table = snapshot.table;
+        for (int pageIndex = 0; pageIndex < table.numPages(); pageIndex++) {
+            Page page = table.pageAt(pageIndex);
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                Object value = page.values[slot];
+                if (value == null) {
+                    continue;
+                }
+                int from = slot * keySize;
+                ByteArray key = new ByteArray(Arrays.copyOfRange(page.keys, from, from + keySize));
+                if (value instanceof LazyValue) {
+                    LazyValue<V> lazyValue = (LazyValue<V>) value;
+                    Supplier<? extends V> loader = lazyValue.loader;
+                    if (loader != null) {
+                        loaderConsumer.accept(key, loader);
+                        continue;
+                    }
+                    value = lazyValue.value;
+                    if (value == null) {
+                        continue;
+                    }
+                }
+                valueConsumer.accept(key, (V) value);
+            }
+        }
+        snapshot.overflow.forEach((key, value) -> valueConsumer.accept(key, (V) value));
+    }
+
+    /**
+     * Passes the entries which got added or replaced since the given previous map to the putConsumer and the keys
+     * which got removed to the removeConsumer. Values are compared by reference. If this map is a copy of the previous
+     * one or of a later state of it (see {@link #putAll}), they share the pages which were not written to since, and
+     * only the other pages are compared. Otherwise, all entries are compared.
+     */
+    public void forEachChange(FixedSizeByteArrayMap<? extends V> previous,
+                              BiConsumer<ByteArray, ? super V> putConsumer,
+                              Consumer<ByteArray> removeConsumer) {
+        Snapshot current = snapshot();
+        Snapshot previousSnapshot = previous.snapshot();
+        Table table = current.table;
+        Table previousTable = previousSnapshot.table;
+        Map<ByteArray, Object> currentEntries = new HashMap<>(current.overflow);
+        Map<ByteArray, Object> previousEntries = new HashMap<>(previousSnapshot.overflow);
+        if (previous.keySize == keySize && previousTable.capacity() == table.capacity()) {
+            // An entry can move between pages at a delete, but then both pages got written to
+            for (int chunkIndex = 0; chunkIndex < table.chunks.length; chunkIndex++) {
+                Chunk chunk = table.chunks[chunkIndex];
+                Chunk previousChunk = previousTable.chunks[chunkIndex];
+                if (chunk == previousChunk) {
+                    continue;
+                }
+                for (int i = 0; i < chunk.pages.length; i++) {
+                    if (chunk.pages[i] != previousChunk.pages[i]) {
+                        addEntries(chunk.pages[i], keySize, currentEntries);
+                        addEntries(previousChunk.pages[i], keySize, previousEntries);
+                    }
+                }
+            }
+        } else {
+            for (int pageIndex = 0; pageIndex < table.numPages(); pageIndex++) {
+                addEntries(table.pageAt(pageIndex), keySize, currentEntries);
+            }
+            for (int pageIndex = 0; pageIndex < previousTable.numPages(); pageIndex++) {
+                addEntries(previousTable.pageAt(pageIndex), previous.keySize, previousEntries);
+            }
+        }
+
+        currentEntries.forEach((key, value) -> {
+            if (previousEntries.get(key) != value) {
+                V resolved = resolve(value);
+                if (resolved != null) {
+                    putConsumer.accept(key, resolved);
+                }
+            }
+        });
+        previousEntries.keySet().stream()
+                .filter(key -> !currentEntries.containsKey(key))
+                .forEach(removeConsumer);
+    }
+
+    @Override
+    public V computeIfAbsent(ByteArray key, Function<? super ByteArray, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        V newValue = mappingFunction.apply(key);
+        if (newValue == null) {
+            return null;
+        }
+        V previous = putIfAbsent(key, newValue);
+        return previous != null ? previous : newValue;
+    }
+
+    @Override
+    public V remove(Object key) {
+        ByteArray byteArray = toByteArray(key);
+        if (byteArray == null) {
+            return null;
+        }
+        Object previous;
+        long stamp = lock.writeLock();
+        try {
+            byte[] bytes = byteArray.getBytes();
+            if (bytes.length != keySize) {
+                return overflow.remove(byteArray);
+            }
+            int index = indexOf(table, bytes, byteArray.hashCode());
+            if (index < 0) {
+                return null;
+            }
+            previous = table.valueAt(index);
+            deleteSlot(index);
+            size--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return resolve(previous);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        ByteArray byteArray = toByteArray(key);
+        if (byteArray == null || value == null) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            byte[] bytes = byteArray.getBytes();
+            if (bytes.length != keySize) {
+                return overflow.remove(byteArray, value);
+            }
+            int index = indexOf(table, bytes, byteArray.hashCode());
+            if (index < 0) {
+                return false;
+            }
+            // Comparing the stored object allows loadAll to remove a LazyValue
+            Object stored = table.valueAt(index);
+            if (stored != value && !value.equals(resolve(stored))) {
+                return false;
+            }
+            deleteSlot(index);
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<? extends ByteArray, ? extends V> map) {
+        if (map instanceof FixedSizeByteArrayMap && map != this) {
+            FixedSizeByteArrayMap<? extends V> other = (FixedSizeByteArrayMap<? extends V>) map;
+            if (other.keySize == keySize) {
+                Snapshot snapshot = other.snapshot();
+                long stamp = lock.writeLock();
+                try {
+                    if (size == 0 && overflow.isEmpty()) {
+                        // We share the pages with the other map (used for cloning stores)
+                        table = snapshot.table;
+                        size = snapshot.size;
+                        snapshot.overflow.forEach((key, value) -> overflow.put(key, (V) value));
+                        return;
+                    }
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            }
+        }
+        map.forEach(this::put);
+    }
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(owner, MIN_CAPACITY, keySize);
+            size = 0;
+            overflow.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Set<Entry<ByteArray, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<ByteArray, V>> iterator() {
+                return new SnapshotIterator<>() {
+                    @Override
+                    protected Entry<ByteArray, V> toElement(ByteArray key, V value) {
+                        return new WriteThroughEntry(key, value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return FixedSizeByteArrayMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                FixedSizeByteArrayMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SnapshotIterator<>() {
+                    @Override
+                    protected V toElement(ByteArray key, V value) {
+                        return value;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return FixedSizeByteArrayMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                FixedSizeByteArrayMap.this.clear();
+            }
+        };
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @SuppressWarnings("unchecked")
+    private static <V> V resolve(Object value) {
+        return value instanceof LazyValue ? ((LazyValue<V>) value).get() : (V) value;
+    }
+
+    private static void addEntries(Page page, int keySize, Map<ByteArray, Object> entries) {
+        for (int slot = 0; slot < PAGE_SIZE; slot++) {
+            Object value = page.values[slot];
+            if (value != null) {
+                int from = slot * keySize;
+                entries.put(new ByteArray(Arrays.copyOfRange(page.keys, from, from + keySize)), value);
+            }
+        }
+    }
+
+    private static ByteArray toByteArray(Object key) {
+        Objects.requireNonNull(key);
+        return key instanceof ByteArray ? (ByteArray) key : null;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * MAX_LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // The ByteArray keys are usually hashes already, but we cannot rely on the low bits of Arrays.hashCode alone
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private int indexOf(Table table, byte[] bytes, int hash) {
+        int mask = table.mask;
+        int index = spread(hash) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            Page page = table.pageOf(index);
+            int slot = index & PAGE_MASK;
+            if (page.values[slot] == null) {
+                return -1;
+            }
+            if (page.hashes[slot] == hash) {
+                int from = slot * keySize;
+                if (Arrays.equals(page.keys, from, from + keySize, bytes, 0, keySize)) {
+                    return index;
+                }
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V put(ByteArray key, Object value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        long stamp = lock.writeLock();
+        try {
+            byte[] bytes = key.getBytes();
+            if (bytes.length != keySize) {
+                return onlyIfAbsent ? overflow.putIfAbsent(key, (V) value) : overflow.put(key, (V) value);
+            }
+
+            int hash = key.hashCode();
+            int index = indexOf(table, bytes, hash);
+            if (index >= 0) {
+                // A lazy value which could not be loaded counts as absent
+                V previous = resolve(table.valueAt(index));
+                if (!onlyIfAbsent || previous == null) {
+                    getWritablePage(index).values[index & PAGE_MASK] = value;
+                }
+                return previous;
+            }
+
+            if (size + 1 > table.threshold) {
+                resize();
+            }
+            insert(bytes, hash, value);
+            size++;
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private Page getWritablePage(int index) {
+        Table table = this.table;
+        if (table.owner != owner) {
+            table = new Table(owner, table);
+            this.table = table;
+        }
+        int pageIndex = index >>> PAGE_SHIFT;
+        int chunkIndex = pageIndex >>> CHUNK_SHIFT;
+        Chunk chunk = table.chunks[chunkIndex];
+        if (chunk.owner != owner) {
+            chunk = new Chunk(owner, chunk);
+            table.chunks[chunkIndex] = chunk;
+        }
+        Page page = chunk.pages[pageIndex & CHUNK_MASK];
+        if (page.owner != owner) {
+            page = new Page(owner, page);
+            chunk.pages[pageIndex & CHUNK_MASK] = page;
+        }
+        return page;
+    }
+
+    private void insert(byte[] bytes, int hash, Object value) {
+        Table table = this.table;
+        int mask = table.mask;
+        int index = spread(hash) & mask;
+        while (table.valueAt(index) != null) {
+            index = (index + 1) & mask;
+        }
+        setSlot(getWritablePage(index), index & PAGE_MASK, hash, bytes, 0, value);
+    }
+
+    private void setSlot(Page page, int slot, int hash, byte[] keys, int keyOffset, Object value) {
+        page.hashes[slot] = hash;
+        System.arraycopy(keys, keyOffset, page.keys, slot * keySize, keySize);
+        page.values[slot] = value;
+    }
+
+    private void resize() {
+        Table table = this.table;
+        Table resized = new Table(owner, table.capacity() << 1, keySize);
+        for (int pageIndex = 0; pageIndex < table.numPages(); pageIndex++) {
+            Page page = table.pageAt(pageIndex);
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                Object value = page.values[slot];
+                if (value != null) {
+                    int mask = resized.mask;
+                    int target = spread(page.hashes[slot]) & mask;
+                    while (resized.valueAt(target) != null) {
+                        target = (target + 1) & mask;
+                    }
+                    setSlot(resized.pageOf(target), target & PAGE_MASK,
+                            page.hashes[slot], page.keys, slot * keySize, value);
+                }
+            }
+        }
+        this.table = resized;
+    }
+
+    // Backward shift deletion: Moves following entries of the probe sequence into the gap, so that we do not need
+    // tombstones which would slow down lookups over time.
+    private void deleteSlot(int index) {
+        int mask = table.mask;
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (table.valueAt(next) != null) {
+            int hash = table.hashAt(next);
+            int home = spread(hash) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                Page source = table.pageOf(next);
+                int sourceSlot = next & PAGE_MASK;
+                setSlot(getWritablePage(gap), gap & PAGE_MASK, hash, source.keys, sourceSlot * keySize, source.values[sourceSlot]);
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        getWritablePage(gap).values[gap & PAGE_MASK] = null;
+    }
+
+    private Snapshot snapshot() {
+        long stamp = lock.writeLock();
+        try {
+            // From now on the current pages are shared, and we copy them before we write to them
+            owner = new Object();
+            return new Snapshot(table, size, Map.copyOf(overflow));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Table table;
+        private final int size;
+        private final Map<ByteArray, ?> overflow;
+
+        private Snapshot(Table table, int size, Map<ByteArray, ?> overflow) {
+            this.table = table;
+            this.size = size;
+            this.overflow = overflow;
+        }
+    }
+
+    private final class WriteThroughEntry extends SimpleEntry<ByteArray, V> {
+        private WriteThroughEntry(ByteArray key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            Objects.requireNonNull(value);
+            FixedSizeByteArrayMap.this.put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+
+    private abstract class SnapshotIterator<E> implements Iterator<E> {
+        private final Snapshot snapshot = snapshot();
+        private final Iterator<? extends Entry<ByteArray, ?>> overflowIterator = snapshot.overflow.entrySet().iterator();
+        private int index = -1;
+        private ByteArray nextKey;
+        private V nextValue;
+        private ByteArray lastKey;
+
+        protected abstract E toElement(ByteArray key, V value);
+
+        @Override
+        public boolean hasNext() {
+            if (nextKey != null) {
+                return true;
+            }
+            advance();
+            return nextKey != null;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastKey = nextKey;
+            E element = toElement(nextKey, nextValue);
+            nextKey = null;
+            nextValue = null;
+            return element;
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            FixedSizeByteArrayMap.this.remove(lastKey);
+            lastKey = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            Table table = snapshot.table;
+            while (++index < table.capacity()) {
+                Page page = table.pageOf(index);
+                int slot = index & PAGE_MASK;
+                V value = resolve(page.values[slot]);
+                if (value != null) {
+                    int from = slot * keySize;
+                    nextKey = new ByteArray(Arrays.copyOfRange(page.keys, from, from + keySize));
+                    nextValue = value;
+                    return;
+                }
+            }
+            if (overflowIterator.hasNext()) {
+                Entry<ByteArray, ?> entry = overflowIterator.next();
+                nextKey = entry.getKey();
+                nextValue = (V) entry.getValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Supplier;
+
+/**
+ * Gauge which reads its value from the given supplier at the time the metrics get scraped.
+ */
+@Slf4j
+final class Gauge implements Metric {
+    private final Supplier<? extends Number> supplier;
+
+    Gauge(Supplier<? extends Number> supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public void writeTo(StringBuilder sb, String name, String labels) {
+        Number value;
+        try {
+            value = supplier.get();
+        } catch (Exception e) {
+            log.warn("Reading value for gauge {} failed", name, e);
+            return;
+        }
+        if (value == null) {
+            return;
+        }
+        sb.append(name);
+        if (!labels.isEmpty()) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ').append(value).append('\n');
+    }
+}
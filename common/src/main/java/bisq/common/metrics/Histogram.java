@@ -0,0 +1,91 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram with fixed bucket upper bounds. Observations are lock-free, the cumulative bucket counts required by the
+ * prometheus format are only calculated when the metrics get scraped.
+ */
+public final class Histogram implements Metric {
+    private final double[] upperBounds;
+    private final LongAdder[] bucketCounts;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(double[] upperBounds) {
+        this.upperBounds = Arrays.copyOf(upperBounds, upperBounds.length);
+        Arrays.sort(this.upperBounds);
+        bucketCounts = new LongAdder[this.upperBounds.length];
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double value) {
+        for (int i = 0; i < upperBounds.length; i++) {
+            if (value <= upperBounds[i]) {
+                bucketCounts[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        sum.add(value);
+    }
+
+    /**
+     * Observes the milliseconds passed since the given start timestamp which was taken by {@link System#nanoTime()}.
+     */
+    public void observeMillisSince(long startNanos) {
+        observe(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos) / 1000d);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getSum() {
+        return sum.sum();
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : getSum() / count;
+    }
+
+    @Override
+    public void writeTo(StringBuilder sb, String name, String labels) {
+        String separator = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < upperBounds.length; i++) {
+            cumulative += bucketCounts[i].sum();
+            sb.append(name).append("_bucket{").append(separator)
+                    .append("le=\"").append(upperBounds[i]).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        long count = getCount();
+        sb.append(name).append("_bucket{").append(separator).append("le=\"+Inf\"} ").append(count).append('\n');
+        String suffix = labels.isEmpty() ? " " : "{" + labels + "} ";
+        sb.append(name).append("_sum").append(suffix).append(getSum()).append('\n');
+        sb.append(name).append("_count").append(suffix).append(count).append('\n');
+    }
+}
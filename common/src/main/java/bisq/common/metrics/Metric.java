@@ -0,0 +1,29 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+/**
+ * A single time series (a metric with a fixed set of label values) inside a {@link MetricFamily}.
+ */
+interface Metric {
+    /**
+     * @param labels Comma separated label pairs in prometheus notation (e.g. <code>type="Ping"</code>), or an empty
+     *               string if the metric has no labels.
+     */
+    void writeTo(StringBuilder sb, String name, String labels);
+}
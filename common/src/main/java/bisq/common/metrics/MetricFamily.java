@@ -0,0 +1,64 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * All time series sharing the same metric name, help text and type. The children are keyed by their formatted labels.
+ */
+@Getter
+final class MetricFamily {
+    private final String name;
+    private final String help;
+    private final MetricType type;
+    // Sorted map for a stable output order
+    private final Map<String, Metric> metricByLabels = new ConcurrentSkipListMap<>();
+
+    MetricFamily(String name, String help, MetricType type) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+    }
+
+    <T extends Metric> T getOrCreate(String labels, Function<String, T> factory) {
+        //noinspection unchecked
+        return (T) metricByLabels.computeIfAbsent(labels, factory);
+    }
+
+    void put(String labels, Metric metric) {
+        metricByLabels.put(labels, metric);
+    }
+
+    void remove(String labels) {
+        metricByLabels.remove(labels);
+    }
+
+    void writeTo(StringBuilder sb) {
+        if (metricByLabels.isEmpty()) {
+            return;
+        }
+        sb.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type.getPrometheusName()).append('\n');
+        metricByLabels.forEach((labels, metric) -> metric.writeTo(sb, name, labels));
+    }
+}
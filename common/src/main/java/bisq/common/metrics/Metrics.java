@@ -0,0 +1,109 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Process wide registry for operational metrics. Metrics are identified by their name and an optional list of label
+ * name/value pairs (e.g. <code>Metrics.counter("bisq_messages_received_total", "...", "type", "Ping")</code>).
+ * Rendering into the prometheus text format happens only when {@link #toPrometheusText()} is called, recording values is
+ * cheap and lock-free.
+ */
+public final class Metrics {
+    public static final double[] LATENCY_BUCKETS_MS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+    public static final double[] SIZE_BUCKETS_BYTES = {256, 1024, 4096, 16384, 65536, 262144, 1048576, 4194304, 16777216};
+
+    private static final Map<String, MetricFamily> familyByName = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name, String help, String... labelNamesAndValues) {
+        return getOrCreateFamily(name, help, MetricType.COUNTER)
+                .getOrCreate(toLabels(labelNamesAndValues), labels -> new Counter());
+    }
+
+    public static Histogram histogram(String name, String help, double[] buckets, String... labelNamesAndValues) {
+        return getOrCreateFamily(name, help, MetricType.HISTOGRAM)
+                .getOrCreate(toLabels(labelNamesAndValues), labels -> new Histogram(buckets));
+    }
+
+    public static Histogram latencyHistogram(String name, String help, String... labelNamesAndValues) {
+        return histogram(name, help, LATENCY_BUCKETS_MS, labelNamesAndValues);
+    }
+
+    public static Histogram sizeHistogram(String name, String help, String... labelNamesAndValues) {
+        return histogram(name, help, SIZE_BUCKETS_BYTES, labelNamesAndValues);
+    }
+
+    /**
+     * Registers a gauge. If a gauge with the same name and labels exists already, it gets replaced.
+     */
+    public static void gauge(String name, String help, Supplier<? extends Number> supplier, String... labelNamesAndValues) {
+        getOrCreateFamily(name, help, MetricType.GAUGE)
+                .put(toLabels(labelNamesAndValues), new Gauge(supplier));
+    }
+
+    public static void removeGauge(String name, String... labelNamesAndValues) {
+        MetricFamily family = familyByName.get(name);
+        if (family != null) {
+            family.remove(toLabels(labelNamesAndValues));
+        }
+    }
+
+    public static String toPrometheusText() {
+        StringBuilder sb = new StringBuilder();
+        familyByName.values().forEach(family -> family.writeTo(sb));
+        return sb.toString();
+    }
+
+    private static MetricFamily getOrCreateFamily(String name, String help, MetricType type) {
+        MetricFamily family = familyByName.computeIfAbsent(name, key -> new MetricFamily(name, help, type));
+        checkArgument(family.getType() == type,
+                "Metric %s is already registered as %s", name, family.getType());
+        return family;
+    }
+
+    private static String toLabels(String... labelNamesAndValues) {
+        if (labelNamesAndValues.length == 0) {
+            return "";
+        }
+        checkArgument(labelNamesAndValues.length % 2 == 0, "Labels must be provided as name/value pairs");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labelNamesAndValues.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labelNamesAndValues[i]).append("=\"")
+                    .append(escapeLabelValue(labelNamesAndValues[i + 1]))
+                    .append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n");
+    }
+}
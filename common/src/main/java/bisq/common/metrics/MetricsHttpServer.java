@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import bisq.common.threading.ExecutorFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Exposes the {@link Metrics} registry in the prometheus text format at <code>http://host:port/metrics</code>.
+ * Intended for headless nodes (seed node, oracle node). It binds to localhost by default, a reverse proxy or ssh tunnel
+ * should be used for remote scraping.
+ */
+@Slf4j
+public class MetricsHttpServer {
+    @Getter
+    @ToString
+    public static final class Config {
+        private final boolean enabled;
+        private final String host;
+        private final int port;
+
+        public static Config from(com.typesafe.config.Config config) {
+            return new Config(config.getBoolean("enabled"),
+                    config.getString("host"),
+                    config.getInt("port"));
+        }
+
+        public Config(boolean enabled, String host, int port) {
+            this.enabled = enabled;
+            this.host = host;
+            this.port = port;
+        }
+    }
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final Config config;
+    private Optional<HttpServer> httpServer = Optional.empty();
+    private Optional<ExecutorService> executor = Optional.empty();
+
+    public MetricsHttpServer(Config config) {
+        this.config = config;
+    }
+
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(config.getHost(), config.getPort()), 0);
+            server.createContext("/metrics", this::handleRequest);
+            ExecutorService executorService = ExecutorFactory.newSingleThreadExecutor("MetricsHttpServer");
+            server.setExecutor(executorService);
+            server.start();
+            httpServer = Optional.of(server);
+            executor = Optional.of(executorService);
+            log.info("Metrics are available at http://{}:{}/metrics", config.getHost(), config.getPort());
+        } catch (IOException e) {
+            log.error("Could not start metrics http server. config={}", config, e);
+        }
+    }
+
+    public void shutdown() {
+        httpServer.ifPresent(server -> server.stop(0));
+        httpServer = Optional.empty();
+        executor.ifPresent(ExecutorFactory::shutdownAndAwaitTermination);
+        executor = Optional.empty();
+    }
+
+    private void handleRequest(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] response = Metrics.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
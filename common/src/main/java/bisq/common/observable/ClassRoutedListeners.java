@@ -0,0 +1,177 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.observable;
+
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Listeners which get notified only about data of the classes they have subscribed for. The listeners for a data
+ * class are resolved at the first event of that class and cached until the listeners change, thus notifying does not
+ * iterate over listeners which are not interested in the data.
+ * <p>
+ * The time a listener takes to handle an event is reported in a latency histogram labeled with the listener class.
+ */
+@Slf4j
+public final class ClassRoutedListeners<L> {
+    private static final class Subscription<L> {
+        private final L listener;
+        // Empty if the listener gets notified about all data
+        private final Set<Class<?>> dataClasses;
+        private final Histogram handlingTime;
+
+        private Subscription(L listener, Set<Class<?>> dataClasses, Histogram handlingTime) {
+            this.listener = listener;
+            this.dataClasses = dataClasses;
+            this.handlingTime = handlingTime;
+        }
+
+        private boolean matches(Class<?> dataClass) {
+            return dataClasses.isEmpty() || dataClasses.stream().anyMatch(c -> c.isAssignableFrom(dataClass));
+        }
+    }
+
+    // Immutable list of subscriptions with the cache of the subscriptions by data class resolved from it
+    private static final class State<L> {
+        private final List<Subscription<L>> subscriptions;
+        private final Map<Class<?>, List<Subscription<L>>> subscriptionsByDataClass = new ConcurrentHashMap<>();
+
+        private State(List<Subscription<L>> subscriptions) {
+            this.subscriptions = subscriptions;
+        }
+
+        private List<Subscription<L>> resolve(Class<?> dataClass) {
+            List<Subscription<L>> result = new ArrayList<>();
+            for (Subscription<L> subscription : subscriptions) {
+                if (subscription.matches(dataClass)) {
+                    result.add(subscription);
+                }
+            }
+            return List.copyOf(result);
+        }
+    }
+
+    private final String metricName;
+    private final String metricHelp;
+    private volatile State<L> state = new State<>(List.of());
+
+    /**
+     * @param metricName Name of the histogram for the time listeners take to handle an event.
+     */
+    public ClassRoutedListeners(String metricName, String metricHelp) {
+        this.metricName = metricName;
+        this.metricHelp = metricHelp;
+    }
+
+    /**
+     * Adds a listener which gets notified about all data. If the listener was added for specific data classes before,
+     * it gets notified about all data from now on.
+     */
+    public synchronized void add(L listener) {
+        update(listener, Set.of());
+    }
+
+    /**
+     * Adds a listener which gets notified about data of the given class and its subclasses. Can be called repeatedly to
+     * subscribe for several classes.
+     */
+    public synchronized void add(L listener, Class<?> dataClass) {
+        Set<Class<?>> dataClasses = new HashSet<>();
+        int index = indexOf(state.subscriptions, listener);
+        if (index >= 0) {
+            Set<Class<?>> subscribed = state.subscriptions.get(index).dataClasses;
+            if (subscribed.isEmpty()) {
+                // Already notified about all data
+                return;
+            }
+            dataClasses.addAll(subscribed);
+        }
+        dataClasses.add(dataClass);
+        update(listener, Set.copyOf(dataClasses));
+    }
+
+    public synchronized void remove(L listener) {
+        List<Subscription<L>> subscriptions = new ArrayList<>(state.subscriptions);
+        if (subscriptions.removeIf(subscription -> subscription.listener == listener)) {
+            state = new State<>(List.copyOf(subscriptions));
+        }
+    }
+
+    public synchronized void clear() {
+        state = new State<>(List.of());
+    }
+
+    /**
+     * Calls the handler for each listener subscribed for the given data class. Exceptions thrown by the handler are
+     * logged and do not affect the other listeners.
+     *
+     * @param eventName Used for logging failures.
+     */
+    public void notify(Class<?> dataClass, String eventName, Consumer<L> handler) {
+        State<L> state = this.state;
+        List<Subscription<L>> subscriptions = state.subscriptionsByDataClass.computeIfAbsent(dataClass, state::resolve);
+        for (Subscription<L> subscription : subscriptions) {
+            long ts = System.nanoTime();
+            try {
+                handler.accept(subscription.listener);
+            } catch (Exception e) {
+                log.error("Calling {} at listener {} failed", eventName, subscription.listener, e);
+            } finally {
+                subscription.handlingTime.observeMillisSince(ts);
+            }
+        }
+    }
+
+    private void update(L listener, Set<Class<?>> dataClasses) {
+        Histogram handlingTime = Metrics.latencyHistogram(metricName, metricHelp, "listener", getName(listener));
+        Subscription<L> subscription = new Subscription<>(listener, dataClasses, handlingTime);
+        List<Subscription<L>> subscriptions = new ArrayList<>(state.subscriptions);
+        int index = indexOf(subscriptions, listener);
+        if (index >= 0) {
+            // We keep the position, so the order of notifications does not change
+            subscriptions.set(index, subscription);
+        } else {
+            subscriptions.add(subscription);
+        }
+        state = new State<>(List.copyOf(subscriptions));
+    }
+
+    private static <L> int indexOf(List<Subscription<L>> subscriptions, L listener) {
+        for (int i = 0; i < subscriptions.size(); i++) {
+            if (subscriptions.get(i).listener == listener) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String getName(Object listener) {
+        // Anonymous and inner classes have no or an ambiguous simple name
+        String name = listener.getClass().getName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
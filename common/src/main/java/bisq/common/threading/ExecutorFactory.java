@@ -49,6 +49,14 @@ public class ExecutorFactory {
         return Executors.newSingleThreadExecutor(threadFactory);
     }
 
+    /**
+     * Single thread executor backed by an unbounded queue. In contrast to {@link #newSingleThreadExecutor(String)} the
+     * ThreadPoolExecutor is not wrapped, so that the queue size can be monitored.
+     */
+    public static ThreadPoolExecutor newSingleThreadPoolExecutor(String name) {
+        return getThreadPoolExecutor(name, 1, 1, 0, new LinkedBlockingQueue<>());
+    }
+
     public static ScheduledExecutorService newSingleThreadScheduledExecutor(String name) {
         ThreadFactory threadFactory = new ThreadFactoryBuilder()
                 .setNameFormat(getNameWithThreadNum(name))
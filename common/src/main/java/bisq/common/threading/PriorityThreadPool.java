@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.threading;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fixed size thread pool which executes the queued tasks by their priority. A lower value means a higher priority.
+ * Tasks with the same priority are executed in the order they got submitted.
+ */
+@Slf4j
+public class PriorityThreadPool {
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequenceNumber = new AtomicLong();
+
+    public PriorityThreadPool(String name, int numThreads) {
+        executor = ExecutorFactory.getThreadPoolExecutor(name, numThreads, numThreads, 0, new PriorityBlockingQueue<>());
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, int priority) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        PrioritizedTask task = new PrioritizedTask(priority, sequenceNumber.getAndIncrement(), () -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        try {
+            // We must not use submit as the FutureTask wrapper would not be comparable
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public void shutdown() {
+        ExecutorFactory.shutdownAndAwaitTermination(executor);
+    }
+
+    private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+        private final int priority;
+        private final long sequenceNumber;
+        private final Runnable runnable;
+
+        private PrioritizedTask(int priority, long sequenceNumber, Runnable runnable) {
+            this.priority = priority;
+            this.sequenceNumber = sequenceNumber;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int result = Integer.compare(priority, other.priority);
+            return result != 0 ? result : Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.common.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartupTimelineTest {
+    @Test
+    void testReportIsOrderedByStart() {
+        long now = System.nanoTime();
+        // Recorded in another order than they started
+        StartupTimeline.record("init", "StartupTimelineTest.second", now - TimeUnit.MILLISECONDS.toNanos(100));
+        StartupTimeline.record("read", "StartupTimelineTest.first", now - TimeUnit.MILLISECONDS.toNanos(300));
+
+        String report = StartupTimeline.getReport();
+        assertTrue(report.startsWith("Startup timeline"));
+        int first = report.indexOf("StartupTimelineTest.first");
+        int second = report.indexOf("StartupTimelineTest.second");
+        assertTrue(first >= 0 && second > first);
+
+        String[] firstColumns = getColumns(report, "StartupTimelineTest.first");
+        String[] secondColumns = getColumns(report, "StartupTimelineTest.second");
+        assertEquals("read", firstColumns[2]);
+        assertEquals("init", secondColumns[2]);
+        // The second step started 200 ms after the first one. The durations are at least the time since the start.
+        long startOffset = Long.parseLong(secondColumns[0]) - Long.parseLong(firstColumns[0]);
+        assertTrue(startOffset >= 199 && startOffset <= 201, "startOffset=" + startOffset);
+        assertTrue(Long.parseLong(firstColumns[1]) >= 300);
+        assertTrue(Long.parseLong(secondColumns[1]) >= 100);
+    }
+
+    // Columns of a report line: start, duration, category and name
+    private static String[] getColumns(String report, String name) {
+        return Arrays.stream(report.split("\\R"))
+                .filter(line -> line.endsWith(name))
+                .findFirst()
+                .map(line -> line.trim().split("\\s+"))
+                .orElseThrow();
+    }
+}
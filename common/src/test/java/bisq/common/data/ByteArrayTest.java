@@ -0,0 +1,46 @@
+package bisq.common.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ByteArrayTest {
+    @Test
+    void testCompareToHasSameOrderAsBigInteger() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            byte[] a = randomBytes(random);
+            byte[] b = random.nextInt(10) == 0 ? a.clone() : randomBytes(random);
+            int expected = Integer.signum(new BigInteger(a).compareTo(new BigInteger(b)));
+            assertEquals(expected, Integer.signum(new ByteArray(a).compareTo(new ByteArray(b))));
+        }
+
+        // Sign extension of different lengths
+        assertEquals(0, new ByteArray(new byte[]{-1}).compareTo(new ByteArray(new byte[]{-1, -1})));
+        assertEquals(0, new ByteArray(new byte[]{1}).compareTo(new ByteArray(new byte[]{0, 0, 1})));
+        assertEquals(-1, new ByteArray(new byte[]{-128}).compareTo(new ByteArray(new byte[]{-1})));
+        assertEquals(1, new ByteArray(new byte[]{0, -128}).compareTo(new ByteArray(new byte[]{127})));
+        assertEquals(0, new ByteArray(new byte[0]).compareTo(new ByteArray(new byte[]{0})));
+    }
+
+    @Test
+    void testHashCode() {
+        byte[] bytes = {1, 2, 3};
+        ByteArray byteArray = new ByteArray(bytes);
+        assertEquals(Arrays.hashCode(bytes), byteArray.hashCode());
+        assertEquals(byteArray.hashCode(), byteArray.hashCode());
+        assertEquals(new ByteArray(bytes.clone()), byteArray);
+        assertNotEquals(new ByteArray(new byte[]{1, 2}), byteArray);
+    }
+
+    private static byte[] randomBytes(Random random) {
+        byte[] bytes = new byte[1 + random.nextInt(4)];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,294 @@
+package bisq.common.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FixedSizeByteArrayMapTest {
+    private static final int KEY_SIZE = 20;
+
+    @Test
+    void testAgainstHashMap() {
+        Random random = new Random(42);
+        List<ByteArray> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            keys.add(randomKey(random));
+        }
+        // Some keys with other sizes end up in the overflow map
+        keys.add(new ByteArray(new byte[]{1, 2, 3}));
+        keys.add(new ByteArray(new byte[32]));
+
+        Map<ByteArray, Integer> expected = new HashMap<>();
+        FixedSizeByteArrayMap<Integer> map = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        for (int i = 0; i < 200_000; i++) {
+            // Use a new instance to not depend on identity
+            ByteArray key = new ByteArray(keys.get(random.nextInt(keys.size())).getBytes().clone());
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else if (operation < 8) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.get(key), map.get(key));
+                assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map);
+        assertEquals(expected, new HashMap<>(map));
+    }
+
+    @Test
+    void testIteratorRemoveAndClone() {
+        Random random = new Random(1);
+        FixedSizeByteArrayMap<Integer> map = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        for (int i = 0; i < 1000; i++) {
+            map.put(randomKey(random), i);
+        }
+
+        FixedSizeByteArrayMap<Integer> clone = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        clone.putAll(map);
+        assertEquals(map, clone);
+
+        Iterator<Map.Entry<ByteArray, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(500, map.size());
+        assertTrue(map.values().stream().allMatch(value -> value % 2 == 1));
+        // The clone is not affected
+        assertEquals(1000, clone.size());
+
+        map.entrySet().removeIf(entry -> entry.getValue() < 500);
+        assertEquals(250, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void testCopiesShareDataUntilModified() {
+        Random random = new Random(4);
+        List<ByteArray> keys = new ArrayList<>();
+        // Enough keys for a table with several chunks of pages
+        for (int i = 0; i < 10_000; i++) {
+            keys.add(randomKey(random));
+        }
+        Map<ByteArray, Integer> expected = new HashMap<>();
+        FixedSizeByteArrayMap<Integer> map = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        List<FixedSizeByteArrayMap<Integer>> copies = new ArrayList<>();
+        List<Map<ByteArray, Integer>> expectedCopies = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            ByteArray key = keys.get(random.nextInt(keys.size()));
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+
+            if (i % 1000 == 0) {
+                FixedSizeByteArrayMap<Integer> copy = new FixedSizeByteArrayMap<>(KEY_SIZE);
+                copy.putAll(map);
+                copies.add(copy);
+                expectedCopies.add(new HashMap<>(expected));
+            }
+            // Writes to a copy must not affect the source map or other copies
+            if (i % 100 == 0 && !copies.isEmpty()) {
+                int copyIndex = random.nextInt(copies.size());
+                ByteArray copyKey = keys.get(random.nextInt(keys.size()));
+                if (random.nextBoolean()) {
+                    assertEquals(expectedCopies.get(copyIndex).put(copyKey, -i), copies.get(copyIndex).put(copyKey, -i));
+                } else {
+                    assertEquals(expectedCopies.get(copyIndex).remove(copyKey), copies.get(copyIndex).remove(copyKey));
+                }
+            }
+        }
+        for (int i = 0; i < copies.size(); i++) {
+            assertEquals(expectedCopies.get(i), copies.get(i));
+        }
+        assertEquals(expected, map);
+    }
+
+    @Test
+    void testModificationWhileIterating() {
+        Random random = new Random(2);
+        FixedSizeByteArrayMap<Integer> map = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        for (int i = 0; i < 100; i++) {
+            map.put(randomKey(random), i);
+        }
+        // Iterators work on a snapshot, so we do not get a ConcurrentModificationException
+        int count = 0;
+        for (ByteArray key : map.keySet()) {
+            map.remove(key);
+            map.put(randomKey(random), count);
+            count++;
+        }
+        assertEquals(100, count);
+        assertEquals(100, map.size());
+    }
+
+    @Test
+    void testLazyValues() {
+        Random random = new Random(3);
+        FixedSizeByteArrayMap<Integer> map = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        int[] numLoaded = new int[1];
+        List<ByteArray> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ByteArray key = randomKey(random);
+            keys.add(key);
+            int value = i;
+            // Every 10th value cannot be loaded
+            map.putLazy(key, () -> {
+                numLoaded[0]++;
+                return value % 10 == 0 ? null : value;
+            });
+        }
+        assertEquals(100, map.size());
+        assertEquals(0, numLoaded[0]);
+
+        assertEquals(5, map.get(keys.get(5)));
+        assertEquals(5, map.get(keys.get(5)));
+        assertEquals(1, numLoaded[0]);
+        assertNull(map.get(keys.get(10)));
+        assertFalse(map.containsKey(keys.get(10)));
+
+        // A clone shares the loaded values
+        FixedSizeByteArrayMap<Integer> clone = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        clone.putAll(map);
+        assertEquals(100, clone.size());
+        // The iterators skip the values which cannot be loaded
+        assertEquals(90, new ArrayList<>(clone.values()).size());
+        assertEquals(100, numLoaded[0]);
+
+        assertEquals(10, map.loadAll());
+        assertEquals(90, map.size());
+        assertEquals(100, numLoaded[0]);
+
+        // Values which could not be loaded count as absent
+        assertNull(clone.putIfAbsent(keys.get(20), 20));
+        assertEquals(20, clone.get(keys.get(20)));
+    }
+
+    @Test
+    void testForEachChange() {
+        Random random = new Random(5);
+        List<ByteArray> keys = new ArrayList<>();
+        FixedSizeByteArrayMap<String> map = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        for (int i = 0; i < 10_000; i++) {
+            ByteArray key = randomKey(random);
+            keys.add(key);
+            map.put(key, "value" + i);
+        }
+        // Keys with another size are kept in the overflow map
+        map.put(new ByteArray(new byte[]{1}), "overflow");
+
+        FixedSizeByteArrayMap<String> previous = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        previous.putAll(map);
+        for (int i = 0; i < 100; i++) {
+            ByteArray key = keys.get(random.nextInt(keys.size()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    map.put(key, "replaced" + i);
+                    break;
+                case 1:
+                    map.remove(key);
+                    break;
+                default:
+                    map.put(randomKey(random), "added" + i);
+            }
+        }
+        map.remove(new ByteArray(new byte[]{1}));
+        map.put(new ByteArray(new byte[]{2}), "overflow");
+        FixedSizeByteArrayMap<String> current = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        current.putAll(map);
+        assertChanges(previous, current);
+
+        // Copies which do not share their pages are compared entry by entry
+        FixedSizeByteArrayMap<String> notShared = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        map.forEach(notShared::put);
+        notShared.remove(keys.get(0));
+        assertChanges(previous, notShared);
+        assertChanges(new FixedSizeByteArrayMap<>(KEY_SIZE), current);
+    }
+
+    @Test
+    void testNullNotSupported() {
+        FixedSizeByteArrayMap<Integer> map = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        assertThrows(NullPointerException.class, () -> map.put(null, 1));
+        assertThrows(NullPointerException.class, () -> map.put(new ByteArray(new byte[KEY_SIZE]), null));
+        assertThrows(NullPointerException.class, () -> map.get(null));
+    }
+
+    @Test
+    void testConcurrentAccess() throws InterruptedException {
+        FixedSizeByteArrayMap<Integer> map = new FixedSizeByteArrayMap<>(KEY_SIZE);
+        int numThreads = 4;
+        int numEntriesPerThread = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            int seed = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    Random random = new Random(seed);
+                    List<ByteArray> keys = new ArrayList<>();
+                    for (int i = 0; i < numEntriesPerThread; i++) {
+                        ByteArray key = randomKey(random);
+                        keys.add(key);
+                        map.put(key, i);
+                    }
+                    for (int i = 0; i < numEntriesPerThread; i++) {
+                        assertEquals(i, map.get(keys.get(i)));
+                    }
+                    for (int i = 0; i < numEntriesPerThread; i += 2) {
+                        assertEquals(i, map.remove(keys.get(i)));
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.isEmpty(), errors.toString());
+        assertEquals(numThreads * numEntriesPerThread / 2, map.size());
+    }
+
+    // The changes reported by forEachChange have to match the changes by reference
+    private static void assertChanges(FixedSizeByteArrayMap<String> previous, FixedSizeByteArrayMap<String> current) {
+        Map<ByteArray, String> expectedPuts = new HashMap<>();
+        current.forEach((key, value) -> {
+            if (previous.get(key) != value) {
+                expectedPuts.put(key, value);
+            }
+        });
+        List<ByteArray> expectedRemoves = new ArrayList<>();
+        previous.keySet().stream().filter(key -> !current.containsKey(key)).forEach(expectedRemoves::add);
+
+        Map<ByteArray, String> puts = new HashMap<>();
+        List<ByteArray> removes = new ArrayList<>();
+        current.forEachChange(previous, puts::put, removes::add);
+        assertEquals(expectedPuts, puts);
+        assertEquals(expectedRemoves.size(), removes.size());
+        assertTrue(removes.containsAll(expectedRemoves));
+    }
+
+    private static ByteArray randomKey(Random random) {
+        byte[] bytes = new byte[KEY_SIZE];
+        random.nextBytes(bytes);
+        return new ByteArray(bytes);
+    }
+}
@@ -0,0 +1,55 @@
+package bisq.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsTest {
+    @Test
+    public void counter() {
+        Metrics.counter("test_counter_total", "Test counter", "type", "Ping").increment();
+        Metrics.counter("test_counter_total", "Test counter", "type", "Ping").add(2);
+        Metrics.counter("test_counter_total", "Test counter", "type", "Pong").increment();
+
+        assertEquals(3, Metrics.counter("test_counter_total", "Test counter", "type", "Ping").get());
+        String text = Metrics.toPrometheusText();
+        assertTrue(text.contains("# TYPE test_counter_total counter\n"));
+        assertTrue(text.contains("test_counter_total{type=\"Ping\"} 3\n"));
+        assertTrue(text.contains("test_counter_total{type=\"Pong\"} 1\n"));
+    }
+
+    @Test
+    public void histogram() {
+        Histogram histogram = Metrics.histogram("test_histogram", "Test histogram", new double[]{10, 1});
+        histogram.observe(0.5);
+        histogram.observe(5);
+        histogram.observe(50);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(55.5, histogram.getSum());
+        String text = Metrics.toPrometheusText();
+        assertTrue(text.contains("test_histogram_bucket{le=\"1.0\"} 1\n"));
+        assertTrue(text.contains("test_histogram_bucket{le=\"10.0\"} 2\n"));
+        assertTrue(text.contains("test_histogram_bucket{le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("test_histogram_count 3\n"));
+    }
+
+    @Test
+    public void gauge() {
+        Metrics.gauge("test_gauge", "Test gauge", () -> 42, "store", "a\"b");
+        assertTrue(Metrics.toPrometheusText().contains("test_gauge{store=\"a\\\"b\"} 42\n"));
+
+        Metrics.removeGauge("test_gauge", "store", "a\"b");
+        assertFalse(Metrics.toPrometheusText().contains("test_gauge"));
+    }
+
+    @Test
+    public void typeMismatch() {
+        Metrics.counter("test_type_mismatch", "Test");
+        assertThrows(IllegalArgumentException.class,
+                () -> Metrics.latencyHistogram("test_type_mismatch", "Test"));
+    }
+}
@@ -0,0 +1,76 @@
+package bisq.common.observable;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ClassRoutedListenersTest {
+    private static class Collector {
+        private final List<Object> received = new ArrayList<>();
+    }
+
+    @Test
+    void testRouting() {
+        ClassRoutedListeners<Collector> listeners = new ClassRoutedListeners<>("test_listener_ms", "Test");
+        Collector all = new Collector();
+        Collector numbers = new Collector();
+        Collector strings = new Collector();
+        listeners.add(all);
+        listeners.add(numbers, Number.class);
+        listeners.add(strings, String.class);
+
+        notify(listeners, 1);
+        notify(listeners, "a");
+        notify(listeners, 2L);
+        notify(listeners, new Object());
+
+        assertEquals(4, all.received.size());
+        assertEquals(List.of(1, 2L), numbers.received);
+        assertEquals(List.of("a"), strings.received);
+    }
+
+    @Test
+    void testCacheGetsUpdatedWhenListenersChange() {
+        ClassRoutedListeners<Collector> listeners = new ClassRoutedListeners<>("test_listener_ms", "Test");
+        Collector collector = new Collector();
+        listeners.add(collector, Integer.class);
+        notify(listeners, 1);
+        notify(listeners, "a");
+
+        // Subscribing for a second class keeps the first one
+        listeners.add(collector, String.class);
+        notify(listeners, 2);
+        notify(listeners, "b");
+
+        listeners.remove(collector);
+        notify(listeners, 3);
+        notify(listeners, "c");
+
+        assertEquals(List.of(1, 2, "b"), collector.received);
+    }
+
+    @Test
+    void testFailingListenerDoesNotAffectOthers() {
+        ClassRoutedListeners<Collector> listeners = new ClassRoutedListeners<>("test_listener_ms", "Test");
+        Collector failing = new Collector();
+        Collector collector = new Collector();
+        listeners.add(failing);
+        listeners.add(collector);
+
+        listeners.notify(Integer.class, "test", listener -> {
+            if (listener == failing) {
+                throw new RuntimeException("Test");
+            }
+            listener.received.add(1);
+        });
+
+        assertEquals(List.of(1), collector.received);
+    }
+
+    private static void notify(ClassRoutedListeners<Collector> listeners, Object data) {
+        listeners.notify(data.getClass(), "test", listener -> listener.received.add(data));
+    }
+}
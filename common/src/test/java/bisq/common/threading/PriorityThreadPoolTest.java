@@ -0,0 +1,60 @@
+package bisq.common.threading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriorityThreadPoolTest {
+    @Test
+    void testExecutionOrder() throws InterruptedException {
+        PriorityThreadPool pool = new PriorityThreadPool("PriorityThreadPoolTest", 1);
+        CountDownLatch blockingTaskStarted = new CountDownLatch(1);
+        CountDownLatch releaseBlockingTask = new CountDownLatch(1);
+        pool.supplyAsync(() -> {
+            blockingTaskStarted.countDown();
+            try {
+                releaseBlockingTask.await();
+            } catch (InterruptedException ignore) {
+            }
+            return null;
+        }, 0);
+        blockingTaskStarted.await();
+
+        List<String> result = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> low1 = pool.supplyAsync(() -> {
+            result.add("low1");
+            return null;
+        }, 1);
+        CompletableFuture<Void> low2 = pool.supplyAsync(() -> {
+            result.add("low2");
+            return null;
+        }, 1);
+        CompletableFuture<Void> high = pool.supplyAsync(() -> {
+            result.add("high");
+            return null;
+        }, 0);
+        assertEquals(3, pool.getQueueSize());
+
+        releaseBlockingTask.countDown();
+        CompletableFuture.allOf(low1, low2, high).join();
+        assertEquals(List.of("high", "low1", "low2"), result);
+        pool.shutdown();
+    }
+
+    @Test
+    void testExceptionalCompletion() {
+        PriorityThreadPool pool = new PriorityThreadPool("PriorityThreadPoolTest", 1);
+        CompletableFuture<Object> future = pool.supplyAsync(() -> {
+            throw new IllegalStateException("test");
+        }, 0);
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+        pool.shutdown();
+    }
+}
@@ -4,6 +4,14 @@ plugins {
     id("bisq.java-integration-tests")
 }
 
+sourceSets {
+    named("integrationTest") {
+        // The integration tests use the test data classes of the unit tests
+        compileClasspath += sourceSets.test.get().output
+        runtimeClasspath += sourceSets.test.get().output
+    }
+}
+
 dependencies {
     implementation("bisq:security")
     implementation("bisq:persistence")
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.common.data.FixedSizeByteArrayMap;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Benchmark of concurrent ingest into a data store map: each write validates the request (simulated by hashing), then
+ * checks and increments the sequence number of its entry under the lock, like the DataStorageService subclasses do.
+ * Compares a single lock for the whole store (a StripedLock with one stripe) with the default number of stripes, and
+ * verifies that no update got lost.
+ */
+@Slf4j
+public class StripedLockContentionIntegrationTest {
+    private static final int NUM_THREADS = 8;
+    private static final int NUM_WRITES_PER_THREAD = 20_000;
+    private static final int NUM_KEYS = 10_000;
+    private static final int VALIDATION_ROUNDS = 10;
+
+    @Test
+    void testContention() throws Exception {
+        List<ByteArray> keys = createKeys();
+        // Warm up the JIT
+        runIngest(new StripedLock(1), keys);
+        runIngest(new StripedLock(), keys);
+
+        long singleLockMs = runIngest(new StripedLock(1), keys);
+        long stripedLockMs = runIngest(new StripedLock(), keys);
+        int numWrites = NUM_THREADS * NUM_WRITES_PER_THREAD;
+        log.info("{} threads, {} writes. Single lock: {} ms ({} writes/s). Striped lock: {} ms ({} writes/s)",
+                NUM_THREADS, numWrites,
+                singleLockMs, numWrites * 1000L / Math.max(1, singleLockMs),
+                stripedLockMs, numWrites * 1000L / Math.max(1, stripedLockMs));
+    }
+
+    private long runIngest(StripedLock stripedLock, List<ByteArray> keys) throws Exception {
+        Map<ByteArray, Integer> map = new FixedSizeByteArrayMap<>(TombstoneTable.KEY_SIZE);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < NUM_THREADS; i++) {
+            long seed = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                    Random random = new Random(seed);
+                    start.await();
+                    for (int j = 0; j < NUM_WRITES_PER_THREAD; j++) {
+                        ByteArray key = keys.get(random.nextInt(keys.size()));
+                        try (StripedLock.Handle ignored = stripedLock.lock(key)) {
+                            validate(digest, key);
+                            Integer sequenceNumber = map.get(key);
+                            map.put(key, sequenceNumber == null ? 1 : sequenceNumber + 1);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }, "ingest-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+
+        long ts = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long durationMs = (System.nanoTime() - ts) / 1_000_000;
+
+        assertNull(failure.get());
+        // The check and update of the sequence number is atomic per key, so no increment is lost
+        assertEquals(NUM_THREADS * NUM_WRITES_PER_THREAD, map.values().stream().mapToInt(Integer::intValue).sum());
+        return durationMs;
+    }
+
+    // Stands in for the signature and data checks done while holding the lock of the entry
+    private static void validate(MessageDigest digest, ByteArray key) {
+        byte[] bytes = key.getBytes();
+        for (int i = 0; i < VALIDATION_ROUNDS; i++) {
+            bytes = digest.digest(bytes);
+        }
+    }
+
+    private static List<ByteArray> createKeys() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        List<ByteArray> keys = new ArrayList<>(NUM_KEYS);
+        for (int i = 0; i < NUM_KEYS; i++) {
+            byte[] hash = digest.digest(Integer.toString(i).getBytes());
+            byte[] key = new byte[TombstoneTable.KEY_SIZE];
+            System.arraycopy(hash, 0, key, 0, key.length);
+            keys.add(new ByteArray(key));
+        }
+        return keys;
+    }
+}
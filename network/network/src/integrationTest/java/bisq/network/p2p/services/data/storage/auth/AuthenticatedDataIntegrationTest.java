@@ -0,0 +1,67 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage.auth;
+
+import bisq.security.DigestUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+@Slf4j
+public class AuthenticatedDataIntegrationTest {
+    // Microbenchmark of the storage key computation at the add path. Each request of an inventory or a re-broadcast
+    // used to serialize and hash the data again.
+    @Test
+    void benchmarkStorageKeyComputation() {
+        int numRequests = 10_000;
+        int numRepetitions = 5;
+        Random random = new Random(1);
+        List<DefaultAuthenticatedData> list = new ArrayList<>();
+        for (int i = 0; i < numRequests; i++) {
+            byte[] payload = new byte[2000];
+            random.nextBytes(payload);
+            list.add(new DefaultAuthenticatedData(new TestDistributedData(payload)));
+        }
+
+        List<byte[]> uncachedHashes = new ArrayList<>();
+        long ts = System.nanoTime();
+        for (int i = 0; i < numRepetitions; i++) {
+            uncachedHashes.clear();
+            list.forEach(data -> uncachedHashes.add(DigestUtil.hash(data.toProto().toByteArray())));
+        }
+        long uncached = (System.nanoTime() - ts) / (numRequests * numRepetitions);
+
+        List<byte[]> cachedHashes = new ArrayList<>();
+        ts = System.nanoTime();
+        for (int i = 0; i < numRepetitions; i++) {
+            cachedHashes.clear();
+            list.forEach(data -> cachedHashes.add(data.getHash()));
+        }
+        long cached = (System.nanoTime() - ts) / (numRequests * numRepetitions);
+
+        log.info("Storage key computation per request: uncached {} ns; cached {} ns", uncached, cached);
+        for (int i = 0; i < numRequests; i++) {
+            assertArrayEquals(uncachedHashes.get(i), cachedHashes.get(i));
+        }
+    }
+}
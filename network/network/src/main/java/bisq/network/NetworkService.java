@@ -19,11 +19,14 @@ package bisq.network;
 
 
 import bisq.common.application.Service;
+import bisq.common.metrics.Metrics;
 import bisq.common.observable.Observable;
 import bisq.common.observable.map.ObservableHashMap;
 import bisq.common.threading.ExecutorFactory;
+import bisq.common.threading.PriorityThreadPool;
 import bisq.common.util.CompletableFutureUtils;
 import bisq.common.util.NetworkUtils;
+import bisq.common.util.OsUtils;
 import bisq.network.common.Address;
 import bisq.network.common.AddressByTransportTypeMap;
 import bisq.network.common.TransportType;
@@ -72,6 +75,7 @@ import java.security.PublicKey;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static bisq.network.common.TransportType.TOR;
 import static bisq.network.p2p.services.data.DataService.Listener;
@@ -86,7 +90,10 @@ import static java.util.concurrent.CompletableFuture.supplyAsync;
 @Slf4j
 public class NetworkService implements PersistenceClient<NetworkServiceStore>, Service {
     public static final ExecutorService NETWORK_IO_POOL = ExecutorFactory.newCachedThreadPool("NetworkService.network-IO-pool");
-    public static final ExecutorService DISPATCHER = ExecutorFactory.newSingleThreadExecutor("NetworkService.dispatcher");
+    public static final ThreadPoolExecutor DISPATCHER = ExecutorFactory.newSingleThreadPoolExecutor("NetworkService.dispatcher");
+    // Used for decryption of confidential messages. Live messages have priority over the mailbox backlog.
+    public static final PriorityThreadPool CRYPTO_POOL = new PriorityThreadPool("NetworkService.crypto-pool",
+            Math.max(2, OsUtils.availableProcessors() / 2));
 
     @Getter
     private final NetworkServiceStore persistableStore = new NetworkServiceStore();
@@ -129,7 +136,7 @@ public class NetworkService implements PersistenceClient<NetworkServiceStore>, S
         Set<ServiceNode.SupportedService> supportedServices = config.getServiceNodeConfig().getSupportedServices();
 
         dataService = supportedServices.contains(ServiceNode.SupportedService.DATA) ?
-                Optional.of(new DataService(persistenceService)) :
+                Optional.of(new DataService(persistenceService, config.getStorageServiceConfig())) :
                 Optional.empty();
 
         messageDeliveryStatusService = supportedServices.contains(ServiceNode.SupportedService.ACK) &&
@@ -170,6 +177,8 @@ public class NetworkService implements PersistenceClient<NetworkServiceStore>, S
         persistence = persistenceService.getOrCreatePersistence(this,
                 DbSubDirectory.CACHE,
                 persistableStore);
+
+        registerMetrics();
     }
 
     @Override
@@ -340,6 +349,28 @@ public class NetworkService implements PersistenceClient<NetworkServiceStore>, S
         dataService.orElseThrow().addListener(listener);
     }
 
+    /**
+     * @param dataClass The class of the DistributedData the listener gets notified about (see DataService.addListener).
+     */
+    public void addDataServiceListener(Listener listener, Class<?> dataClass) {
+        dataService.orElseThrow().addListener(listener, dataClass);
+    }
+
+    /**
+     * Adds the listener and replays the stored data of the given class to it (see DataService.addListenerAndReplay).
+     */
+    public void addDataServiceListenerAndReplay(Listener listener, Class<? extends DistributedData> dataClass) {
+        dataService.orElseThrow().addListenerAndReplay(listener, dataClass);
+    }
+
+    /**
+     * Replays the stored data to the listeners added by the registrations in a single pass
+     * (see DataService.batchReplay).
+     */
+    public void batchDataServiceReplay(Runnable registrations) {
+        dataService.ifPresentOrElse(service -> service.batchReplay(registrations), registrations);
+    }
+
     public void removeDataServiceListener(Listener listener) {
         dataService.orElseThrow().removeListener(listener);
     }
@@ -458,6 +489,39 @@ public class NetworkService implements PersistenceClient<NetworkServiceStore>, S
         return networkId;
     }
 
+    private void registerMetrics() {
+        Metrics.gauge("bisq_network_dispatcher_queue_size", "Number of tasks waiting in the network dispatcher queue",
+                () -> DISPATCHER.getQueue().size());
+        ThreadPoolExecutor networkIoPool = (ThreadPoolExecutor) NETWORK_IO_POOL;
+        Metrics.gauge("bisq_network_io_pool_active_threads", "Number of threads of the network IO pool executing a task",
+                networkIoPool::getActiveCount);
+        Metrics.gauge("bisq_network_io_pool_size", "Number of threads in the network IO pool",
+                networkIoPool::getPoolSize);
+        Metrics.gauge("bisq_network_io_pool_queue_size", "Number of tasks waiting in the network IO pool queue",
+                () -> networkIoPool.getQueue().size());
+        Metrics.gauge("bisq_network_crypto_pool_active_threads", "Number of threads of the crypto pool executing a task",
+                CRYPTO_POOL::getActiveCount);
+        Metrics.gauge("bisq_network_crypto_pool_queue_size", "Number of tasks waiting in the crypto pool queue",
+                CRYPTO_POOL::getQueueSize);
+
+        supportedTransportTypes.forEach(transportType -> {
+            Metrics.gauge("bisq_network_connections", "Number of active connections by transport type and direction",
+                    () -> findServiceNode(transportType)
+                            .map(serviceNode -> serviceNode.getNodesById().getAllNodes().stream()
+                                    .mapToLong(node -> node.getActiveInboundConnections().count())
+                                    .sum())
+                            .orElse(0L),
+                    "transport", transportType.name(), "direction", "inbound");
+            Metrics.gauge("bisq_network_connections", "Number of active connections by transport type and direction",
+                    () -> findServiceNode(transportType)
+                            .map(serviceNode -> serviceNode.getNodesById().getAllNodes().stream()
+                                    .mapToLong(node -> node.getActiveOutboundConnections().count())
+                                    .sum())
+                            .orElse(0L),
+                    "transport", transportType.name(), "direction", "outbound");
+        });
+    }
+
     private int getPortByTransport(String tag, TransportType transportType) {
         boolean isDefault = tag.equals("default");
         switch (transportType) {
@@ -27,6 +27,7 @@ import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.transport.ClearNetTransportService;
 import bisq.network.p2p.node.transport.I2PTransportService;
 import bisq.network.p2p.services.data.inventory.InventoryService;
+import bisq.network.p2p.services.data.storage.StorageService;
 import bisq.network.p2p.services.peergroup.PeerGroupManager;
 import bisq.network.p2p.services.peergroup.PeerGroupService;
 import bisq.network.p2p.services.peergroup.exchange.PeerExchangeStrategy;
@@ -46,6 +47,7 @@ public final class NetworkServiceConfig {
     public static NetworkServiceConfig from(Path baseDir, Config config) {
         ServiceNode.Config serviceNodeConfig = ServiceNode.Config.from(config.getConfig("serviceNode"));
         InventoryService.Config inventoryServiceConfig = InventoryService.Config.from(config.getConfig("inventory"));
+        StorageService.Config storageServiceConfig = StorageService.Config.from(config.getConfig("storage"));
         AuthorizationService.Config authorizationServiceConfig = AuthorizationService.Config.from(config.getConfig("authorization"));
         Config seedConfig = config.getConfig("seedAddressByTransportType");
         // Only read seed addresses for explicitly supported address types
@@ -85,6 +87,7 @@ public final class NetworkServiceConfig {
                 configByTransportType,
                 serviceNodeConfig,
                 inventoryServiceConfig,
+                storageServiceConfig,
                 authorizationServiceConfig,
                 peerGroupServiceConfigByTransport,
                 defaultPortByTransportType,
@@ -178,6 +181,7 @@ public final class NetworkServiceConfig {
     private final Set<TransportType> supportedTransportTypes;
     private final Set<Feature> features;
     private final InventoryService.Config inventoryServiceConfig;
+    private final StorageService.Config storageServiceConfig;
     private final AuthorizationService.Config authorizationServiceConfig;
     private final Map<TransportType, TransportConfig> configByTransportType;
     private final ServiceNode.Config serviceNodeConfig;
@@ -193,6 +197,7 @@ public final class NetworkServiceConfig {
                                 Map<TransportType, TransportConfig> configByTransportType,
                                 ServiceNode.Config serviceNodeConfig,
                                 InventoryService.Config inventoryServiceConfig,
+                                StorageService.Config storageServiceConfig,
                                 AuthorizationService.Config authorizationServiceConfig,
                                 Map<TransportType, PeerGroupManager.Config> peerGroupServiceConfigByTransport,
                                 Map<TransportType, Integer> defaultPortByTransportType,
@@ -203,6 +208,7 @@ public final class NetworkServiceConfig {
         this.supportedTransportTypes = supportedTransportTypes;
         this.features = features;
         this.inventoryServiceConfig = inventoryServiceConfig;
+        this.storageServiceConfig = storageServiceConfig;
         this.authorizationServiceConfig = authorizationServiceConfig;
         this.configByTransportType = filterMap(supportedTransportTypes, configByTransportType);
         this.serviceNodeConfig = serviceNodeConfig;
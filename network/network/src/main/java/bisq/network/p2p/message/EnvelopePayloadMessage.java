@@ -26,6 +26,8 @@ import bisq.network.p2p.services.confidential.ack.AckMessage;
 import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.inventory.InventoryRequest;
 import bisq.network.p2p.services.data.inventory.InventoryResponse;
+import bisq.network.p2p.services.data.inventory.snapshot.BootstrapSnapshotRequest;
+import bisq.network.p2p.services.data.inventory.snapshot.BootstrapSnapshotResponse;
 import bisq.network.p2p.services.peergroup.exchange.PeerExchangeRequest;
 import bisq.network.p2p.services.peergroup.exchange.PeerExchangeResponse;
 import bisq.network.p2p.services.peergroup.keepalive.Ping;
@@ -93,6 +95,12 @@ public interface EnvelopePayloadMessage extends NetworkProto {
                 // Externally defined messages
                 return ExternalNetworkMessage.fromProto(proto.getExternalNetworkMessage());
             }
+            case BOOTSTRAPSNAPSHOTREQUEST: {
+                return BootstrapSnapshotRequest.fromProto(proto.getBootstrapSnapshotRequest());
+            }
+            case BOOTSTRAPSNAPSHOTRESPONSE: {
+                return BootstrapSnapshotResponse.fromProto(proto.getBootstrapSnapshotResponse());
+            }
             case MESSAGE_NOT_SET: {
                 throw new UnresolvableProtobufMessageException(proto);
             }
@@ -25,6 +25,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -38,11 +39,22 @@ public final class Capability implements NetworkProto {
     private final Address address;
     private final List<TransportType> supportedTransportTypes;
     private final List<Feature> features;
+    // Features of newer versions we do not know. We keep their proto values, so that the serialized data used for
+    // the proof of work check stays the same.
+    private final List<Integer> unknownFeatureValues;
 
     public Capability(Address address, List<TransportType> supportedTransportTypes, List<Feature> features) {
+        this(address, supportedTransportTypes, features, new ArrayList<>());
+    }
+
+    private Capability(Address address,
+                       List<TransportType> supportedTransportTypes,
+                       List<Feature> features,
+                       List<Integer> unknownFeatureValues) {
         this.address = address;
         this.supportedTransportTypes = supportedTransportTypes;
         this.features = features;
+        this.unknownFeatureValues = unknownFeatureValues;
 
         // We need to sort deterministically as the data is used in the proof of work check
         Collections.sort(this.supportedTransportTypes);
@@ -67,6 +79,8 @@ public final class Capability implements NetworkProto {
                 .addAllFeatures(features.stream()
                         .map(Feature::toProto)
                         .collect(Collectors.toList()))
+                // New features are added at the end of the enum, so they follow the known ones in the sorted list
+                .addAllFeaturesValue(unknownFeatureValues)
                 .build();
     }
 
@@ -74,11 +88,20 @@ public final class Capability implements NetworkProto {
         List<TransportType> supportedTransportTypes = proto.getSupportedTransportTypesList().stream()
                 .map(e -> ProtobufUtils.enumFromProto(TransportType.class, e))
                 .collect(Collectors.toList());
-        List<Feature> features = proto.getFeaturesList().stream()
-                .map(Feature::fromProto)
-                .collect(Collectors.toList());
+        List<Feature> features = new ArrayList<>();
+        List<Integer> unknownFeatureValues = new ArrayList<>();
+        for (int i = 0; i < proto.getFeaturesCount(); i++) {
+            bisq.network.protobuf.Feature feature = proto.getFeatures(i);
+            if (feature == bisq.network.protobuf.Feature.UNRECOGNIZED) {
+                // Peers with a newer version might support features we do not know. We ignore them.
+                unknownFeatureValues.add(proto.getFeaturesValue(i));
+            } else {
+                features.add(Feature.fromProto(feature));
+            }
+        }
         return new Capability(Address.fromProto(proto.getAddress()),
                 supportedTransportTypes,
-                features);
+                features,
+                unknownFeatureValues);
     }
 }
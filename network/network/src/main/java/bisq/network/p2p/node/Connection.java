@@ -27,6 +27,9 @@ import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocket;
 import bisq.network.p2p.node.network_load.ConnectionMetrics;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.node.tracing.InboundMessageTrace;
+import bisq.network.p2p.node.tracing.InboundMessageTracer;
+import bisq.network.p2p.node.tracing.InboundStage;
 import bisq.tor.TorSocket;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -35,9 +38,11 @@ import javax.annotation.Nullable;
 import java.io.EOFException;
 import java.io.IOException;
 import java.net.Socket;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 
@@ -55,7 +60,8 @@ public abstract class Connection {
     protected interface Handler {
         void handleNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage,
                                   AuthorizationToken authorizationToken,
-                                  Connection connection);
+                                  Connection connection,
+                                  Optional<InboundMessageTrace> trace);
 
         void handleConnectionClosed(Connection connection, CloseReason closeReason);
     }
@@ -114,18 +120,29 @@ public abstract class Connection {
                     // parsing might need some time wo we check again if connection is still active
                     if (isInputStreamActive()) {
                         checkNotNull(proto, "Proto from NetworkEnvelope.parseDelimitedFrom(inputStream) must not be null");
-                        long ts = System.currentTimeMillis();
+                        long ts = System.nanoTime();
                         NetworkEnvelope networkEnvelope = NetworkEnvelope.fromProto(proto);
-                        long deserializeTime = System.currentTimeMillis() - ts;
+                        long deserializeTime = System.nanoTime() - ts;
 
                         networkEnvelope.verifyVersion();
                         EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
                         log.debug("Received message: {} at: {}",
                                 StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
-                        connectionMetrics.onReceived(networkEnvelope, deserializeTime);
-                        NetworkService.DISPATCHER.submit(() -> handler.handleNetworkMessage(envelopePayloadMessage,
-                                networkEnvelope.getAuthorizationToken(),
-                                this));
+                        connectionMetrics.onReceived(networkEnvelope, TimeUnit.NANOSECONDS.toMillis(deserializeTime));
+
+                        Optional<InboundMessageTrace> trace = InboundMessageTracer.maybeStartTrace(envelopePayloadMessage);
+                        trace.ifPresent(t -> {
+                            t.record(InboundStage.SOCKET_READ, networkEnvelopeSocket.getLastReceiveDurationNanos());
+                            t.record(InboundStage.DESERIALIZE, deserializeTime);
+                        });
+                        long queuedAt = System.nanoTime();
+                        NetworkService.DISPATCHER.submit(() -> {
+                            trace.ifPresent(t -> t.recordSince(InboundStage.DISPATCHER_QUEUE, queuedAt));
+                            handler.handleNetworkMessage(envelopePayloadMessage,
+                                    networkEnvelope.getAuthorizationToken(),
+                                    this,
+                                    trace);
+                        });
                     }
                 }
             } catch (Exception exception) {
@@ -253,13 +270,15 @@ public abstract class Connection {
         });
     }
 
-    void notifyListeners(EnvelopePayloadMessage envelopePayloadMessage) {
+    void notifyListeners(EnvelopePayloadMessage envelopePayloadMessage, Optional<InboundMessageTrace> trace) {
         listeners.forEach(listener -> {
+            long ts = System.nanoTime();
             try {
                 listener.onNetworkMessage(envelopePayloadMessage);
             } catch (Exception e) {
                 log.error("Calling onNetworkMessage at listener {} failed", listener, e);
             }
+            trace.ifPresent(t -> t.recordSince(InboundStage.LISTENER, listener, ts));
         });
     }
 
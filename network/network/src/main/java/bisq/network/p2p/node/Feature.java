@@ -11,7 +11,10 @@ public enum Feature implements ProtoEnum {
     INVENTORY_HASH_SET,
     INVENTORY_MINI_SKETCH,
     AUTHORIZATION_HASH_CASH,
-    AUTHORIZATION_EQUI_HASH;
+    AUTHORIZATION_EQUI_HASH,
+    INVENTORY_BOOTSTRAP_SNAPSHOT,
+    // The inventory filter lists only the live data, and tombstones are sent only for data the requester still holds
+    INVENTORY_LIVE_DATA_FILTER;
 
     @Override
     public bisq.network.protobuf.Feature toProto() {
@@ -31,6 +31,8 @@ import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.handshake.ConnectionHandshake;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.node.tracing.InboundMessageTrace;
+import bisq.network.p2p.node.tracing.InboundStage;
 import bisq.network.p2p.node.transport.ServerSocketResult;
 import bisq.network.p2p.node.transport.TransportService;
 import bisq.network.p2p.services.peergroup.BanList;
@@ -480,17 +482,20 @@ public class Node implements Connection.Handler {
     @Override
     public void handleNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage,
                                      AuthorizationToken authorizationToken,
-                                     Connection connection) {
+                                     Connection connection,
+                                     Optional<InboundMessageTrace> trace) {
         if (isShutdown()) {
             return;
         }
         String myAddress = findMyAddress().orElseThrow().getFullAddress();
+        long ts = System.nanoTime();
         boolean isAuthorized = authorizationService.isAuthorized(envelopePayloadMessage,
                 authorizationToken,
                 networkLoadSnapshot.getCurrentNetworkLoad(),
                 networkLoadSnapshot.getPreviousNetworkLoad(),
                 connection.getId(),
                 myAddress);
+        trace.ifPresent(t -> t.recordSince(InboundStage.AUTHORIZATION, ts));
         if (isAuthorized) {
             if (envelopePayloadMessage instanceof CloseConnectionMessage) {
                 CloseConnectionMessage closeConnectionMessage = (CloseConnectionMessage) envelopePayloadMessage;
@@ -499,13 +504,15 @@ public class Node implements Connection.Handler {
                 closeConnection(connection, CloseReason.CLOSE_MSG_RECEIVED.details(closeConnectionMessage.getCloseReason().name()));
             } else {
                 // We got called from Connection on the dispatcher thread, so no mapping needed here.
-                connection.notifyListeners(envelopePayloadMessage);
+                connection.notifyListeners(envelopePayloadMessage, trace);
                 listeners.forEach(listener -> {
+                    long listenerTs = System.nanoTime();
                     try {
                         listener.onMessage(envelopePayloadMessage, connection, networkId);
                     } catch (Exception e) {
                         log.error("Calling onMessage at listener {} failed", listener, e);
                     }
+                    trace.ifPresent(t -> t.recordSince(InboundStage.LISTENER, listener, listenerTs));
                 });
             }
         } else {
@@ -2,6 +2,7 @@ package bisq.network.p2p.node.authorization.token.hash_cash;
 
 import bisq.common.application.DevMode;
 import bisq.common.encoding.Hex;
+import bisq.common.metrics.Metrics;
 import bisq.common.util.ByteArrayUtils;
 import bisq.common.util.MathUtils;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
@@ -41,7 +42,10 @@ public class HashCashTokenService extends AuthorizationTokenService<HashCashToke
         double difficulty = calculateDifficulty(message, networkLoad);
         byte[] challenge = getChallenge(peerAddress, messageCounter);
         byte[] payload = getPayload(message);
+        long mintStart = System.nanoTime();
         ProofOfWork proofOfWork = proofOfWorkService.mint(payload, challenge, difficulty);
+        Metrics.latencyHistogram("bisq_network_pow_mint_ms", "Time for minting the proof of work of an authorization token",
+                "type", "HASH_CASH").observeMillisSince(mintStart);
         HashCashToken token = new HashCashToken(proofOfWork, messageCounter);
         log.info("Create HashCashToken for {} took {} ms\n" +
                         "CostFactor={}; Load={}; Difficulty=2^{}={}",
@@ -98,7 +102,11 @@ public class HashCashTokenService extends AuthorizationTokenService<HashCashToke
         if (isDifficultyInvalid(message, proofOfWork.getDifficulty(), currentNetworkLoad, previousNetworkLoad)) {
             return false;
         }
-        return proofOfWorkService.verify(proofOfWork);
+        long verifyStart = System.nanoTime();
+        boolean isValid = proofOfWorkService.verify(proofOfWork);
+        Metrics.latencyHistogram("bisq_network_pow_verify_ms", "Time for verifying the proof of work of an authorization token",
+                "type", "HASH_CASH").observeMillisSince(verifyStart);
+        return isValid;
     }
 
     // We check the difficulty used for the proof of work if it matches the current network load or if available the
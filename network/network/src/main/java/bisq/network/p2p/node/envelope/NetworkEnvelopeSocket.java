@@ -22,6 +22,7 @@ import bisq.network.p2p.message.NetworkEnvelope;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -31,12 +32,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @Slf4j
 public class NetworkEnvelopeSocket implements Closeable {
     private final PeerSocket socket;
-    private final InputStream inputStream;
+    private final FirstReadTimestampInputStream inputStream;
     private final OutputStream outputStream;
+    private long lastReceiveDurationNanos;
 
     public NetworkEnvelopeSocket(PeerSocket socket) throws IOException {
         this.socket = socket;
-        this.inputStream = socket.getInputStream();
+        this.inputStream = new FirstReadTimestampInputStream(socket.getInputStream());
         this.outputStream = socket.getOutputStream();
     }
 
@@ -48,11 +50,59 @@ public class NetworkEnvelopeSocket implements Closeable {
     }
 
     public bisq.network.protobuf.NetworkEnvelope receiveNextEnvelope() throws IOException {
-        return bisq.network.protobuf.NetworkEnvelope.parseDelimitedFrom(inputStream);
+        inputStream.resetFirstReadTimestamp();
+        bisq.network.protobuf.NetworkEnvelope proto = bisq.network.protobuf.NetworkEnvelope.parseDelimitedFrom(inputStream);
+        long firstReadTimestamp = inputStream.getFirstReadTimestamp();
+        lastReceiveDurationNanos = firstReadTimestamp == 0 ? 0 : System.nanoTime() - firstReadTimestamp;
+        return proto;
+    }
+
+    /**
+     * @return Time for reading and parsing the last envelope, measured from the arrival of its first byte. The idle
+     * time waiting for the peer to send is not included. Must be called from the thread calling receiveNextEnvelope.
+     */
+    public long getLastReceiveDurationNanos() {
+        return lastReceiveDurationNanos;
     }
 
     @Override
     public void close() throws IOException {
         socket.close();
     }
+
+    private static final class FirstReadTimestampInputStream extends FilterInputStream {
+        private long firstReadTimestamp;
+
+        private FirstReadTimestampInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            onRead(result >= 0);
+            return result;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int result = super.read(bytes, offset, length);
+            onRead(result > 0);
+            return result;
+        }
+
+        private void onRead(boolean hasData) {
+            if (hasData && firstReadTimestamp == 0) {
+                firstReadTimestamp = System.nanoTime();
+            }
+        }
+
+        private void resetFirstReadTimestamp() {
+            firstReadTimestamp = 0;
+        }
+
+        private long getFirstReadTimestamp() {
+            return firstReadTimestamp;
+        }
+    }
 }
@@ -246,6 +246,7 @@ public final class ConnectionHandshake {
 
             long rrt = System.currentTimeMillis() - ts;
             connectionMetrics.addRtt(rrt);
+            connectionMetrics.setHandshakeTime(rrt);
 
             log.debug("Servers capability {}, load={}", response.getCapability(), response.getNetworkLoad());
             return new Result(response.getCapability(), response.getNetworkLoad(), connectionMetrics);
@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.node.network_load;
 
+import bisq.common.metrics.Metrics;
 import bisq.network.p2p.message.NetworkEnvelope;
 import lombok.Getter;
 import lombok.ToString;
@@ -44,6 +45,8 @@ public class ConnectionMetrics {
 
     private final AtomicLong numMessagesReceived = new AtomicLong();
     private final List<Long> rrtList = new CopyOnWriteArrayList<>();
+    // Round trip time of the connection handshake in ms. 0 if not known.
+    private volatile long handshakeTime;
 
     public ConnectionMetrics() {
         created = new Date().getTime();
@@ -62,14 +65,21 @@ public class ConnectionMetrics {
         lastUpdate.set(now);
 
         int ageInMinutes = getAgeInMinutes(now);
+        int size = networkEnvelope.toProto().getSerializedSize();
         sentBytesPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
-        sentBytesPerMinute.get(ageInMinutes).getAndAdd(networkEnvelope.toProto().getSerializedSize());
+        sentBytesPerMinute.get(ageInMinutes).getAndAdd(size);
 
         numMessagesSentPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
         numMessagesSentPerMinute.get(ageInMinutes).incrementAndGet();
 
         spentSendMessageTimePerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
         spentSendMessageTimePerMinute.get(ageInMinutes).getAndAdd(spentTime);
+
+        String messageType = getMessageType(networkEnvelope);
+        Metrics.counter("bisq_network_messages_sent_total", "Number of sent messages by message type",
+                "type", messageType).increment();
+        Metrics.counter("bisq_network_sent_bytes_total", "Sent bytes by message type",
+                "type", messageType).add(size);
     }
 
     public void onReceived(NetworkEnvelope networkEnvelope, long deserializeTime) {
@@ -77,14 +87,25 @@ public class ConnectionMetrics {
         lastUpdate.set(now);
 
         int ageInMinutes = getAgeInMinutes(now);
+        int size = networkEnvelope.toProto().getSerializedSize();
         receivedBytesPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
-        receivedBytesPerMinute.get(ageInMinutes).getAndAdd(networkEnvelope.toProto().getSerializedSize());
+        receivedBytesPerMinute.get(ageInMinutes).getAndAdd(size);
 
         numMessagesReceivedPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
         numMessagesReceivedPerMinute.get(ageInMinutes).incrementAndGet();
 
         deserializeTimePerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
         deserializeTimePerMinute.get(ageInMinutes).getAndAdd(deserializeTime);
+
+        String messageType = getMessageType(networkEnvelope);
+        Metrics.counter("bisq_network_messages_received_total", "Number of received messages by message type",
+                "type", messageType).increment();
+        Metrics.counter("bisq_network_received_bytes_total", "Received bytes by message type",
+                "type", messageType).add(size);
+    }
+
+    public void setHandshakeTime(long handshakeTime) {
+        this.handshakeTime = handshakeTime;
     }
 
     public void addRtt(long value) {
@@ -178,6 +199,10 @@ public class ConnectionMetrics {
         return list.stream().mapToLong(AtomicLong::get).sum();
     }
 
+    private static String getMessageType(NetworkEnvelope networkEnvelope) {
+        return networkEnvelope.getEnvelopePayloadMessage().getClass().getSimpleName();
+    }
+
     private int getAgeInMinutes(long now) {
         return (int) (now - created) / 60000;
     }
@@ -23,6 +23,7 @@ import bisq.common.util.MathUtils;
 import bisq.network.p2p.ServiceNodesByTransport;
 import bisq.network.p2p.node.Connection;
 import bisq.network.p2p.node.Node;
+import bisq.network.p2p.node.tracing.InboundMessageTracer;
 import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.DataService;
 import bisq.network.p2p.services.data.storage.StorageService;
@@ -70,6 +71,10 @@ public class NetworkLoadService {
         double load = calculateLoad(getAllConnectionMetrics(), dataRequests);
         NetworkLoad networkLoad = new NetworkLoad(load);
         networkLoadSnapshot.updateNetworkLoad(networkLoad);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Time spent in inbound message processing stages (sampled):\n{}", InboundMessageTracer.getSummaryTable());
+        }
     }
 
     private List<ConnectionMetrics> getAllConnectionMetrics() {
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.tracing;
+
+import lombok.Getter;
+
+/**
+ * Trace of a single sampled inbound message. Is handed along the processing pipeline and records the time spent in
+ * each stage.
+ */
+public final class InboundMessageTrace {
+    private static final ClassValue<String> LISTENER_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String name = type.getName();
+            // Lambdas have names like Foo$$Lambda$123/0x0000000800c0b840
+            int lambdaIndex = name.indexOf("$$Lambda");
+            if (lambdaIndex > 0) {
+                name = name.substring(0, lambdaIndex);
+            }
+            return name.substring(name.lastIndexOf('.') + 1);
+        }
+    };
+
+    @Getter
+    private final String messageType;
+
+    InboundMessageTrace(String messageType) {
+        this.messageType = messageType;
+    }
+
+    public void record(InboundStage stage, long durationNanos) {
+        InboundMessageTracer.record(messageType, stage, "", durationNanos);
+    }
+
+    public void record(InboundStage stage, Object listener, long durationNanos) {
+        InboundMessageTracer.record(messageType, stage, LISTENER_NAMES.get(listener.getClass()), durationNanos);
+    }
+
+    /**
+     * Records the time passed since the given start timestamp which was taken by {@link System#nanoTime()}.
+     */
+    public void recordSince(InboundStage stage, long startNanos) {
+        record(stage, System.nanoTime() - startNanos);
+    }
+
+    public void recordSince(InboundStage stage, Object listener, long startNanos) {
+        record(stage, listener, System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.tracing;
+
+import bisq.common.metrics.Metrics;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Samples inbound messages and aggregates the time spent in each {@link InboundStage} per message type and listener.
+ * Only every n-th message gets traced to keep the overhead low. Results are available as summary table, as the
+ * <code>bisq_network_inbound_stage_ms</code> metric and as JFR events.
+ */
+public final class InboundMessageTracer {
+    public static final int DEFAULT_SAMPLE_INTERVAL = 8;
+
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final Map<StageKey, StageStats> statsByKey = new ConcurrentHashMap<>();
+    private static volatile int sampleInterval = DEFAULT_SAMPLE_INTERVAL;
+
+    private InboundMessageTracer() {
+    }
+
+    /**
+     * @param sampleInterval Trace every n-th message. 1 traces all messages, 0 disables tracing.
+     */
+    public static void setSampleInterval(int sampleInterval) {
+        checkArgument(sampleInterval >= 0, "sampleInterval must not be negative");
+        InboundMessageTracer.sampleInterval = sampleInterval;
+    }
+
+    public static Optional<InboundMessageTrace> maybeStartTrace(EnvelopePayloadMessage envelopePayloadMessage) {
+        int interval = sampleInterval;
+        if (interval == 0 || sequence.getAndIncrement() % interval != 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new InboundMessageTrace(envelopePayloadMessage.getClass().getSimpleName()));
+    }
+
+    public static String getSummaryTable() {
+        StringBuilder sb = new StringBuilder(String.format("%-18s %-40s %-40s %10s %10s %10s %12s%n",
+                "Stage", "Message type", "Listener", "Count", "Mean ms", "Max ms", "Total ms"));
+        statsByKey.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<StageKey, StageStats> e) -> e.getValue().getTotalNanos()).reversed())
+                .forEach(entry -> {
+                    StageKey key = entry.getKey();
+                    StageStats stats = entry.getValue();
+                    sb.append(String.format("%-18s %-40s %-40s %10d %10.3f %10.3f %12.3f%n",
+                            key.getStage(),
+                            key.getMessageType(),
+                            key.getListener(),
+                            stats.getCount(),
+                            toMillis(stats.getMeanNanos()),
+                            toMillis(stats.getMaxNanos()),
+                            toMillis(stats.getTotalNanos())));
+                });
+        return sb.toString();
+    }
+
+    public static void reset() {
+        statsByKey.clear();
+    }
+
+    static void record(String messageType, InboundStage stage, String listener, long durationNanos) {
+        statsByKey.computeIfAbsent(new StageKey(stage, messageType, listener), key -> new StageStats())
+                .add(durationNanos);
+
+        Metrics.latencyHistogram("bisq_network_inbound_stage_ms",
+                        "Time sampled inbound messages spent in a processing stage",
+                        "stage", stage.name(),
+                        "type", messageType,
+                        "listener", listener)
+                .observe(toMillis(durationNanos));
+
+        InboundStageEvent event = new InboundStageEvent();
+        if (event.isEnabled()) {
+            event.messageType = messageType;
+            event.stage = stage.name();
+            event.listener = listener;
+            event.stageDuration = durationNanos;
+            event.commit();
+        }
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / 1_000_000d;
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    private static final class StageKey {
+        private final InboundStage stage;
+        private final String messageType;
+        private final String listener;
+
+        private StageKey(InboundStage stage, String messageType, String listener) {
+            this.stage = stage;
+            this.messageType = messageType;
+            this.listener = listener;
+        }
+    }
+
+    private static final class StageStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        private void add(long durationNanos) {
+            count.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+        }
+
+        private long getCount() {
+            return count.sum();
+        }
+
+        private long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        private long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        private double getMeanNanos() {
+            long count = getCount();
+            return count == 0 ? 0 : (double) getTotalNanos() / count;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event for a sampled inbound message stage. Only committed if a recording with the
+ * <code>bisq.network.InboundMessageStage</code> event enabled is running, otherwise the cost is a single check.
+ */
+@Name("bisq.network.InboundMessageStage")
+@Label("Inbound Message Stage")
+@Category({"Bisq", "Network"})
+@Description("Time a sampled inbound network message spent in a stage of the processing pipeline")
+@StackTrace(false)
+final class InboundStageEvent extends Event {
+    @Label("Message Type")
+    String messageType;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Listener")
+    String listener;
+
+    // The stage was measured before the event got created, so we do not use the implicit duration of the event
+    @Label("Stage Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long stageDuration;
+}
@@ -17,7 +17,9 @@
 
 package bisq.network.p2p.services.confidential;
 
-import bisq.common.threading.ExecutorFactory;
+import bisq.common.data.Pair;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.Metrics;
 import bisq.common.util.CompletableFutureUtils;
 import bisq.network.common.Address;
 import bisq.network.identity.NetworkId;
@@ -37,26 +39,45 @@ import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxData;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxMessage;
 import bisq.security.ConfidentialData;
+import bisq.security.DigestUtil;
 import bisq.security.HybridEncryption;
+import bisq.security.SharedSecretCache;
 import bisq.security.keys.KeyBundleService;
 import bisq.security.keys.KeyGeneration;
 import bisq.security.keys.PubKey;
+import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
 
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PublicKey;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static bisq.network.NetworkService.CRYPTO_POOL;
 import static bisq.network.NetworkService.DISPATCHER;
 import static java.util.concurrent.CompletableFuture.runAsync;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 @Slf4j
 public class ConfidentialMessageService implements Node.Listener, DataService.Listener {
+    private static final int LIVE_MESSAGE_PRIORITY = 0;
+    private static final int MAILBOX_MESSAGE_PRIORITY = 1;
+    private static final int MAILBOX_BATCH_SIZE = 20;
+
+    private static final Histogram LIVE_DECRYPT = Metrics.latencyHistogram("bisq_network_confidential_message_decrypt_ms",
+            "Time for decrypting and verifying a confidential message", "source", "live");
+    private static final Histogram MAILBOX_DECRYPT = Metrics.latencyHistogram("bisq_network_confidential_message_decrypt_ms",
+            "Time for decrypting and verifying a confidential message", "source", "mailbox");
+    private static final Histogram LIVE_QUEUE_WAIT = Metrics.latencyHistogram("bisq_network_confidential_message_queue_wait_ms",
+            "Time a confidential message waited for a thread of the crypto pool", "source", "live");
+    private static final Histogram MAILBOX_QUEUE_WAIT = Metrics.latencyHistogram("bisq_network_confidential_message_queue_wait_ms",
+            "Time a confidential message waited for a thread of the crypto pool", "source", "mailbox");
+
     public interface Listener {
         void onMessage(EnvelopePayloadMessage envelopePayloadMessage);
 
@@ -70,6 +91,9 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
     private final Optional<MessageDeliveryStatusService> messageDeliveryStatusService;
     private final Optional<ResendMessageService> resendMessageService;
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
+    private final SharedSecretCache sharedSecretCache = new SharedSecretCache();
+    private final Queue<Pair<MailboxData, Long>> pendingMailboxData = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean mailboxBatchScheduled = new AtomicBoolean();
 
     public ConfidentialMessageService(NodesById nodesById,
                                       KeyBundleService keyBundleService,
@@ -83,13 +107,15 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
         this.resendMessageService = resendMessageService;
 
         nodesById.addNodeListener(this);
-        dataService.ifPresent(service -> service.addListener(this));
+        dataService.ifPresent(service -> service.addListener(this, MailboxData.class));
     }
 
     public void shutdown() {
         nodesById.removeNodeListener(this);
         dataService.ifPresent(service -> service.removeListener(this));
         listeners.clear();
+        pendingMailboxData.clear();
+        sharedSecretCache.invalidateAll();
     }
 
 
@@ -119,23 +145,10 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
 
     @Override
     public void onMailboxDataAdded(MailboxData mailboxData) {
-        ConfidentialMessage confidentialMessage = mailboxData.getConfidentialMessage();
-        processConfidentialMessage(confidentialMessage)
-                .whenComplete((result, throwable) -> {
-                    if (throwable == null) {
-                        if (result) {
-                            dataService.ifPresent(service -> {
-                                // If we are successful the msg must be for us, so we have the key
-                                KeyPair myKeyPair = keyBundleService.findKeyPair(confidentialMessage.getReceiverKeyId()).orElseThrow();
-                                service.removeMailboxData(mailboxData, myKeyPair);
-                            });
-                        } else {
-                            log.debug("We are not the receiver of that mailbox message");
-                        }
-                    } else {
-                        throwable.printStackTrace();
-                    }
-                });
+        // At startup, we might get a burst of mailbox messages from the inventory. We process them in batches
+        // with lower priority than live messages.
+        pendingMailboxData.add(new Pair<>(mailboxData, System.nanoTime()));
+        maybeProcessMailboxBatch();
     }
 
 
@@ -171,7 +184,7 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
             Connection connection = nodesById.getConnection(senderNetworkId, address);
 
             // We got a valid connection and try to send the message. If send fails we store in mailbox in case envelopePayloadMessage is a MailboxMessage
-            ConfidentialMessage confidentialMessage = getConfidentialMessage(envelopePayloadMessage, receiverPubKey, senderKeyPair);
+            ConfidentialMessage confidentialMessage = getConfidentialMessage(envelopePayloadMessage, receiverPubKey, senderKeyPair, senderNetworkId);
             try {
                 nodesById.send(senderNetworkId, confidentialMessage, connection);
                 result = new SendConfidentialMessageResult(MessageDeliveryStatus.SENT);
@@ -179,7 +192,7 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
                 result = handleSendMessageException(envelopePayloadMessage, receiverPubKey, senderKeyPair, exception, confidentialMessage);
             }
         } catch (Exception exception) {
-            ConfidentialMessage confidentialMessage = getConfidentialMessage(envelopePayloadMessage, receiverPubKey, senderKeyPair);
+            ConfidentialMessage confidentialMessage = getConfidentialMessage(envelopePayloadMessage, receiverPubKey, senderKeyPair, senderNetworkId);
             result = handleSendMessageException(envelopePayloadMessage, receiverPubKey, senderKeyPair, exception, confidentialMessage);
         }
 
@@ -267,9 +280,16 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
         return new SendConfidentialMessageResult(MessageDeliveryStatus.TRY_ADD_TO_MAILBOX).setMailboxFuture(mailboxFuture);
     }
 
-    private ConfidentialMessage getConfidentialMessage(EnvelopePayloadMessage envelopePayloadMessage, PubKey receiverPubKey, KeyPair senderKeyPair) {
+    private ConfidentialMessage getConfidentialMessage(EnvelopePayloadMessage envelopePayloadMessage,
+                                                       PubKey receiverPubKey,
+                                                       KeyPair senderKeyPair,
+                                                       NetworkId senderNetworkId) {
         try {
-            ConfidentialData confidentialData = HybridEncryption.encryptAndSign(envelopePayloadMessage.serialize(), receiverPubKey.getPublicKey(), senderKeyPair);
+            ConfidentialData confidentialData = HybridEncryption.encryptAndSign(envelopePayloadMessage.serialize(),
+                    receiverPubKey,
+                    senderKeyPair,
+                    senderNetworkId.getPubKey().getKeyId(),
+                    sharedSecretCache);
             return new ConfidentialMessage(confidentialData, receiverPubKey.getKeyId());
         } catch (GeneralSecurityException e) {
             log.error("HybridEncryption.encryptAndSign failed at getConfidentialMessage.", e);
@@ -279,31 +299,96 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
 
     private CompletableFuture<Boolean> processConfidentialMessage(ConfidentialMessage confidentialMessage) {
         return keyBundleService.findKeyPair(confidentialMessage.getReceiverKeyId())
-                .map(receiversKeyPair -> supplyAsync(() -> {
-                    try {
-                        log.info("Found a matching key for processing confidentialMessage");
-                        ConfidentialData confidentialData = confidentialMessage.getConfidentialData();
-                        byte[] decryptedBytes = HybridEncryption.decryptAndVerify(confidentialData, receiversKeyPair);
-                        bisq.network.protobuf.EnvelopePayloadMessage decryptedProto = bisq.network.protobuf.EnvelopePayloadMessage.parseFrom(decryptedBytes);
-                        EnvelopePayloadMessage decryptedEnvelopePayloadMessage = EnvelopePayloadMessage.fromProto(decryptedProto);
-                        PublicKey senderPublicKey = KeyGeneration.generatePublic(confidentialData.getSenderPublicKey());
-                        log.info("Decrypted confidentialMessage");
-                        runAsync(() -> {
-                            listeners.forEach(listener -> {
-                                try {
-                                    listener.onMessage(decryptedEnvelopePayloadMessage);
-                                    listener.onConfidentialMessage(decryptedEnvelopePayloadMessage, senderPublicKey);
-                                } catch (Exception e) {
-                                    log.error("Calling onMessage(decryptedEnvelopePayloadMessage, senderPublicKey) at messageListener {} failed", listener, e);
-                                }
-                            });
-                        }, DISPATCHER);
-                        return true;
-                    } catch (Exception e) {
-                        log.error("Error at decryption using receiversKeyId={}", confidentialMessage.getReceiverKeyId(), e);
-                        throw new RuntimeException(e);
-                    }
-                }, ExecutorFactory.WORKER_POOL))
+                .map(receiversKeyPair -> {
+                    long queuedTs = System.nanoTime();
+                    return CRYPTO_POOL.supplyAsync(() -> {
+                        LIVE_QUEUE_WAIT.observeMillisSince(queuedTs);
+                        try {
+                            decryptAndNotifyListeners(confidentialMessage, receiversKeyPair, LIVE_DECRYPT);
+                            return true;
+                        } catch (Exception e) {
+                            log.error("Error at decryption using receiversKeyId={}", confidentialMessage.getReceiverKeyId(), e);
+                            throw new RuntimeException(e);
+                        }
+                    }, LIVE_MESSAGE_PRIORITY);
+                })
                 .orElse(CompletableFuture.completedFuture(false)); // We don't have a key for that receiverKeyId
     }
+
+    private void maybeProcessMailboxBatch() {
+        if (pendingMailboxData.isEmpty() || !mailboxBatchScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        // Only one batch is in the queue or in progress at a time, so the mailbox backlog does not occupy more
+        // than one thread of the crypto pool.
+        CRYPTO_POOL.supplyAsync(() -> {
+                    int numProcessed = 0;
+                    Pair<MailboxData, Long> pair;
+                    while (numProcessed < MAILBOX_BATCH_SIZE && (pair = pendingMailboxData.poll()) != null) {
+                        MAILBOX_QUEUE_WAIT.observeMillisSince(pair.getSecond());
+                        processMailboxData(pair.getFirst());
+                        numProcessed++;
+                    }
+                    return numProcessed;
+                }, MAILBOX_MESSAGE_PRIORITY)
+                .whenComplete((numProcessed, throwable) -> {
+                    if (throwable != null) {
+                        log.error("Processing mailbox batch failed", throwable);
+                    } else {
+                        log.info("Processed batch of {} mailbox messages. {} mailbox messages are pending.",
+                                numProcessed, pendingMailboxData.size());
+                    }
+                    mailboxBatchScheduled.set(false);
+                    maybeProcessMailboxBatch();
+                });
+    }
+
+    private void processMailboxData(MailboxData mailboxData) {
+        ConfidentialMessage confidentialMessage = mailboxData.getConfidentialMessage();
+        Optional<KeyPair> myKeyPair = keyBundleService.findKeyPair(confidentialMessage.getReceiverKeyId());
+        if (myKeyPair.isEmpty()) {
+            log.debug("We are not the receiver of that mailbox message");
+            return;
+        }
+
+        try {
+            decryptAndNotifyListeners(confidentialMessage, myKeyPair.get(), MAILBOX_DECRYPT);
+            // If we are successful the msg must be for us, so we remove it from the network
+            dataService.ifPresent(service -> service.removeMailboxData(mailboxData, myKeyPair.get()));
+        } catch (Exception e) {
+            log.error("Error at decryption of mailbox message using receiversKeyId={}", confidentialMessage.getReceiverKeyId(), e);
+        }
+    }
+
+    private void decryptAndNotifyListeners(ConfidentialMessage confidentialMessage,
+                                           KeyPair receiversKeyPair,
+                                           Histogram decryptDuration) throws GeneralSecurityException, InvalidProtocolBufferException {
+        log.info("Found a matching key for processing confidentialMessage");
+        long ts = System.nanoTime();
+        ConfidentialData confidentialData = confidentialMessage.getConfidentialData();
+        byte[] decryptedBytes = HybridEncryption.decryptAndVerify(confidentialData,
+                receiversKeyPair,
+                confidentialMessage.getReceiverKeyId(),
+                sharedSecretCache);
+        decryptDuration.observeMillisSince(ts);
+        bisq.network.protobuf.EnvelopePayloadMessage decryptedProto = bisq.network.protobuf.EnvelopePayloadMessage.parseFrom(decryptedBytes);
+        EnvelopePayloadMessage decryptedEnvelopePayloadMessage = EnvelopePayloadMessage.fromProto(decryptedProto);
+        // After decryption the decoded sender public key is in the sharedSecretCache
+        byte[] senderPublicKeyHash = DigestUtil.hash(confidentialData.getSenderPublicKey());
+        Optional<PublicKey> cachedSenderPublicKey = sharedSecretCache.findPeerPublicKey(confidentialMessage.getReceiverKeyId(), senderPublicKeyHash);
+        PublicKey senderPublicKey = cachedSenderPublicKey.isPresent()
+                ? cachedSenderPublicKey.get()
+                : KeyGeneration.generatePublic(confidentialData.getSenderPublicKey());
+        log.info("Decrypted confidentialMessage");
+        runAsync(() -> {
+            listeners.forEach(listener -> {
+                try {
+                    listener.onMessage(decryptedEnvelopePayloadMessage);
+                    listener.onConfidentialMessage(decryptedEnvelopePayloadMessage, senderPublicKey);
+                } catch (Exception e) {
+                    log.error("Calling onMessage(decryptedEnvelopePayloadMessage, senderPublicKey) at messageListener {} failed", listener, e);
+                }
+            });
+        }, DISPATCHER);
+    }
 }
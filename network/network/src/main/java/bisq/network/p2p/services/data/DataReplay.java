@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data;
+
+import bisq.common.observable.ClassRoutedListeners;
+import bisq.network.p2p.services.data.storage.DistributedData;
+import bisq.network.p2p.services.data.storage.StorageService;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
+import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays the stored authenticated data to listeners as added data, which services use at initialize for the data
+ * loaded from disk. All listeners of a replay are served in a single pass: each stored entry is read once and routed
+ * to the listeners subscribed for its class.
+ */
+@Slf4j
+final class DataReplay {
+    private final ClassRoutedListeners<DataService.Listener> listeners = new ClassRoutedListeners<>("bisq_network_data_replay_listener_ms",
+            "Time a DataService listener takes for handling replayed data");
+    private final Set<Class<? extends DistributedData>> dataClasses = new HashSet<>();
+    private int numListeners;
+
+    void add(DataService.Listener listener, Class<? extends DistributedData> dataClass) {
+        listeners.add(listener, dataClass);
+        dataClasses.add(dataClass);
+        numListeners++;
+    }
+
+    void run(StorageService storageService) {
+        if (dataClasses.isEmpty()) {
+            return;
+        }
+        long ts = System.nanoTime();
+        AtomicInteger numReplayed = new AtomicInteger();
+        // A class which is a subclass of another requested class is covered by the query of that class
+        dataClasses.stream()
+                .filter(dataClass -> dataClasses.stream().noneMatch(other -> other != dataClass && other.isAssignableFrom(dataClass)))
+                .flatMap(storageService::getAuthenticatedData)
+                .forEach(authenticatedData -> {
+                    numReplayed.incrementAndGet();
+                    replay(authenticatedData);
+                });
+        log.info("Replayed {} stored data to {} listeners in {} ms",
+                numReplayed.get(), numListeners, (System.nanoTime() - ts) / 1_000_000);
+    }
+
+    private void replay(AuthenticatedData authenticatedData) {
+        Class<?> dataClass = authenticatedData.getDistributedData().getClass();
+        if (authenticatedData instanceof AuthorizedData) {
+            AuthorizedData authorizedData = (AuthorizedData) authenticatedData;
+            listeners.notify(dataClass, "onAuthorizedDataAdded",
+                    listener -> listener.onAuthorizedDataAdded(authorizedData));
+        } else {
+            listeners.notify(dataClass, "onAuthenticatedDataAdded",
+                    listener -> listener.onAuthenticatedDataAdded(authenticatedData));
+        }
+    }
+}
@@ -58,9 +58,21 @@ public interface DataRequest extends BroadcastMessage {
         throw new UnresolvableProtobufMessageException(proto);
     }
 
-    boolean isExpired();
+    /**
+     * @return The date after which the request is expired, or Long.MAX_VALUE if it never expires.
+     */
+    long getExpirationDate();
+
+    default boolean isExpired() {
+        return System.currentTimeMillis() > getExpirationDate();
+    }
 
     long getCreated();
 
     int getMaxMapSize();
+
+    static long getExpirationDate(long created, long ttl) {
+        // Saturated, as the ttl of remove requests is provided by the peer
+        return created > Long.MAX_VALUE - ttl ? Long.MAX_VALUE : created + ttl;
+    }
 }
@@ -17,8 +17,10 @@
 
 package bisq.network.p2p.services.data;
 
+import bisq.common.observable.ClassRoutedListeners;
 import bisq.network.p2p.services.data.broadcast.Broadcaster;
 import bisq.network.p2p.services.data.storage.DataStorageResult;
+import bisq.network.p2p.services.data.storage.DistributedData;
 import bisq.network.p2p.services.data.storage.StorageData;
 import bisq.network.p2p.services.data.storage.StorageService;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
@@ -27,6 +29,7 @@ import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
 import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
+import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedDistributedData;
 import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxData;
 import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
@@ -37,6 +40,7 @@ import lombok.extern.slf4j.Slf4j;
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PublicKey;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -74,11 +78,14 @@ public class DataService implements StorageService.Listener {
 
     @Getter
     private final StorageService storageService;
-    private final Set<DataService.Listener> listeners = new CopyOnWriteArraySet<>();
+    private final ClassRoutedListeners<DataService.Listener> listeners = new ClassRoutedListeners<>("bisq_network_data_listener_ms",
+            "Time a DataService listener takes for handling an added or removed data");
     private final Set<Broadcaster> broadcasters = new CopyOnWriteArraySet<>();
+    // The replay collecting the listeners added inside batchReplay by the current thread
+    private final ThreadLocal<DataReplay> pendingReplay = new ThreadLocal<>();
 
-    public DataService(PersistenceService persistenceService) {
-        this.storageService = new StorageService(persistenceService);
+    public DataService(PersistenceService persistenceService, StorageService.Config storageServiceConfig) {
+        this.storageService = new StorageService(persistenceService, storageServiceConfig);
         storageService.addListener(this);
     }
 
@@ -98,66 +105,38 @@ public class DataService implements StorageService.Listener {
     @Override
     public void onAdded(StorageData storageData) {
         if (storageData instanceof AuthorizedData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onAuthorizedDataAdded((AuthorizedData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onAuthorizedDataAdded at listener {} failed", listener, e);
-                }
-            });
+            AuthorizedData authorizedData = (AuthorizedData) storageData;
+            listeners.notify(authorizedData.getDistributedData().getClass(), "onAuthorizedDataAdded",
+                    listener -> listener.onAuthorizedDataAdded(authorizedData));
         } else if (storageData instanceof AuthenticatedData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onAuthenticatedDataAdded((AuthenticatedData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onAuthenticatedDataAdded at listener {} failed", listener, e);
-                }
-            });
+            AuthenticatedData authenticatedData = (AuthenticatedData) storageData;
+            listeners.notify(authenticatedData.getDistributedData().getClass(), "onAuthenticatedDataAdded",
+                    listener -> listener.onAuthenticatedDataAdded(authenticatedData));
         } else if (storageData instanceof MailboxData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onMailboxDataAdded((MailboxData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onMailboxDataAdded at listener {} failed", listener, e);
-                }
-            });
+            MailboxData mailboxData = (MailboxData) storageData;
+            listeners.notify(MailboxData.class, "onMailboxDataAdded",
+                    listener -> listener.onMailboxDataAdded(mailboxData));
         } else if (storageData instanceof AppendOnlyData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onAppendOnlyDataAdded((AppendOnlyData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onAppendOnlyDataAdded at listener {} failed", listener, e);
-                }
-            });
+            AppendOnlyData appendOnlyData = (AppendOnlyData) storageData;
+            listeners.notify(appendOnlyData.getClass(), "onAppendOnlyDataAdded",
+                    listener -> listener.onAppendOnlyDataAdded(appendOnlyData));
         }
     }
 
     @Override
     public void onRemoved(StorageData storageData) {
         if (storageData instanceof AuthorizedData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onAuthorizedDataRemoved((AuthorizedData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onAuthorizedDataRemoved at listener {} failed", listener, e);
-                }
-            });
+            AuthorizedData authorizedData = (AuthorizedData) storageData;
+            listeners.notify(authorizedData.getDistributedData().getClass(), "onAuthorizedDataRemoved",
+                    listener -> listener.onAuthorizedDataRemoved(authorizedData));
         } else if (storageData instanceof AuthenticatedData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onAuthenticatedDataRemoved((AuthenticatedData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onAuthenticatedDataRemoved at listener {} failed", listener, e);
-                }
-            });
+            AuthenticatedData authenticatedData = (AuthenticatedData) storageData;
+            listeners.notify(authenticatedData.getDistributedData().getClass(), "onAuthenticatedDataRemoved",
+                    listener -> listener.onAuthenticatedDataRemoved(authenticatedData));
         } else if (storageData instanceof MailboxData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onMailboxDataRemoved((MailboxData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onMailboxDataRemoved at listener {} failed", listener, e);
-                }
-            });
+            MailboxData mailboxData = (MailboxData) storageData;
+            listeners.notify(MailboxData.class, "onMailboxDataRemoved",
+                    listener -> listener.onMailboxDataRemoved(mailboxData));
         }
     }
 
@@ -170,8 +149,27 @@ public class DataService implements StorageService.Listener {
         return storageService.getAuthenticatedData();
     }
 
+    public Stream<AuthenticatedData> getAuthenticatedData(Class<? extends DistributedData> dataClass) {
+        return storageService.getAuthenticatedData(dataClass);
+    }
+
+    /**
+     * @return The data of the given class which was created in the given period (from inclusive, to exclusive).
+     */
+    public Stream<AuthenticatedData> getAuthenticatedData(Class<? extends DistributedData> dataClass, long from, long to) {
+        return storageService.getAuthenticatedData(dataClass, from, to);
+    }
+
+    public Stream<AuthenticatedData> getAuthenticatedDataByOwner(byte[] ownerPubKeyHash) {
+        return storageService.getAuthenticatedDataByOwner(ownerPubKeyHash);
+    }
+
     public Stream<AuthorizedData> getAuthorizedData() {
-        return getAuthenticatedData()
+        return getAuthorizedData(AuthorizedDistributedData.class);
+    }
+
+    public Stream<AuthorizedData> getAuthorizedData(Class<? extends AuthorizedDistributedData> dataClass) {
+        return getAuthenticatedData(dataClass)
                 .filter(authenticatedData -> authenticatedData instanceof AuthorizedData)
                 .map(authenticatedData -> (AuthorizedData) authenticatedData);
     }
@@ -298,6 +296,52 @@ public class DataService implements StorageService.Listener {
         listeners.add(listener);
     }
 
+    /**
+     * Adds a listener which gets notified only about data of the given class. For AuthenticatedData and AuthorizedData
+     * this is the class of the wrapped DistributedData, for MailboxData it is MailboxData. Can be called repeatedly to
+     * subscribe for several classes.
+     */
+    public void addListener(DataService.Listener listener, Class<?> dataClass) {
+        listeners.add(listener, dataClass);
+    }
+
+    /**
+     * Adds the listener for data of the given class and replays the stored data of that class to it as added data.
+     * Inside {@link #batchReplay(Runnable)} the replay is deferred to the end of the batch.
+     */
+    public void addListenerAndReplay(DataService.Listener listener, Class<? extends DistributedData> dataClass) {
+        addListener(listener, dataClass);
+        DataReplay replay = pendingReplay.get();
+        if (replay != null) {
+            replay.add(listener, dataClass);
+            return;
+        }
+        replay = new DataReplay();
+        replay.add(listener, dataClass);
+        replay.run(storageService);
+    }
+
+    /**
+     * Runs the registrations and replays the stored data to all listeners they added with
+     * {@link #addListenerAndReplay} in a single pass over the stored data. Services which get initialized together
+     * and are interested in the same data thus do not iterate the stores each on their own.
+     */
+    public void batchReplay(Runnable registrations) {
+        if (pendingReplay.get() != null) {
+            // Nested batch, we replay at the end of the outer one
+            registrations.run();
+            return;
+        }
+        DataReplay replay = new DataReplay();
+        pendingReplay.set(replay);
+        try {
+            registrations.run();
+        } finally {
+            pendingReplay.remove();
+        }
+        replay.run(storageService);
+    }
+
     public void removeListener(DataService.Listener listener) {
         listeners.remove(listener);
     }
@@ -315,8 +359,8 @@ public class DataService implements StorageService.Listener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
-    public void processAddDataRequest(AddDataRequest addDataRequest, boolean allowReBroadcast) {
-        storageService.onAddDataRequest(addDataRequest)
+    public CompletableFuture<Optional<StorageData>> processAddDataRequest(AddDataRequest addDataRequest, boolean allowReBroadcast) {
+        return storageService.onAddDataRequest(addDataRequest)
                 .whenComplete((optionalData, throwable) -> {
                     optionalData.ifPresent(storageData -> {
                         if (allowReBroadcast) {
@@ -326,8 +370,8 @@ public class DataService implements StorageService.Listener {
                 });
     }
 
-    public void processRemoveDataRequest(RemoveDataRequest removeDataRequest, boolean allowReBroadcast) {
-        storageService.onRemoveDataRequest(removeDataRequest)
+    public CompletableFuture<Optional<StorageData>> processRemoveDataRequest(RemoveDataRequest removeDataRequest, boolean allowReBroadcast) {
+        return storageService.onRemoveDataRequest(removeDataRequest)
                 .whenComplete((optionalData, throwable) -> {
                     optionalData.ifPresent(storageData -> {
                         if (allowReBroadcast) {
@@ -18,4 +18,5 @@
 package bisq.network.p2p.services.data;
 
 public interface RemoveDataRequest extends DataRequest {
+    int getSequenceNumber();
 }
@@ -18,6 +18,7 @@
 package bisq.network.p2p.services.data.inventory;
 
 import bisq.common.encoding.Hex;
+import bisq.common.metrics.Metrics;
 import bisq.common.util.ByteUnit;
 import bisq.network.NetworkService;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
@@ -76,7 +77,12 @@ class InventoryHandler implements Connection.Listener {
             if (response.getRequestNonce() == nonce) {
                 printReceivedInventory(response);
                 removeListeners();
-                connection.getConnectionMetrics().addRtt(System.currentTimeMillis() - ts);
+                long rtt = System.currentTimeMillis() - ts;
+                connection.getConnectionMetrics().addRtt(rtt);
+                Metrics.latencyHistogram("bisq_network_inventory_request_rtt_ms", "Round trip time of inventory requests")
+                        .observe(rtt);
+                Metrics.sizeHistogram("bisq_network_inventory_response_received_bytes", "Size of received inventory responses")
+                        .observe(response.getInventory().getSerializedSize().orElse(0));
                 future.complete(response.getInventory());
             } else {
                 log.warn("Node {} received InventoryResponse from {} with invalid nonce {}. Request nonce was {}. Connection={}",
@@ -17,6 +17,8 @@
 
 package bisq.network.p2p.services.data.inventory;
 
+import bisq.common.application.StartupTimeline;
+import bisq.common.metrics.Metrics;
 import bisq.common.timer.Scheduler;
 import bisq.common.util.CompletableFutureUtils;
 import bisq.network.common.Address;
@@ -32,14 +34,17 @@ import bisq.network.p2p.services.data.RemoveDataRequest;
 import bisq.network.p2p.services.data.inventory.filter.FilterService;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
+import bisq.network.p2p.services.data.inventory.snapshot.BootstrapSnapshotRequestService;
 import bisq.network.p2p.services.peergroup.Peer;
 import bisq.network.p2p.services.peergroup.PeerGroupManager;
 import bisq.network.p2p.services.peergroup.PeerGroupService;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -48,6 +53,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class InventoryRequestService implements Node.Listener, PeerGroupManager.Listener {
     private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(120);
+    private static final int NUM_SEEDS_FOR_EARLY_REQUEST = 2;
 
     private final Node node;
     private final PeerGroupManager peerGroupManager;
@@ -55,14 +61,22 @@ public class InventoryRequestService implements Node.Listener, PeerGroupManager.
     private final DataService dataService;
     private final Map<InventoryFilterType, FilterService<? extends InventoryFilter>> supportedFilterServices;
     private final List<InventoryFilterType> myPreferredInventoryFilterTypes;
+    private final Set<Feature> myFeatures;
     private final Map<String, InventoryHandler> requestHandlerMap = new ConcurrentHashMap<>();
+    private final BootstrapSnapshotRequestService bootstrapSnapshotRequestService;
+    private final long startTs = System.nanoTime();
     private boolean requestsPending;
+    private boolean bootstrapSnapshotChecked;
+    // Used for reporting the initial sync time: DELTA if we had network data, FULL if not and SNAPSHOT if we got
+    // the data from a bootstrap snapshot
+    private String syncMode = "DELTA";
 
     public InventoryRequestService(Node node,
                                    PeerGroupManager peerGroupManager,
                                    DataService dataService,
                                    Map<InventoryFilterType, FilterService<? extends InventoryFilter>> supportedFilterServices,
                                    List<InventoryFilterType> myPreferredInventoryFilterTypes,
+                                   Set<Feature> myFeatures,
                                    int maxSize) {
         this.node = node;
         this.peerGroupManager = peerGroupManager;
@@ -70,6 +84,8 @@ public class InventoryRequestService implements Node.Listener, PeerGroupManager.
         this.dataService = dataService;
         this.supportedFilterServices = supportedFilterServices;
         this.myPreferredInventoryFilterTypes = myPreferredInventoryFilterTypes;
+        this.myFeatures = myFeatures;
+        bootstrapSnapshotRequestService = new BootstrapSnapshotRequestService(node, dataService);
 
         node.addListener(this);
         peerGroupManager.addListener(this);
@@ -80,6 +96,7 @@ public class InventoryRequestService implements Node.Listener, PeerGroupManager.
         peerGroupManager.removeListener(this);
         requestHandlerMap.values().forEach(InventoryHandler::dispose);
         requestHandlerMap.clear();
+        bootstrapSnapshotRequestService.shutdown();
     }
 
 
@@ -98,6 +115,10 @@ public class InventoryRequestService implements Node.Listener, PeerGroupManager.
             log.info("We are sufficiently connected to start the inventory request. numConnections={}",
                     node.getNumConnections());
             requestInventory();
+        } else if (sufficientSeedConnections()) {
+            log.info("We are connected to {} seed nodes. We start the inventory request while the peer group is still starting.",
+                    NUM_SEEDS_FOR_EARLY_REQUEST);
+            requestInventory();
         }
     }
 
@@ -129,8 +150,24 @@ public class InventoryRequestService implements Node.Listener, PeerGroupManager.
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
     private void requestInventory() {
-        if (!requestsPending && peerGroupManager.getState().get() == PeerGroupManager.State.RUNNING) {
+        if (!requestsPending && canRequestInventory()) {
             requestsPending = true;
+            if (!bootstrapSnapshotChecked) {
+                if (dataService.getStorageService().getAllDataRequestMapEntries().findAny().isEmpty()) {
+                    syncMode = "FULL";
+                    // If no connected seed node supports the snapshot yet, we check again at the next request
+                    // round as long as our network data are empty.
+                    Optional<Connection> snapshotProvider = findBootstrapSnapshotProvider();
+                    if (snapshotProvider.isPresent()) {
+                        bootstrapSnapshotChecked = true;
+                        requestBootstrapSnapshot(snapshotProvider.get());
+                        return;
+                    }
+                } else {
+                    bootstrapSnapshotChecked = true;
+                }
+            }
+
             CompletableFutureUtils.allOf(requestFromPeers())
                     .whenComplete((list, throwable) -> {
                         if (list != null) {
@@ -138,6 +175,8 @@ public class InventoryRequestService implements Node.Listener, PeerGroupManager.
                             if (list.stream().noneMatch(Inventory::noDataMissing)) {
                                 requestsPending = false;
                                 Scheduler.run(this::requestInventory).after(1000);
+                            } else {
+                                onInitialSyncCompleted();
                             }
                         }
                     });
@@ -146,6 +185,39 @@ public class InventoryRequestService implements Node.Listener, PeerGroupManager.
         }
     }
 
+    // If our network data are empty, we request a snapshot from a seed node and continue with the inventory requests,
+    // which will then only deliver the data added after the snapshot was created.
+    private void requestBootstrapSnapshot(Connection connection) {
+        log.info("We have no network data and request the bootstrap snapshot from {}", connection.getPeerAddress());
+        bootstrapSnapshotRequestService.requestAndApply(connection)
+                .whenComplete((numAdded, throwable) -> {
+                    if (throwable != null) {
+                        log.warn("Requesting the bootstrap snapshot failed. We continue with the inventory requests.", throwable);
+                    } else if (numAdded > 0) {
+                        syncMode = "SNAPSHOT";
+                    }
+                    requestsPending = false;
+                    requestInventory();
+                });
+    }
+
+    private Optional<Connection> findBootstrapSnapshotProvider() {
+        return node.getAllActiveConnections()
+                .filter(peerGroupService::isSeed)
+                .filter(BootstrapSnapshotRequestService::isSupported)
+                .findAny();
+    }
+
+    private void onInitialSyncCompleted() {
+        long duration = (System.nanoTime() - startTs) / 1_000_000;
+        Metrics.latencyHistogram("bisq_network_initial_sync_ms",
+                        "Time from the start of the inventory service until all network data are received",
+                        "mode", syncMode)
+                .observe(duration);
+        StartupTimeline.record("network", "Initial inventory sync (" + syncMode + ")", startTs);
+        log.info("Initial inventory sync completed in {} ms. Mode: {}", duration, syncMode);
+    }
+
     private List<CompletableFuture<Inventory>> requestFromPeers() {
         int maxSeeds = 2;
         int maxCandidates = 5;
@@ -153,6 +225,7 @@ public class InventoryRequestService implements Node.Listener, PeerGroupManager.
         List<Connection> candidateConnections = node.getAllActiveConnections()
                 .filter(connection -> !requestHandlerMap.containsKey(connection.getId()))
                 .filter(connection -> candidates.contains(connection.getPeerAddress()))
+                .sorted(Comparator.comparingInt(connection -> candidates.indexOf(connection.getPeerAddress())))
                 .collect(Collectors.toList());
 
         List<Connection> matchingConnections = candidateConnections.stream()
@@ -173,11 +246,14 @@ public class InventoryRequestService implements Node.Listener, PeerGroupManager.
                     List<Feature> peersFeatures = connection.getPeersCapability().getFeatures();
                     InventoryFilterType inventoryFilterType = getPreferredFilterType(peersFeatures).orElseThrow(); // we filtered above for presence
                     var filterService = supportedFilterServices.get(inventoryFilterType);
-                    return handler.request(filterService.getFilter())
+                    boolean liveDataOnly = FilterService.isLiveDataFilterSupported(myFeatures, peersFeatures);
+                    return handler.request(filterService.getFilter(liveDataOnly))
                             .orTimeout(TIMEOUT, TimeUnit.SECONDS)
                             .whenComplete((inventory, throwable) -> {
                                 requestHandlerMap.remove(key);
                                 if (inventory != null) {
+                                    peerGroupService.onInventoryReceived(connection.getPeerAddress(),
+                                            inventory.getSerializedSize().orElse(0));
                                     inventory.getEntries().forEach(dataRequest -> {
                                         if (dataRequest instanceof AddDataRequest) {
                                             dataService.processAddDataRequest((AddDataRequest) dataRequest, false);
@@ -188,25 +264,43 @@ public class InventoryRequestService implements Node.Listener, PeerGroupManager.
                                 }
                                 if (throwable != null) {
                                     log.warn("Inventory request failed.", throwable);
+                                    peerGroupService.onPeerFailure(connection.getPeerAddress());
                                 }
                             });
                 })
                 .collect(Collectors.toList());
     }
 
+    // Seeds first, each group ordered by the peer's score
     private List<Address> getCandidates(int maxSeeds) {
         List<Address> candidates = peerGroupService.getAllConnectedPeers(node)
                 .filter(peerGroupService::isSeed)
+                .sorted(peerGroupService.getPeerScoreComparator())
                 .limit(maxSeeds)
                 .map(Peer::getAddress)
                 .collect(Collectors.toList());
         candidates.addAll(peerGroupService.getAllConnectedPeers(node)
                 .filter(peerGroupService::notASeed)
+                .sorted(peerGroupService.getPeerScoreComparator())
                 .map(Peer::getAddress)
                 .collect(Collectors.toList()));
         return candidates;
     }
 
+    // We do not need to wait until the initial peer exchange is completed if we are already connected to enough
+    // seed nodes, as they are our preferred inventory providers.
+    private boolean canRequestInventory() {
+        PeerGroupManager.State state = peerGroupManager.getState().get();
+        return state == PeerGroupManager.State.RUNNING ||
+                (state == PeerGroupManager.State.STARTING && sufficientSeedConnections());
+    }
+
+    private boolean sufficientSeedConnections() {
+        return peerGroupService.getAllConnectedPeers(node)
+                .filter(peerGroupService::isSeed)
+                .count() >= NUM_SEEDS_FOR_EARLY_REQUEST;
+    }
+
     private boolean sufficientConnections() {
         return node.getNumConnections() > peerGroupService.getTargetNumConnectedPeers() / 2;
     }
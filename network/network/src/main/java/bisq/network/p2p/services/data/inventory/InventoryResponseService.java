@@ -17,12 +17,14 @@
 
 package bisq.network.p2p.services.data.inventory;
 
+import bisq.common.metrics.Metrics;
 import bisq.common.util.ByteUnit;
 import bisq.network.NetworkService;
 import bisq.network.identity.NetworkId;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.node.CloseReason;
 import bisq.network.p2p.node.Connection;
+import bisq.network.p2p.node.Feature;
 import bisq.network.p2p.node.Node;
 import bisq.network.p2p.services.data.inventory.filter.FilterService;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
@@ -30,15 +32,20 @@ import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 public class InventoryResponseService implements Node.Listener {
     private final Node node;
     private final Map<InventoryFilterType, FilterService<? extends InventoryFilter>> filterServiceMap;
+    private final Set<Feature> myFeatures;
 
-    InventoryResponseService(Node node, Map<InventoryFilterType, FilterService<? extends InventoryFilter>> filterServiceMap) {
+    InventoryResponseService(Node node,
+                             Map<InventoryFilterType, FilterService<? extends InventoryFilter>> filterServiceMap,
+                             Set<Feature> myFeatures) {
         this.node = node;
         this.filterServiceMap = filterServiceMap;
+        this.myFeatures = myFeatures;
 
         node.addListener(this);
     }
@@ -70,14 +77,19 @@ public class InventoryResponseService implements Node.Listener {
 
     private void handleInventoryRequest(InventoryRequest request, Connection connection) {
         InventoryFilter inventoryFilter = request.getInventoryFilter();
-        double size = ByteUnit.BYTE.toKB(inventoryFilter.toProto().getSerializedSize());
+        int serializedSize = inventoryFilter.toProto().getSerializedSize();
+        Metrics.sizeHistogram("bisq_network_inventory_request_received_bytes", "Size of the filter of received inventory requests")
+                .observe(serializedSize);
+        double size = ByteUnit.BYTE.toKB(serializedSize);
         log.info("Received an InventoryRequest from peer {}. Size: {} kb. Filter details: {}",
                 connection.getPeerAddress(), size, inventoryFilter.getDetails());
 
         InventoryFilterType inventoryFilterType = inventoryFilter.getInventoryFilterType();
         if (filterServiceMap.containsKey(inventoryFilterType)) {
             FilterService<? extends InventoryFilter> filterService = filterServiceMap.get(inventoryFilterType);
-            Inventory inventory = filterService.createInventory(inventoryFilter);
+            boolean liveDataFilter = FilterService.isLiveDataFilterSupported(myFeatures,
+                    connection.getPeersCapability().getFeatures());
+            Inventory inventory = filterService.createInventory(inventoryFilter, liveDataFilter);
             NetworkService.NETWORK_IO_POOL.submit(() -> node.send(new InventoryResponse(inventory, request.getNonce()), connection));
         } else {
             log.warn("We got an inventoryRequest with filterType {} which we do not support." +
@@ -25,6 +25,7 @@ import bisq.network.p2p.services.data.inventory.filter.FilterService;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
 import bisq.network.p2p.services.data.inventory.filter.hash_set.HashSetFilterService;
+import bisq.network.p2p.services.data.inventory.snapshot.BootstrapSnapshotResponseService;
 import bisq.network.p2p.services.data.storage.StorageService;
 import bisq.network.p2p.services.peergroup.PeerGroupManager;
 import lombok.Getter;
@@ -60,6 +61,7 @@ public class InventoryService {
 
     private final InventoryResponseService inventoryResponseService;
     private final InventoryRequestService inventoryRequestService;
+    private final Optional<BootstrapSnapshotResponseService> bootstrapSnapshotResponseService;
 
     public InventoryService(Config config,
                             Node node,
@@ -87,18 +89,24 @@ public class InventoryService {
 
                     }
                 });
-        inventoryResponseService = new InventoryResponseService(node, supportedFilterServices);
+        inventoryResponseService = new InventoryResponseService(node, supportedFilterServices, features);
         inventoryRequestService = new InventoryRequestService(node,
                 peerGroupManager,
                 dataService,
                 supportedFilterServices,
                 config.getMyPreferredFilterTypes(),
+                features,
                 maxSize);
+        // Seed nodes provide a snapshot of the network data for new nodes
+        bootstrapSnapshotResponseService = features.contains(Feature.INVENTORY_BOOTSTRAP_SNAPSHOT) ?
+                Optional.of(new BootstrapSnapshotResponseService(node, storageService)) :
+                Optional.empty();
     }
 
 
     public void shutdown() {
         inventoryResponseService.shutdown();
         inventoryRequestService.shutdown();
+        bootstrapSnapshotResponseService.ifPresent(BootstrapSnapshotResponseService::shutdown);
     }
 }
\ No newline at end of file
@@ -18,10 +18,13 @@
 package bisq.network.p2p.services.data.inventory.filter;
 
 import bisq.common.data.ByteArray;
+import bisq.common.metrics.Metrics;
 import bisq.common.util.ByteUnit;
+import bisq.network.p2p.node.Feature;
 import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.inventory.Inventory;
 import bisq.network.p2p.services.data.storage.StorageService;
+import bisq.network.p2p.services.data.storage.TombstoneTable;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
@@ -32,6 +35,7 @@ import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -48,7 +52,22 @@ public abstract class FilterService<T extends InventoryFilter> {
         this.maxSize = maxSize;
     }
 
-    abstract public T getFilter();
+    /**
+     * Peers with {@link Feature#INVENTORY_LIVE_DATA_FILTER} send only the tombstones of data we still hold. Peers
+     * without it send all tombstones missing in our filter, thus for them the filter has to list our tombstones.
+     *
+     * @param liveDataOnly If true, the filter does not list the tombstones.
+     */
+    abstract public T getFilter(boolean liveDataOnly);
+
+    /**
+     * @return True if both support {@link Feature#INVENTORY_LIVE_DATA_FILTER}, in which case the requester's filter
+     * lists only the live data.
+     */
+    public static boolean isLiveDataFilterSupported(Collection<Feature> myFeatures, Collection<Feature> peersFeatures) {
+        return myFeatures.contains(Feature.INVENTORY_LIVE_DATA_FILTER) &&
+                peersFeatures.contains(Feature.INVENTORY_LIVE_DATA_FILTER);
+    }
 
     abstract protected boolean isAuthenticatedDataRequestMissing(T filter, Map.Entry<ByteArray, AuthenticatedDataRequest> mapEntry);
 
@@ -56,15 +75,34 @@ public abstract class FilterService<T extends InventoryFilter> {
 
     abstract protected boolean isAddAppendOnlyDataRequestMissing(T filter, Map.Entry<ByteArray, AddAppendOnlyDataRequest> entry);
 
-    public Inventory createInventory(InventoryFilter inventoryFilter) {
+    /**
+     * Tombstones (remove requests) are not part of the inventory walk. If the filter lists only the live data, we only
+     * send them if the filter shows that the peer still holds the removed data.
+     *
+     * @return True if the filter contains the hash with a lower sequence number.
+     */
+    abstract protected boolean holdsRemovedData(T filter, ByteArray hash, int sequenceNumber);
+
+    /**
+     * Used if the filter lists the tombstones of the peer as well.
+     *
+     * @return True if the filter does not contain the tombstone.
+     */
+    abstract protected boolean isTombstoneMissing(T filter, ByteArray hash, int sequenceNumber);
+
+    /**
+     * @param liveDataFilter If true, the filter lists only the live data of the peer.
+     */
+    public Inventory createInventory(InventoryFilter inventoryFilter, boolean liveDataFilter) {
         final AtomicInteger accumulatedSize = new AtomicInteger();
         final AtomicBoolean maxSizeReached = new AtomicBoolean();
         // The type is not defined at compile time, thus we do a safe cast
         T filter = safeCast(inventoryFilter);
-        List<DataRequest> dataRequests = getAuthenticatedDataRequests(filter, accumulatedSize, maxSizeReached);
+        TombstoneTable.Matcher tombstoneMatcher = createTombstoneMatcher(filter, liveDataFilter);
+        List<DataRequest> dataRequests = getAuthenticatedDataRequests(filter, tombstoneMatcher, accumulatedSize, maxSizeReached);
 
         if (!maxSizeReached.get()) {
-            dataRequests.addAll(getMailboxRequests(filter, accumulatedSize, maxSizeReached));
+            dataRequests.addAll(getMailboxRequests(filter, tombstoneMatcher, accumulatedSize, maxSizeReached));
         }
 
         if (!maxSizeReached.get()) {
@@ -73,28 +111,45 @@ public abstract class FilterService<T extends InventoryFilter> {
 
         log.info("Inventory with {} items and accumulatedSize of {} kb. maxSizeReached={}",
                 dataRequests.size(), ByteUnit.BYTE.toKB(accumulatedSize.get()), maxSizeReached.get());
+        // The accumulated size is close to the serialized size of the inventory, so we do not serialize it again for the
+        // metrics. If the max size got reached, it includes the size of the first request which was left out.
+        Metrics.sizeHistogram("bisq_network_inventory_response_sent_bytes", "Size of sent inventory responses")
+                .observe(accumulatedSize.get());
         return new Inventory(dataRequests, maxSizeReached.get());
     }
 
     abstract protected T safeCast(InventoryFilter inventoryFilter);
 
+    private TombstoneTable.Matcher createTombstoneMatcher(T filter, boolean liveDataFilter) {
+        long now = System.currentTimeMillis();
+        if (liveDataFilter) {
+            return (hash, sequenceNumber, expirationDate) ->
+                    expirationDate >= now && holdsRemovedData(filter, hash, sequenceNumber);
+        } else {
+            return (hash, sequenceNumber, expirationDate) ->
+                    expirationDate >= now && isTombstoneMissing(filter, hash, sequenceNumber);
+        }
+    }
+
     private List<DataRequest> getAuthenticatedDataRequests(T filter,
+                                                           TombstoneTable.Matcher tombstoneMatcher,
                                                            AtomicInteger accumulatedSize,
                                                            AtomicBoolean maxSizeReached) {
         List<AddAuthenticatedDataRequest> addRequests = new ArrayList<>();
-        List<RemoveAuthenticatedDataRequest> removeRequests = new ArrayList<>();
-        storageService.getAuthenticatedDataStoreMaps().flatMap(map -> map.entrySet().stream())
+        storageService.getLiveAuthenticatedDataEntries()
                 .forEach(mapEntry -> {
                     if (isAuthenticatedDataRequestMissing(filter, mapEntry)) {
                         AuthenticatedDataRequest dataRequest = mapEntry.getValue();
                         if (dataRequest instanceof AddAuthenticatedDataRequest) {
                             addRequests.add((AddAuthenticatedDataRequest) dataRequest);
-                        } else if (dataRequest instanceof RemoveAuthenticatedDataRequest) {
-                            removeRequests.add((RemoveAuthenticatedDataRequest) dataRequest);
                         }
                         // Refresh is ignored
                     }
                 });
+        List<RemoveAuthenticatedDataRequest> removeRequests = storageService.findAuthenticatedDataTombstones(tombstoneMatcher)
+                .filter(dataRequest -> dataRequest instanceof RemoveAuthenticatedDataRequest)
+                .map(dataRequest -> (RemoveAuthenticatedDataRequest) dataRequest)
+                .collect(Collectors.toList());
 
         List<DataRequest> sortedAndFilteredRequests = addRequests.stream()
                 .sorted((o1, o2) -> Integer.compare(o2.getAuthenticatedSequentialData().getAuthenticatedData().getDistributedData().getMetaData().getPriority(),
@@ -124,18 +179,16 @@ public abstract class FilterService<T extends InventoryFilter> {
 
 
     private List<DataRequest> getMailboxRequests(T filter,
+                                                 TombstoneTable.Matcher tombstoneMatcher,
                                                  AtomicInteger accumulatedSize,
                                                  AtomicBoolean maxSizeReached) {
         List<AddMailboxRequest> addRequests = new ArrayList<>();
-        List<RemoveMailboxRequest> removeRequests = new ArrayList<>();
-        storageService.getMailboxStoreMaps().flatMap(map -> map.entrySet().stream())
+        storageService.getLiveMailboxEntries()
                 .forEach(mapEntry -> {
                     if (isMailboxRequestMissing(filter, mapEntry)) {
                         MailboxRequest dataRequest = mapEntry.getValue();
                         if (dataRequest instanceof AddMailboxRequest) {
                             addRequests.add((AddMailboxRequest) dataRequest);
-                        } else if (dataRequest instanceof RemoveMailboxRequest) {
-                            removeRequests.add((RemoveMailboxRequest) dataRequest);
                         }
                     }
                   /*  if (!hashSetFilter.getFilterEntries().contains(toFilterEntry(mapEntry))) {
@@ -147,6 +200,10 @@ public abstract class FilterService<T extends InventoryFilter> {
                         }
                     }*/
                 });
+        List<RemoveMailboxRequest> removeRequests = storageService.findMailboxTombstones(tombstoneMatcher)
+                .filter(dataRequest -> dataRequest instanceof RemoveMailboxRequest)
+                .map(dataRequest -> (RemoveMailboxRequest) dataRequest)
+                .collect(Collectors.toList());
         List<DataRequest> sortedAndFilteredRequests = addRequests.stream()
                 .sorted((o1, o2) -> Integer.compare(o2.getMailboxSequentialData().getMailboxData().getMetaData().getPriority(),
                         o1.getMailboxSequentialData().getMailboxData().getMetaData().getPriority()))
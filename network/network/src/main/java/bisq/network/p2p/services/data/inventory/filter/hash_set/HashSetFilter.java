@@ -18,8 +18,10 @@
 package bisq.network.p2p.services.data.inventory.filter.hash_set;
 
 
+import bisq.common.data.ByteArray;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +29,8 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -41,6 +45,9 @@ public final class HashSetFilter extends InventoryFilter {
     public final static int MAX_ENTRIES = 200_000;
 
     private final List<HashSetFilterEntry> filterEntries;
+    // Built at the first lookup. Transient fields are not part of equals and hashCode.
+    @Getter(AccessLevel.NONE)
+    private transient volatile Map<ByteArray, Integer> sequenceNumberByHash;
 
     public HashSetFilter(List<HashSetFilterEntry> filterEntries) {
         this(InventoryFilterType.HASH_SET, filterEntries);
@@ -87,4 +94,15 @@ public final class HashSetFilter extends InventoryFilter {
     public Set<HashSetFilterEntry> getFilterEntriesAsSet() {
         return new HashSet<>(filterEntries);
     }
-}
\ No newline at end of file
+
+    public Optional<Integer> findSequenceNumber(ByteArray hash) {
+        Map<ByteArray, Integer> map = sequenceNumberByHash;
+        if (map == null) {
+            map = filterEntries.stream().collect(Collectors.toMap(entry -> new ByteArray(entry.getHash()),
+                    HashSetFilterEntry::getSequenceNumber,
+                    Math::max));
+            sequenceNumberByHash = map;
+        }
+        return Optional.ofNullable(map.get(hash));
+    }
+}
@@ -33,6 +33,7 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 public class HashSetFilterService extends FilterService<HashSetFilter> {
@@ -40,8 +41,11 @@ public class HashSetFilterService extends FilterService<HashSetFilter> {
         super(storageService, maxSize);
     }
 
-    public HashSetFilter getFilter() {
-        List<HashSetFilterEntry> filterEntries = storageService.getAllDataRequestMapEntries()
+    public HashSetFilter getFilter(boolean liveDataOnly) {
+        Stream<Map.Entry<ByteArray, ? extends DataRequest>> entries = liveDataOnly
+                ? storageService.getLiveDataRequestMapEntries()
+                : storageService.getAllDataRequestMapEntries();
+        List<HashSetFilterEntry> filterEntries = entries
                 .map(this::toFilterEntry)
                 .collect(Collectors.toList());
         if (filterEntries.size() > HashSetFilter.MAX_ENTRIES) {
@@ -76,6 +80,20 @@ public class HashSetFilterService extends FilterService<HashSetFilter> {
         return !filter.getFilterEntriesAsSet().contains(toFilterEntry(mapEntry));
     }
 
+    @Override
+    protected boolean holdsRemovedData(HashSetFilter filter, ByteArray hash, int sequenceNumber) {
+        return filter.findSequenceNumber(hash)
+                .map(sequenceNumberOfPeer -> sequenceNumberOfPeer < sequenceNumber)
+                .orElse(false);
+    }
+
+    @Override
+    protected boolean isTombstoneMissing(HashSetFilter filter, ByteArray hash, int sequenceNumber) {
+        return filter.findSequenceNumber(hash)
+                .map(sequenceNumberOfPeer -> sequenceNumberOfPeer != sequenceNumber)
+                .orElse(true);
+    }
+
     private HashSetFilterEntry toFilterEntry(Map.Entry<ByteArray, ? extends DataRequest> mapEntry) {
         DataRequest dataRequest = mapEntry.getValue();
         int sequenceNumber = 0;
@@ -38,7 +38,7 @@ public class MiniSketchFilterService extends FilterService<MiniSketchFilter> {
         super(storageService, maxSize);
     }
 
-    public MiniSketchFilter getFilter() {
+    public MiniSketchFilter getFilter(boolean liveDataOnly) {
         return new MiniSketchFilter();
     }
 
@@ -57,6 +57,18 @@ public class MiniSketchFilterService extends FilterService<MiniSketchFilter> {
         return true;
     }
 
+    @Override
+    protected boolean holdsRemovedData(MiniSketchFilter filter, ByteArray hash, int sequenceNumber) {
+        // The skeleton filter does not tell which data the peer holds. A peer without the data does not need the
+        // tombstone.
+        return false;
+    }
+
+    @Override
+    protected boolean isTombstoneMissing(MiniSketchFilter filter, ByteArray hash, int sequenceNumber) {
+        return true;
+    }
+
     @Override
     protected MiniSketchFilter safeCast(InventoryFilter inventoryFilter) {
         if (inventoryFilter instanceof MiniSketchFilter &&
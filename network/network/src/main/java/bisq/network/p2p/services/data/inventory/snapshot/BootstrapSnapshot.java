@@ -0,0 +1,182 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.snapshot;
+
+import bisq.common.encoding.Hex;
+import bisq.network.common.Address;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.security.DigestUtil;
+import bisq.security.TorSignatureUtil;
+import bisq.security.keys.TorKeyUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.crypto.CryptoException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Snapshot of all entries of the network data stores, created by seed nodes to speed up the first sync of a new node.
+ * The entries are written as length delimited DataRequest protos and deflate compressed. The hash is the SHA-256 of the
+ * compressed data. If the seed node is reachable at an onion address, the hash is signed with the key of the onion
+ * address, so the receiver can verify that the snapshot is from the seed node it has requested it from.
+ * <p>
+ * The snapshot does not replace the verification of the entries. Each entry gets verified as if it was received by an
+ * inventory response.
+ */
+@Slf4j
+@Getter
+public final class BootstrapSnapshot {
+    static final int CHUNK_SIZE = 1024 * 1024;
+    static final int MAX_NUM_CHUNKS = 256;
+
+    private final long date;
+    private final int numEntries;
+    private final byte[] hash;
+    private final Optional<byte[]> signature;
+    private final List<byte[]> chunks;
+
+    static BootstrapSnapshot create(Collection<? extends DataRequest> dataRequests,
+                                    Address myAddress,
+                                    byte[] torPrivateKey) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(outputStream, deflater)) {
+            for (DataRequest dataRequest : dataRequests) {
+                dataRequest.toProto().getDataRequest().writeDelimitedTo(deflaterOutputStream);
+            }
+        } finally {
+            deflater.end();
+        }
+        byte[] compressed = outputStream.toByteArray();
+        if (compressed.length > (long) CHUNK_SIZE * MAX_NUM_CHUNKS) {
+            throw new IOException("Snapshot exceeds the max. size. size=" + compressed.length);
+        }
+
+        List<byte[]> chunks = new ArrayList<>();
+        for (int from = 0; from < compressed.length; from += CHUNK_SIZE) {
+            chunks.add(Arrays.copyOfRange(compressed, from, Math.min(from + CHUNK_SIZE, compressed.length)));
+        }
+
+        long date = System.currentTimeMillis();
+        int numEntries = dataRequests.size();
+        byte[] hash = DigestUtil.sha256(compressed);
+        Optional<byte[]> signature = Optional.empty();
+        if (myAddress.isTorAddress()) {
+            try {
+                signature = Optional.of(TorSignatureUtil.sign(torPrivateKey, buildMessageForSigning(myAddress, date, numEntries, hash)));
+            } catch (CryptoException e) {
+                throw new IOException("Signing the snapshot failed", e);
+            }
+        }
+        return new BootstrapSnapshot(date, numEntries, hash, signature, chunks);
+    }
+
+    /**
+     * @param responses The responses of all chunks ordered by the chunk index.
+     */
+    static BootstrapSnapshot fromResponses(List<BootstrapSnapshotResponse> responses) {
+        BootstrapSnapshotResponse first = responses.get(0);
+        List<byte[]> chunks = new ArrayList<>(responses.size());
+        for (BootstrapSnapshotResponse response : responses) {
+            if (response.getDate() != first.getDate() || !Arrays.equals(response.getHash(), first.getHash())) {
+                throw new IllegalArgumentException("Chunks of different snapshots");
+            }
+            chunks.add(response.getChunk());
+        }
+        return new BootstrapSnapshot(first.getDate(), first.getNumEntries(), first.getHash(), first.getSignature(), chunks);
+    }
+
+    private static byte[] buildMessageForSigning(Address signersAddress, long date, int numEntries, byte[] hash) {
+        return (signersAddress.getFullAddress() + "|" + date + "|" + numEntries + "|" + Hex.encode(hash))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private BootstrapSnapshot(long date, int numEntries, byte[] hash, Optional<byte[]> signature, List<byte[]> chunks) {
+        this.date = date;
+        this.numEntries = numEntries;
+        this.hash = hash;
+        this.signature = signature;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Verifies the hash and if the peer has an onion address the signature.
+     */
+    boolean isValid(Address peerAddress) {
+        byte[] compressed = getCompressed();
+        if (!Arrays.equals(DigestUtil.sha256(compressed), hash)) {
+            log.warn("Hash of snapshot from {} does not match", peerAddress);
+            return false;
+        }
+        if (!peerAddress.isTorAddress()) {
+            return true;
+        }
+        if (signature.isEmpty()) {
+            log.warn("Snapshot from {} is not signed", peerAddress);
+            return false;
+        }
+        byte[] pubKey = TorKeyUtils.getPublicKeyFromOnionAddress(peerAddress.getHost());
+        boolean isValid = TorSignatureUtil.verify(pubKey, buildMessageForSigning(peerAddress, date, numEntries, hash), signature.get());
+        if (!isValid) {
+            log.warn("Signature of snapshot from {} is invalid", peerAddress);
+        }
+        return isValid;
+    }
+
+    /**
+     * Decompresses the entries and passes them to the consumer. Reading stops after numEntries.
+     */
+    void forEachEntry(Consumer<bisq.network.protobuf.DataRequest> consumer) throws IOException {
+        try (InputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(getCompressed()))) {
+            for (int i = 0; i < numEntries; i++) {
+                bisq.network.protobuf.DataRequest proto = bisq.network.protobuf.DataRequest.parseDelimitedFrom(inputStream);
+                if (proto == null) {
+                    throw new IOException("Snapshot contains less entries than expected. numEntries=" + numEntries);
+                }
+                consumer.accept(proto);
+            }
+        }
+    }
+
+    int getSize() {
+        return chunks.stream().mapToInt(chunk -> chunk.length).sum();
+    }
+
+    private byte[] getCompressed() {
+        byte[] compressed = new byte[getSize()];
+        int offset = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, compressed, offset, chunk.length);
+            offset += chunk.length;
+        }
+        return compressed;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.snapshot;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Collects the chunks of a bootstrap snapshot received from a peer. The chunks can arrive in any order.
+ */
+final class BootstrapSnapshotAssembler {
+    private BootstrapSnapshotResponse[] responses;
+    private int numReceived;
+
+    /**
+     * @return The snapshot once all chunks are added, otherwise empty.
+     * @throws IllegalArgumentException If the chunk was added already or does not belong to the same snapshot as the
+     *                                  previous chunks.
+     */
+    synchronized Optional<BootstrapSnapshot> add(BootstrapSnapshotResponse response) {
+        checkArgument(response.hasSnapshot(), "Response has no snapshot");
+        if (responses == null) {
+            responses = new BootstrapSnapshotResponse[response.getNumChunks()];
+        }
+        checkArgument(response.getNumChunks() == responses.length, "Invalid number of chunks. response=%s", response);
+        checkArgument(responses[response.getChunkIndex()] == null, "Duplicate chunk. response=%s", response);
+
+        responses[response.getChunkIndex()] = response;
+        numReceived++;
+        if (numReceived < responses.length) {
+            return Optional.empty();
+        }
+        return Optional.of(BootstrapSnapshot.fromResponses(Arrays.asList(responses)));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.snapshot;
+
+import bisq.network.NetworkService;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.node.CloseReason;
+import bisq.network.p2p.node.Connection;
+import bisq.network.p2p.node.Node;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.runAsync;
+
+/**
+ * Requests the bootstrap snapshot from a peer and collects the chunks of the response.
+ */
+@Slf4j
+class BootstrapSnapshotHandler implements Connection.Listener {
+    private final Node node;
+    private final Connection connection;
+    private final CompletableFuture<Optional<BootstrapSnapshot>> future = new CompletableFuture<>();
+    private final int nonce;
+    private final BootstrapSnapshotAssembler assembler = new BootstrapSnapshotAssembler();
+
+    BootstrapSnapshotHandler(Node node, Connection connection) {
+        this.node = node;
+        this.connection = connection;
+
+        nonce = new Random().nextInt();
+        connection.addListener(this);
+    }
+
+    /**
+     * @return The snapshot once all chunks are received, or empty if the peer has no snapshot.
+     */
+    CompletableFuture<Optional<BootstrapSnapshot>> request() {
+        runAsync(() -> node.send(new BootstrapSnapshotRequest(nonce), connection), NetworkService.NETWORK_IO_POOL)
+                .whenComplete((nil, throwable) -> {
+                    if (throwable != null) {
+                        future.completeExceptionally(throwable);
+                        removeListeners();
+                    }
+                });
+        return future;
+    }
+
+    @Override
+    public void onNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage) {
+        if (!(envelopePayloadMessage instanceof BootstrapSnapshotResponse)) {
+            return;
+        }
+        BootstrapSnapshotResponse response = (BootstrapSnapshotResponse) envelopePayloadMessage;
+        if (response.getRequestNonce() != nonce) {
+            log.warn("Received BootstrapSnapshotResponse from {} with invalid nonce {}. Request nonce was {}.",
+                    connection.getPeerAddress(), response.getRequestNonce(), nonce);
+            return;
+        }
+
+        if (!response.hasSnapshot()) {
+            removeListeners();
+            future.complete(Optional.empty());
+            return;
+        }
+
+        try {
+            Optional<BootstrapSnapshot> snapshot = assembler.add(response);
+            if (snapshot.isPresent()) {
+                removeListeners();
+                future.complete(snapshot);
+            }
+        } catch (IllegalArgumentException e) {
+            removeListeners();
+            future.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void onConnectionClosed(CloseReason closeReason) {
+        dispose();
+    }
+
+    void dispose() {
+        removeListeners();
+        future.cancel(true);
+    }
+
+    private void removeListeners() {
+        connection.removeListener(this);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.snapshot;
+
+import bisq.common.metrics.Metrics;
+import bisq.common.threading.ExecutorFactory;
+import bisq.common.util.ByteUnit;
+import bisq.network.common.Address;
+import bisq.network.p2p.node.Connection;
+import bisq.network.p2p.node.Feature;
+import bisq.network.p2p.node.Node;
+import bisq.network.p2p.services.data.AddDataRequest;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.DataService;
+import bisq.network.p2p.services.data.RemoveDataRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests the bootstrap snapshot from a seed node and applies its entries to the data service. The entries are
+ * verified in parallel by the same code path as entries received by an inventory response.
+ */
+@Slf4j
+public class BootstrapSnapshotRequestService {
+    private static final long TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+    private final Node node;
+    private final DataService dataService;
+    private final Map<String, BootstrapSnapshotHandler> requestHandlerMap = new ConcurrentHashMap<>();
+    private final ExecutorService verificationExecutor;
+
+    public BootstrapSnapshotRequestService(Node node, DataService dataService) {
+        this.node = node;
+        this.dataService = dataService;
+        verificationExecutor = ExecutorFactory.newFixedThreadPool("BootstrapSnapshot-verification",
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    public void shutdown() {
+        requestHandlerMap.values().forEach(BootstrapSnapshotHandler::dispose);
+        requestHandlerMap.clear();
+        ExecutorFactory.shutdownAndAwaitTermination(verificationExecutor, 100);
+    }
+
+    public static boolean isSupported(Connection connection) {
+        return connection.getPeersCapability().getFeatures().contains(Feature.INVENTORY_BOOTSTRAP_SNAPSHOT);
+    }
+
+    /**
+     * @return The number of entries which got added to our data stores. 0 if the peer had no snapshot or the snapshot
+     * was invalid.
+     */
+    public CompletableFuture<Integer> requestAndApply(Connection connection) {
+        long ts = System.nanoTime();
+        String key = connection.getId();
+        BootstrapSnapshotHandler handler = new BootstrapSnapshotHandler(node, connection);
+        requestHandlerMap.put(key, handler);
+        return handler.request()
+                .orTimeout(TIMEOUT, TimeUnit.MILLISECONDS)
+                .whenComplete((snapshot, throwable) -> requestHandlerMap.remove(key))
+                .thenComposeAsync(snapshot -> snapshot
+                                .map(bootstrapSnapshot -> apply(bootstrapSnapshot, connection.getPeerAddress(), ts))
+                                .orElseGet(() -> {
+                                    log.info("Peer {} has no bootstrap snapshot", connection.getPeerAddress());
+                                    return CompletableFuture.completedFuture(0);
+                                }),
+                        ExecutorFactory.WORKER_POOL);
+    }
+
+    private CompletableFuture<Integer> apply(BootstrapSnapshot snapshot, Address peerAddress, long ts) {
+        long transferTime = (System.nanoTime() - ts) / 1_000_000;
+        if (!snapshot.isValid(peerAddress)) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(snapshot.getNumEntries());
+        try {
+            snapshot.forEachEntry(proto -> futures.add(process(proto)));
+        } catch (IOException e) {
+            log.warn("Reading the bootstrap snapshot from {} failed", peerAddress, e);
+        }
+
+        // The futures of the entries do not complete exceptionally, so we do not need to handle failures here
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(nil -> {
+                    int numAdded = (int) futures.stream().filter(CompletableFuture::join).count();
+                    Metrics.latencyHistogram("bisq_network_bootstrap_snapshot_apply_ms", "Time for requesting and applying the bootstrap snapshot")
+                            .observeMillisSince(ts);
+                    log.info("Applied bootstrap snapshot from {} created at {}. Size: {} kb; Entries: {}; Added: {}; Transfer: {} ms; Total: {} ms",
+                            peerAddress, snapshot.getDate(), ByteUnit.BYTE.toKB((double) snapshot.getSize()),
+                            snapshot.getNumEntries(), numAdded, transferTime, (System.nanoTime() - ts) / 1_000_000);
+                    return numAdded;
+                });
+    }
+
+    private CompletableFuture<Boolean> process(bisq.network.protobuf.DataRequest proto) {
+        return CompletableFuture.supplyAsync(() -> DataRequest.fromProto(proto), verificationExecutor)
+                .thenCompose(this::process)
+                .exceptionally(throwable -> {
+                    log.warn("Processing an entry of the bootstrap snapshot failed", throwable);
+                    return false;
+                });
+    }
+
+    private CompletableFuture<Boolean> process(DataRequest dataRequest) {
+        if (dataRequest instanceof AddDataRequest) {
+            return dataService.processAddDataRequest((AddDataRequest) dataRequest, false)
+                    .thenApply(Optional::isPresent);
+        } else if (dataRequest instanceof RemoveDataRequest) {
+            return dataService.processRemoveDataRequest((RemoveDataRequest) dataRequest, false)
+                    .thenApply(Optional::isPresent);
+        } else {
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.snapshot;
+
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import com.google.protobuf.ByteString;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * One chunk of a bootstrap snapshot. All chunks of a snapshot are sent back-to-back as response to a
+ * BootstrapSnapshotRequest. A response with numChunks 0 signals that the peer has no snapshot.
+ */
+@Getter
+@ToString(exclude = "chunk")
+@EqualsAndHashCode
+public final class BootstrapSnapshotResponse implements EnvelopePayloadMessage {
+    private final int requestNonce;
+    private final long date;
+    private final int numEntries;
+    private final byte[] hash;
+    private final Optional<byte[]> signature;
+    private final int chunkIndex;
+    private final int numChunks;
+    private final byte[] chunk;
+
+    static BootstrapSnapshotResponse noSnapshot(int requestNonce) {
+        return new BootstrapSnapshotResponse(requestNonce, 0, 0, new byte[0], Optional.empty(), 0, 0, new byte[0]);
+    }
+
+    public BootstrapSnapshotResponse(int requestNonce,
+                                     long date,
+                                     int numEntries,
+                                     byte[] hash,
+                                     Optional<byte[]> signature,
+                                     int chunkIndex,
+                                     int numChunks,
+                                     byte[] chunk) {
+        this.requestNonce = requestNonce;
+        this.date = date;
+        this.numEntries = numEntries;
+        this.hash = hash;
+        this.signature = signature;
+        this.chunkIndex = chunkIndex;
+        this.numChunks = numChunks;
+        this.chunk = chunk;
+
+        verify();
+    }
+
+    @Override
+    public void verify() {
+        checkArgument(numChunks >= 0 && numChunks <= BootstrapSnapshot.MAX_NUM_CHUNKS);
+        checkArgument(chunk.length <= BootstrapSnapshot.CHUNK_SIZE);
+        checkArgument(numEntries >= 0);
+        if (numChunks > 0) {
+            checkArgument(chunkIndex >= 0 && chunkIndex < numChunks);
+            checkArgument(hash.length == 32);
+        }
+        signature.ifPresent(signature -> checkArgument(signature.length == 64));
+    }
+
+    @Override
+    public bisq.network.protobuf.EnvelopePayloadMessage toProto() {
+        bisq.network.protobuf.BootstrapSnapshotResponse.Builder builder = bisq.network.protobuf.BootstrapSnapshotResponse.newBuilder()
+                .setRequestNonce(requestNonce)
+                .setDate(date)
+                .setNumEntries(numEntries)
+                .setHash(ByteString.copyFrom(hash))
+                .setChunkIndex(chunkIndex)
+                .setNumChunks(numChunks)
+                .setChunk(ByteString.copyFrom(chunk));
+        signature.ifPresent(signature -> builder.setSignature(ByteString.copyFrom(signature)));
+        return getNetworkMessageBuilder().setBootstrapSnapshotResponse(builder).build();
+    }
+
+    public static BootstrapSnapshotResponse fromProto(bisq.network.protobuf.BootstrapSnapshotResponse proto) {
+        return new BootstrapSnapshotResponse(proto.getRequestNonce(),
+                proto.getDate(),
+                proto.getNumEntries(),
+                proto.getHash().toByteArray(),
+                proto.hasSignature() ? Optional.of(proto.getSignature().toByteArray()) : Optional.empty(),
+                proto.getChunkIndex(),
+                proto.getNumChunks(),
+                proto.getChunk().toByteArray());
+    }
+
+    @Override
+    public double getCostFactor() {
+        return 0.1;
+    }
+
+    boolean hasSnapshot() {
+        return numChunks > 0;
+    }
+}
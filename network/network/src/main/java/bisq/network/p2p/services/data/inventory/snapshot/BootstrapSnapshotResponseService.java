@@ -0,0 +1,196 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.snapshot;
+
+import bisq.common.metrics.Metrics;
+import bisq.common.timer.Scheduler;
+import bisq.common.util.ByteUnit;
+import bisq.network.NetworkService;
+import bisq.network.common.Address;
+import bisq.network.identity.NetworkId;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.node.CloseReason;
+import bisq.network.p2p.node.Connection;
+import bisq.network.p2p.node.Node;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.storage.StorageService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Used by seed nodes. Creates periodically a snapshot of the network data and sends it to nodes requesting it.
+ * <p>
+ * Sending a snapshot can take up to MAX_NUM_CHUNKS * CHUNK_SIZE bytes of upload. Thus, a snapshot is sent at most once
+ * per connection and once per peer within the cooldown period, and only to a limited number of peers at the same time.
+ * Other requests get the response that there is no snapshot, and the peer uses the regular inventory requests.
+ */
+@Slf4j
+public class BootstrapSnapshotResponseService implements Node.Listener {
+    // We give the seed node time to get the data from the other seed nodes before we create the first snapshot
+    private static final long INITIAL_DELAY_SEC = TimeUnit.MINUTES.toSeconds(2);
+    private static final long INTERVAL_SEC = TimeUnit.MINUTES.toSeconds(10);
+    private static final long PEER_COOLDOWN_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final int MAX_PARALLEL_TRANSFERS = 2;
+
+    private final Node node;
+    private final StorageService storageService;
+    private final Scheduler scheduler;
+    private volatile Optional<BootstrapSnapshot> snapshot = Optional.empty();
+    private final Set<String> servedConnectionIds = ConcurrentHashMap.newKeySet();
+    private final Map<Address, Long> lastServedByPeer = new ConcurrentHashMap<>();
+    private final AtomicInteger numTransfers = new AtomicInteger();
+
+    public BootstrapSnapshotResponseService(Node node, StorageService storageService) {
+        this.node = node;
+        this.storageService = storageService;
+
+        node.addListener(this);
+        scheduler = Scheduler.run(this::createSnapshot)
+                .name("BootstrapSnapshotResponseService.createSnapshot")
+                .periodically(INITIAL_DELAY_SEC, INTERVAL_SEC, TimeUnit.SECONDS);
+    }
+
+    public void shutdown() {
+        node.removeListener(this);
+        scheduler.stop();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Node.Listener
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onMessage(EnvelopePayloadMessage envelopePayloadMessage, Connection connection, NetworkId networkId) {
+        if (envelopePayloadMessage instanceof BootstrapSnapshotRequest) {
+            handleRequest((BootstrapSnapshotRequest) envelopePayloadMessage, connection);
+        }
+    }
+
+    @Override
+    public void onConnection(Connection connection) {
+    }
+
+    @Override
+    public void onDisconnect(Connection connection, CloseReason closeReason) {
+        servedConnectionIds.remove(connection.getId());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void handleRequest(BootstrapSnapshotRequest request, Connection connection) {
+        Optional<BootstrapSnapshot> snapshot = this.snapshot;
+        log.info("Received a BootstrapSnapshotRequest from peer {}. Snapshot available: {}",
+                connection.getPeerAddress(), snapshot.isPresent());
+        if (snapshot.isEmpty() || !tryStartTransfer(connection)) {
+            NetworkService.NETWORK_IO_POOL.submit(() ->
+                    node.send(BootstrapSnapshotResponse.noSnapshot(request.getNonce()), connection));
+            return;
+        }
+
+        NetworkService.NETWORK_IO_POOL.submit(() -> {
+            try {
+                // We send the chunks back-to-back, the peer assembles them by the chunk index
+                BootstrapSnapshot bootstrapSnapshot = snapshot.get();
+                List<byte[]> chunks = bootstrapSnapshot.getChunks();
+                for (int i = 0; i < chunks.size(); i++) {
+                    node.send(new BootstrapSnapshotResponse(request.getNonce(),
+                            bootstrapSnapshot.getDate(),
+                            bootstrapSnapshot.getNumEntries(),
+                            bootstrapSnapshot.getHash(),
+                            bootstrapSnapshot.getSignature(),
+                            i,
+                            chunks.size(),
+                            chunks.get(i)), connection);
+                }
+                Metrics.counter("bisq_network_bootstrap_snapshot_served_total", "Number of bootstrap snapshots sent to peers")
+                        .increment();
+            } finally {
+                numTransfers.decrementAndGet();
+            }
+        });
+    }
+
+    private boolean tryStartTransfer(Connection connection) {
+        Address peerAddress = connection.getPeerAddress();
+        if (servedConnectionIds.contains(connection.getId())) {
+            log.warn("Peer {} requested the bootstrap snapshot again on the same connection", peerAddress);
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        Long lastServed = lastServedByPeer.get(peerAddress);
+        if (lastServed != null && now - lastServed < PEER_COOLDOWN_MS) {
+            log.warn("Peer {} requested the bootstrap snapshot again within the cooldown period", peerAddress);
+            return false;
+        }
+
+        if (numTransfers.incrementAndGet() > MAX_PARALLEL_TRANSFERS) {
+            numTransfers.decrementAndGet();
+            log.info("We are busy with sending the bootstrap snapshot to other peers. Peer {} gets no snapshot", peerAddress);
+            return false;
+        }
+        servedConnectionIds.add(connection.getId());
+        lastServedByPeer.put(peerAddress, now);
+        return true;
+    }
+
+    private void createSnapshot() {
+        long cooldownStart = System.currentTimeMillis() - PEER_COOLDOWN_MS;
+        lastServedByPeer.values().removeIf(lastServed -> lastServed < cooldownStart);
+
+        Optional<Address> myAddress = node.findMyAddress();
+        if (myAddress.isEmpty()) {
+            log.info("We do not have our address yet and cannot create the bootstrap snapshot");
+            return;
+        }
+
+        long ts = System.nanoTime();
+        List<DataRequest> dataRequests = storageService.getAllDataRequestMapEntries()
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+        try {
+            BootstrapSnapshot bootstrapSnapshot = BootstrapSnapshot.create(dataRequests,
+                    myAddress.get(),
+                    node.getKeyBundle().getTorKeyPair().getPrivateKey());
+            snapshot = Optional.of(bootstrapSnapshot);
+            Metrics.latencyHistogram("bisq_network_bootstrap_snapshot_creation_ms", "Time for creating the bootstrap snapshot")
+                    .observeMillisSince(ts);
+            Metrics.gauge("bisq_network_bootstrap_snapshot_bytes", "Size of the compressed bootstrap snapshot",
+                    bootstrapSnapshot::getSize);
+            log.info("Created bootstrap snapshot with {} entries and {} kb in {} ms",
+                    bootstrapSnapshot.getNumEntries(),
+                    ByteUnit.BYTE.toKB((double) bootstrapSnapshot.getSize()),
+                    (System.nanoTime() - ts) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Creating the bootstrap snapshot failed", e);
+        }
+    }
+}
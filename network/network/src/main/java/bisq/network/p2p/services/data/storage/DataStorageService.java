@@ -18,8 +18,12 @@
 package bisq.network.p2p.services.data.storage;
 
 import bisq.common.data.ByteArray;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Metrics;
+import bisq.common.threading.ExecutorFactory;
 import bisq.common.util.StringUtils;
 import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.RemoveDataRequest;
 import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceService;
@@ -28,13 +32,20 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 public abstract class DataStorageService<T extends DataRequest> extends RateLimitedPersistenceClient<DataStore<T>> {
     public static final String STORE_POST_FIX = "Store";
+    // Lazily loaded stores get loaded one after the other, to not compete too much with the startup for CPU
+    private static final ExecutorService warmUpExecutor = ExecutorFactory.newSingleThreadExecutor("DataStore-warm-up");
 
     @Getter
     protected final Persistence<DataStore<T>> persistence;
@@ -45,43 +56,100 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
     @Getter
     protected final String subDirectory;
     protected Optional<Integer> maxMapSize = Optional.empty();
+    protected final ExpiryIndex<T> expiryIndex = new ExpiryIndex<>(persistableStore.getMap());
+    // Remove requests are kept in the map as tombstones. They do not count as entries for the max. map size.
+    protected final TombstoneTable tombstones = new TombstoneTable();
+    // Guards the check and update of an entry. Changes of different entries run in parallel.
+    protected final StripedLock stripedLock = new StripedLock();
+    private final Counter evictedCounter;
+    // True while the values of a lazily loaded store get loaded by the warm-up
+    @Getter
+    private volatile boolean warmingUp;
 
-    public DataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
+    public DataStorageService(PersistenceService persistenceService,
+                              StorageService.Config config,
+                              String storeName,
+                              String storeKey) {
         super();
         this.storeKey = storeKey;
         String storageFileName = StringUtils.camelCaseToSnakeCase(storeKey + STORE_POST_FIX);
         subDirectory = DbSubDirectory.NETWORK_DB.getDbPath() + File.separator + storeName;
-        persistence = persistenceService.getOrCreatePersistence(this,
-                subDirectory,
-                storageFileName,
-                persistableStore);
+        if (config.isUseLogStructuredPersistence()) {
+            String directory = persistenceService.getBaseDir() + File.separator + subDirectory;
+            persistence = persistenceService.addPersistence(this,
+                    new DataStoreLogPersistence<>(directory, storageFileName),
+                    persistableStore);
+        } else if (config.isUseMappedPersistence()) {
+            String directory = persistenceService.getBaseDir() + File.separator + subDirectory;
+            persistence = persistenceService.addPersistence(this,
+                    new DataStoreMappedPersistence<>(directory, storageFileName),
+                    persistableStore);
+        } else {
+            persistence = persistenceService.getOrCreatePersistence(this,
+                    subDirectory,
+                    storageFileName,
+                    persistableStore);
+        }
+
+        Metrics.gauge("bisq_network_data_store_entries", "Number of entries in the network data store",
+                () -> persistableStore.getMap().size(),
+                "store", storeName, "storeKey", storeKey);
+        Metrics.gauge("bisq_network_data_store_tombstones", "Number of remove requests kept in the network data store",
+                tombstones::size,
+                "store", storeName, "storeKey", storeKey);
+        evictedCounter = Metrics.counter("bisq_network_data_store_evicted_total",
+                "Number of oldest entries removed from a full network data store to make room for newer entries",
+                "store", storeName, "storeKey", storeKey);
     }
 
     public void shutdown() {
     }
 
     @Override
-    protected long getMaxWriteRateInMs() {
+    protected long getQuietPeriodInMs() {
         return 1000;
     }
 
     @Override
     public DataStore<T> prunePersisted(DataStore<T> persisted) {
         Map<ByteArray, T> map = persisted.getMap();
-        if (map.isEmpty()) {
+        if (map.isEmpty() || persisted.isLazilyLoaded()) {
+            // Pruning a lazily loaded store would load all values. We prune after the warm-up instead.
             return persisted;
         }
 
-        Map<ByteArray, T> pruned = map.entrySet().stream()
-                .filter(entry -> !entry.getValue().isExpired())
-                .sorted((o1, o2) -> Long.compare(o2.getValue().getCreated(), o1.getValue().getCreated()))
-                .limit(getMaxMapSize())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        map.clear();
-        map.putAll(pruned);
+        ExpiryIndex<T> index = new ExpiryIndex<>(map);
+        index.rebuild();
+        index.removeExpired(System.currentTimeMillis());
+        index.trimToSize(getMaxMapSize());
         return persisted;
     }
 
+    @Override
+    public final void onPersistedApplied(DataStore<T> persisted) {
+        if (!persisted.isLazilyLoaded()) {
+            expiryIndex.rebuild();
+            onPersistedLoaded();
+            return;
+        }
+
+        warmingUp = true;
+        CompletableFuture.runAsync(this::warmUp, warmUpExecutor)
+                .whenComplete((nil, throwable) -> {
+                    warmingUp = false;
+                    if (throwable != null) {
+                        log.error("Warm-up of {} failed", storeKey, throwable);
+                    }
+                });
+    }
+
+    /**
+     * Called once the persisted data are applied and all values are loaded. For lazily loaded stores, this is called
+     * from the warm-up thread. Subclasses rebuild their tombstone table here.
+     */
+    protected void onPersistedLoaded() {
+    }
+
     protected int getMaxMapSize() {
         if (maxMapSize.isPresent()) {
             return maxMapSize.get();
@@ -89,4 +157,122 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
         maxMapSize = persistableStore.getMap().values().stream().map(DataRequest::getMaxMapSize).findFirst();
         return maxMapSize.orElse(MetaData.MAX_MAP_SIZE_10_000);
     }
+
+    /**
+     * @return The entries without the tombstones. Iterates a snapshot of the map.
+     */
+    public Stream<Map.Entry<ByteArray, T>> getLiveEntries() {
+        // While a lazily loaded store gets warmed up, the tombstone table is not complete yet
+        return persistableStore.getClone().getMap().entrySet().stream()
+                .filter(entry -> !tombstones.contains(entry.getKey()) && !(entry.getValue() instanceof RemoveDataRequest));
+    }
+
+    /**
+     * @return The remove requests of the tombstones accepted by the matcher. Only those requests get loaded.
+     */
+    public List<T> findTombstones(TombstoneTable.Matcher matcher) {
+        Map<ByteArray, T> map = persistableStore.getMap();
+        return tombstones.find(matcher).stream()
+                .map(map::get)
+                .filter(request -> request instanceof RemoveDataRequest)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Must be called after the request was put to the map.
+     */
+    protected void updateTombstones(ByteArray key, T request) {
+        if (request instanceof RemoveDataRequest) {
+            tombstones.put(key, ((RemoveDataRequest) request).getSequenceNumber(), request.getExpirationDate());
+        } else {
+            tombstones.remove(key);
+        }
+    }
+
+    protected void rebuildTombstones() {
+        tombstones.clear();
+        persistableStore.getMap().forEach((key, request) -> {
+            if (request instanceof RemoveDataRequest) {
+                updateTombstones(key, request);
+            }
+        });
+    }
+
+    /**
+     * If the store is full, removes the oldest entries as long as they are older than the given request. Tombstones
+     * do not count as entries, but they get removed as well if they are the oldest.
+     * <p>
+     * Must be called with the lock of the given request's entry. An evicted entry gets removed under its own lock. If
+     * that lock is held by another thread, the entry is skipped and the next oldest one gets evicted. Adds of different
+     * entries can evict concurrently, thus the max. map size is not exact.
+     *
+     * @param evicted Collects the removed requests.
+     * @return False if the store is full and has no entry older than the given request.
+     */
+    protected boolean evictOldest(T request, List<T> evicted) {
+        int maxMapSize = getMaxMapSize();
+        Map<ByteArray, T> map = persistableStore.getMap();
+        List<Map.Entry<ByteArray, T>> skipped = new ArrayList<>();
+        try {
+            while (map.size() - tombstones.size() >= maxMapSize) {
+                Optional<Map.Entry<ByteArray, T>> oldest = expiryIndex.pollOldestIfCreatedBefore(request.getCreated());
+                if (oldest.isEmpty()) {
+                    return false;
+                }
+                ByteArray key = oldest.get().getKey();
+                T oldestRequest = oldest.get().getValue();
+                // Waiting for the lock while holding the lock of the added entry could deadlock
+                Optional<StripedLock.Handle> handle = stripedLock.tryLock(key);
+                if (handle.isEmpty()) {
+                    skipped.add(oldest.get());
+                    continue;
+                }
+                try (StripedLock.Handle ignored = handle.get()) {
+                    // The entry might have been changed after it got polled from the index
+                    if (map.remove(key, oldestRequest)) {
+                        tombstones.remove(key);
+                        onEvicted(key, oldestRequest);
+                        evicted.add(oldestRequest);
+                        evictedCounter.increment();
+                    }
+                }
+            }
+            return true;
+        } finally {
+            skipped.forEach(expiryIndex::restoreOldest);
+        }
+    }
+
+    /**
+     * Called when an entry got evicted, with the lock of the entry. Subclasses remove the entry from their indexes.
+     */
+    protected void onEvicted(ByteArray key, T request) {
+    }
+
+    /**
+     * Same pruning as in prunePersisted, but applied to the store in use after a lazily loaded store got warmed up.
+     * The index removes the single entries, as the store might get modified concurrently. Called with all locks held.
+     * Subclasses which do not prune in prunePersisted must not prune here either.
+     */
+    protected void pruneLoaded() {
+        expiryIndex.removeExpired(System.currentTimeMillis());
+        expiryIndex.trimToSize(getMaxMapSize());
+    }
+
+    private void warmUp() {
+        Thread.currentThread().setName("DataStore.warmUp-" + storeKey);
+        long ts = System.nanoTime();
+        int numCorrupted = persistableStore.loadAll();
+        if (numCorrupted > 0) {
+            log.warn("Removed {} entries from {} which could not be deserialized", numCorrupted, storeKey);
+        }
+
+        try (StripedLock.Handle ignored = stripedLock.lockAll()) {
+            expiryIndex.rebuild();
+            pruneLoaded();
+        }
+        log.info("Loaded {} entries of {} in {} ms", persistableStore.getMap().size(), storeKey, (System.nanoTime() - ts) / 1_000_000);
+
+        onPersistedLoaded();
+    }
 }
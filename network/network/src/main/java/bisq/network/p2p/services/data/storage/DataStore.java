@@ -18,6 +18,7 @@
 package bisq.network.p2p.services.data.storage;
 
 import bisq.common.data.ByteArray;
+import bisq.common.data.FixedSizeByteArrayMap;
 import bisq.common.proto.ProtoResolver;
 import bisq.common.proto.UnresolvableProtobufMessageException;
 import bisq.network.p2p.services.data.DataRequest;
@@ -29,14 +30,21 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
 @ToString
 public final class DataStore<T extends DataRequest> implements PersistableStore<DataStore<T>> {
+    // Keys are the 20 byte hashes from DigestUtil.hash. Other key sizes are supported but not stored as compact.
+    private static final int KEY_SIZE = 20;
+
+    @Getter
+    private final Map<ByteArray, T> map = new FixedSizeByteArrayMap<>(KEY_SIZE);
+    // True if created with values which get deserialized at their first access
     @Getter
-    private final Map<ByteArray, T> map = new ConcurrentHashMap<>();
+    private boolean lazilyLoaded;
 
     public DataStore() {
     }
@@ -45,6 +53,18 @@ public final class DataStore<T extends DataRequest> implements PersistableStore<
         this.map.putAll(map);
     }
 
+    /**
+     * @param loaders Loaders which deserialize the value at the first access (see MappedPersistence). A loader
+     *                returning null means the value could not be deserialized.
+     */
+    public static <T extends DataRequest> DataStore<T> fromLoaders(Map<ByteArray, Supplier<T>> loaders) {
+        DataStore<T> dataStore = new DataStore<>();
+        FixedSizeByteArrayMap<T> map = (FixedSizeByteArrayMap<T>) dataStore.map;
+        loaders.forEach(map::putLazy);
+        dataStore.lazilyLoaded = true;
+        return dataStore;
+    }
+
     @Override
     public bisq.network.protobuf.DataStore toProto() {
         // Protobuf map do not support bytes as key
@@ -75,12 +95,33 @@ public final class DataStore<T extends DataRequest> implements PersistableStore<
         };
     }
 
+    /**
+     * Loads all lazily loaded values and removes the entries of values which could not be deserialized.
+     *
+     * @return The number of removed entries.
+     */
+    public int loadAll() {
+        return ((FixedSizeByteArrayMap<T>) map).loadAll();
+    }
+
+    /**
+     * Passes all entries without loading the lazily loaded values (see FixedSizeByteArrayMap.forEachEntry).
+     */
+    public void forEachEntry(BiConsumer<ByteArray, ? super T> valueConsumer,
+                             BiConsumer<ByteArray, Supplier<? extends T>> loaderConsumer) {
+        ((FixedSizeByteArrayMap<T>) map).forEachEntry(valueConsumer, loaderConsumer);
+    }
+
     @Override
     public void applyPersisted(DataStore<T> persisted) {
         map.clear();
         map.putAll(persisted.getMap());
     }
 
+    /**
+     * The clone shares the data with this store until one of them is modified (see FixedSizeByteArrayMap), thus it is
+     * cheap to take even with a large store.
+     */
     @Override
     public DataStore<T> getClone() {
         return new DataStore<>(map);
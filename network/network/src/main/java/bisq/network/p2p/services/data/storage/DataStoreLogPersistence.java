@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.persistence.DbSubDirectory;
+import bisq.persistence.LogStructuredPersistence;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Log structured persistence for the network data stores. The values are persisted as
+ * bisq.network.protobuf.DataRequest like in the DataStore protobuf.
+ */
+public class DataStoreLogPersistence<T extends DataRequest> extends LogStructuredPersistence<T, DataStore<T>> {
+    public DataStoreLogPersistence(String directory, String fileName) {
+        super(directory, fileName, Optional.of(DbSubDirectory.NETWORK_DB));
+    }
+
+    @Override
+    protected Map<ByteArray, T> getEntries(DataStore<T> persistableStore) {
+        return persistableStore.getMap();
+    }
+
+    @Override
+    protected byte[] serializeValue(T value) {
+        return value.toProto().getDataRequest().toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T deserializeValue(byte[] bytes) throws Exception {
+        return (T) DataRequest.fromProto(bisq.network.protobuf.DataRequest.parseFrom(bytes));
+    }
+
+    @Override
+    protected DataStore<T> createStore(Map<ByteArray, T> entries) {
+        return new DataStore<>(entries);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.persistence.DbSubDirectory;
+import bisq.persistence.MappedPersistence;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Memory-mapped persistence for the network data stores. The values are persisted as
+ * bisq.network.protobuf.DataRequest like in the DataStore protobuf and deserialized at their first access.
+ */
+public class DataStoreMappedPersistence<T extends DataRequest> extends MappedPersistence<T, DataStore<T>> {
+    public DataStoreMappedPersistence(String directory, String fileName) {
+        super(directory, fileName, Optional.of(DbSubDirectory.NETWORK_DB));
+    }
+
+    @Override
+    protected void forEachEntry(DataStore<T> persistableStore,
+                                BiConsumer<ByteArray, T> valueConsumer,
+                                BiConsumer<ByteArray, Supplier<? extends T>> loaderConsumer) {
+        persistableStore.forEachEntry(valueConsumer, loaderConsumer);
+    }
+
+    @Override
+    protected byte[] serializeValue(T value) {
+        return value.toProto().getDataRequest().toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T deserializeValue(byte[] bytes) throws Exception {
+        return (T) DataRequest.fromProto(bisq.network.protobuf.DataRequest.parseFrom(bytes));
+    }
+
+    @Override
+    protected DataStore<T> createStore(Map<ByteArray, Supplier<T>> loaders) {
+        return DataStore.fromLoaders(loaders);
+    }
+}
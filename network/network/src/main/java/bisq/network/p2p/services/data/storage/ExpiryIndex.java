@@ -0,0 +1,275 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Index of the entries of a data store ordered by their expiration date and by their creation date, so that expired
+ * entries and the oldest entries can be removed without iterating the whole map.
+ * <p>
+ * Entries are not removed from the index when they get removed or replaced in the map. They are skipped when they
+ * reach the head of a queue and do not match the value in the map anymore. If such stale entries dominate, the index
+ * gets rebuilt from the map.
+ * <p>
+ * The keys are spread over shards with their own lock, so that adds of different entries do not block each other.
+ * Finding the oldest entry compares the heads of all shards.
+ */
+public final class ExpiryIndex<T extends DataRequest> {
+    private static final int NUM_SHARDS = 16;
+    @VisibleForTesting
+    static final int MIN_REBUILD_SIZE = 1000;
+
+    private static final class Entry<T> implements Comparable<Entry<T>> {
+        private final ByteArray key;
+        private final T request;
+        private final long date;
+
+        private Entry(ByteArray key, T request, long date) {
+            this.key = key;
+            this.request = request;
+            this.date = date;
+        }
+
+        @Override
+        public int compareTo(Entry<T> other) {
+            return Long.compare(date, other.date);
+        }
+    }
+
+    private static final class Shard<T> {
+        private PriorityQueue<Entry<T>> byExpirationDate = new PriorityQueue<>();
+        private PriorityQueue<Entry<T>> byCreationDate = new PriorityQueue<>();
+    }
+
+    private final Map<ByteArray, T> map;
+    private final List<Shard<T>> shards = new ArrayList<>(NUM_SHARDS);
+
+    public ExpiryIndex(Map<ByteArray, T> map) {
+        this.map = map;
+        for (int i = 0; i < NUM_SHARDS; i++) {
+            shards.add(new Shard<>());
+        }
+    }
+
+    /**
+     * Must be called after the request was put to the map.
+     */
+    public void add(ByteArray key, T request) {
+        Shard<T> shard = getShard(key);
+        synchronized (shard) {
+            long expirationDate = request.getExpirationDate();
+            if (expirationDate != Long.MAX_VALUE) {
+                shard.byExpirationDate.add(new Entry<>(key, request, expirationDate));
+            }
+            shard.byCreationDate.add(new Entry<>(key, request, request.getCreated()));
+            // The keys are spread evenly over the shards, thus we compare with the shard's part of the map
+            int size = shard.byCreationDate.size();
+            if (size > MIN_REBUILD_SIZE / NUM_SHARDS && size > 2 * map.size() / NUM_SHARDS) {
+                removeStaleEntries(shard);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the index from the entries of the map in O(n).
+     */
+    public void rebuild() {
+        List<List<Entry<T>>> expiring = new ArrayList<>(NUM_SHARDS);
+        List<List<Entry<T>>> all = new ArrayList<>(NUM_SHARDS);
+        for (int i = 0; i < NUM_SHARDS; i++) {
+            expiring.add(new ArrayList<>());
+            all.add(new ArrayList<>());
+        }
+        map.forEach((key, request) -> {
+            int index = getShardIndex(key);
+            long expirationDate = request.getExpirationDate();
+            if (expirationDate != Long.MAX_VALUE) {
+                expiring.get(index).add(new Entry<>(key, request, expirationDate));
+            }
+            all.get(index).add(new Entry<>(key, request, request.getCreated()));
+        });
+        for (int i = 0; i < NUM_SHARDS; i++) {
+            Shard<T> shard = shards.get(i);
+            synchronized (shard) {
+                // The PriorityQueue constructor taking a collection heapifies in linear time
+                shard.byExpirationDate = new PriorityQueue<>(expiring.get(i));
+                shard.byCreationDate = new PriorityQueue<>(all.get(i));
+            }
+        }
+    }
+
+    /**
+     * Removes the entries which are expired at the given date from the map.
+     *
+     * @return The removed entries.
+     */
+    public List<Map.Entry<ByteArray, T>> removeExpired(long now) {
+        List<Map.Entry<ByteArray, T>> removed = new ArrayList<>();
+        for (Shard<T> shard : shards) {
+            synchronized (shard) {
+                while (!shard.byExpirationDate.isEmpty() && shard.byExpirationDate.peek().date < now) {
+                    Entry<T> entry = shard.byExpirationDate.poll();
+                    if (map.remove(entry.key, entry.request)) {
+                        removed.add(Map.entry(entry.key, entry.request));
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the oldest entry from the map if it was created before the given date.
+     *
+     * @return The removed entry.
+     */
+    public Optional<Map.Entry<ByteArray, T>> removeOldestIfCreatedBefore(long date) {
+        while (true) {
+            Optional<Map.Entry<ByteArray, T>> oldest = pollOldestIfCreatedBefore(date);
+            if (oldest.isEmpty() || map.remove(oldest.get().getKey(), oldest.get().getValue())) {
+                return oldest;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest entry from the index if it was created before the given date, but does not change the map.
+     * Used if the caller needs to lock the entry before removing it from the map. If the caller does not remove it,
+     * it has to be given back with {@link #restoreOldest(Map.Entry)}.
+     * <p>
+     * With concurrent adds, the result is the oldest entry at the time the shards got compared.
+     *
+     * @return The removed entry, which was in the map when it got removed from the index.
+     */
+    public Optional<Map.Entry<ByteArray, T>> pollOldestIfCreatedBefore(long date) {
+        while (true) {
+            Shard<T> oldestShard = null;
+            long oldestDate = date;
+            for (Shard<T> shard : shards) {
+                synchronized (shard) {
+                    Entry<T> head = peekCreationDate(shard);
+                    if (head != null && head.date < oldestDate) {
+                        oldestShard = shard;
+                        oldestDate = head.date;
+                    }
+                }
+            }
+            if (oldestShard == null) {
+                return Optional.empty();
+            }
+            synchronized (oldestShard) {
+                Entry<T> head = peekCreationDate(oldestShard);
+                // Otherwise the shard got changed after we compared it, and we compare again
+                if (head != null && head.date < date) {
+                    oldestShard.byCreationDate.poll();
+                    return Optional.of(Map.entry(head.key, head.request));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an entry returned by {@link #pollOldestIfCreatedBefore(long)} back to the index. If the entry got replaced
+     * in the map meanwhile, it is a stale entry and gets skipped later.
+     */
+    public void restoreOldest(Map.Entry<ByteArray, T> entry) {
+        Shard<T> shard = getShard(entry.getKey());
+        synchronized (shard) {
+            shard.byCreationDate.add(new Entry<>(entry.getKey(), entry.getValue(), entry.getValue().getCreated()));
+        }
+    }
+
+    /**
+     * Removes the oldest entries until the map has not more than maxSize entries.
+     *
+     * @return The removed entries.
+     */
+    public List<Map.Entry<ByteArray, T>> trimToSize(int maxSize) {
+        List<Map.Entry<ByteArray, T>> removed = new ArrayList<>();
+        while (map.size() > maxSize) {
+            Optional<Map.Entry<ByteArray, T>> oldest = removeOldestIfCreatedBefore(Long.MAX_VALUE);
+            if (oldest.isEmpty()) {
+                break;
+            }
+            removed.add(oldest.get());
+        }
+        return removed;
+    }
+
+    /**
+     * @return The number of entries ordered by creation date, including the stale ones.
+     */
+    @VisibleForTesting
+    int size() {
+        int size = 0;
+        for (Shard<T> shard : shards) {
+            synchronized (shard) {
+                size += shard.byCreationDate.size();
+            }
+        }
+        return size;
+    }
+
+    // Must be called with the lock of the shard
+    private Entry<T> peekCreationDate(Shard<T> shard) {
+        while (!shard.byCreationDate.isEmpty()) {
+            Entry<T> head = shard.byCreationDate.peek();
+            if (map.get(head.key) == head.request) {
+                return head;
+            }
+            shard.byCreationDate.poll();
+        }
+        return null;
+    }
+
+    // Must be called with the lock of the shard
+    private void removeStaleEntries(Shard<T> shard) {
+        List<Entry<T>> expiring = new ArrayList<>();
+        for (Entry<T> entry : shard.byExpirationDate) {
+            if (map.get(entry.key) == entry.request) {
+                expiring.add(entry);
+            }
+        }
+        List<Entry<T>> all = new ArrayList<>();
+        for (Entry<T> entry : shard.byCreationDate) {
+            if (map.get(entry.key) == entry.request) {
+                all.add(entry);
+            }
+        }
+        shard.byExpirationDate = new PriorityQueue<>(expiring);
+        shard.byCreationDate = new PriorityQueue<>(all);
+    }
+
+    private Shard<T> getShard(ByteArray key) {
+        return shards.get(getShardIndex(key));
+    }
+
+    private static int getShardIndex(ByteArray key) {
+        int hashCode = key.hashCode();
+        return (hashCode ^ (hashCode >>> 16)) & (NUM_SHARDS - 1);
+    }
+}
@@ -31,8 +31,11 @@ import bisq.network.p2p.services.data.storage.append.AppendOnlyDataStorageServic
 import bisq.network.p2p.services.data.storage.auth.*;
 import bisq.network.p2p.services.data.storage.mailbox.*;
 import bisq.persistence.DbSubDirectory;
+import bisq.persistence.LogStructuredPersistence;
+import bisq.persistence.MappedPersistence;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceService;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
@@ -41,6 +44,9 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -48,6 +54,27 @@ import static bisq.network.p2p.services.data.storage.StoreType.*;
 
 @Slf4j
 public class StorageService {
+    private static final long FLUSH_TIMEOUT_SEC = 10;
+
+    @Getter
+    public static final class Config {
+        // If true, the data stores append their changes to a log instead of rewriting the whole store at each write
+        private final boolean useLogStructuredPersistence;
+        // If true, the data stores are persisted in a memory-mapped file and the values are deserialized at their
+        // first access or by a warm-up in the background. Not used if useLogStructuredPersistence is set.
+        private final boolean useMappedPersistence;
+
+        public static Config from(com.typesafe.config.Config config) {
+            return new Config(config.getBoolean("useLogStructuredPersistence"),
+                    config.getBoolean("useMappedPersistence"));
+        }
+
+        public Config(boolean useLogStructuredPersistence, boolean useMappedPersistence) {
+            this.useLogStructuredPersistence = useLogStructuredPersistence;
+            this.useMappedPersistence = useMappedPersistence;
+        }
+    }
+
     public interface Listener {
         void onAdded(StorageData storageData);
 
@@ -58,10 +85,12 @@ public class StorageService {
     final Map<String, MailboxDataStorageService> mailboxStores = new ConcurrentHashMap<>();
     final Map<String, AppendOnlyDataStorageService> appendOnlyDataStores = new ConcurrentHashMap<>();
     private final PersistenceService persistenceService;
+    private final Config config;
     private final Set<StorageService.Listener> listeners = new CopyOnWriteArraySet<>();
 
-    public StorageService(PersistenceService persistenceService) {
+    public StorageService(PersistenceService persistenceService, Config config) {
         this.persistenceService = persistenceService;
+        this.config = config;
 
         // We create all stores for those files we have already persisted.
         // Persisted data is read at the very early stages of the application start.
@@ -72,7 +101,7 @@ public class StorageService {
             if (new File(directory).exists()) {
                 getExistingStoreKeys(directory)
                         .forEach(storeKey -> {
-                            AuthenticatedDataStorageService dataStore = new AuthenticatedDataStorageService(persistenceService, authStoreName, storeKey);
+                            AuthenticatedDataStorageService dataStore = new AuthenticatedDataStorageService(persistenceService, config, authStoreName, storeKey);
                             dataStore.addListener(new AuthenticatedDataStorageService.Listener() {
                                 @Override
                                 public void onAdded(AuthenticatedData authenticatedData) {
@@ -104,7 +133,7 @@ public class StorageService {
             if (new File(directory).exists()) {
                 getExistingStoreKeys(directory)
                         .forEach(storeKey -> {
-                            MailboxDataStorageService dataStore = new MailboxDataStorageService(persistenceService, mailboxStoreName, storeKey);
+                            MailboxDataStorageService dataStore = new MailboxDataStorageService(persistenceService, config, mailboxStoreName, storeKey);
                             dataStore.addListener(new MailboxDataStorageService.Listener() {
                                 @Override
                                 public void onAdded(MailboxData mailboxData) {
@@ -137,7 +166,7 @@ public class StorageService {
             if (new File(directory).exists()) {
                 getExistingStoreKeys(directory)
                         .forEach(storeKey -> {
-                            AppendOnlyDataStorageService dataStore = new AppendOnlyDataStorageService(persistenceService, appendStoreName, storeKey);
+                            AppendOnlyDataStorageService dataStore = new AppendOnlyDataStorageService(persistenceService, config, appendStoreName, storeKey);
                             dataStore.addListener(appendOnlyData -> listeners.forEach(listener -> {
                                 try {
                                     listener.onAdded(appendOnlyData);
@@ -157,6 +186,18 @@ public class StorageService {
         authenticatedDataStores.values().forEach(DataStorageService::shutdown);
         mailboxStores.values().forEach(DataStorageService::shutdown);
         appendOnlyDataStores.values().forEach(DataStorageService::shutdown);
+
+        // Writes are delayed until the stores got no changes for a while, so we write the pending changes now
+        CompletableFuture<?>[] flushFutures = getAllStores()
+                .map(DataStorageService::flush)
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(flushFutures).get(FLUSH_TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Writing pending changes of the data stores at shutdown failed", e);
+        }
     }
 
 
@@ -165,7 +206,22 @@ public class StorageService {
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
     public Stream<AuthenticatedData> getAuthenticatedData() {
-        return authenticatedDataStores.values().stream().flatMap(this::getAuthenticatedData);
+        return authenticatedDataStores.values().stream().flatMap(AuthenticatedDataStorageService::getAuthenticatedData);
+    }
+
+    public Stream<AuthenticatedData> getAuthenticatedData(Class<? extends DistributedData> dataClass) {
+        return authenticatedDataStores.values().stream().flatMap(store -> store.getAuthenticatedData(dataClass));
+    }
+
+    /**
+     * @return The data of the given class which was created in the given period (from inclusive, to exclusive).
+     */
+    public Stream<AuthenticatedData> getAuthenticatedData(Class<? extends DistributedData> dataClass, long from, long to) {
+        return authenticatedDataStores.values().stream().flatMap(store -> store.getAuthenticatedData(dataClass, from, to));
+    }
+
+    public Stream<AuthenticatedData> getAuthenticatedDataByOwner(byte[] ownerPubKeyHash) {
+        return authenticatedDataStores.values().stream().flatMap(store -> store.getAuthenticatedDataByOwner(ownerPubKeyHash));
     }
 
     public Stream<AuthenticatedData> getAuthenticatedData(String storeKey) {
@@ -177,7 +233,10 @@ public class StorageService {
     }
 
     private Stream<AuthenticatedData> getAuthenticatedData(DataStorageService<? extends DataRequest> store) {
-        return store.getPersistableStore().getClone().getMap().values().stream()
+        if (store instanceof AuthenticatedDataStorageService) {
+            return ((AuthenticatedDataStorageService) store).getAuthenticatedData();
+        }
+        return store.getPersistableStore().getMap().values().stream()
                 .filter(e -> e instanceof AddAuthenticatedDataRequest)
                 .map(e -> (AddAuthenticatedDataRequest) e)
                 .map(e -> e.getAuthenticatedSequentialData().getAuthenticatedData());
@@ -297,12 +356,26 @@ public class StorageService {
                 });
     }
 
-    public Stream<Map<ByteArray, AuthenticatedDataRequest>> getAuthenticatedDataStoreMaps() {
-        return authenticatedDataStores.values().stream().map(store -> store.getPersistableStore().getClone().getMap());
+    /**
+     * @return The entries of the authenticated data stores without the tombstones of removed data.
+     */
+    public Stream<Map.Entry<ByteArray, AuthenticatedDataRequest>> getLiveAuthenticatedDataEntries() {
+        return authenticatedDataStores.values().stream().flatMap(DataStorageService::getLiveEntries);
+    }
+
+    public Stream<AuthenticatedDataRequest> findAuthenticatedDataTombstones(TombstoneTable.Matcher matcher) {
+        return authenticatedDataStores.values().stream().flatMap(store -> store.findTombstones(matcher).stream());
+    }
+
+    /**
+     * @return The entries of the mailbox stores without the tombstones of removed data.
+     */
+    public Stream<Map.Entry<ByteArray, MailboxRequest>> getLiveMailboxEntries() {
+        return mailboxStores.values().stream().flatMap(DataStorageService::getLiveEntries);
     }
 
-    public Stream<Map<ByteArray, MailboxRequest>> getMailboxStoreMaps() {
-        return mailboxStores.values().stream().map(store -> store.getPersistableStore().getClone().getMap());
+    public Stream<MailboxRequest> findMailboxTombstones(TombstoneTable.Matcher matcher) {
+        return mailboxStores.values().stream().flatMap(store -> store.findTombstones(matcher).stream());
     }
 
     public Stream<Map<ByteArray, AddAppendOnlyDataRequest>> getAddAppendOnlyDataStoreMaps() {
@@ -310,7 +383,14 @@ public class StorageService {
     }
 
     public Stream<Map.Entry<ByteArray, ? extends DataRequest>> getAllDataRequestMapEntries() {
-        return getStoresByStoreType(ALL).flatMap(store -> new HashMap<>(store.getPersistableStore().getMap()).entrySet().stream());
+        return getStoresByStoreType(ALL).flatMap(store -> store.getPersistableStore().getClone().getMap().entrySet().stream());
+    }
+
+    /**
+     * @return The entries of all stores without the tombstones of removed data.
+     */
+    public Stream<Map.Entry<ByteArray, ? extends DataRequest>> getLiveDataRequestMapEntries() {
+        return getStoresByStoreType(ALL).flatMap(DataStorageService::getLiveEntries);
     }
 
 
@@ -321,6 +401,7 @@ public class StorageService {
     public CompletableFuture<AuthenticatedDataStorageService> getOrCreateAuthenticatedDataStore(String storeKey) {
         if (!authenticatedDataStores.containsKey(storeKey)) {
             AuthenticatedDataStorageService dataStore = new AuthenticatedDataStorageService(persistenceService,
+                    config,
                     AUTHENTICATED_DATA_STORE.getStoreName(),
                     storeKey);
             dataStore.addListener(new AuthenticatedDataStorageService.Listener() {
@@ -356,6 +437,7 @@ public class StorageService {
     public CompletableFuture<MailboxDataStorageService> getOrCreateMailboxDataStore(String storeKey) {
         if (!mailboxStores.containsKey(storeKey)) {
             MailboxDataStorageService dataStore = new MailboxDataStorageService(persistenceService,
+                    config,
                     MAILBOX_DATA_STORE.getStoreName(),
                     storeKey);
             dataStore.addListener(new MailboxDataStorageService.Listener() {
@@ -391,6 +473,7 @@ public class StorageService {
     public CompletableFuture<AppendOnlyDataStorageService> getOrCreateAppendOnlyDataStore(String storeKey) {
         if (!appendOnlyDataStores.containsKey(storeKey)) {
             AppendOnlyDataStorageService dataStore = new AppendOnlyDataStorageService(persistenceService,
+                    config,
                     APPEND_ONLY_DATA_STORE.getStoreName(),
                     storeKey);
             appendOnlyDataStores.put(storeKey, dataStore);
@@ -441,7 +524,10 @@ public class StorageService {
         return NetworkStorageWhiteList.getClassNames().stream()
                 .filter(className -> {
                     String storageFileName = StringUtils.camelCaseToSnakeCase(className + DataStorageService.STORE_POST_FIX) + Persistence.EXTENSION;
-                    return Path.of(directory, storageFileName).toFile().exists();
+                    Path storePath = Path.of(directory, storageFileName);
+                    return storePath.toFile().exists() ||
+                            LogStructuredPersistence.getLogDirectory(storePath).toFile().exists() ||
+                            MappedPersistence.getMappedStorePath(storePath).toFile().exists();
                 })
                 .collect(Collectors.toSet());
     }
@@ -0,0 +1,108 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Locks for the entries of a data store. The keys are spread over a fixed number of stripes with a lock each, so that
+ * the check and update of an entry is atomic while changes of unrelated entries run in parallel. Operations on all
+ * entries (e.g. pruning or rebuilding an index) use {@link #lockAll()}, which waits for the locked entries and
+ * excludes new ones.
+ * <p>
+ * Usage: {@code try (StripedLock.Handle ignored = stripedLock.lock(key)) { ... }}
+ */
+public final class StripedLock {
+    public static final int DEFAULT_NUM_STRIPES = 64;
+
+    public interface Handle extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final ReadWriteLock allLock = new ReentrantReadWriteLock();
+    private final Lock[] stripes;
+    private final Handle[] stripeHandles;
+    private final Handle allHandle;
+
+    public StripedLock() {
+        this(DEFAULT_NUM_STRIPES);
+    }
+
+    /**
+     * @param numStripes Must be a power of 2.
+     */
+    public StripedLock(int numStripes) {
+        if (numStripes <= 0 || Integer.bitCount(numStripes) != 1) {
+            throw new IllegalArgumentException("numStripes must be a power of 2. numStripes=" + numStripes);
+        }
+        stripes = new Lock[numStripes];
+        stripeHandles = new Handle[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            Lock stripe = new ReentrantLock();
+            stripes[i] = stripe;
+            stripeHandles[i] = () -> {
+                stripe.unlock();
+                allLock.readLock().unlock();
+            };
+        }
+        allHandle = () -> allLock.writeLock().unlock();
+    }
+
+    public Handle lock(ByteArray key) {
+        int index = getStripeIndex(key);
+        allLock.readLock().lock();
+        stripes[index].lock();
+        return stripeHandles[index];
+    }
+
+    /**
+     * Locks the entry only if that does not need to wait. Used to lock a further entry while holding the lock of
+     * another one, where waiting could deadlock.
+     */
+    public Optional<Handle> tryLock(ByteArray key) {
+        int index = getStripeIndex(key);
+        if (!allLock.readLock().tryLock()) {
+            return Optional.empty();
+        }
+        if (!stripes[index].tryLock()) {
+            allLock.readLock().unlock();
+            return Optional.empty();
+        }
+        return Optional.of(stripeHandles[index]);
+    }
+
+    /**
+     * Must not be called while holding the lock of an entry.
+     */
+    public Handle lockAll() {
+        allLock.writeLock().lock();
+        return allHandle;
+    }
+
+    private int getStripeIndex(ByteArray key) {
+        int hashCode = key.hashCode();
+        return (hashCode ^ (hashCode >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact table of the tombstones of a data store, i.e. the hashes of removed data with the sequence number and the
+ * expiration date of the remove request. The remove requests stay in the store, as they are persisted and need their
+ * signature to be relayed to peers. The table keeps them apart from the live data: it gives the number of live entries
+ * and tells which entries are tombstones without loading the request.
+ * <p>
+ * Open-addressing (linear probing) table with the keys packed into a byte array and the other fields in primitive
+ * arrays, so a tombstone costs about (keySize + 17) / 0.7 bytes. Keys with a different size are kept in a small
+ * overflow map. Thread safe.
+ */
+public final class TombstoneTable {
+    // Keys are the 20 byte hashes from DigestUtil.hash
+    public static final int KEY_SIZE = 20;
+    private static final int MIN_CAPACITY = 16;
+    private static final float MAX_LOAD_FACTOR = 0.7f;
+
+    public interface Matcher {
+        boolean matches(ByteArray hash, int sequenceNumber, long expirationDate);
+    }
+
+    private byte[] keys;
+    private int[] hashes;
+    private int[] sequenceNumbers;
+    private long[] expirationDates;
+    private boolean[] used;
+    private int size;
+    private final Map<ByteArray, long[]> overflow = new HashMap<>();
+
+    public TombstoneTable() {
+        allocate(MIN_CAPACITY);
+    }
+
+    public synchronized void put(ByteArray hash, int sequenceNumber, long expirationDate) {
+        byte[] key = hash.getBytes();
+        if (key.length != KEY_SIZE) {
+            overflow.put(hash, new long[]{sequenceNumber, expirationDate});
+            return;
+        }
+        int index = indexOf(key, hash.hashCode());
+        if (!used[index]) {
+            if (size + 1 > used.length * MAX_LOAD_FACTOR) {
+                resize(used.length * 2);
+                index = indexOf(key, hash.hashCode());
+            }
+            used[index] = true;
+            hashes[index] = hash.hashCode();
+            System.arraycopy(key, 0, keys, index * KEY_SIZE, KEY_SIZE);
+            size++;
+        }
+        sequenceNumbers[index] = sequenceNumber;
+        expirationDates[index] = expirationDate;
+    }
+
+    public synchronized boolean remove(ByteArray hash) {
+        byte[] key = hash.getBytes();
+        if (key.length != KEY_SIZE) {
+            return overflow.remove(hash) != null;
+        }
+        int index = indexOf(key, hash.hashCode());
+        if (!used[index]) {
+            return false;
+        }
+        deleteAt(index);
+        size--;
+        return true;
+    }
+
+    public synchronized boolean contains(ByteArray hash) {
+        byte[] key = hash.getBytes();
+        if (key.length != KEY_SIZE) {
+            return overflow.containsKey(hash);
+        }
+        return used[indexOf(key, hash.hashCode())];
+    }
+
+    public synchronized int size() {
+        return size + overflow.size();
+    }
+
+    public synchronized void clear() {
+        allocate(MIN_CAPACITY);
+        size = 0;
+        overflow.clear();
+    }
+
+    /**
+     * @return The hashes of the tombstones accepted by the matcher. The matcher is called while holding the lock of the
+     * table, thus it must not access the table.
+     */
+    public synchronized List<ByteArray> find(Matcher matcher) {
+        List<ByteArray> result = new ArrayList<>();
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                ByteArray hash = new ByteArray(Arrays.copyOfRange(keys, i * KEY_SIZE, (i + 1) * KEY_SIZE));
+                if (matcher.matches(hash, sequenceNumbers[i], expirationDates[i])) {
+                    result.add(hash);
+                }
+            }
+        }
+        overflow.forEach((hash, fields) -> {
+            if (matcher.matches(hash, (int) fields[0], fields[1])) {
+                result.add(hash);
+            }
+        });
+        return result;
+    }
+
+    private void allocate(int capacity) {
+        keys = new byte[capacity * KEY_SIZE];
+        hashes = new int[capacity];
+        sequenceNumbers = new int[capacity];
+        expirationDates = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    // Returns the slot of the key or the empty slot where it would be inserted
+    private int indexOf(byte[] key, int hashCode) {
+        int mask = used.length - 1;
+        int index = spread(hashCode) & mask;
+        while (used[index]) {
+            if (hashes[index] == hashCode &&
+                    Arrays.equals(keys, index * KEY_SIZE, (index + 1) * KEY_SIZE, key, 0, KEY_SIZE)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    // Backward shift deletion, which keeps the probe sequences intact without markers for deleted slots
+    private void deleteAt(int index) {
+        int mask = used.length - 1;
+        int gap = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            if (!used[next]) {
+                break;
+            }
+            int home = spread(hashes[next]) & mask;
+            // The entry can be moved into the gap if its home slot is not cyclically within (gap, next]
+            boolean homeInRange = gap <= next ? gap < home && home <= next : gap < home || home <= next;
+            if (!homeInRange) {
+                moveSlot(next, gap);
+                gap = next;
+            }
+        }
+        used[gap] = false;
+    }
+
+    private void moveSlot(int from, int to) {
+        System.arraycopy(keys, from * KEY_SIZE, keys, to * KEY_SIZE, KEY_SIZE);
+        hashes[to] = hashes[from];
+        sequenceNumbers[to] = sequenceNumbers[from];
+        expirationDates[to] = expirationDates[from];
+        used[to] = true;
+    }
+
+    private void resize(int capacity) {
+        byte[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldSequenceNumbers = sequenceNumbers;
+        long[] oldExpirationDates = expirationDates;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int index = spread(oldHashes[i]) & mask;
+                while (used[index]) {
+                    index = (index + 1) & mask;
+                }
+                System.arraycopy(oldKeys, i * KEY_SIZE, keys, index * KEY_SIZE, KEY_SIZE);
+                hashes[index] = oldHashes[i];
+                sequenceNumbers[index] = oldSequenceNumbers[i];
+                expirationDates[index] = oldExpirationDates[i];
+                used[index] = true;
+            }
+        }
+    }
+
+    private static int spread(int hashCode) {
+        return hashCode ^ (hashCode >>> 16);
+    }
+}
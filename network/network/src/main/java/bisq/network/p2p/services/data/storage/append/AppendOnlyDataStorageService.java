@@ -21,6 +21,8 @@ import bisq.common.data.ByteArray;
 import bisq.network.p2p.services.data.storage.DataStorageResult;
 import bisq.network.p2p.services.data.storage.DataStorageService;
 import bisq.network.p2p.services.data.storage.DataStore;
+import bisq.network.p2p.services.data.storage.StorageService;
+import bisq.network.p2p.services.data.storage.StripedLock;
 import bisq.persistence.PersistenceService;
 import bisq.security.DigestUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -40,10 +42,12 @@ public class AppendOnlyDataStorageService extends DataStorageService<AddAppendOn
     }
 
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
-    private final Object mapAccessLock = new Object();
 
-    public AppendOnlyDataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
-        super(persistenceService, storeName, storeKey);
+    public AppendOnlyDataStorageService(PersistenceService persistenceService,
+                                        StorageService.Config config,
+                                        String storeName,
+                                        String storeKey) {
+        super(persistenceService, config, storeName, storeKey);
     }
 
     @Override
@@ -53,20 +57,26 @@ public class AppendOnlyDataStorageService extends DataStorageService<AddAppendOn
     }
 
     @Override
-    protected long getMaxWriteRateInMs() {
+    protected void pruneLoaded() {
+        // We do not prune append only data
+    }
+
+    @Override
+    protected long getQuietPeriodInMs() {
         return 1000;
     }
 
     public DataStorageResult add(AddAppendOnlyDataRequest addAppendOnlyDataRequest) {
         AppendOnlyData appendOnlyData = addAppendOnlyDataRequest.getAppendOnlyData();
+        // Hashing does not need the lock
+        byte[] hash = DigestUtil.hash(appendOnlyData.serialize());
+        ByteArray byteArray = new ByteArray(hash);
         Map<ByteArray, AddAppendOnlyDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
+        try (StripedLock.Handle ignored = stripedLock.lock(byteArray)) {
             if (map.size() > getMaxMapSize()) {
                 return new DataStorageResult(false).maxMapSizeReached();
             }
 
-            byte[] hash = DigestUtil.hash(appendOnlyData.serialize());
-            ByteArray byteArray = new ByteArray(hash);
             if (map.containsKey(byteArray)) {
                 return new DataStorageResult(false).payloadAlreadyStored();
             }
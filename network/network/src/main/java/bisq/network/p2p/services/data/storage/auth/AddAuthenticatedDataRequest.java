@@ -24,6 +24,7 @@ import bisq.network.p2p.services.data.AddDataRequest;
 import bisq.network.p2p.services.data.storage.DistributedData;
 import bisq.security.DigestUtil;
 import bisq.security.SignatureUtil;
+import bisq.security.VerifiedSignatureCache;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
@@ -47,7 +48,7 @@ public final class AddAuthenticatedDataRequest implements AuthenticatedDataReque
     public static AddAuthenticatedDataRequest from(AuthenticatedDataStorageService store, AuthenticatedData authenticatedData, KeyPair keyPair)
             throws GeneralSecurityException {
 
-        byte[] hash = DigestUtil.hash(authenticatedData.serialize());
+        byte[] hash = authenticatedData.getHash();
         byte[] pubKeyHash = DigestUtil.hash(keyPair.getPublic().getEncoded());
         int sequenceNumber = store.getSequenceNumber(hash) + 1;
         AuthenticatedSequentialData data = new AuthenticatedSequentialData(authenticatedData, sequenceNumber, pubKeyHash, System.currentTimeMillis());
@@ -133,7 +134,7 @@ public final class AddAuthenticatedDataRequest implements AuthenticatedDataReque
 
     public boolean isSignatureInvalid() {
         try {
-            return !SignatureUtil.verify(authenticatedSequentialData.serialize(), signature, getOwnerPublicKey());
+            return !VerifiedSignatureCache.verify(authenticatedSequentialData.serialize(), signature, getOwnerPublicKey());
         } catch (Exception e) {
             log.warn(e.toString(), e);
             return true;
@@ -175,8 +176,8 @@ public final class AddAuthenticatedDataRequest implements AuthenticatedDataReque
     }
 
     @Override
-    public boolean isExpired() {
-        return authenticatedSequentialData.isExpired();
+    public long getExpirationDate() {
+        return authenticatedSequentialData.getExpirationDate();
     }
 
     @Override
@@ -22,6 +22,7 @@ import bisq.network.p2p.services.data.storage.DistributedData;
 import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.network.p2p.services.data.storage.StorageData;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
+import bisq.security.DigestUtil;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -35,6 +36,10 @@ import lombok.extern.slf4j.Slf4j;
 public abstract class AuthenticatedData implements StorageData {
     @Getter
     protected final DistributedData distributedData;
+    // AuthenticatedData is immutable, so we cache the serialized data and its hash, which is used as key in the
+    // storage maps. The cached arrays must not be modified.
+    private transient volatile byte[] serialized;
+    private transient volatile byte[] hash;
 
     public AuthenticatedData(DistributedData distributedData) {
         this.distributedData = distributedData;
@@ -43,6 +48,29 @@ public abstract class AuthenticatedData implements StorageData {
     @Override
     public abstract bisq.network.protobuf.AuthenticatedData toProto();
 
+    @Override
+    public final byte[] serialize() {
+        byte[] result = serialized;
+        if (result == null) {
+            result = doSerialize();
+            serialized = result;
+        }
+        return result;
+    }
+
+    protected byte[] doSerialize() {
+        return toProto().toByteArray();
+    }
+
+    public byte[] getHash() {
+        byte[] result = hash;
+        if (result == null) {
+            result = DigestUtil.hash(serialize());
+            hash = result;
+        }
+        return result;
+    }
+
     public bisq.network.protobuf.AuthenticatedData.Builder getAuthenticatedDataBuilder() {
         return bisq.network.protobuf.AuthenticatedData.newBuilder()
                 .setDistributedData(distributedData.toAny());
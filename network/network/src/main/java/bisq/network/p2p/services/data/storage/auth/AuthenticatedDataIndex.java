@@ -0,0 +1,141 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage.auth;
+
+import bisq.common.data.ByteArray;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Indexes the AuthenticatedData of a store by the class of its DistributedData, ordered by the creation date, and by
+ * the hash of the owner's public key. Removed data (RemoveAuthenticatedDataRequest entries) are not indexed.
+ * <p>
+ * Changes are applied by the AuthenticatedDataStorageService together with the changes of the map, while holding the
+ * lock of the entry. Thus, changes of the same hash never run concurrently, while changes of different hashes do.
+ * Queries read the concurrent collections and do not block changes.
+ */
+final class AuthenticatedDataIndex {
+    private static final class DateKey implements Comparable<DateKey> {
+        private final long created;
+        private final ByteArray hash;
+
+        private DateKey(long created, ByteArray hash) {
+            this.created = created;
+            this.hash = hash;
+        }
+
+        @Override
+        public int compareTo(DateKey other) {
+            int result = Long.compare(created, other.created);
+            // Unsigned, so that the empty array is the lowest hash
+            return result != 0 ? result : Arrays.compareUnsigned(hash.getBytes(), other.hash.getBytes());
+        }
+    }
+
+    private static final ByteArray MIN_HASH = new ByteArray(new byte[0]);
+
+    private final Map<ByteArray, AddAuthenticatedDataRequest> requestByHash = new ConcurrentHashMap<>();
+    private final Map<Class<?>, NavigableMap<DateKey, AuthenticatedData>> dataByClass = new ConcurrentHashMap<>();
+    private final Map<ByteArray, Map<ByteArray, AuthenticatedData>> dataByOwner = new ConcurrentHashMap<>();
+
+    void put(ByteArray hash, AddAuthenticatedDataRequest request) {
+        remove(hash);
+        AuthenticatedData data = request.getAuthenticatedSequentialData().getAuthenticatedData();
+        requestByHash.put(hash, request);
+        dataByClass.computeIfAbsent(data.getDistributedData().getClass(), c -> new ConcurrentSkipListMap<>())
+                .put(new DateKey(request.getCreated(), hash), data);
+        // Changed atomically per owner, as another hash of the same owner might get removed concurrently
+        dataByOwner.compute(getOwnerKey(request), (ownerKey, byHash) -> {
+            Map<ByteArray, AuthenticatedData> result = byHash == null ? new ConcurrentHashMap<>() : byHash;
+            result.put(hash, data);
+            return result;
+        });
+    }
+
+    void remove(ByteArray hash) {
+        AddAuthenticatedDataRequest request = requestByHash.remove(hash);
+        if (request == null) {
+            return;
+        }
+        Class<?> dataClass = request.getAuthenticatedSequentialData().getAuthenticatedData().getDistributedData().getClass();
+        NavigableMap<DateKey, AuthenticatedData> byDate = dataByClass.get(dataClass);
+        if (byDate != null) {
+            byDate.remove(new DateKey(request.getCreated(), hash));
+        }
+        dataByOwner.computeIfPresent(getOwnerKey(request), (ownerKey, byHash) -> {
+            byHash.remove(hash);
+            return byHash.isEmpty() ? null : byHash;
+        });
+    }
+
+    /**
+     * Must be called while no other changes are applied.
+     */
+    void rebuild(Map<ByteArray, AuthenticatedDataRequest> map) {
+        requestByHash.clear();
+        dataByClass.clear();
+        dataByOwner.clear();
+        map.forEach((hash, request) -> {
+            if (request instanceof AddAuthenticatedDataRequest) {
+                put(hash, (AddAuthenticatedDataRequest) request);
+            }
+        });
+    }
+
+    Stream<AuthenticatedData> getAll() {
+        return dataByClass.values().stream().flatMap(byDate -> byDate.values().stream());
+    }
+
+    /**
+     * @return The data of the given class or its subclasses, ordered by creation date per class.
+     */
+    Stream<AuthenticatedData> getByClass(Class<?> dataClass) {
+        return dataByClass.entrySet().stream()
+                .filter(entry -> dataClass.isAssignableFrom(entry.getKey()))
+                .flatMap(entry -> entry.getValue().values().stream());
+    }
+
+    /**
+     * @return The data of the given class or its subclasses which was created in the given period (from inclusive,
+     * to exclusive).
+     */
+    Stream<AuthenticatedData> getByClass(Class<?> dataClass, long from, long to) {
+        if (from >= to) {
+            return Stream.empty();
+        }
+        DateKey fromKey = new DateKey(from, MIN_HASH);
+        DateKey toKey = new DateKey(to, MIN_HASH);
+        return dataByClass.entrySet().stream()
+                .filter(entry -> dataClass.isAssignableFrom(entry.getKey()))
+                .flatMap(entry -> entry.getValue().subMap(fromKey, toKey).values().stream());
+    }
+
+    Stream<AuthenticatedData> getByOwner(ByteArray ownerPubKeyHash) {
+        Map<ByteArray, AuthenticatedData> byHash = dataByOwner.get(ownerPubKeyHash);
+        return byHash == null ? Stream.empty() : byHash.values().stream();
+    }
+
+    private static ByteArray getOwnerKey(AddAuthenticatedDataRequest request) {
+        return new ByteArray(request.getAuthenticatedSequentialData().getPubKeyHash());
+    }
+}
@@ -23,17 +23,23 @@ import bisq.common.util.StringUtils;
 import bisq.network.p2p.services.data.storage.DataStorageResult;
 import bisq.network.p2p.services.data.storage.DataStorageService;
 import bisq.network.p2p.services.data.storage.DataStore;
+import bisq.network.p2p.services.data.storage.DistributedData;
+import bisq.network.p2p.services.data.storage.StorageService;
+import bisq.network.p2p.services.data.storage.StripedLock;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
 import bisq.persistence.PersistenceService;
-import bisq.security.DigestUtil;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -49,17 +55,24 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
     }
 
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
-    private final Object mapAccessLock = new Object();
+    private final AuthenticatedDataIndex dataIndex = new AuthenticatedDataIndex();
     private final Scheduler scheduler;
 
-    public AuthenticatedDataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
-        super(persistenceService, storeName, storeKey);
+    public AuthenticatedDataStorageService(PersistenceService persistenceService,
+                                           StorageService.Config config,
+                                           String storeName,
+                                           String storeKey) {
+        super(persistenceService, config, storeName, storeKey);
         scheduler = Scheduler.run(this::pruneExpired).periodically(60, TimeUnit.SECONDS);
     }
 
     @Override
-    public void onPersistedApplied(DataStore<AuthenticatedDataRequest> persisted) {
+    protected void onPersistedLoaded() {
         pruneInvalidAuthorizedData();
+        try (StripedLock.Handle ignored = stripedLock.lockAll()) {
+            dataIndex.rebuild(persistableStore.getMap());
+            rebuildTombstones();
+        }
     }
 
     @Override
@@ -71,14 +84,12 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
     public DataStorageResult add(AddAuthenticatedDataRequest request) {
         AuthenticatedSequentialData authenticatedSequentialData = request.getAuthenticatedSequentialData();
         AuthenticatedData authenticatedData = authenticatedSequentialData.getAuthenticatedData();
-        byte[] hash = DigestUtil.hash(authenticatedData.serialize());
+        byte[] hash = authenticatedData.getHash();
         ByteArray byteArray = new ByteArray(hash);
         AuthenticatedDataRequest requestFromMap;
+        List<AuthenticatedDataRequest> evicted = new ArrayList<>();
         Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (map.size() > getMaxMapSize()) {
-                return new DataStorageResult(false).maxMapSizeReached();
-            }
+        try (StripedLock.Handle ignored = stripedLock.lock(byteArray)) {
             requestFromMap = map.get(byteArray);
             if (request.equals(requestFromMap)) {
                 return new DataStorageResult(false).requestAlreadyReceived();
@@ -117,10 +128,19 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 log.warn("Signature is invalid at add. request={}", request);
                 return new DataStorageResult(false).signatureInvalid();
             }
+
+            // If the map is full, we remove the oldest entries. If our data is the oldest we reject it.
+            if (requestFromMap == null && !evictOldest(request, evicted)) {
+                return new DataStorageResult(false).maxMapSizeReached();
+            }
             map.put(byteArray, request);
+            expiryIndex.add(byteArray, request);
+            updateTombstones(byteArray, request);
+            dataIndex.put(byteArray, request);
         }
 
         persist();
+        evicted.forEach(this::notifyRemoved);
 
         // If we had already the data (only updated seq nr) we return false as well and do not notify listeners.
        /* if (requestFromMap != null) {
@@ -142,13 +162,15 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         ByteArray byteArray = new ByteArray(request.getHash());
         AuthenticatedData authenticatedDataFromMap;
         Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
+        try (StripedLock.Handle ignored = stripedLock.lock(byteArray)) {
             AuthenticatedDataRequest requestFromMap = map.get(byteArray);
             if (requestFromMap == null) {
                 log.debug("No entry at remove. hash={}", byteArray);
                 // We don't have any entry, but it might be that we would receive later an add request, so we need to keep
                 // track of the sequence number
                 map.put(byteArray, request);
+                expiryIndex.add(byteArray, request);
+                updateTombstones(byteArray, request);
                 persist();
                 return new DataStorageResult(false).noEntry();
             }
@@ -159,6 +181,8 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 if (!request.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
                     // We update the map with the new request with the fresh sequence number.
                     map.put(byteArray, request);
+                    expiryIndex.add(byteArray, request);
+                    updateTombstones(byteArray, request);
                     persist();
                 }
                 return new DataStorageResult(false).alreadyRemoved();
@@ -196,6 +220,9 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 return new DataStorageResult(false).signatureInvalid();
             }
             map.put(byteArray, request);
+            expiryIndex.add(byteArray, request);
+            updateTombstones(byteArray, request);
+            dataIndex.remove(byteArray);
         }
         persist();
         listeners.forEach(listener -> {
@@ -212,7 +239,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         ByteArray byteArray = new ByteArray(request.getHash());
         AddAuthenticatedDataRequest updatedRequest;
         Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
+        try (StripedLock.Handle ignored = stripedLock.lock(byteArray)) {
             AuthenticatedDataRequest requestFromMap = map.get(byteArray);
 
             if (requestFromMap == null) {
@@ -252,6 +279,9 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                     addRequestFromMap.getOwnerPublicKey());
 
             map.put(byteArray, updatedRequest);
+            expiryIndex.add(byteArray, updatedRequest);
+            updateTombstones(byteArray, updatedRequest);
+            dataIndex.put(byteArray, updatedRequest);
         }
         persist();
         listeners.forEach(listener -> {
@@ -272,12 +302,59 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         listeners.remove(listener);
     }
 
+    /**
+     * The queries use an index of the data, thus they do not iterate or clone the store. While a lazily loaded store
+     * gets warmed up, the index is not complete yet and the queries iterate the store.
+     */
+    public Stream<AuthenticatedData> getAuthenticatedData() {
+        if (isWarmingUp()) {
+            return getAddRequestsFromMap().map(AuthenticatedDataStorageService::toAuthenticatedData);
+        }
+        return dataIndex.getAll();
+    }
+
+    public Stream<AuthenticatedData> getAuthenticatedData(Class<? extends DistributedData> dataClass) {
+        if (isWarmingUp()) {
+            return getAddRequestsFromMap()
+                    .map(AuthenticatedDataStorageService::toAuthenticatedData)
+                    .filter(data -> dataClass.isInstance(data.getDistributedData()));
+        }
+        return dataIndex.getByClass(dataClass);
+    }
+
+    /**
+     * @return The data created in the given period (from inclusive, to exclusive).
+     */
+    public Stream<AuthenticatedData> getAuthenticatedData(Class<? extends DistributedData> dataClass, long from, long to) {
+        if (isWarmingUp()) {
+            return getAddRequestsFromMap()
+                    .filter(request -> request.getCreated() >= from && request.getCreated() < to)
+                    .map(AuthenticatedDataStorageService::toAuthenticatedData)
+                    .filter(data -> dataClass.isInstance(data.getDistributedData()));
+        }
+        return dataIndex.getByClass(dataClass, from, to);
+    }
+
+    public Stream<AuthenticatedData> getAuthenticatedDataByOwner(byte[] ownerPubKeyHash) {
+        if (isWarmingUp()) {
+            return getAddRequestsFromMap()
+                    .filter(request -> Arrays.equals(request.getAuthenticatedSequentialData().getPubKeyHash(), ownerPubKeyHash))
+                    .map(AuthenticatedDataStorageService::toAuthenticatedData);
+        }
+        return dataIndex.getByOwner(new ByteArray(ownerPubKeyHash));
+    }
+
+    @Override
+    protected void onEvicted(ByteArray key, AuthenticatedDataRequest request) {
+        dataIndex.remove(key);
+    }
+
     @VisibleForTesting
     public int getSequenceNumber(byte[] hash) {
         ByteArray byteArray = new ByteArray(hash);
         int sequenceNumber = 0;
         Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
+        try (StripedLock.Handle ignored = stripedLock.lock(byteArray)) {
             if (map.containsKey(byteArray)) {
                 sequenceNumber = map.get(byteArray).getSequenceNumber();
             }
@@ -286,22 +363,39 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
     }
 
     private void pruneExpired() {
-        Set<Map.Entry<ByteArray, AuthenticatedDataRequest>> expiredEntries = persistableStore.getMap().entrySet().stream()
-                .filter(entry -> entry.getValue().isExpired())
-                .collect(Collectors.toSet());
-        if (!expiredEntries.isEmpty()) {
-            log.info("We remove {} expired entries from our map", expiredEntries.size());
+        List<Map.Entry<ByteArray, AuthenticatedDataRequest>> expiredEntries;
+        try (StripedLock.Handle ignored = stripedLock.lockAll()) {
+            expiredEntries = expiryIndex.removeExpired(System.currentTimeMillis());
             expiredEntries.forEach(entry -> {
-                persistableStore.getMap().remove(entry.getKey());
-                if (entry.getValue() instanceof AddAuthenticatedDataRequest) {
-                    AuthenticatedData data = ((AddAuthenticatedDataRequest) entry.getValue()).getAuthenticatedSequentialData().getAuthenticatedData();
-                    listeners.forEach(listener -> {
-                        try {
-                            listener.onRemoved(data);
-                        } catch (Exception e) {
-                            log.error("Calling onRemoved at listener {} failed", listener, e);
-                        }
-                    });
+                dataIndex.remove(entry.getKey());
+                tombstones.remove(entry.getKey());
+            });
+        }
+        if (!expiredEntries.isEmpty()) {
+            log.info("We removed {} expired entries from our map", expiredEntries.size());
+            persist();
+            expiredEntries.forEach(entry -> notifyRemoved(entry.getValue()));
+        }
+    }
+
+    private Stream<AddAuthenticatedDataRequest> getAddRequestsFromMap() {
+        return persistableStore.getMap().values().stream()
+                .filter(request -> request instanceof AddAuthenticatedDataRequest)
+                .map(request -> (AddAuthenticatedDataRequest) request);
+    }
+
+    private static AuthenticatedData toAuthenticatedData(AddAuthenticatedDataRequest request) {
+        return request.getAuthenticatedSequentialData().getAuthenticatedData();
+    }
+
+    private void notifyRemoved(AuthenticatedDataRequest request) {
+        if (request instanceof AddAuthenticatedDataRequest) {
+            AuthenticatedData data = ((AddAuthenticatedDataRequest) request).getAuthenticatedSequentialData().getAuthenticatedData();
+            listeners.forEach(listener -> {
+                try {
+                    listener.onRemoved(data);
+                } catch (Exception e) {
+                    log.error("Calling onRemoved at listener {} failed", listener, e);
                 }
             });
         }
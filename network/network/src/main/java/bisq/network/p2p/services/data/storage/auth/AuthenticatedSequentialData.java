@@ -20,7 +20,9 @@ package bisq.network.p2p.services.data.storage.auth;
 import bisq.common.encoding.Hex;
 import bisq.common.proto.NetworkProto;
 import bisq.common.validation.NetworkDataValidation;
+import bisq.network.p2p.services.data.DataRequest;
 import com.google.protobuf.ByteString;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -45,6 +47,10 @@ public final class AuthenticatedSequentialData implements NetworkProto {
     private final long created;
     private final byte[] pubKeyHash;
 
+    // Immutable, so we cache the serialized data which gets signed and verified. The cached array must not be modified.
+    @Getter(AccessLevel.NONE)
+    private transient volatile byte[] serialized;
+
     public AuthenticatedSequentialData(AuthenticatedData authenticatedData,
                                        int sequenceNumber,
                                        byte[] pubKeyHash,
@@ -73,6 +79,16 @@ public final class AuthenticatedSequentialData implements NetworkProto {
                 .build();
     }
 
+    @Override
+    public byte[] serialize() {
+        byte[] result = serialized;
+        if (result == null) {
+            result = toProto().toByteArray();
+            serialized = result;
+        }
+        return result;
+    }
+
     public static AuthenticatedSequentialData fromProto(bisq.network.protobuf.AuthenticatedSequentialData proto) {
         return new AuthenticatedSequentialData(AuthenticatedData.fromProto(proto.getAuthenticatedData()),
                 proto.getSequenceNumber(),
@@ -80,8 +96,12 @@ public final class AuthenticatedSequentialData implements NetworkProto {
                 proto.getCreated());
     }
 
+    public long getExpirationDate() {
+        return DataRequest.getExpirationDate(created, authenticatedData.getMetaData().getTtl());
+    }
+
     public boolean isExpired() {
-        return (System.currentTimeMillis() - created) > authenticatedData.getMetaData().getTtl();
+        return System.currentTimeMillis() > getExpirationDate();
     }
 
     public boolean isSequenceNrInvalid(long seqNumberFromMap) {
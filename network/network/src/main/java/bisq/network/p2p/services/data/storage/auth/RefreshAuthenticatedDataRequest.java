@@ -24,6 +24,7 @@ import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.security.DigestUtil;
 import bisq.security.SignatureUtil;
+import bisq.security.VerifiedSignatureCache;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
@@ -43,7 +44,7 @@ public final class RefreshAuthenticatedDataRequest implements DataRequest {
                                                        AuthenticatedData authenticatedData,
                                                        KeyPair keyPair)
             throws GeneralSecurityException {
-        byte[] hash = DigestUtil.hash(authenticatedData.serialize());
+        byte[] hash = authenticatedData.getHash();
         byte[] signature = SignatureUtil.sign(hash, keyPair.getPrivate());
         int newSequenceNumber = store.getSequenceNumber(hash) + 1;
         return new RefreshAuthenticatedDataRequest(authenticatedData.getMetaData(),
@@ -133,7 +134,7 @@ public final class RefreshAuthenticatedDataRequest implements DataRequest {
 
     public boolean isSignatureInvalid() {
         try {
-            return !SignatureUtil.verify(hash, signature, ownerPublicKey);
+            return !VerifiedSignatureCache.verify(hash, signature, ownerPublicKey);
         } catch (Exception e) {
             return true;
         }
@@ -152,10 +153,10 @@ public final class RefreshAuthenticatedDataRequest implements DataRequest {
     }
 
     @Override
-    public boolean isExpired() {
+    public long getExpirationDate() {
         // Not used as we do not persist RefreshAuthenticatedDataRequest but use it to recreate a new 
         // AddAuthenticatedDataRequest with the updated sequenceNumber
-        return false;
+        return Long.MAX_VALUE;
     }
 
     @Override
@@ -20,10 +20,12 @@ package bisq.network.p2p.services.data.storage.auth;
 import bisq.common.encoding.Hex;
 import bisq.common.util.MathUtils;
 import bisq.common.validation.NetworkDataValidation;
+import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.RemoveDataRequest;
 import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.security.DigestUtil;
 import bisq.security.SignatureUtil;
+import bisq.security.VerifiedSignatureCache;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
@@ -42,7 +44,7 @@ public final class RemoveAuthenticatedDataRequest implements AuthenticatedDataRe
 
     public static RemoveAuthenticatedDataRequest from(AuthenticatedDataStorageService store, AuthenticatedData authenticatedData, KeyPair keyPair)
             throws GeneralSecurityException {
-        byte[] hash = DigestUtil.hash(authenticatedData.serialize());
+        byte[] hash = authenticatedData.getHash();
         byte[] signature = SignatureUtil.sign(hash, keyPair.getPrivate());
         int newSequenceNumber = store.getSequenceNumber(hash) + 1;
         return new RemoveAuthenticatedDataRequest(authenticatedData.getMetaData(),
@@ -156,7 +158,7 @@ public final class RemoveAuthenticatedDataRequest implements AuthenticatedDataRe
             if (ownerPublicKey == null) {
                 ownerPublicKey = KeyGeneration.generatePublic(ownerPublicKeyBytes);
             }
-            return !SignatureUtil.verify(hash, signature, ownerPublicKey);
+            return !VerifiedSignatureCache.verify(hash, signature, ownerPublicKey);
         } catch (Exception e) {
             return true;
         }
@@ -175,8 +177,8 @@ public final class RemoveAuthenticatedDataRequest implements AuthenticatedDataRe
     }
 
     @Override
-    public boolean isExpired() {
-        return (System.currentTimeMillis() - created) > metaData.getTtl();
+    public long getExpirationDate() {
+        return DataRequest.getExpirationDate(created, metaData.getTtl());
     }
 
     @Override
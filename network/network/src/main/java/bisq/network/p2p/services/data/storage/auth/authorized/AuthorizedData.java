@@ -21,7 +21,7 @@ import bisq.common.encoding.Hex;
 import bisq.common.validation.NetworkDataValidation;
 import bisq.network.p2p.services.data.storage.DistributedData;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
-import bisq.security.SignatureUtil;
+import bisq.security.VerifiedSignatureCache;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
@@ -108,7 +108,7 @@ public final class AuthorizedData extends AuthenticatedData {
 
     // We omit the signature for the hash, otherwise we would get a new map entry for the same data at each republishing
     @Override
-    public byte[] serialize() {
+    protected byte[] doSerialize() {
         return getAuthenticatedDataBuilder().setAuthorizedData(
                         bisq.network.protobuf.AuthorizedData.newBuilder()
                                 .setAuthorizedPublicKeyBytes(ByteString.copyFrom(authorizedPublicKeyBytes)))
@@ -122,7 +122,7 @@ public final class AuthorizedData extends AuthenticatedData {
     public boolean isNotAuthorized() {
         try {
             AuthorizedDistributedData authorizedDistributedData = getAuthorizedDistributedData();
-            if (!SignatureUtil.verify(distributedData.serialize(), signature.orElseThrow(), authorizedPublicKey)) {
+            if (!VerifiedSignatureCache.verify(distributedData.serialize(), signature.orElseThrow(), authorizedPublicKey)) {
                 return true;
             }
 
@@ -20,6 +20,7 @@ package bisq.network.p2p.services.data.storage.mailbox;
 import bisq.network.p2p.services.confidential.ConfidentialMessage;
 import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.network.p2p.services.data.storage.StorageData;
+import bisq.security.DigestUtil;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -43,6 +44,12 @@ public final class MailboxData implements StorageData {
     private final ConfidentialMessage confidentialMessage;
     @Getter
     private final MetaData metaData;
+    // MailboxData is immutable, so we cache the serialized data and its hash, which is used as key in the
+    // storage maps. The cached arrays must not be modified.
+    @ToString.Exclude
+    private transient volatile byte[] serialized;
+    @ToString.Exclude
+    private transient volatile byte[] hash;
 
     public MailboxData(ConfidentialMessage confidentialMessage, MetaData metaData) {
         this.confidentialMessage = confidentialMessage;
@@ -63,6 +70,25 @@ public final class MailboxData implements StorageData {
                 .build();
     }
 
+    @Override
+    public byte[] serialize() {
+        byte[] result = serialized;
+        if (result == null) {
+            result = toProto().toByteArray();
+            serialized = result;
+        }
+        return result;
+    }
+
+    public byte[] getHash() {
+        byte[] result = hash;
+        if (result == null) {
+            result = DigestUtil.hash(serialize());
+            hash = result;
+        }
+        return result;
+    }
+
     public static MailboxData fromProto(bisq.network.protobuf.MailboxData proto) {
         return new MailboxData(ConfidentialMessage.fromProto(proto.getConfidentialMessage()),
                 MetaData.fromProto(proto.getMetaData()));
@@ -21,15 +21,17 @@ import bisq.common.data.ByteArray;
 import bisq.common.timer.Scheduler;
 import bisq.network.p2p.services.data.storage.DataStorageResult;
 import bisq.network.p2p.services.data.storage.DataStorageService;
+import bisq.network.p2p.services.data.storage.StorageService;
+import bisq.network.p2p.services.data.storage.StripedLock;
 import bisq.persistence.PersistenceService;
-import bisq.security.DigestUtil;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 @Slf4j
 public class MailboxDataStorageService extends DataStorageService<MailboxRequest> {
@@ -40,14 +42,23 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
     }
 
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
-    private final Object mapAccessLock = new Object();
     private final Scheduler scheduler;
 
-    public MailboxDataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
-        super(persistenceService, storeName, storeKey);
+    public MailboxDataStorageService(PersistenceService persistenceService,
+                                     StorageService.Config config,
+                                     String storeName,
+                                     String storeKey) {
+        super(persistenceService, config, storeName, storeKey);
         scheduler = Scheduler.run(this::pruneExpired).periodically(60, TimeUnit.SECONDS);
     }
 
+    @Override
+    protected void onPersistedLoaded() {
+        try (StripedLock.Handle ignored = stripedLock.lockAll()) {
+            rebuildTombstones();
+        }
+    }
+
     @Override
     public void shutdown() {
         super.shutdown();
@@ -57,14 +68,12 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
     public DataStorageResult add(AddMailboxRequest request) {
         MailboxSequentialData mailboxSequentialData = request.getMailboxSequentialData();
         MailboxData mailboxData = mailboxSequentialData.getMailboxData();
-        byte[] hash = DigestUtil.hash(mailboxData.serialize());
+        byte[] hash = mailboxData.getHash();
         ByteArray byteArray = new ByteArray(hash);
         MailboxRequest requestFromMap;
+        List<MailboxRequest> evicted = new ArrayList<>();
         Map<ByteArray, MailboxRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (map.size() > getMaxMapSize()) {
-                return new DataStorageResult(false).maxMapSizeReached();
-            }
+        try (StripedLock.Handle ignored = stripedLock.lock(byteArray)) {
             requestFromMap = map.get(byteArray);
             int sequenceNumberFromMap = requestFromMap != null ? requestFromMap.getSequenceNumber() : 0;
 
@@ -91,9 +100,20 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
             if (request.isSignatureInvalid()) {
                 return new DataStorageResult(false).signatureInvalid();
             }
+
+            // If the map is full, we remove the oldest entries. If our data is the oldest we reject it.
+            if (requestFromMap == null && !evictOldest(request, evicted)) {
+                return new DataStorageResult(false).maxMapSizeReached();
+            }
             map.put(byteArray, request);
+            expiryIndex.add(byteArray, request);
+            updateTombstones(byteArray, request);
         }
         persist();
+        if (!evicted.isEmpty()) {
+            log.info("We removed the {} oldest entries from our full map", evicted.size());
+            evicted.forEach(this::notifyRemoved);
+        }
 
         // If we had already the data (only updated seq nr) we return false as well and do not notify listeners.
         // This should only happen if client re-publishes mailbox data 
@@ -114,13 +134,16 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
     public DataStorageResult remove(RemoveMailboxRequest request) {
         ByteArray byteArray = new ByteArray(request.getHash());
         Map<ByteArray, MailboxRequest> map = persistableStore.getMap();
-        MailboxRequest requestFromMap = map.get(byteArray);
         MailboxSequentialData sequentialDataFromMap;
-        synchronized (mapAccessLock) {
+        try (StripedLock.Handle ignored = stripedLock.lock(byteArray)) {
+            // Read under the lock, as another thread might change the entry
+            MailboxRequest requestFromMap = map.get(byteArray);
             if (requestFromMap == null) {
                 // We don't have any entry, but it might be that we would receive later an add request, so we need to keep
                 // track of the sequence number
                 map.put(byteArray, request);
+                expiryIndex.add(byteArray, request);
+                updateTombstones(byteArray, request);
                 persist();
                 return new DataStorageResult(false).noEntry();
             }
@@ -130,6 +153,8 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
                 if (!request.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
                     // We update the request, so we have the latest sequence number.
                     map.put(byteArray, request);
+                    expiryIndex.add(byteArray, request);
+                    updateTombstones(byteArray, request);
                     persist();
                 }
                 return new DataStorageResult(false).alreadyRemoved();
@@ -154,6 +179,8 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
             }
 
             map.put(byteArray, request);
+            expiryIndex.add(byteArray, request);
+            updateTombstones(byteArray, request);
             listeners.forEach(listener -> {
                 try {
                     listener.onRemoved(sequentialDataFromMap.getMailboxData());
@@ -184,7 +211,7 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
         ByteArray byteArray = new ByteArray(hash);
         int sequenceNumber = 0;
         Map<ByteArray, MailboxRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
+        try (StripedLock.Handle ignored = stripedLock.lock(byteArray)) {
             if (map.containsKey(byteArray)) {
                 sequenceNumber = map.get(byteArray).getSequenceNumber();
             }
@@ -193,24 +220,40 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
     }
 
     boolean contains(byte[] hash) {
+        ByteArray byteArray = new ByteArray(hash);
         Map<ByteArray, MailboxRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            return map.containsKey(new ByteArray(hash));
+        try (StripedLock.Handle ignored = stripedLock.lock(byteArray)) {
+            return map.containsKey(byteArray);
         }
     }
 
     boolean canAddMailboxMessage(MailboxData mailboxData) {
-        byte[] hash = DigestUtil.hash(mailboxData.serialize());
+        byte[] hash = mailboxData.getHash();
         return getSequenceNumber(hash) < Integer.MAX_VALUE;
     }
 
     private void pruneExpired() {
-        Set<Map.Entry<ByteArray, MailboxRequest>> expiredEntries = persistableStore.getMap().entrySet().stream()
-                .filter(entry -> entry.getValue().isExpired())
-                .collect(Collectors.toSet());
+        List<Map.Entry<ByteArray, MailboxRequest>> expiredEntries;
+        try (StripedLock.Handle ignored = stripedLock.lockAll()) {
+            expiredEntries = expiryIndex.removeExpired(System.currentTimeMillis());
+            expiredEntries.forEach(entry -> tombstones.remove(entry.getKey()));
+        }
         if (!expiredEntries.isEmpty()) {
-            log.info("We remove {} expired entries from our map", expiredEntries.size());
-            expiredEntries.forEach(entry -> persistableStore.getMap().remove(entry.getKey()));
+            log.info("We removed {} expired entries from our map", expiredEntries.size());
+            persist();
+        }
+    }
+
+    private void notifyRemoved(MailboxRequest request) {
+        if (request instanceof AddMailboxRequest) {
+            MailboxData data = ((AddMailboxRequest) request).getMailboxSequentialData().getMailboxData();
+            listeners.forEach(listener -> {
+                try {
+                    listener.onRemoved(data);
+                } catch (Exception e) {
+                    log.error("Calling onRemoved at listener {} failed", listener, e);
+                }
+            });
         }
     }
 }
@@ -19,8 +19,10 @@ package bisq.network.p2p.services.data.storage.mailbox;
 
 import bisq.common.proto.NetworkProto;
 import bisq.common.validation.NetworkDataValidation;
+import bisq.network.p2p.services.data.DataRequest;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -40,6 +42,11 @@ public final class MailboxSequentialData implements NetworkProto {
     private final int sequenceNumber;
     private transient final PublicKey receiversPubKey;
 
+    // Immutable, so we cache the serialized data which gets signed and verified. The cached array must not be modified.
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient volatile byte[] serialized;
+
     public MailboxSequentialData(MailboxData mailboxData,
                                  byte[] senderPublicKeyHash,
                                  byte[] receiversPublicKeyHash,
@@ -106,6 +113,16 @@ public final class MailboxSequentialData implements NetworkProto {
                 .build();
     }
 
+    @Override
+    public byte[] serialize() {
+        byte[] result = serialized;
+        if (result == null) {
+            result = toProto().toByteArray();
+            serialized = result;
+        }
+        return result;
+    }
+
     public static MailboxSequentialData fromProto(bisq.network.protobuf.MailboxSequentialData proto) {
         byte[] receiversPubKeyBytes = proto.getReceiversPubKeyBytes().toByteArray();
         try {
@@ -129,7 +146,11 @@ public final class MailboxSequentialData implements NetworkProto {
         return sequenceNumber <= seqNumberFromMap;
     }
 
+    public long getExpirationDate() {
+        return DataRequest.getExpirationDate(created, Math.min(MailboxData.MAX_TLL, mailboxData.getMetaData().getTtl()));
+    }
+
     public boolean isExpired() {
-        return (System.currentTimeMillis() - created) > Math.min(MailboxData.MAX_TLL, mailboxData.getMetaData().getTtl());
+        return System.currentTimeMillis() > getExpirationDate();
     }
 }
@@ -19,10 +19,12 @@ package bisq.network.p2p.services.data.storage.mailbox;
 
 import bisq.common.util.MathUtils;
 import bisq.common.validation.NetworkDataValidation;
+import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.RemoveDataRequest;
 import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.security.DigestUtil;
 import bisq.security.SignatureUtil;
+import bisq.security.VerifiedSignatureCache;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
@@ -47,7 +49,7 @@ public final class RemoveMailboxRequest implements MailboxRequest, RemoveDataReq
 
     public static RemoveMailboxRequest from(MailboxData mailboxData, KeyPair receiverKeyPair)
             throws GeneralSecurityException {
-        byte[] hash = DigestUtil.hash(mailboxData.serialize());
+        byte[] hash = mailboxData.getHash();
         byte[] signature = SignatureUtil.sign(hash, receiverKeyPair.getPrivate());
         return new RemoveMailboxRequest(mailboxData.getMetaData(), hash, receiverKeyPair.getPublic(), signature);
     }
@@ -138,7 +140,7 @@ public final class RemoveMailboxRequest implements MailboxRequest, RemoveDataReq
             if (receiverPublicKey == null) {
                 receiverPublicKey = KeyGeneration.generatePublic(receiverPublicKeyBytes);
             }
-            return !SignatureUtil.verify(hash, signature, receiverPublicKey);
+            return !VerifiedSignatureCache.verify(hash, signature, receiverPublicKey);
         } catch (Exception e) {
             return true;
         }
@@ -159,8 +161,8 @@ public final class RemoveMailboxRequest implements MailboxRequest, RemoveDataReq
     }
 
     @Override
-    public boolean isExpired() {
-        return (System.currentTimeMillis() - created) > Math.min(MailboxData.MAX_TLL, metaData.getTtl());
+    public long getExpirationDate() {
+        return DataRequest.getExpirationDate(created, Math.min(MailboxData.MAX_TLL, metaData.getTtl()));
     }
 
     @Override
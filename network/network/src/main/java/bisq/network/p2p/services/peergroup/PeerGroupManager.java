@@ -17,9 +17,12 @@
 
 package bisq.network.p2p.services.peergroup;
 
+import bisq.common.metrics.Metrics;
 import bisq.common.timer.Scheduler;
 import bisq.network.NetworkService;
 import bisq.network.common.Address;
+import bisq.network.identity.NetworkId;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.node.CloseReason;
 import bisq.network.p2p.node.Connection;
 import bisq.network.p2p.node.Node;
@@ -46,7 +49,7 @@ import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 @Slf4j
-public class PeerGroupManager {
+public class PeerGroupManager implements Node.Listener {
     public enum State {
         NEW,
         STARTING,
@@ -157,6 +160,8 @@ public class PeerGroupManager {
                 .onRetriesExceeded(e -> log.warn("Failed. Max retries exceeded."))
                 .onSuccess(e -> log.debug("Succeeded."))
                 .build();
+
+        node.addListener(this);
     }
 
     public void initialize() {
@@ -166,6 +171,7 @@ public class PeerGroupManager {
 
     public void shutdown() {
         setState(State.STOPPING);
+        node.removeListener(this);
         peerExchangeService.shutdown();
         keepAliveService.shutdown();
         networkLoadExchangeService.shutdown();
@@ -179,6 +185,7 @@ public class PeerGroupManager {
         State state = getState().get();
         switch (state) {
             case NEW:
+                long startTs = System.nanoTime();
                 setState(PeerGroupManager.State.STARTING);
                 // blocking
                 peerExchangeService.startInitialPeerExchange().join();
@@ -190,6 +197,12 @@ public class PeerGroupManager {
                 keepAliveService.initialize();
                 networkLoadExchangeService.initialize();
                 setState(State.RUNNING);
+                long startupDuration = (System.nanoTime() - startTs) / 1_000_000;
+                log.info("{} reached state RUNNING after {} ms", nodeInfo, startupDuration);
+                Metrics.latencyHistogram("bisq_network_peer_group_startup_ms",
+                                "Time from start of the PeerGroupManager until state RUNNING",
+                                "transport", node.getTransportType().name())
+                        .observe(startupDuration);
                 break;
             case STARTING:
             case RUNNING:
@@ -201,6 +214,27 @@ public class PeerGroupManager {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Node.Listener
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onMessage(EnvelopePayloadMessage envelopePayloadMessage, Connection connection, NetworkId networkId) {
+    }
+
+    @Override
+    public void onConnection(Connection connection) {
+        if (connection.isOutboundConnection()) {
+            peerGroupService.onOutboundConnectionEstablished(connection);
+        }
+    }
+
+    @Override
+    public void onDisconnect(Connection connection, CloseReason closeReason) {
+        peerGroupService.updatePeerScore(connection);
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Seed nodes
     ///////////////////////////////////////////////////////////////////////////////////////////////////
@@ -239,6 +273,7 @@ public class PeerGroupManager {
             maybeCreateConnections();
             maybeRemoveReportedPeers();
             maybeRemovePersistedPeers();
+            updatePeerScores();
         } catch (InterruptedException ignore) {
         }
     }
@@ -271,7 +306,7 @@ public class PeerGroupManager {
 
     private void maybeCloseConnectionsToSeeds() {
         log.debug("Node {} called maybeCloseConnectionsToSeeds", node);
-        Comparator<Connection> comparator = peerGroupService.getConnectionAgeComparator().reversed(); // reversed as we use skip
+        Comparator<Connection> comparator = peerGroupService.getConnectionRetentionComparator(); // best first as we use skip
         node.getAllActiveConnections()
                 .filter(this::mayDisconnect)
                 .filter(peerGroupService::isSeed)
@@ -297,7 +332,7 @@ public class PeerGroupManager {
 
     private void maybeCloseExceedingInboundConnections() {
         log.debug("Node {} called maybeCloseExceedingInboundConnections", node);
-        Comparator<Connection> comparator = peerGroupService.getConnectionAgeComparator().reversed();
+        Comparator<Connection> comparator = peerGroupService.getConnectionRetentionComparator();
         node.getActiveInboundConnections()
                 .filter(this::mayDisconnect)
                 .sorted(comparator)
@@ -310,7 +345,7 @@ public class PeerGroupManager {
 
     private void maybeCloseExceedingConnections() {
         log.debug("Node {} called maybeCloseExceedingConnections", node);
-        Comparator<Connection> comparator = peerGroupService.getConnectionAgeComparator().reversed();
+        Comparator<Connection> comparator = peerGroupService.getConnectionRetentionComparator();
         node.getAllActiveConnections()
                 .filter(this::mayDisconnect)
                 .sorted(comparator)
@@ -356,13 +391,21 @@ public class PeerGroupManager {
         List<Peer> persistedPeers = new ArrayList<>(peerGroupService.getPersistedPeers());
         int exceeding = persistedPeers.size() - config.getMaxPersisted();
         if (exceeding > 0) {
-            persistedPeers.sort(Comparator.comparing(Peer::getDate));
+            // We remove the peers with the lowest score first
+            persistedPeers.sort(peerGroupService.getPeerScoreComparator().reversed());
             List<Peer> candidates = persistedPeers.subList(0, Math.min(exceeding, persistedPeers.size()));
             log.info("Remove {} persisted peers: {}", candidates.size(), candidates);
             peerGroupService.removePersistedPeers(candidates);
         }
     }
 
+    // The average RTT of active connections is taken as a new sample at each house keeping run, so the scores of
+    // long-living connections follow their current performance.
+    private void updatePeerScores() {
+        node.getAllActiveConnections().forEach(peerGroupService::updatePeerScore);
+        peerGroupService.maybePersistPeerScores();
+    }
+
     public void addListener(PeerGroupManager.Listener listener) {
         listeners.add(listener);
     }
@@ -31,8 +31,14 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -40,6 +46,7 @@ import java.util.stream.Stream;
  */
 @Slf4j
 public class PeerGroupService implements PersistenceClient<PeerGroupStore> {
+    private static final int MAX_PEER_SCORES = 1000;
 
     @Getter
     public static class Config {
@@ -77,6 +84,7 @@ public class PeerGroupService implements PersistenceClient<PeerGroupStore> {
     private final BanList banList;
     @Getter
     private final Set<Peer> reportedPeers = new CopyOnWriteArraySet<>();
+    private final AtomicBoolean peerScoresChanged = new AtomicBoolean();
 
     public PeerGroupService(PersistenceService persistenceService,
                             TransportType transportType,
@@ -147,6 +155,16 @@ public class PeerGroupService implements PersistenceClient<PeerGroupStore> {
         return Comparator.comparing(connection -> connection.getConnectionMetrics().getCreationDate());
     }
 
+    /**
+     * Orders connections by the score of the peer, best first. At equal scores newer connections come first.
+     * Used for deciding which connections to keep if we have too many. Takes a snapshot of the scores, thus a new
+     * comparator is needed for each sort.
+     */
+    public Comparator<Connection> getConnectionRetentionComparator() {
+        Comparator<Connection> byScore = Comparator.comparing(Connection::getPeerAddress, createScoreComparator());
+        return byScore.reversed().thenComparing(getConnectionAgeComparator().reversed());
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Peers
@@ -184,6 +202,112 @@ public class PeerGroupService implements PersistenceClient<PeerGroupStore> {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Peer scores
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public Optional<PeerScore> findPeerScore(Address address) {
+        return Optional.ofNullable(getPeerScoreByAddress().get(address));
+    }
+
+    public double getScore(Address address) {
+        return findPeerScore(address).map(PeerScore::getScore).orElse(PeerScore.DEFAULT_SCORE);
+    }
+
+    public double getScore(Peer peer) {
+        return getScore(peer.getAddress());
+    }
+
+    /**
+     * Orders by the score of the peer, best first. A new comparator is needed for each sort.
+     */
+    public Comparator<Address> getAddressScoreComparator() {
+        return createScoreComparator().reversed();
+    }
+
+    /**
+     * Orders by the score of the peer, best first. At equal scores the most recent peer comes first.
+     * A new comparator is needed for each sort.
+     */
+    public Comparator<Peer> getPeerScoreComparator() {
+        Comparator<Peer> byScore = Comparator.comparing(Peer::getAddress, createScoreComparator());
+        return byScore.reversed().thenComparing(Comparator.comparing(Peer::getDate).reversed());
+    }
+
+    public void onOutboundConnectionEstablished(Connection connection) {
+        PeerScore peerScore = getOrCreatePeerScore(connection.getPeerAddress());
+        peerScore.onSuccess();
+        long handshakeTime = connection.getConnectionMetrics().getHandshakeTime();
+        if (handshakeTime > 0) {
+            peerScore.addHandshakeTime(handshakeTime);
+        }
+        peerScoresChanged.set(true);
+    }
+
+    /**
+     * A connection attempt or a request to the peer failed or timed out.
+     */
+    public void onPeerFailure(Address address) {
+        getOrCreatePeerScore(address).onFailure();
+        peerScoresChanged.set(true);
+    }
+
+    public void onInventoryReceived(Address address, long inventoryBytes) {
+        PeerScore peerScore = getOrCreatePeerScore(address);
+        peerScore.onSuccess();
+        peerScore.addInventoryBytesReceived(inventoryBytes);
+        peerScoresChanged.set(true);
+    }
+
+    /**
+     * Takes the average RTT measured at the connection as a new sample for the peer's RTT.
+     */
+    public void updatePeerScore(Connection connection) {
+        double averageRtt = connection.getConnectionMetrics().getAverageRtt();
+        if (averageRtt > 0) {
+            getOrCreatePeerScore(connection.getPeerAddress()).addRtt(averageRtt);
+            peerScoresChanged.set(true);
+        }
+    }
+
+    /**
+     * Removes the least recently updated scores if we exceed MAX_PEER_SCORES and persists if any score has changed.
+     */
+    public void maybePersistPeerScores() {
+        Map<Address, PeerScore> peerScoreByAddress = getPeerScoreByAddress();
+        int exceeding = peerScoreByAddress.size() - MAX_PEER_SCORES;
+        if (exceeding > 0) {
+            List<Address> outdated = peerScoreByAddress.values().stream()
+                    .sorted(Comparator.comparingLong(PeerScore::getLastUpdate))
+                    .limit(exceeding)
+                    .map(PeerScore::getAddress)
+                    .collect(Collectors.toList());
+            outdated.forEach(peerScoreByAddress::remove);
+            peerScoresChanged.set(true);
+        }
+        if (peerScoresChanged.getAndSet(false)) {
+            persist();
+        }
+    }
+
+    private PeerScore getOrCreatePeerScore(Address address) {
+        return getPeerScoreByAddress().computeIfAbsent(address, PeerScore::new);
+    }
+
+    /**
+     * The scores get updated concurrently, but sorting requires a consistent order. The comparator reads the score of
+     * an address only once and uses that snapshot for the rest of the sort. Must be used for a single sort only.
+     */
+    private Comparator<Address> createScoreComparator() {
+        Map<Address, Double> scoreByAddress = new HashMap<>();
+        return Comparator.comparingDouble(address -> scoreByAddress.computeIfAbsent(address, this::getScore));
+    }
+
+    private Map<Address, PeerScore> getPeerScoreByAddress() {
+        return persistableStore.getPeerScoreByAddress();
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Address
     ///////////////////////////////////////////////////////////////////////////////////////////////////
@@ -19,12 +19,16 @@ package bisq.network.p2p.services.peergroup;
 
 import bisq.common.proto.ProtoResolver;
 import bisq.common.proto.UnresolvableProtobufMessageException;
+import bisq.network.common.Address;
 import bisq.persistence.PersistableStore;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
@@ -32,12 +36,14 @@ import java.util.stream.Collectors;
 @Slf4j
 public final class PeerGroupStore implements PersistableStore<PeerGroupStore> {
     private final Set<Peer> persistedPeers = new CopyOnWriteArraySet<>();
+    private final Map<Address, PeerScore> peerScoreByAddress = new ConcurrentHashMap<>();
 
     public PeerGroupStore() {
     }
 
-    private PeerGroupStore(Set<Peer> persistedPeers) {
+    private PeerGroupStore(Set<Peer> persistedPeers, Collection<PeerScore> peerScores) {
         this.persistedPeers.addAll(persistedPeers);
+        peerScores.forEach(peerScore -> peerScoreByAddress.put(peerScore.getAddress(), peerScore));
     }
 
     @Override
@@ -45,12 +51,18 @@ public final class PeerGroupStore implements PersistableStore<PeerGroupStore> {
         return bisq.network.protobuf.PeerGroupStore.newBuilder().addAllPersistedPeers(persistedPeers.stream()
                         .map(Peer::toProto)
                         .collect(Collectors.toSet()))
+                .addAllPeerScores(peerScoreByAddress.values().stream()
+                        .map(PeerScore::toProto)
+                        .collect(Collectors.toList()))
                 .build();
     }
 
     public static PeerGroupStore fromProto(bisq.network.protobuf.PeerGroupStore proto) {
         return new PeerGroupStore(proto.getPersistedPeersList().stream()
-                .map(Peer::fromProto).collect(Collectors.toSet()));
+                .map(Peer::fromProto).collect(Collectors.toSet()),
+                proto.getPeerScoresList().stream()
+                        .map(PeerScore::fromProto)
+                        .collect(Collectors.toList()));
     }
 
     @Override
@@ -66,12 +78,17 @@ public final class PeerGroupStore implements PersistableStore<PeerGroupStore> {
 
     @Override
     public PeerGroupStore getClone() {
-        return new PeerGroupStore(persistedPeers);
+        // PeerScore is mutable, so we need a deep copy
+        return new PeerGroupStore(persistedPeers, peerScoreByAddress.values().stream()
+                .map(PeerScore::copy)
+                .collect(Collectors.toList()));
     }
 
     @Override
     public void applyPersisted(PeerGroupStore persisted) {
         persistedPeers.clear();
         persistedPeers.addAll(persisted.getPersistedPeers());
+        peerScoreByAddress.clear();
+        peerScoreByAddress.putAll(persisted.getPeerScoreByAddress());
     }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.peergroup;
+
+import bisq.common.proto.PersistableProto;
+import bisq.network.common.Address;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Tracks the quality of a peer as observed by us: success rate of outbound connection attempts and requests, round
+ * trip time, handshake time and the amount of inventory data we received from that peer. The resulting score is
+ * between 0 and 1, higher is better. Peers we have no data about get the DEFAULT_SCORE.
+ * Averages are exponential moving averages so that the score follows changes of the peer's quality over time.
+ */
+@ToString
+public final class PeerScore implements PersistableProto {
+    // Weight of a new sample in the moving averages
+    private static final double SMOOTHING_FACTOR = 0.3;
+    private static final double UNKNOWN = -1;
+    // RTT and handshake time at which the related part of the score is 0.5. Reflects typical values on Tor.
+    private static final double REFERENCE_RTT = 1000;
+    private static final double REFERENCE_HANDSHAKE_TIME = 2000;
+    // Inventory size at which the inventory part of the score reaches its max. value
+    private static final double MAX_INVENTORY_BYTES = 10 * 1024 * 1024;
+
+    private static final double RELIABILITY_WEIGHT = 0.4;
+    private static final double RTT_WEIGHT = 0.3;
+    private static final double HANDSHAKE_TIME_WEIGHT = 0.2;
+    private static final double INVENTORY_WEIGHT = 0.1;
+
+    // Used for unknown values
+    private static final double NEUTRAL = 0.5;
+    // Score of peers we do not have any data about
+    public static final double DEFAULT_SCORE = (RELIABILITY_WEIGHT + RTT_WEIGHT + HANDSHAKE_TIME_WEIGHT) * NEUTRAL;
+
+    @Getter
+    private final Address address;
+    private int numSuccesses;
+    private int numFailures;
+    private double averageRtt;
+    private double averageHandshakeTime;
+    private long inventoryBytesReceived;
+    private long lastUpdate;
+
+    public PeerScore(Address address) {
+        this(address, 0, 0, UNKNOWN, UNKNOWN, 0, System.currentTimeMillis());
+    }
+
+    private PeerScore(Address address,
+                      int numSuccesses,
+                      int numFailures,
+                      double averageRtt,
+                      double averageHandshakeTime,
+                      long inventoryBytesReceived,
+                      long lastUpdate) {
+        this.address = address;
+        this.numSuccesses = numSuccesses;
+        this.numFailures = numFailures;
+        this.averageRtt = averageRtt;
+        this.averageHandshakeTime = averageHandshakeTime;
+        this.inventoryBytesReceived = inventoryBytesReceived;
+        this.lastUpdate = lastUpdate;
+    }
+
+    @Override
+    public synchronized bisq.network.protobuf.PeerScore toProto() {
+        return bisq.network.protobuf.PeerScore.newBuilder()
+                .setAddress(address.toProto())
+                .setNumSuccesses(numSuccesses)
+                .setNumFailures(numFailures)
+                .setAverageRtt(averageRtt)
+                .setAverageHandshakeTime(averageHandshakeTime)
+                .setInventoryBytesReceived(inventoryBytesReceived)
+                .setLastUpdate(lastUpdate)
+                .build();
+    }
+
+    public static PeerScore fromProto(bisq.network.protobuf.PeerScore proto) {
+        return new PeerScore(Address.fromProto(proto.getAddress()),
+                proto.getNumSuccesses(),
+                proto.getNumFailures(),
+                proto.getAverageRtt(),
+                proto.getAverageHandshakeTime(),
+                proto.getInventoryBytesReceived(),
+                proto.getLastUpdate());
+    }
+
+    synchronized PeerScore copy() {
+        return new PeerScore(address,
+                numSuccesses,
+                numFailures,
+                averageRtt,
+                averageHandshakeTime,
+                inventoryBytesReceived,
+                lastUpdate);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Updates
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized void onSuccess() {
+        numSuccesses++;
+        touch();
+    }
+
+    synchronized void onFailure() {
+        numFailures++;
+        touch();
+    }
+
+    synchronized void addRtt(double rtt) {
+        averageRtt = addSample(averageRtt, rtt);
+        touch();
+    }
+
+    synchronized void addHandshakeTime(double handshakeTime) {
+        averageHandshakeTime = addSample(averageHandshakeTime, handshakeTime);
+        touch();
+    }
+
+    synchronized void addInventoryBytesReceived(long bytes) {
+        inventoryBytesReceived += bytes;
+        touch();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Score
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public synchronized double getScore() {
+        // Laplace smoothing: no data results in 0.5, a few failures do not disqualify a peer immediately
+        double reliability = (numSuccesses + 1d) / (numSuccesses + numFailures + 2d);
+        double rttScore = averageRtt < 0 ? NEUTRAL : 1 / (1 + averageRtt / REFERENCE_RTT);
+        double handshakeTimeScore = averageHandshakeTime < 0 ? NEUTRAL : 1 / (1 + averageHandshakeTime / REFERENCE_HANDSHAKE_TIME);
+        double inventoryScore = Math.min(1, Math.log1p(inventoryBytesReceived) / Math.log1p(MAX_INVENTORY_BYTES));
+        return RELIABILITY_WEIGHT * reliability +
+                RTT_WEIGHT * rttScore +
+                HANDSHAKE_TIME_WEIGHT * handshakeTimeScore +
+                INVENTORY_WEIGHT * inventoryScore;
+    }
+
+    public synchronized long getLastUpdate() {
+        return lastUpdate;
+    }
+
+    private void touch() {
+        lastUpdate = System.currentTimeMillis();
+    }
+
+    private static double addSample(double average, double sample) {
+        return average < 0 ? sample : average + SMOOTHING_FACTOR * (sample - average);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.peergroup.exchange;
+
+import bisq.network.common.Address;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+/**
+ * Races peer exchange attempts with the candidates in their priority order with at most maxConcurrentAttempts
+ * parallel attempts. Each completed attempt starts the next candidate until numRequired attempts were successful.
+ * Then the remaining candidates are dropped and the attempts which are still in flight get cancelled.
+ */
+@Slf4j
+final class PeerExchangeRace {
+    private final Queue<Address> pendingCandidates;
+    @Getter
+    private final int numRequired;
+    private final int maxConcurrentAttempts;
+    private final BiFunction<Address, PeerExchangeRace, CompletableFuture<Boolean>> attemptFactory;
+    private final Set<CompletableFuture<Boolean>> pendingAttempts = new HashSet<>();
+    // Completes at the first successful attempt or if all attempts are completed
+    @Getter
+    private final CompletableFuture<Void> resultFuture = new CompletableFuture<>();
+    // Completes once all started attempts are completed and no further attempt will be started
+    @Getter
+    private final CompletableFuture<Void> completedFuture = new CompletableFuture<>();
+    private int numStarted;
+    private int numSuccess;
+    private int numFailures;
+    private int numCancelled;
+
+    /**
+     * @param attemptFactory Starts the peer exchange with the given address. The returned future completes with true
+     *                       if the peer exchange was successful. It gets cancelled if the race does not need the
+     *                       result anymore.
+     */
+    PeerExchangeRace(List<Address> candidates,
+                     int numRequired,
+                     int maxConcurrentAttempts,
+                     BiFunction<Address, PeerExchangeRace, CompletableFuture<Boolean>> attemptFactory) {
+        this.pendingCandidates = new ArrayDeque<>(candidates);
+        this.numRequired = numRequired;
+        this.maxConcurrentAttempts = maxConcurrentAttempts;
+        this.attemptFactory = attemptFactory;
+    }
+
+    void start() {
+        int numInitialAttempts = Math.min(maxConcurrentAttempts, pendingCandidates.size());
+        for (int i = 0; i < numInitialAttempts; i++) {
+            startNextAttempt();
+        }
+        completeIfAllAttemptsDone();
+    }
+
+    synchronized boolean hasReachedNumRequired() {
+        return numSuccess >= numRequired;
+    }
+
+    synchronized int getNumSuccess() {
+        return numSuccess;
+    }
+
+    // Cancelled attempts do not count as failures.
+    synchronized int getNumFailures() {
+        return numFailures;
+    }
+
+    synchronized int getNumCancelled() {
+        return numCancelled;
+    }
+
+    private void startNextAttempt() {
+        Address peerAddress;
+        synchronized (this) {
+            if (hasReachedNumRequired()) {
+                return;
+            }
+            peerAddress = pendingCandidates.poll();
+            if (peerAddress == null) {
+                return;
+            }
+            numStarted++;
+        }
+
+        CompletableFuture<Boolean> attempt = attemptFactory.apply(peerAddress, this);
+        synchronized (this) {
+            pendingAttempts.add(attempt);
+        }
+        attempt.whenComplete((result, throwable) -> onAttemptCompleted(attempt, throwable == null && result));
+    }
+
+    private void onAttemptCompleted(CompletableFuture<Boolean> attempt, boolean success) {
+        List<CompletableFuture<Boolean>> attemptsToCancel = List.of();
+        synchronized (this) {
+            pendingAttempts.remove(attempt);
+            if (attempt.isCancelled()) {
+                numCancelled++;
+            } else if (success) {
+                numSuccess++;
+            } else {
+                numFailures++;
+            }
+
+            if (hasReachedNumRequired() && (!pendingCandidates.isEmpty() || !pendingAttempts.isEmpty())) {
+                log.info("We reached {} successful peer exchanges. We do not use the remaining {} candidates " +
+                        "and cancel {} pending attempts.", numRequired, pendingCandidates.size(), pendingAttempts.size());
+                pendingCandidates.clear();
+                attemptsToCancel = new ArrayList<>(pendingAttempts);
+            }
+        }
+
+        if (success) {
+            resultFuture.complete(null);
+        }
+        // Cancelling calls onAttemptCompleted of the cancelled attempts, thus we must not hold the lock
+        attemptsToCancel.forEach(pendingAttempt -> pendingAttempt.cancel(true));
+        startNextAttempt();
+        completeIfAllAttemptsDone();
+    }
+
+    private void completeIfAllAttemptsDone() {
+        synchronized (this) {
+            if (numSuccess + numFailures + numCancelled < numStarted) {
+                return;
+            }
+            if (!pendingCandidates.isEmpty() && !hasReachedNumRequired()) {
+                return;
+            }
+        }
+        resultFuture.complete(null);
+        completedFuture.complete(null);
+    }
+}
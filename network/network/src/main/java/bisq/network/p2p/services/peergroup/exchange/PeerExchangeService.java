@@ -33,7 +33,6 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static bisq.network.NetworkService.NETWORK_IO_POOL;
@@ -100,22 +99,39 @@ public class PeerExchangeService implements Node.Listener {
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
     public CompletableFuture<Void> startInitialPeerExchange() {
-        return doPeerExchange(peerExchangeStrategy.getAddressesForInitialPeerExchange()).orTimeout(2, MINUTES);
+        int maxConcurrentAttempts = peerExchangeStrategy.getMaxConcurrentAttemptsAtBoostrap();
+        if (maxConcurrentAttempts > 0) {
+            return doPeerExchange(peerExchangeStrategy.getAddressesForBootstrapRace(),
+                    peerExchangeStrategy.getNumRequiredAtBootstrap(),
+                    maxConcurrentAttempts)
+                    .orTimeout(2, MINUTES);
+        } else {
+            return doPeerExchange(peerExchangeStrategy.getAddressesForInitialPeerExchange()).orTimeout(2, MINUTES);
+        }
     }
 
     public void startFurtherPeerExchange() {
         doPeerExchange(peerExchangeStrategy.getAddressesForFurtherPeerExchange()).orTimeout(2, MINUTES);
     }
 
+    private CompletableFuture<Void> doPeerExchange(List<Address> candidates) {
+        return doPeerExchange(candidates, candidates.size(), candidates.size());
+    }
+
     /**
-     * If the futures of all candidates are completed, we check if we need to redo the peer exchange, and if so, we
-     * repeat with increasing delay (up to 20 sec).
+     * We race the candidates in their priority order with at most maxConcurrentAttempts parallel attempts until we
+     * got numRequired successful peer exchanges (see {@link PeerExchangeRace}). Attempts which are still in flight at
+     * that moment get cancelled and connections which got established after it are closed.
+     * If all attempts are completed, we check if we need to redo the peer exchange, and if so,
+     * we repeat with increasing delay (up to 20 sec).
      *
-     * @param candidates The addresses to use for peer exchange.
+     * @param candidates            The addresses to use for peer exchange in priority order.
+     * @param numRequired           The number of successful peer exchanges after which we stop.
+     * @param maxConcurrentAttempts The max. number of parallel peer exchange attempts.
      * @return A CompletableFuture which completes if at least one peer exchange was successful or
      * if all failed (expected if no peers are in the network).
      */
-    private CompletableFuture<Void> doPeerExchange(List<Address> candidates) {
+    private CompletableFuture<Void> doPeerExchange(List<Address> candidates, int numRequired, int maxConcurrentAttempts) {
         if (candidates.isEmpty() || isStopped) {
             return CompletableFuture.completedFuture(null);
         }
@@ -126,66 +142,87 @@ public class PeerExchangeService implements Node.Listener {
                     "was not completed"));
         }
 
-        log.info("Node {} starts peer exchange with: {}", node,
+        log.info("Node {} starts peer exchange with: {}. numRequired={}; maxConcurrentAttempts={}", node,
                 StringUtils.truncate(candidates.stream()
                         .map(Address::toString)
                         .collect(Collectors.toList())
-                        .toString(), 2000));
+                        .toString(), 2000),
+                numRequired, maxConcurrentAttempts);
 
         scheduler.ifPresent(Scheduler::stop);
-        resultFuture = new CompletableFuture<>();
-        AtomicInteger numSuccess = new AtomicInteger();
-        AtomicInteger numFailures = new AtomicInteger();
-        candidates.stream()
-                .map(this::doPeerExchangeAsync)
-                .forEach(future -> {
-                    future.whenComplete((result, throwable) -> {
-                        if (throwable == null && result) {
-                            numSuccess.incrementAndGet();
-                            if (!resultFuture.isDone()) {
-                                log.info("We got at least one peerExchange future completed.");
-                                resultFuture.complete(null);
-                            }
-                        } else {
-                            numFailures.incrementAndGet();
-                        }
-
-                        if (numFailures.get() == candidates.size() && !resultFuture.isDone()) {
-                            log.info("We got all peerExchange futures completed but none was successful. " +
-                                    "This is expected when no other peers are in the network");
-                            resultFuture.complete(null);
-                        }
-
-                        if (numFailures.get() + numSuccess.get() == candidates.size()) {
-                            log.info("Node {} completed peer exchange to {} candidates. {} requests successfully completed.",
-                                    node, candidates.size(), numSuccess);
-                            if (peerExchangeStrategy.shouldRedoInitialPeerExchange(numSuccess.get(), candidates.size())) {
-                                log.info("Node {} repeats the initial peer exchange after {} sec as it has not reached sufficient connections " +
-                                        "or received sufficient peers", node, doInitialPeerExchangeDelaySec);
-                                scheduler.ifPresent(Scheduler::stop);
-                                scheduler = Optional.of(Scheduler.run(this::startInitialPeerExchange)
-                                        .after(doInitialPeerExchangeDelaySec, TimeUnit.SECONDS)
-                                        .name("PeerExchangeService.scheduler-" + StringUtils.truncate(node.toString(), 10)));
-                                doInitialPeerExchangeDelaySec = Math.min(20, doInitialPeerExchangeDelaySec * 2);
-                            } else {
-                                log.info("We have completed our peer exchange as we have sufficient connections established.");
-                                scheduler.ifPresent(Scheduler::stop);
-                                scheduler = Optional.empty();
-                            }
-                        }
-                    });
-                });
+        PeerExchangeRace race = new PeerExchangeRace(candidates, numRequired, maxConcurrentAttempts, this::doPeerExchangeAsync);
+        resultFuture = race.getResultFuture();
+        race.getResultFuture().thenRun(() -> {
+            if (race.getNumSuccess() > 0) {
+                log.info("We got at least one peerExchange future completed.");
+            }
+        });
+        race.getCompletedFuture().thenRun(() -> onAllAttemptsCompleted(race));
+        race.start();
         return resultFuture;
     }
 
-    private CompletableFuture<Boolean> doPeerExchangeAsync(Address peerAddress) {
-        return supplyAsync(() -> doPeerExchange(peerAddress), NETWORK_IO_POOL);
+    private void onAllAttemptsCompleted(PeerExchangeRace race) {
+        int numSuccess = race.getNumSuccess();
+        int numRequests = numSuccess + race.getNumFailures();
+        if (numSuccess == 0) {
+            log.info("We got all peerExchange futures completed but none was successful. " +
+                    "This is expected when no other peers are in the network");
+        }
+
+        log.info("Node {} completed peer exchange to {} candidates. {} requests successfully completed. {} requests got cancelled.",
+                node, numRequests, numSuccess, race.getNumCancelled());
+        if (peerExchangeStrategy.shouldRedoInitialPeerExchange(numSuccess, numRequests)) {
+            log.info("Node {} repeats the initial peer exchange after {} sec as it has not reached sufficient connections " +
+                    "or received sufficient peers", node, doInitialPeerExchangeDelaySec);
+            scheduler.ifPresent(Scheduler::stop);
+            scheduler = Optional.of(Scheduler.run(this::startInitialPeerExchange)
+                    .after(doInitialPeerExchangeDelaySec, TimeUnit.SECONDS)
+                    .name("PeerExchangeService.scheduler-" + StringUtils.truncate(node.toString(), 10)));
+            doInitialPeerExchangeDelaySec = Math.min(20, doInitialPeerExchangeDelaySec * 2);
+        } else {
+            log.info("We have completed our peer exchange as we have sufficient connections established.");
+            scheduler.ifPresent(Scheduler::stop);
+            scheduler = Optional.empty();
+        }
+    }
+
+    private CompletableFuture<Boolean> doPeerExchangeAsync(Address peerAddress, PeerExchangeRace race) {
+        CompletableFuture<Boolean> future = supplyAsync(() -> doPeerExchange(peerAddress, race), NETWORK_IO_POOL);
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                // The race does not need the result anymore. We stop waiting for the response.
+                disposeRequestHandler(peerAddress);
+            }
+        });
+        return future;
     }
 
-    private boolean doPeerExchange(Address peerAddress) {
+    private void disposeRequestHandler(Address peerAddress) {
+        requestHandlerMap.entrySet().removeIf(entry -> {
+            PeerExchangeRequestHandler handler = entry.getValue();
+            if (handler.getConnection().getPeerAddress().equals(peerAddress)) {
+                handler.dispose();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private boolean doPeerExchange(Address peerAddress, PeerExchangeRace race) {
         String key = null;
+        boolean isNewConnection = false;
+        Connection connection = null;
         try {
-            Connection connection = node.getConnection(peerAddress);
+            isNewConnection = node.getAllActiveConnections()
+                    .noneMatch(activeConnection -> activeConnection.getPeerAddress().equals(peerAddress));
+            connection = node.getConnection(peerAddress);
+            if (race.hasReachedNumRequired()) {
+                // The attempt was already in flight when we reached the required successful peer exchanges.
+                closeSurplusConnection(connection, isNewConnection, race);
+                return false;
+            }
+
             key = connection.getId();
             if (requestHandlerMap.containsKey(key)) {
                 log.info("requestHandlerMap contains {}. " +
@@ -216,9 +253,25 @@ public class PeerExchangeService implements Node.Listener {
                     requestHandlerMap.remove(key);
                 }
             }
+            if (race.hasReachedNumRequired()) {
+                // Our attempt got cancelled by the race, or it failed after it got obsolete
+                if (connection != null) {
+                    closeSurplusConnection(connection, isNewConnection, race);
+                }
+                return false;
+            }
             log.debug("Node {} failed to do a peer exchange with {}.",
                     node, peerAddress, throwable);
+            peerExchangeStrategy.onPeerExchangeFailed(peerAddress);
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private void closeSurplusConnection(Connection connection, boolean isNewConnection, PeerExchangeRace race) {
+        if (isNewConnection) {
+            log.info("Node {} has already {} successful peer exchanges. We close the new connection to {}.",
+                    node, race.getNumRequired(), connection.getPeerAddress());
+            node.closeConnectionGracefully(connection, CloseReason.TOO_MANY_CONNECTIONS);
+        }
+    }
+}
@@ -40,24 +40,30 @@ public class PeerExchangeStrategy {
         private final int numSeedNodesAtBoostrap;
         private final int numPersistedPeersAtBoostrap;
         private final int numReportedPeersAtBoostrap;
+        // Max. number of parallel connection attempts at the initial peer exchange. If 0, we connect to a fixed
+        // number of candidates instead of racing all candidates.
+        private final int maxConcurrentAttemptsAtBoostrap;
 
         public Config() {
-            this(2, 40, 20);
+            this(2, 40, 20, 8);
         }
 
         public Config(int numSeedNodesAtBoostrap,
                       int numPersistedPeersAtBoostrap,
-                      int numReportedPeersAtBoostrap) {
+                      int numReportedPeersAtBoostrap,
+                      int maxConcurrentAttemptsAtBoostrap) {
             this.numSeedNodesAtBoostrap = numSeedNodesAtBoostrap;
             this.numPersistedPeersAtBoostrap = numPersistedPeersAtBoostrap;
             this.numReportedPeersAtBoostrap = numReportedPeersAtBoostrap;
+            this.maxConcurrentAttemptsAtBoostrap = maxConcurrentAttemptsAtBoostrap;
         }
 
         public static Config from(com.typesafe.config.Config typesafeConfig) {
             return new PeerExchangeStrategy.Config(
                     typesafeConfig.getInt("numSeedNodesAtBoostrap"),
                     typesafeConfig.getInt("numPersistedPeersAtBoostrap"),
-                    typesafeConfig.getInt("numReportedPeersAtBoostrap"));
+                    typesafeConfig.getInt("numReportedPeersAtBoostrap"),
+                    typesafeConfig.getInt("maxConcurrentAttemptsAtBoostrap"));
         }
     }
 
@@ -94,6 +100,27 @@ public class PeerExchangeStrategy {
         return candidates;
     }
 
+    // At bootstrap with racing enabled we use all candidates of the priority list in their priority order.
+    // The PeerExchangeService stops once it got getNumRequiredAtBootstrap successful peer exchanges.
+    List<Address> getAddressesForBootstrapRace() {
+        List<Address> candidates = getAllCandidates(getPriorityListForInitialPeerExchange());
+        if (candidates.isEmpty()) {
+            log.info("We reset the usedAddresses and try again to connect to peers we tried in the past.");
+            usedAddresses.clear();
+            candidates = getAllCandidates(getPriorityListForInitialPeerExchange());
+        }
+        usedAddresses.addAll(candidates);
+        return candidates;
+    }
+
+    int getNumRequiredAtBootstrap() {
+        return getPeerExchangeLimit();
+    }
+
+    int getMaxConcurrentAttemptsAtBoostrap() {
+        return config.getMaxConcurrentAttemptsAtBoostrap();
+    }
+
     // After bootstrap, we might want to add more connections and use the peer exchange protocol for that.
     // We do not want to use seed nodes or already existing connections in that case.
     List<Address> getAddressesForFurtherPeerExchange() {
@@ -110,6 +137,10 @@ public class PeerExchangeStrategy {
         return candidates;
     }
 
+    void onPeerExchangeFailed(Address peerAddress) {
+        peerGroupService.onPeerFailure(peerAddress);
+    }
+
     boolean shouldRedoInitialPeerExchange(int numSuccess, int numRequests) {
         int numFailed = numRequests - numSuccess;
         return numFailed > numRequests / 2 ||
@@ -125,6 +156,13 @@ public class PeerExchangeStrategy {
                 .collect(Collectors.toList());
     }
 
+    private List<Address> getAllCandidates(List<Address> priorityList) {
+        return priorityList.stream()
+                .filter(this::isNotUsed)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
     private int getPeerExchangeLimit() {
         int minNumConnectedPeers = peerGroupService.getMinNumConnectedPeers(); // default 8
         // We want at least 25% of minNumConnectedPeers
@@ -155,15 +193,18 @@ public class PeerExchangeStrategy {
     }
 
     private List<Address> getSeedAddresses() {
+        // Shuffled to distribute load across seeds with equal score
         return getShuffled(peerGroupService.getSeedNodeAddresses()).stream()
                 .filter(node::notMyself)
                 .filter(peerGroupService::isNotBanned)
+                .sorted(peerGroupService.getAddressScoreComparator())
                 .limit(config.getNumSeedNodesAtBoostrap())
                 .collect(Collectors.toList());
     }
 
     private List<Address> getReportedPeerAddresses() {
         return getReportedPeers()
+                .sorted(peerGroupService.getPeerScoreComparator())
                 .limit(config.getNumReportedPeersAtBoostrap())
                 .map(Peer::getAddress)
                 .collect(Collectors.toList());
@@ -172,7 +213,7 @@ public class PeerExchangeStrategy {
     private List<Address> getPersistedAddresses() {
         return peerGroupService.getPersistedPeers().stream()
                 .filter(this::isValidNonSeedPeer)
-                .sorted(Comparator.comparing(Peer::getDate))
+                .sorted(peerGroupService.getPeerScoreComparator())
                 .limit(config.getNumPersistedPeersAtBoostrap())
                 .map(Peer::getAddress)
                 .collect(Collectors.toList());
@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import bisq.network.common.Address;
+import bisq.network.common.TransportType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CapabilityTest {
+    @Test
+    void fromProtoIgnoresUnknownFeatures() {
+        bisq.network.protobuf.Capability proto = createCapability().toProto().toBuilder()
+                .addFeaturesValue(1000)
+                .build();
+
+        Capability capability = Capability.fromProto(proto);
+
+        assertEquals(List.of(Feature.INVENTORY_HASH_SET, Feature.AUTHORIZATION_HASH_CASH), capability.getFeatures());
+        // The serialized data are used for the proof of work check, so they must not change
+        assertArrayEquals(proto.toByteArray(), capability.toProto().toByteArray());
+    }
+
+    @Test
+    void fromProtoWithKnownFeatures() {
+        Capability capability = createCapability();
+
+        assertEquals(capability, Capability.fromProto(capability.toProto()));
+    }
+
+    private static Capability createCapability() {
+        return new Capability(new Address("127.0.0.1", 8000),
+                new ArrayList<>(List.of(TransportType.CLEAR)),
+                new ArrayList<>(List.of(Feature.AUTHORIZATION_HASH_CASH, Feature.INVENTORY_HASH_SET)));
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data;
+
+import bisq.network.NetworkService;
+import bisq.network.NetworkServiceConfig;
+import bisq.network.p2p.ServiceNode;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.services.data.inventory.InventoryService;
+import bisq.network.p2p.services.data.storage.StorageService;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataStorageService;
+import bisq.network.p2p.services.data.storage.auth.TestDistributedData;
+import bisq.persistence.PersistenceService;
+import bisq.security.keys.KeyBundleService;
+import bisq.security.keys.KeyGeneration;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static bisq.network.p2p.services.data.storage.auth.TestDistributedData.createAddRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataReplayTest {
+    private static final long NOW = System.currentTimeMillis();
+
+    @TempDir
+    private Path tempDir;
+    private final KeyPair keyPair;
+    private final List<String> notifications = new ArrayList<>();
+
+    public DataReplayTest() throws GeneralSecurityException {
+        keyPair = KeyGeneration.generateKeyPair();
+    }
+
+    @Test
+    void testReplayUsesClassOfListener() throws GeneralSecurityException {
+        DataService dataService = new DataService(new PersistenceService(tempDir.toString()), new StorageService.Config(false, false));
+        addData(dataService.getStorageService());
+
+        dataService.addListenerAndReplay(new RecordingListener("derived"), TestDistributedData.Derived.class);
+        assertEquals(List.of("derived:Derived1", "derived:Derived2"), sorted(notifications));
+
+        notifications.clear();
+        dataService.addListenerAndReplay(new RecordingListener("base"), TestDistributedData.class);
+        // The derived listener is not notified again
+        assertEquals(List.of("base:Derived1", "base:Derived2", "base:TestDistributedData1"), sorted(notifications));
+        dataService.shutdown();
+    }
+
+    @Test
+    void testBatchReplaysInSinglePass() throws GeneralSecurityException {
+        DataService dataService = new DataService(new PersistenceService(tempDir.toString()), new StorageService.Config(false, false));
+        addData(dataService.getStorageService());
+
+        dataService.batchReplay(() -> {
+            dataService.addListenerAndReplay(new RecordingListener("base"), TestDistributedData.class);
+            dataService.batchReplay(() ->
+                    dataService.addListenerAndReplay(new RecordingListener("derived"), TestDistributedData.Derived.class));
+            // The replay is deferred to the end of the outer batch
+            assertTrue(notifications.isEmpty());
+        });
+
+        assertEquals(List.of("base:Derived1", "base:Derived2", "base:TestDistributedData1", "derived:Derived1", "derived:Derived2"),
+                sorted(notifications));
+        // Each entry is read once and passed to all its listeners, so the notifications for an entry are adjacent
+        assertEquals(notifications.indexOf("base:Derived1") + 1, notifications.indexOf("derived:Derived1"));
+        assertEquals(notifications.indexOf("base:Derived2") + 1, notifications.indexOf("derived:Derived2"));
+        dataService.shutdown();
+    }
+
+    @Test
+    void testBatchIsClearedIfRegistrationOrListenerFails() throws GeneralSecurityException {
+        DataService dataService = new DataService(new PersistenceService(tempDir.toString()), new StorageService.Config(false, false));
+        addData(dataService.getStorageService());
+
+        assertThrows(IllegalStateException.class, () -> dataService.batchReplay(() -> {
+            dataService.addListenerAndReplay(new RecordingListener("failed"), TestDistributedData.Derived.class);
+            throw new IllegalStateException();
+        }));
+        assertTrue(notifications.isEmpty());
+
+        // A failing listener does not stop the replay to the other listeners of the batch
+        dataService.batchReplay(() -> {
+            dataService.addListenerAndReplay(new DataService.Listener() {
+                @Override
+                public void onAuthenticatedDataAdded(AuthenticatedData authenticatedData) {
+                    throw new IllegalStateException();
+                }
+            }, TestDistributedData.Derived.class);
+            dataService.addListenerAndReplay(new RecordingListener("batched"), TestDistributedData.Derived.class);
+        });
+        assertEquals(List.of("batched:Derived1", "batched:Derived2"), sorted(notifications));
+
+        // No batch is pending anymore, so the replay is done immediately
+        notifications.clear();
+        dataService.addListenerAndReplay(new RecordingListener("single"), TestDistributedData.Derived.class);
+        assertEquals(List.of("single:Derived1", "single:Derived2"), sorted(notifications));
+        dataService.shutdown();
+    }
+
+    @Test
+    void testNetworkServiceReplay() throws GeneralSecurityException {
+        NetworkService networkService = createNetworkService(Set.of(ServiceNode.SupportedService.DATA));
+        addData(networkService.getDataService().orElseThrow().getStorageService());
+
+        networkService.addDataServiceListenerAndReplay(new RecordingListener("single"), TestDistributedData.Derived.class);
+        assertEquals(List.of("single:Derived1", "single:Derived2"), sorted(notifications));
+
+        notifications.clear();
+        networkService.batchDataServiceReplay(() -> {
+            networkService.addDataServiceListenerAndReplay(new RecordingListener("batched"), TestDistributedData.Derived.class);
+            assertTrue(notifications.isEmpty());
+        });
+        assertEquals(List.of("batched:Derived1", "batched:Derived2"), sorted(notifications));
+        networkService.shutdown().join();
+    }
+
+    @Test
+    void testNetworkServiceBatchWithoutDataService() {
+        NetworkService networkService = createNetworkService(Set.of());
+        AtomicInteger numRegistrations = new AtomicInteger();
+        networkService.batchDataServiceReplay(numRegistrations::incrementAndGet);
+        assertEquals(1, numRegistrations.get());
+        networkService.shutdown().join();
+    }
+
+    private void addData(StorageService storageService) throws GeneralSecurityException {
+        AuthenticatedDataStorageService store = storageService.getOrCreateAuthenticatedDataStore("TestStore").join();
+        List<AddAuthenticatedDataRequest> requests = List.of(
+                createAddRequest(new TestDistributedData("1"), keyPair, 1, NOW),
+                createAddRequest(new TestDistributedData.Derived("1"), keyPair, 1, NOW),
+                createAddRequest(new TestDistributedData.Derived("2"), keyPair, 1, NOW));
+        requests.forEach(request -> assertTrue(store.add(request).isSuccess()));
+    }
+
+    private NetworkService createNetworkService(Set<ServiceNode.SupportedService> supportedServices) {
+        PersistenceService persistenceService = new PersistenceService(tempDir.toString());
+        NetworkServiceConfig config = new NetworkServiceConfig(tempDir.toString(),
+                1,
+                Set.of(),
+                Set.of(),
+                Map.of(),
+                new ServiceNode.Config(supportedServices),
+                new InventoryService.Config(2000, List.of()),
+                new StorageService.Config(false, false),
+                new AuthorizationService.Config(List.of()),
+                Map.of(),
+                Map.of(),
+                Map.of(),
+                Optional.empty());
+        return new NetworkService(config,
+                persistenceService,
+                new KeyBundleService(persistenceService, new KeyBundleService.Config("")),
+                new HashCashProofOfWorkService(),
+                new EquihashProofOfWorkService());
+    }
+
+    private static List<String> sorted(List<String> notifications) {
+        List<String> sorted = new ArrayList<>(notifications);
+        sorted.sort(String::compareTo);
+        return sorted;
+    }
+
+    private class RecordingListener implements DataService.Listener {
+        private final String name;
+
+        private RecordingListener(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void onAuthenticatedDataAdded(AuthenticatedData authenticatedData) {
+            TestDistributedData data = (TestDistributedData) authenticatedData.getDistributedData();
+            notifications.add(name + ":" + data.toProto().getValue().toStringUtf8());
+        }
+    }
+}
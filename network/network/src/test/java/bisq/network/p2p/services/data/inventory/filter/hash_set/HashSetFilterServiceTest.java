@@ -0,0 +1,153 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data.inventory.filter.hash_set;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.node.Feature;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.inventory.filter.FilterService;
+import bisq.network.p2p.services.data.storage.StorageService;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataStorageService;
+import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.TestDistributedData;
+import bisq.persistence.PersistenceService;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static bisq.network.p2p.services.data.storage.auth.TestDistributedData.createAddRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashSetFilterServiceTest {
+    private static final long NOW = System.currentTimeMillis();
+
+    @TempDir
+    private Path tempDir;
+    private final KeyPair keyPair;
+    private StorageService storageService;
+    private HashSetFilterService filterService;
+    private AddAuthenticatedDataRequest live;
+    private AddAuthenticatedDataRequest removed;
+    private RemoveAuthenticatedDataRequest tombstone;
+
+    public HashSetFilterServiceTest() throws GeneralSecurityException {
+        keyPair = KeyGeneration.generateKeyPair();
+    }
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        storageService = new StorageService(new PersistenceService(tempDir.toString()), new StorageService.Config(false, false));
+        filterService = new HashSetFilterService(storageService, Integer.MAX_VALUE);
+        AuthenticatedDataStorageService store = storageService.getOrCreateAuthenticatedDataStore("TestStore").join();
+        live = createAddRequest(new TestDistributedData("live"), keyPair, 1, NOW);
+        removed = createAddRequest(new TestDistributedData("removed"), keyPair, 1, NOW);
+        assertTrue(store.add(live).isSuccess());
+        assertTrue(store.add(removed).isSuccess());
+        tombstone = RemoveAuthenticatedDataRequest.from(store, toData(removed), keyPair);
+        assertTrue(store.remove(tombstone).isSuccess());
+        assertEquals(2, tombstone.getSequenceNumber());
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.shutdown();
+    }
+
+    @Test
+    void testLiveDataFilterDoesNotListTombstones() {
+        ByteArray liveHash = new ByteArray(toData(live).getHash());
+        ByteArray removedHash = new ByteArray(toData(removed).getHash());
+
+        HashSetFilter liveDataFilter = filterService.getFilter(true);
+        assertEquals(Optional.of(1), liveDataFilter.findSequenceNumber(liveHash));
+        assertEquals(Optional.empty(), liveDataFilter.findSequenceNumber(removedHash));
+
+        HashSetFilter legacyFilter = filterService.getFilter(false);
+        assertEquals(Optional.of(1), legacyFilter.findSequenceNumber(liveHash));
+        assertEquals(Optional.of(2), legacyFilter.findSequenceNumber(removedHash));
+    }
+
+    @Test
+    void testLiveDataFilterGetsTombstoneOnlyIfPeerHoldsRemovedData() {
+        // The peer holds both added entries
+        HashSetFilter holdsRemovedData = createFilter(filterEntry(live, 1), filterEntry(removed, 1));
+        assertEquals(List.of(tombstone), getRequests(holdsRemovedData, true));
+
+        // The peer never got the removed data
+        HashSetFilter missesRemovedData = createFilter(filterEntry(live, 1));
+        assertTrue(getRequests(missesRemovedData, true).isEmpty());
+    }
+
+    @Test
+    void testLegacyFilterGetsMissingTombstones() {
+        // The legacy filter lists the tombstones of the peer, so a missing entry means the peer has no tombstone
+        HashSetFilter missesTombstone = createFilter(filterEntry(live, 1));
+        assertEquals(List.of(tombstone), getRequests(missesTombstone, false));
+
+        HashSetFilter holdsRemovedData = createFilter(filterEntry(live, 1), filterEntry(removed, 1));
+        assertEquals(List.of(tombstone), getRequests(holdsRemovedData, false));
+
+        HashSetFilter holdsTombstone = createFilter(filterEntry(live, 1), filterEntry(removed, 2));
+        assertTrue(getRequests(holdsTombstone, false).isEmpty());
+    }
+
+    @Test
+    void testMissingLiveDataIsSentWithBothFilters() {
+        HashSetFilter emptyFilter = createFilter();
+        assertTrue(getRequests(emptyFilter, true).contains(live));
+        assertTrue(getRequests(emptyFilter, false).contains(live));
+        assertFalse(getRequests(emptyFilter, true).contains(tombstone));
+        assertTrue(getRequests(emptyFilter, false).contains(tombstone));
+    }
+
+    @Test
+    void testIsLiveDataFilterSupported() {
+        Set<Feature> withFeature = Set.of(Feature.INVENTORY_LIVE_DATA_FILTER);
+        Set<Feature> withoutFeature = Set.of();
+        assertTrue(FilterService.isLiveDataFilterSupported(withFeature, withFeature));
+        assertFalse(FilterService.isLiveDataFilterSupported(withFeature, withoutFeature));
+        assertFalse(FilterService.isLiveDataFilterSupported(withoutFeature, withFeature));
+        assertFalse(FilterService.isLiveDataFilterSupported(withoutFeature, withoutFeature));
+    }
+
+    private List<? extends DataRequest> getRequests(HashSetFilter filter, boolean liveDataFilter) {
+        return filterService.createInventory(filter, liveDataFilter).getEntries();
+    }
+
+    private static HashSetFilter createFilter(HashSetFilterEntry... filterEntries) {
+        return new HashSetFilter(List.of(filterEntries));
+    }
+
+    private static HashSetFilterEntry filterEntry(AddAuthenticatedDataRequest request, int sequenceNumber) {
+        return new HashSetFilterEntry(toData(request).getHash(), sequenceNumber);
+    }
+
+    private static AuthenticatedData toData(AddAuthenticatedDataRequest request) {
+        return request.getAuthenticatedSequentialData().getAuthenticatedData();
+    }
+}
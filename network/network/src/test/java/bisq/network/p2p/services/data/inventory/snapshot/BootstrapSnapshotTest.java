@@ -0,0 +1,257 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.snapshot;
+
+import bisq.network.common.Address;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.storage.MetaData;
+import bisq.security.keys.TorKeyGeneration;
+import bisq.security.keys.TorKeyPair;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BootstrapSnapshotTest {
+    private static final Address CLEAR_NET_ADDRESS = new Address("127.0.0.1", 8000);
+
+    private static final class TestDataRequest implements DataRequest {
+        private final byte[] hash;
+
+        private TestDataRequest(byte[] hash) {
+            this.hash = hash;
+        }
+
+        @Override
+        public bisq.network.protobuf.EnvelopePayloadMessage toProto() {
+            bisq.network.protobuf.RemoveMailboxRequest removeMailboxRequest = bisq.network.protobuf.RemoveMailboxRequest.newBuilder()
+                    .setHash(ByteString.copyFrom(hash))
+                    .build();
+            return getNetworkMessageBuilder()
+                    .setDataRequest(getDataRequestBuilder().setRemoveMailboxRequest(removeMailboxRequest))
+                    .build();
+        }
+
+        @Override
+        public long getExpirationDate() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public long getCreated() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxMapSize() {
+            return MetaData.MAX_MAP_SIZE_10_000;
+        }
+
+        @Override
+        public double getCostFactor() {
+            return 0;
+        }
+
+        @Override
+        public void verify() {
+        }
+    }
+
+    @Test
+    void testCreateAndReadEntries() throws IOException {
+        List<TestDataRequest> dataRequests = createDataRequests(10, 32);
+        BootstrapSnapshot snapshot = BootstrapSnapshot.create(dataRequests, CLEAR_NET_ADDRESS, new byte[0]);
+
+        assertEquals(10, snapshot.getNumEntries());
+        assertEquals(1, snapshot.getChunks().size());
+        assertTrue(snapshot.getSignature().isEmpty());
+        assertTrue(snapshot.isValid(CLEAR_NET_ADDRESS));
+        assertEquals(toHashes(dataRequests), readHashes(snapshot));
+    }
+
+    @Test
+    void testCreateEmptySnapshot() throws IOException {
+        BootstrapSnapshot snapshot = BootstrapSnapshot.create(List.of(), CLEAR_NET_ADDRESS, new byte[0]);
+
+        assertEquals(0, snapshot.getNumEntries());
+        assertTrue(snapshot.isValid(CLEAR_NET_ADDRESS));
+        assertTrue(readHashes(snapshot).isEmpty());
+    }
+
+    @Test
+    void testSignedSnapshot() throws IOException {
+        TorKeyPair torKeyPair = TorKeyGeneration.generateKeyPair();
+        Address onionAddress = new Address(torKeyPair.getOnionAddress(), 1000);
+        BootstrapSnapshot snapshot = BootstrapSnapshot.create(createDataRequests(10, 32), onionAddress, torKeyPair.getPrivateKey());
+
+        assertTrue(snapshot.getSignature().isPresent());
+        assertTrue(snapshot.isValid(onionAddress));
+
+        // Signed by another onion address than the one we requested it from
+        Address otherOnionAddress = new Address(TorKeyGeneration.generateKeyPair().getOnionAddress(), 1000);
+        assertFalse(snapshot.isValid(otherOnionAddress));
+        // Other port
+        assertFalse(snapshot.isValid(new Address(torKeyPair.getOnionAddress(), 1001)));
+    }
+
+    @Test
+    void testUnsignedSnapshotFromOnionAddressIsInvalid() throws IOException {
+        BootstrapSnapshot snapshot = BootstrapSnapshot.create(createDataRequests(10, 32), CLEAR_NET_ADDRESS, new byte[0]);
+        Address onionAddress = new Address(TorKeyGeneration.generateKeyPair().getOnionAddress(), 1000);
+        assertFalse(snapshot.isValid(onionAddress));
+    }
+
+    @Test
+    void testModifiedChunkIsInvalid() throws IOException {
+        BootstrapSnapshot snapshot = BootstrapSnapshot.create(createDataRequests(10, 32), CLEAR_NET_ADDRESS, new byte[0]);
+        snapshot.getChunks().get(0)[0] ^= 1;
+        assertFalse(snapshot.isValid(CLEAR_NET_ADDRESS));
+    }
+
+    @Test
+    void testMoreEntriesThanContained() throws IOException {
+        BootstrapSnapshot snapshot = BootstrapSnapshot.create(createDataRequests(10, 32), CLEAR_NET_ADDRESS, new byte[0]);
+        List<BootstrapSnapshotResponse> responses = toResponses(snapshot, snapshot.getNumEntries() + 1);
+        BootstrapSnapshot modified = BootstrapSnapshot.fromResponses(responses);
+
+        // The hash covers only the data, the number of entries is checked at reading
+        assertTrue(modified.isValid(CLEAR_NET_ADDRESS));
+        assertThrows(IOException.class, () -> modified.forEachEntry(proto -> {
+        }));
+    }
+
+    @Test
+    void testAssembleChunksInAnyOrder() throws IOException {
+        // Random data does not compress, so the snapshot needs more than one chunk
+        List<TestDataRequest> dataRequests = createDataRequests(3000, 1000);
+        BootstrapSnapshot snapshot = BootstrapSnapshot.create(dataRequests, CLEAR_NET_ADDRESS, new byte[0]);
+        assertTrue(snapshot.getChunks().size() > 1);
+
+        List<BootstrapSnapshotResponse> responses = toResponses(snapshot, snapshot.getNumEntries());
+        Collections.shuffle(responses, new Random(1));
+        BootstrapSnapshotAssembler assembler = new BootstrapSnapshotAssembler();
+        Optional<BootstrapSnapshot> assembled = Optional.empty();
+        for (int i = 0; i < responses.size(); i++) {
+            assembled = assembler.add(responses.get(i));
+            assertEquals(i == responses.size() - 1, assembled.isPresent());
+        }
+
+        assertTrue(assembled.orElseThrow().isValid(CLEAR_NET_ADDRESS));
+        assertEquals(toHashes(dataRequests), readHashes(assembled.get()));
+    }
+
+    @Test
+    void testMissingChunk() throws IOException {
+        BootstrapSnapshot snapshot = BootstrapSnapshot.create(createDataRequests(3000, 1000), CLEAR_NET_ADDRESS, new byte[0]);
+        List<BootstrapSnapshotResponse> responses = toResponses(snapshot, snapshot.getNumEntries());
+        BootstrapSnapshotAssembler assembler = new BootstrapSnapshotAssembler();
+        for (int i = 1; i < responses.size(); i++) {
+            assertTrue(assembler.add(responses.get(i)).isEmpty());
+        }
+    }
+
+    @Test
+    void testDuplicateChunk() throws IOException {
+        BootstrapSnapshot snapshot = BootstrapSnapshot.create(createDataRequests(3000, 1000), CLEAR_NET_ADDRESS, new byte[0]);
+        List<BootstrapSnapshotResponse> responses = toResponses(snapshot, snapshot.getNumEntries());
+        BootstrapSnapshotAssembler assembler = new BootstrapSnapshotAssembler();
+        assertTrue(assembler.add(responses.get(0)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> assembler.add(responses.get(0)));
+    }
+
+    @Test
+    void testInvalidChunks() throws IOException {
+        BootstrapSnapshot snapshot = BootstrapSnapshot.create(createDataRequests(3000, 1000), CLEAR_NET_ADDRESS, new byte[0]);
+        List<BootstrapSnapshotResponse> responses = toResponses(snapshot, snapshot.getNumEntries());
+        BootstrapSnapshotResponse first = responses.get(0);
+
+        // Other number of chunks
+        BootstrapSnapshotAssembler assembler = new BootstrapSnapshotAssembler();
+        assembler.add(first);
+        BootstrapSnapshotResponse otherNumChunks = new BootstrapSnapshotResponse(first.getRequestNonce(),
+                first.getDate(), first.getNumEntries(), first.getHash(), first.getSignature(),
+                1, first.getNumChunks() + 1, first.getChunk());
+        assertThrows(IllegalArgumentException.class, () -> assembler.add(otherNumChunks));
+
+        // Chunk of another snapshot
+        BootstrapSnapshotAssembler assembler2 = new BootstrapSnapshotAssembler();
+        for (int i = 0; i < responses.size() - 1; i++) {
+            assembler2.add(responses.get(i));
+        }
+        BootstrapSnapshotResponse last = responses.get(responses.size() - 1);
+        BootstrapSnapshotResponse otherSnapshot = new BootstrapSnapshotResponse(last.getRequestNonce(),
+                last.getDate() + 1, last.getNumEntries(), last.getHash(), last.getSignature(),
+                last.getChunkIndex(), last.getNumChunks(), last.getChunk());
+        assertThrows(IllegalArgumentException.class, () -> assembler2.add(otherSnapshot));
+
+        // A chunk index out of range is rejected by the response
+        assertThrows(IllegalArgumentException.class, () -> new BootstrapSnapshotResponse(first.getRequestNonce(),
+                first.getDate(), first.getNumEntries(), first.getHash(), first.getSignature(),
+                first.getNumChunks(), first.getNumChunks(), first.getChunk()));
+
+        // The response without snapshot
+        assertThrows(IllegalArgumentException.class,
+                () -> new BootstrapSnapshotAssembler().add(BootstrapSnapshotResponse.noSnapshot(1)));
+    }
+
+    private static List<TestDataRequest> createDataRequests(int numEntries, int hashSize) {
+        Random random = new Random(numEntries);
+        List<TestDataRequest> dataRequests = new ArrayList<>(numEntries);
+        for (int i = 0; i < numEntries; i++) {
+            byte[] hash = new byte[hashSize];
+            random.nextBytes(hash);
+            dataRequests.add(new TestDataRequest(hash));
+        }
+        return dataRequests;
+    }
+
+    private static List<ByteString> toHashes(List<TestDataRequest> dataRequests) {
+        List<ByteString> hashes = new ArrayList<>();
+        dataRequests.forEach(dataRequest -> hashes.add(ByteString.copyFrom(dataRequest.hash)));
+        return hashes;
+    }
+
+    private static List<ByteString> readHashes(BootstrapSnapshot snapshot) throws IOException {
+        List<ByteString> hashes = new ArrayList<>();
+        snapshot.forEachEntry(proto -> hashes.add(proto.getRemoveMailboxRequest().getHash()));
+        return hashes;
+    }
+
+    private static List<BootstrapSnapshotResponse> toResponses(BootstrapSnapshot snapshot, int numEntries) {
+        List<byte[]> chunks = snapshot.getChunks();
+        List<BootstrapSnapshotResponse> responses = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            responses.add(new BootstrapSnapshotResponse(1,
+                    snapshot.getDate(),
+                    numEntries,
+                    snapshot.getHash(),
+                    snapshot.getSignature(),
+                    i,
+                    chunks.size(),
+                    chunks.get(i)));
+        }
+        return responses;
+    }
+}
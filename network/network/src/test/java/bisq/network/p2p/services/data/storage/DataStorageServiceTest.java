@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataStorageService;
+import bisq.network.p2p.services.data.storage.auth.TestDistributedData;
+import bisq.persistence.PersistenceService;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataStorageServiceTest {
+    private static final int MAX_MAP_SIZE = 3;
+    private static final MetaData META_DATA = new MetaData(MetaData.TTL_10_DAYS,
+            TestDistributedData.class.getSimpleName(),
+            MAX_MAP_SIZE);
+
+    @Test
+    void lockedOldestEntryIsSkippedAtEviction(@TempDir Path tempDir) throws Exception {
+        AuthenticatedDataStorageService store = new AuthenticatedDataStorageService(new PersistenceService(tempDir.toString()),
+                new StorageService.Config(false, false),
+                "AuthenticatedDataStore",
+                "Test");
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        long now = System.currentTimeMillis();
+        List<AddAuthenticatedDataRequest> requests = new ArrayList<>();
+        for (int i = 0; i < MAX_MAP_SIZE; i++) {
+            AddAuthenticatedDataRequest request = createAddRequest(i, keyPair, now - 1000 * (MAX_MAP_SIZE - i));
+            assertTrue(store.add(request).isSuccess());
+            requests.add(request);
+        }
+        ByteArray oldestKey = getKey(requests.get(0));
+
+        // Another thread holds the lock of the oldest entry, so the eviction cannot get it
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> lockHolder = executor.submit(() -> {
+            try (StripedLock.Handle ignored = store.stripedLock.lock(oldestKey)) {
+                locked.countDown();
+                release.await();
+            }
+            return null;
+        });
+        locked.await();
+
+        AddAuthenticatedDataRequest newer = createAddRequestOnFreeStripe(store, 10, keyPair, now - 500);
+        assertTrue(store.add(newer).isSuccess());
+        Map<ByteArray, AuthenticatedDataRequest> map = store.getPersistableStore().getMap();
+        assertEquals(MAX_MAP_SIZE, map.size());
+        assertTrue(map.containsKey(oldestKey));
+        assertTrue(map.containsKey(getKey(newer)));
+
+        release.countDown();
+        lockHolder.get();
+        executor.shutdown();
+
+        // The skipped entry got restored to the index, so it gets evicted next
+        AddAuthenticatedDataRequest newest = createAddRequest(100, keyPair, now);
+        assertTrue(store.add(newest).isSuccess());
+        assertEquals(MAX_MAP_SIZE, map.size());
+        assertFalse(map.containsKey(oldestKey));
+        assertTrue(map.containsKey(getKey(newest)));
+
+        store.shutdown();
+    }
+
+    // The add waits for the lock of its own entry, so its entry must not use the stripe of the locked entry
+    private static AddAuthenticatedDataRequest createAddRequestOnFreeStripe(AuthenticatedDataStorageService store,
+                                                                            int payload,
+                                                                            KeyPair keyPair,
+                                                                            long created) throws GeneralSecurityException {
+        while (true) {
+            AddAuthenticatedDataRequest request = createAddRequest(payload++, keyPair, created);
+            Optional<StripedLock.Handle> handle = store.stripedLock.tryLock(getKey(request));
+            if (handle.isPresent()) {
+                handle.get().close();
+                return request;
+            }
+        }
+    }
+
+    private static AddAuthenticatedDataRequest createAddRequest(int payload,
+                                                                KeyPair keyPair,
+                                                                long created) throws GeneralSecurityException {
+        return TestDistributedData.createAddRequest(new TestDistributedData(new byte[]{(byte) payload}, META_DATA),
+                keyPair,
+                1,
+                created);
+    }
+
+    private static ByteArray getKey(AddAuthenticatedDataRequest request) {
+        return new ByteArray(request.getAuthenticatedSequentialData().getAuthenticatedData().getHash());
+    }
+}
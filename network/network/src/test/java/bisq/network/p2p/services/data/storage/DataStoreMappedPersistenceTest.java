@@ -0,0 +1,89 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.TestDistributedData;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataStoreMappedPersistenceTest {
+    private static class CountingDataStoreMappedPersistence<T extends DataRequest> extends DataStoreMappedPersistence<T> {
+        private int numDeserialized;
+
+        CountingDataStoreMappedPersistence(Path directory) {
+            super(directory.toString(), "TestStore");
+        }
+
+        @Override
+        protected T deserializeValue(byte[] bytes) throws Exception {
+            numDeserialized++;
+            return super.deserializeValue(bytes);
+        }
+    }
+
+    @Test
+    void unloadedValuesAreWrittenWithoutDeserializing(@TempDir Path tempDir) throws Exception {
+        TestDistributedData.addResolver();
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        long now = System.currentTimeMillis();
+        Map<ByteArray, AddAuthenticatedDataRequest> expected = new HashMap<>();
+        DataStore<AddAuthenticatedDataRequest> dataStore = new DataStore<>();
+        for (int i = 0; i < 10; i++) {
+            AddAuthenticatedDataRequest request = TestDistributedData.createAddRequest(new TestDistributedData(new byte[]{(byte) i}), keyPair, 1, now);
+            ByteArray key = new ByteArray(request.getAuthenticatedSequentialData().getAuthenticatedData().getHash());
+            dataStore.getMap().put(key, request);
+            expected.put(key, request);
+        }
+        new CountingDataStoreMappedPersistence<AddAuthenticatedDataRequest>(tempDir).persistAsync(dataStore).join();
+
+        var persistence = new CountingDataStoreMappedPersistence<AddAuthenticatedDataRequest>(tempDir);
+        DataStore<AddAuthenticatedDataRequest> lazilyLoaded = persistence.readAsync().join().orElseThrow();
+        assertTrue(lazilyLoaded.isLazilyLoaded());
+        assertEquals(0, persistence.numDeserialized);
+
+        // One value gets loaded, one added and one removed. The other values stay unloaded.
+        ByteArray loadedKey = expected.keySet().iterator().next();
+        assertEquals(expected.get(loadedKey), lazilyLoaded.getMap().get(loadedKey));
+        AddAuthenticatedDataRequest added = TestDistributedData.createAddRequest(new TestDistributedData(new byte[]{42}), keyPair, 1, now);
+        ByteArray addedKey = new ByteArray(added.getAuthenticatedSequentialData().getAuthenticatedData().getHash());
+        lazilyLoaded.getMap().put(addedKey, added);
+        expected.put(addedKey, added);
+        ByteArray removedKey = expected.keySet().stream().filter(key -> !key.equals(loadedKey) && !key.equals(addedKey)).findFirst().orElseThrow();
+        lazilyLoaded.getMap().remove(removedKey);
+        expected.remove(removedKey);
+
+        persistence.persistAsync(lazilyLoaded.getClone()).join();
+        assertEquals(1, persistence.numDeserialized);
+
+        var reloaded = new CountingDataStoreMappedPersistence<AddAuthenticatedDataRequest>(tempDir);
+        DataStore<AddAuthenticatedDataRequest> persisted = reloaded.readAsync().join().orElseThrow();
+        assertEquals(0, persisted.loadAll());
+        assertEquals(expected, new HashMap<>(persisted.getMap()));
+        assertEquals(expected.size(), reloaded.numDeserialized);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.TestDistributedData;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpiryIndexTest {
+    private static final long TTL = MetaData.TTL_10_DAYS;
+
+    private final KeyPair keyPair;
+    private final Map<ByteArray, AddAuthenticatedDataRequest> map = new HashMap<>();
+    private final ExpiryIndex<AddAuthenticatedDataRequest> index = new ExpiryIndex<>(map);
+    private int payload;
+
+    public ExpiryIndexTest() throws GeneralSecurityException {
+        keyPair = KeyGeneration.generateKeyPair();
+    }
+
+    @Test
+    void testRemoveExpired() throws GeneralSecurityException {
+        put(key(1), request(10));
+        put(key(2), request(20));
+        put(key(3), request(1000));
+
+        assertTrue(index.removeExpired(10 + TTL).isEmpty());
+
+        List<Map.Entry<ByteArray, AddAuthenticatedDataRequest>> removed = index.removeExpired(21 + TTL);
+        assertEquals(Set.of(key(1), key(2)), removed.stream().map(Map.Entry::getKey).collect(Collectors.toSet()));
+        assertEquals(Set.of(key(3)), map.keySet());
+
+        assertTrue(index.removeExpired(21 + TTL).isEmpty());
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testRemoveExpiredSkipsReplacedEntries() throws GeneralSecurityException {
+        put(key(1), request(10));
+        AddAuthenticatedDataRequest refreshed = request(1000);
+        put(key(1), refreshed);
+
+        assertTrue(index.removeExpired(500 + TTL).isEmpty());
+        assertSame(refreshed, map.get(key(1)));
+    }
+
+    @Test
+    void testRemoveOldestIfCreatedBefore() throws GeneralSecurityException {
+        put(key(1), request(10));
+        put(key(2), request(20));
+        put(key(3), request(30));
+
+        assertTrue(index.removeOldestIfCreatedBefore(10).isEmpty());
+        assertEquals(3, map.size());
+
+        Optional<Map.Entry<ByteArray, AddAuthenticatedDataRequest>> oldest = index.removeOldestIfCreatedBefore(11);
+        assertTrue(oldest.isPresent());
+        assertEquals(key(1), oldest.get().getKey());
+        assertFalse(map.containsKey(key(1)));
+    }
+
+    @Test
+    void testRemoveOldestSkipsStaleEntries() throws GeneralSecurityException {
+        put(key(1), request(10));
+        put(key(2), request(20));
+        put(key(3), request(30));
+        // Replaced by a newer request, so the old entry of key 1 is stale
+        put(key(1), request(40));
+        // Removed from the map without the index
+        map.remove(key(2));
+
+        Optional<Map.Entry<ByteArray, AddAuthenticatedDataRequest>> oldest = index.removeOldestIfCreatedBefore(Long.MAX_VALUE);
+        assertTrue(oldest.isPresent());
+        assertEquals(key(3), oldest.get().getKey());
+
+        oldest = index.removeOldestIfCreatedBefore(Long.MAX_VALUE);
+        assertTrue(oldest.isPresent());
+        assertEquals(key(1), oldest.get().getKey());
+        assertEquals(40, oldest.get().getValue().getCreated());
+
+        assertTrue(index.removeOldestIfCreatedBefore(Long.MAX_VALUE).isEmpty());
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void testPollAndRestoreOldest() throws GeneralSecurityException {
+        put(key(1), request(10));
+        put(key(2), request(20));
+
+        Optional<Map.Entry<ByteArray, AddAuthenticatedDataRequest>> polled = index.pollOldestIfCreatedBefore(Long.MAX_VALUE);
+        assertTrue(polled.isPresent());
+        assertEquals(key(1), polled.get().getKey());
+        // Polling does not change the map
+        assertEquals(2, map.size());
+
+        index.restoreOldest(polled.get());
+        Optional<Map.Entry<ByteArray, AddAuthenticatedDataRequest>> oldest = index.removeOldestIfCreatedBefore(Long.MAX_VALUE);
+        assertTrue(oldest.isPresent());
+        assertEquals(key(1), oldest.get().getKey());
+    }
+
+    @Test
+    void testTrimToSize() throws GeneralSecurityException {
+        for (int i = 0; i < 100; i++) {
+            put(key(i), request(1000 - i));
+        }
+
+        List<Map.Entry<ByteArray, AddAuthenticatedDataRequest>> removed = index.trimToSize(60);
+        assertEquals(40, removed.size());
+        assertEquals(60, map.size());
+        // The oldest entries are the ones with the highest keys
+        for (int i = 0; i < 60; i++) {
+            assertTrue(map.containsKey(key(i)));
+        }
+
+        assertTrue(index.trimToSize(60).isEmpty());
+    }
+
+    @Test
+    void testRebuild() throws GeneralSecurityException {
+        for (int i = 0; i < 10; i++) {
+            map.put(key(i), request(i));
+        }
+        index.rebuild();
+        assertEquals(10, index.size());
+
+        assertEquals(5, index.removeExpired(5 + TTL).size());
+        assertEquals(key(5), index.removeOldestIfCreatedBefore(Long.MAX_VALUE).orElseThrow().getKey());
+    }
+
+    @Test
+    void testStaleEntriesGetRemovedAboveThreshold() throws GeneralSecurityException {
+        // Replacing the same entry adds a stale entry each time. We alternate between 2 requests, as creating a signed
+        // request for each replacement would slow down the test.
+        AddAuthenticatedDataRequest first = request(1);
+        AddAuthenticatedDataRequest second = request(2);
+        for (int i = 0; i < 10 * ExpiryIndex.MIN_REBUILD_SIZE; i++) {
+            put(key(1), i % 2 == 0 ? first : second);
+        }
+        assertTrue(index.size() <= ExpiryIndex.MIN_REBUILD_SIZE);
+        assertEquals(1, index.removeExpired(Long.MAX_VALUE).size());
+
+        // Live entries are never removed from the index
+        map.clear();
+        index.rebuild();
+        for (int i = 0; i < 2 * ExpiryIndex.MIN_REBUILD_SIZE; i++) {
+            put(key(i), first);
+        }
+        assertEquals(2 * ExpiryIndex.MIN_REBUILD_SIZE, index.size());
+    }
+
+    private void put(ByteArray key, AddAuthenticatedDataRequest request) {
+        map.put(key, request);
+        index.add(key, request);
+    }
+
+    // Expires at created + TTL
+    private AddAuthenticatedDataRequest request(long created) throws GeneralSecurityException {
+        TestDistributedData data = new TestDistributedData(new byte[]{(byte) (payload >> 8), (byte) payload++});
+        return TestDistributedData.createAddRequest(data, keyPair, 1, created);
+    }
+
+    private static ByteArray key(int i) {
+        return new ByteArray(new byte[]{(byte) (i >> 24), (byte) (i >> 16), (byte) (i >> 8), (byte) i});
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
+import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataStorageService;
+import bisq.network.p2p.services.data.storage.auth.RefreshAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.TestDistributedData;
+import bisq.persistence.PersistenceService;
+import bisq.security.DigestUtil;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static bisq.network.p2p.services.data.storage.auth.TestDistributedData.createAddRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StorageServiceQueryTest {
+    private static final long NOW = System.currentTimeMillis();
+
+    @TempDir
+    private Path tempDir;
+    private final KeyPair alice;
+    private final KeyPair bob;
+
+    public StorageServiceQueryTest() throws GeneralSecurityException {
+        alice = KeyGeneration.generateKeyPair();
+        bob = KeyGeneration.generateKeyPair();
+    }
+
+    @Test
+    void testQueriesFollowAddRefreshAndRemove() throws GeneralSecurityException {
+        StorageService storageService = createStorageService();
+        AuthenticatedDataStorageService store = storageService.getOrCreateAuthenticatedDataStore("TestStore").join();
+        AddAuthenticatedDataRequest fromAlice = createAddRequest(new TestDistributedData("a"), alice, 1, NOW);
+        AddAuthenticatedDataRequest fromBob = createAddRequest(new TestDistributedData.Derived("b"), bob, 1, NOW);
+        assertTrue(store.add(fromAlice).isSuccess());
+        assertTrue(store.add(fromBob).isSuccess());
+        AuthenticatedData aliceData = toData(fromAlice);
+        AuthenticatedData bobData = toData(fromBob);
+        assertEquals(Set.of(aliceData, bobData), toSet(storageService.getAuthenticatedData()));
+        assertEquals(Set.of(aliceData), toSet(storageService.getAuthenticatedDataByOwner(toOwner(alice))));
+
+        // A refresh does neither add nor remove data
+        assertTrue(store.refresh(RefreshAuthenticatedDataRequest.from(store, aliceData, alice)).isSuccess());
+        assertEquals(Set.of(aliceData, bobData), toSet(storageService.getAuthenticatedData()));
+        assertEquals(Set.of(aliceData, bobData), toSet(storageService.getAuthenticatedData(TestDistributedData.class, NOW, NOW + 1)));
+
+        assertTrue(store.remove(RemoveAuthenticatedDataRequest.from(store, aliceData, alice)).isSuccess());
+        assertEquals(Set.of(bobData), toSet(storageService.getAuthenticatedData()));
+        assertEquals(Set.of(bobData), toSet(storageService.getAuthenticatedData(TestDistributedData.class)));
+        assertEquals(Set.of(bobData), toSet(storageService.getAuthenticatedData(TestDistributedData.class, NOW, NOW + 1)));
+        assertEquals(0, storageService.getAuthenticatedDataByOwner(toOwner(alice)).count());
+
+        // Adding the removed data again requires a higher sequence number
+        assertFalse(store.add(fromAlice).isSuccess());
+        assertEquals(Set.of(bobData), toSet(storageService.getAuthenticatedData()));
+        storageService.shutdown();
+    }
+
+    @Test
+    void testQueriesAcrossStores() throws GeneralSecurityException {
+        StorageService storageService = createStorageService();
+        AuthenticatedDataStorageService store = storageService.getOrCreateAuthenticatedDataStore("TestStore").join();
+        AuthenticatedDataStorageService otherStore = storageService.getOrCreateAuthenticatedDataStore("OtherTestStore").join();
+        AddAuthenticatedDataRequest base = createAddRequest(new TestDistributedData("a"), alice, 1, NOW - 1000);
+        AddAuthenticatedDataRequest derived = createAddRequest(new TestDistributedData.Derived("a"), alice, 1, NOW);
+        assertTrue(store.add(base).isSuccess());
+        assertTrue(otherStore.add(derived).isSuccess());
+
+        assertEquals(Set.of(toData(base), toData(derived)), toSet(storageService.getAuthenticatedData(TestDistributedData.class)));
+        assertEquals(Set.of(toData(derived)), toSet(storageService.getAuthenticatedData(TestDistributedData.Derived.class)));
+        assertEquals(Set.of(toData(base), toData(derived)), toSet(storageService.getAuthenticatedDataByOwner(toOwner(alice))));
+
+        // From is inclusive, to is exclusive
+        assertEquals(Set.of(toData(base)), toSet(storageService.getAuthenticatedData(TestDistributedData.class, NOW - 1000, NOW)));
+        assertEquals(Set.of(toData(derived)), toSet(storageService.getAuthenticatedData(TestDistributedData.class, NOW - 999, NOW + 1)));
+        assertEquals(0, storageService.getAuthenticatedData(TestDistributedData.class, NOW, NOW).count());
+        storageService.shutdown();
+    }
+
+    @Test
+    void testQueriesWhileWarmingUp() throws Exception {
+        TestDistributedData.addResolver();
+        StorageService.Config config = new StorageService.Config(false, true);
+        AuthenticatedDataStorageService store = createStore(config);
+        AddAuthenticatedDataRequest first = createAddRequest(new TestDistributedData("first"), alice, 1, NOW - 2000);
+        AddAuthenticatedDataRequest second = createAddRequest(new TestDistributedData.Derived("second"), bob, 1, NOW - 1000);
+        AddAuthenticatedDataRequest third = createAddRequest(new TestDistributedData("third"), bob, 1, NOW);
+        Stream.of(first, second, third).forEach(request -> assertTrue(store.add(request).isSuccess()));
+        assertTrue(store.remove(RemoveAuthenticatedDataRequest.from(store, toData(third), bob)).isSuccess());
+
+        Set<AuthenticatedData> all = toSet(store.getAuthenticatedData());
+        Set<AuthenticatedData> byClass = toSet(store.getAuthenticatedData(TestDistributedData.Derived.class));
+        Set<AuthenticatedData> inRange = toSet(store.getAuthenticatedData(TestDistributedData.class, NOW - 2000, NOW - 1000));
+        Set<AuthenticatedData> byOwner = toSet(store.getAuthenticatedDataByOwner(toOwner(bob)));
+        assertEquals(Set.of(toData(first), toData(second)), all);
+        assertEquals(Set.of(toData(second)), byClass);
+        assertEquals(Set.of(toData(first)), inRange);
+        assertEquals(Set.of(toData(second)), byOwner);
+        store.getPersistence().persistAsync(store.getPersistableStore().getClone()).join();
+        store.shutdown();
+
+        // The mapped store file is read lazily and warmed up in the background. The warm-up builds the index with all
+        // locks held, so holding the lock of an entry keeps the store warming up.
+        AuthenticatedDataStorageService loaded = createStore(config);
+        try (StripedLock.Handle ignored = loaded.stripedLock.lock(new ByteArray(new byte[20]))) {
+            loaded.readPersisted().join();
+            assertTrue(loaded.isWarmingUp());
+
+            // While warming up, the queries iterate the store instead of using the index. The results must be the same.
+            assertEquals(all, toSet(loaded.getAuthenticatedData()));
+            assertEquals(byClass, toSet(loaded.getAuthenticatedData(TestDistributedData.Derived.class)));
+            assertEquals(inRange, toSet(loaded.getAuthenticatedData(TestDistributedData.class, NOW - 2000, NOW - 1000)));
+            assertEquals(byOwner, toSet(loaded.getAuthenticatedDataByOwner(toOwner(bob))));
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (loaded.isWarmingUp() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(loaded.isWarmingUp());
+        assertEquals(all, toSet(loaded.getAuthenticatedData()));
+        assertEquals(byClass, toSet(loaded.getAuthenticatedData(TestDistributedData.Derived.class)));
+        assertEquals(inRange, toSet(loaded.getAuthenticatedData(TestDistributedData.class, NOW - 2000, NOW - 1000)));
+        assertEquals(byOwner, toSet(loaded.getAuthenticatedDataByOwner(toOwner(bob))));
+        loaded.shutdown();
+    }
+
+    private StorageService createStorageService() {
+        return new StorageService(new PersistenceService(tempDir.toString()), new StorageService.Config(false, false));
+    }
+
+    private AuthenticatedDataStorageService createStore(StorageService.Config config) {
+        return new AuthenticatedDataStorageService(new PersistenceService(tempDir.toString()),
+                config,
+                StoreType.AUTHENTICATED_DATA_STORE.getStoreName(),
+                "TestStore");
+    }
+
+    private static AuthenticatedData toData(AddAuthenticatedDataRequest request) {
+        return request.getAuthenticatedSequentialData().getAuthenticatedData();
+    }
+
+    private static byte[] toOwner(KeyPair keyPair) {
+        return DigestUtil.hash(keyPair.getPublic().getEncoded());
+    }
+
+    private static Set<AuthenticatedData> toSet(Stream<AuthenticatedData> stream) {
+        return stream.collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedLockTest {
+    @Test
+    void testTryLock() throws Exception {
+        StripedLock stripedLock = new StripedLock();
+        ByteArray key = new ByteArray(new byte[]{1});
+        try (StripedLock.Handle ignored = stripedLock.lock(key)) {
+            // Reentrant for the same thread
+            Optional<StripedLock.Handle> handle = stripedLock.tryLock(key);
+            assertTrue(handle.isPresent());
+            handle.get().close();
+
+            // Another thread does not get the lock
+            assertFalse(CompletableFuture.supplyAsync(() -> tryLockAndClose(stripedLock, key)).get());
+        }
+        assertTrue(CompletableFuture.supplyAsync(() -> tryLockAndClose(stripedLock, key)).get());
+    }
+
+    @Test
+    void testTryLockWhileAllLocked() throws Exception {
+        StripedLock stripedLock = new StripedLock();
+        ByteArray key = new ByteArray(new byte[]{1});
+        try (StripedLock.Handle ignored = stripedLock.lockAll()) {
+            assertFalse(CompletableFuture.supplyAsync(() -> tryLockAndClose(stripedLock, key)).get());
+        }
+        assertTrue(CompletableFuture.supplyAsync(() -> tryLockAndClose(stripedLock, key)).get());
+    }
+
+    @Test
+    void testInvalidNumStripes() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLock(0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedLock(3));
+    }
+
+    private static boolean tryLockAndClose(StripedLock stripedLock, ByteArray key) {
+        Optional<StripedLock.Handle> handle = stripedLock.tryLock(key);
+        handle.ifPresent(StripedLock.Handle::close);
+        return handle.isPresent();
+    }
+}
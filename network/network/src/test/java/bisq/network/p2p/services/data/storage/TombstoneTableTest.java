@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TombstoneTableTest {
+    @Test
+    void testPutAndRemove() {
+        TombstoneTable table = new TombstoneTable();
+        ByteArray hash = hash(1);
+        assertFalse(table.contains(hash));
+
+        table.put(hash, 1, 100);
+        table.put(hash, 2, 200);
+        assertTrue(table.contains(hash));
+        assertEquals(1, table.size());
+        List<ByteArray> found = table.find((h, sequenceNumber, expirationDate) -> sequenceNumber == 2 && expirationDate == 200);
+        assertEquals(List.of(hash), found);
+
+        assertTrue(table.remove(hash));
+        assertFalse(table.remove(hash));
+        assertFalse(table.contains(hash));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void testKeysWithOtherSize() {
+        TombstoneTable table = new TombstoneTable();
+        ByteArray hash = new ByteArray(new byte[]{1, 2, 3});
+        table.put(hash, 1, 100);
+        assertTrue(table.contains(hash));
+        assertEquals(1, table.size());
+        assertEquals(List.of(hash), table.find((h, sequenceNumber, expirationDate) -> true));
+        assertTrue(table.remove(hash));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void testRandomOperationsMatchHashMap() {
+        TombstoneTable table = new TombstoneTable();
+        Map<ByteArray, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            // A small key range, so that removals hit existing keys and probe sequences overlap
+            ByteArray hash = hash(random.nextInt(2000));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(hash) != null, table.remove(hash));
+            } else {
+                int sequenceNumber = random.nextInt(100);
+                table.put(hash, sequenceNumber, i);
+                expected.put(hash, sequenceNumber);
+            }
+        }
+
+        assertEquals(expected.size(), table.size());
+        expected.keySet().forEach(hash -> assertTrue(table.contains(hash)));
+        Map<ByteArray, Integer> found = new HashMap<>();
+        table.find((hash, sequenceNumber, expirationDate) -> {
+            found.put(hash, sequenceNumber);
+            return false;
+        });
+        assertEquals(expected, found);
+
+        table.clear();
+        assertEquals(0, table.size());
+        expected.keySet().forEach(hash -> assertFalse(table.contains(hash)));
+    }
+
+    private static ByteArray hash(int value) {
+        byte[] bytes = new byte[TombstoneTable.KEY_SIZE];
+        bytes[0] = (byte) (value >>> 24);
+        bytes[1] = (byte) (value >>> 16);
+        bytes[2] = (byte) (value >>> 8);
+        bytes[3] = (byte) value;
+        return new ByteArray(bytes);
+    }
+}
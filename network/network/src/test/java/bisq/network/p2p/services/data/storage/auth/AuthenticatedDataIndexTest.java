@@ -0,0 +1,184 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage.auth;
+
+import bisq.common.data.ByteArray;
+import bisq.security.DigestUtil;
+import bisq.security.SignatureUtil;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static bisq.network.p2p.services.data.storage.auth.TestDistributedData.createAddRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthenticatedDataIndexTest {
+    private static final long NOW = System.currentTimeMillis();
+
+    private final KeyPair alice;
+    private final KeyPair bob;
+
+    public AuthenticatedDataIndexTest() throws GeneralSecurityException {
+        alice = KeyGeneration.generateKeyPair();
+        bob = KeyGeneration.generateKeyPair();
+    }
+
+    @Test
+    void testPutAndRemove() throws GeneralSecurityException {
+        AuthenticatedDataIndex index = new AuthenticatedDataIndex();
+        AddAuthenticatedDataRequest a = createAddRequest(new TestDistributedData("a"), alice, 1, NOW);
+        AddAuthenticatedDataRequest b = createAddRequest(new TestDistributedData("b"), alice, 1, NOW);
+        index.put(toHash(a), a);
+        index.put(toHash(b), b);
+        assertEquals(Set.of(toData(a), toData(b)), toSet(index.getAll()));
+
+        index.remove(toHash(a));
+        assertEquals(Set.of(toData(b)), toSet(index.getAll()));
+        assertEquals(Set.of(toData(b)), toSet(index.getByClass(TestDistributedData.class)));
+        assertEquals(Set.of(toData(b)), toSet(index.getByOwner(toOwner(alice))));
+
+        // Removing an unknown or already removed hash has no effect
+        index.remove(toHash(a));
+        assertEquals(Set.of(toData(b)), toSet(index.getAll()));
+
+        index.remove(toHash(b));
+        assertEquals(0, index.getAll().count());
+        assertEquals(0, index.getByClass(TestDistributedData.class).count());
+        assertEquals(0, index.getByOwner(toOwner(alice)).count());
+    }
+
+    @Test
+    void testPutReplacesPreviousRequest() throws GeneralSecurityException {
+        AuthenticatedDataIndex index = new AuthenticatedDataIndex();
+        TestDistributedData data = new TestDistributedData("a");
+        AddAuthenticatedDataRequest request = createAddRequest(data, alice, 1, NOW - 1000);
+        index.put(toHash(request), request);
+
+        // A refresh keeps the creation date but increases the sequence number
+        AddAuthenticatedDataRequest refreshed = new AddAuthenticatedDataRequest(
+                AuthenticatedSequentialData.from(request.getAuthenticatedSequentialData(), 2),
+                request.getSignature(),
+                request.getOwnerPublicKey());
+        index.put(toHash(refreshed), refreshed);
+        assertEquals(1, index.getAll().count());
+        assertEquals(1, index.getByClass(TestDistributedData.class, NOW - 1000, NOW).count());
+
+        // A new add request of the same data with a later creation date replaces the previous date
+        AddAuthenticatedDataRequest readded = createAddRequest(data, alice, 3, NOW);
+        index.put(toHash(readded), readded);
+        assertEquals(1, index.getAll().count());
+        assertEquals(0, index.getByClass(TestDistributedData.class, NOW - 1000, NOW).count());
+        assertEquals(1, index.getByClass(TestDistributedData.class, NOW, NOW + 1).count());
+        assertEquals(1, index.getByOwner(toOwner(alice)).count());
+    }
+
+    @Test
+    void testGetByClass() throws GeneralSecurityException {
+        AuthenticatedDataIndex index = new AuthenticatedDataIndex();
+        AddAuthenticatedDataRequest base = createAddRequest(new TestDistributedData("a"), alice, 1, NOW);
+        AddAuthenticatedDataRequest derived = createAddRequest(new TestDistributedData.Derived("a"), alice, 1, NOW);
+        index.put(toHash(base), base);
+        index.put(toHash(derived), derived);
+
+        assertEquals(Set.of(toData(base), toData(derived)), toSet(index.getByClass(TestDistributedData.class)));
+        assertEquals(Set.of(toData(derived)), toSet(index.getByClass(TestDistributedData.Derived.class)));
+        assertEquals(0, index.getByClass(String.class).count());
+    }
+
+    @Test
+    void testGetByClassInTimeRange() throws GeneralSecurityException {
+        AuthenticatedDataIndex index = new AuthenticatedDataIndex();
+        AddAuthenticatedDataRequest first = createAddRequest(new TestDistributedData("first"), alice, 1, NOW - 2000);
+        AddAuthenticatedDataRequest second = createAddRequest(new TestDistributedData("second"), alice, 1, NOW - 1000);
+        AddAuthenticatedDataRequest sameDate = createAddRequest(new TestDistributedData.Derived("sameDate"), alice, 1, NOW - 1000);
+        AddAuthenticatedDataRequest third = createAddRequest(new TestDistributedData("third"), alice, 1, NOW);
+        Stream.of(first, second, sameDate, third).forEach(request -> index.put(toHash(request), request));
+
+        // From is inclusive, to is exclusive
+        assertEquals(Set.of(toData(first), toData(second), toData(sameDate)),
+                toSet(index.getByClass(TestDistributedData.class, NOW - 2000, NOW)));
+        assertEquals(Set.of(toData(second), toData(sameDate), toData(third)),
+                toSet(index.getByClass(TestDistributedData.class, NOW - 1999, NOW + 1)));
+        assertEquals(Set.of(toData(second), toData(sameDate)),
+                toSet(index.getByClass(TestDistributedData.class, NOW - 1000, NOW - 999)));
+        assertEquals(Set.of(toData(sameDate)),
+                toSet(index.getByClass(TestDistributedData.Derived.class, NOW - 2000, NOW + 1)));
+
+        assertEquals(0, index.getByClass(TestDistributedData.class, NOW - 1000, NOW - 1000).count());
+        assertEquals(0, index.getByClass(TestDistributedData.class, NOW, NOW - 2000).count());
+    }
+
+    @Test
+    void testGetByOwner() throws GeneralSecurityException {
+        AuthenticatedDataIndex index = new AuthenticatedDataIndex();
+        AddAuthenticatedDataRequest fromAlice = createAddRequest(new TestDistributedData("a"), alice, 1, NOW);
+        AddAuthenticatedDataRequest fromBob = createAddRequest(new TestDistributedData("b"), bob, 1, NOW);
+        AddAuthenticatedDataRequest derivedFromBob = createAddRequest(new TestDistributedData.Derived("b"), bob, 1, NOW);
+        Stream.of(fromAlice, fromBob, derivedFromBob).forEach(request -> index.put(toHash(request), request));
+
+        assertEquals(Set.of(toData(fromAlice)), toSet(index.getByOwner(toOwner(alice))));
+        assertEquals(Set.of(toData(fromBob), toData(derivedFromBob)), toSet(index.getByOwner(toOwner(bob))));
+        assertEquals(0, index.getByOwner(new ByteArray(new byte[20])).count());
+    }
+
+    @Test
+    void testRebuild() throws GeneralSecurityException {
+        AuthenticatedDataIndex index = new AuthenticatedDataIndex();
+        AddAuthenticatedDataRequest stale = createAddRequest(new TestDistributedData("stale"), alice, 1, NOW);
+        index.put(toHash(stale), stale);
+
+        AddAuthenticatedDataRequest added = createAddRequest(new TestDistributedData("added"), alice, 1, NOW);
+        AuthenticatedData removedData = new DefaultAuthenticatedData(new TestDistributedData("removed"));
+        RemoveAuthenticatedDataRequest removed = new RemoveAuthenticatedDataRequest(removedData.getMetaData(),
+                removedData.getHash(),
+                alice.getPublic(),
+                2,
+                SignatureUtil.sign(removedData.getHash(), alice.getPrivate()));
+        Map<ByteArray, AuthenticatedDataRequest> map = new HashMap<>();
+        map.put(toHash(added), added);
+        map.put(new ByteArray(removedData.getHash()), removed);
+
+        // Remove requests are not indexed, and the previous content is dropped
+        index.rebuild(map);
+        assertEquals(Set.of(toData(added)), toSet(index.getAll()));
+        assertEquals(Set.of(toData(added)), toSet(index.getByOwner(toOwner(alice))));
+    }
+
+    private static ByteArray toHash(AddAuthenticatedDataRequest request) {
+        return new ByteArray(toData(request).getHash());
+    }
+
+    private static AuthenticatedData toData(AddAuthenticatedDataRequest request) {
+        return request.getAuthenticatedSequentialData().getAuthenticatedData();
+    }
+
+    private static ByteArray toOwner(KeyPair keyPair) {
+        return new ByteArray(DigestUtil.hash(keyPair.getPublic().getEncoded()));
+    }
+
+    private static Set<AuthenticatedData> toSet(Stream<AuthenticatedData> stream) {
+        return stream.collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.data.storage.auth;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.storage.DataStorageResult;
+import bisq.network.p2p.services.data.storage.MetaData;
+import bisq.network.p2p.services.data.storage.StorageService;
+import bisq.persistence.PersistenceService;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthenticatedDataStorageServiceTest {
+    private static final int MAX_MAP_SIZE = 3;
+    private static final MetaData META_DATA = new MetaData(MetaData.TTL_10_DAYS,
+            TestDistributedData.class.getSimpleName(),
+            MAX_MAP_SIZE);
+
+    @Test
+    void fullStoreEvictsOlderEntriesAndRejectsOlderData(@TempDir Path tempDir) throws GeneralSecurityException {
+        AuthenticatedDataStorageService store = new AuthenticatedDataStorageService(new PersistenceService(tempDir.toString()),
+                new StorageService.Config(false, false),
+                "AuthenticatedDataStore",
+                "Test");
+        List<AuthenticatedData> removed = new ArrayList<>();
+        store.addListener(new AuthenticatedDataStorageService.Listener() {
+            @Override
+            public void onAdded(AuthenticatedData authenticatedData) {
+            }
+
+            @Override
+            public void onRemoved(AuthenticatedData authenticatedData) {
+                removed.add(authenticatedData);
+            }
+        });
+
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        long now = System.currentTimeMillis();
+        List<AddAuthenticatedDataRequest> requests = new ArrayList<>();
+        for (int i = 0; i < MAX_MAP_SIZE; i++) {
+            AddAuthenticatedDataRequest request = createAddRequest(i, keyPair, now - 1000 * (MAX_MAP_SIZE - i));
+            assertTrue(store.add(request).isSuccess());
+            requests.add(request);
+        }
+
+        // Data older than all stored data get rejected
+        DataStorageResult result = store.add(createAddRequest(10, keyPair, now - 1000 * (MAX_MAP_SIZE + 1)));
+        assertFalse(result.isSuccess());
+        assertTrue(result.isMaxMapSizeReached());
+        assertEquals(MAX_MAP_SIZE, store.getPersistableStore().getMap().size());
+        assertTrue(removed.isEmpty());
+
+        // Newer data replace the oldest entry, and the listeners get notified about the removal
+        AddAuthenticatedDataRequest newer = createAddRequest(11, keyPair, now);
+        assertTrue(store.add(newer).isSuccess());
+        Map<ByteArray, AuthenticatedDataRequest> map = store.getPersistableStore().getMap();
+        assertEquals(MAX_MAP_SIZE, map.size());
+        assertFalse(map.containsKey(getKey(requests.get(0))));
+        assertTrue(map.containsKey(getKey(requests.get(1))));
+        assertTrue(map.containsKey(getKey(newer)));
+        assertEquals(List.of(requests.get(0).getAuthenticatedSequentialData().getAuthenticatedData()), removed);
+
+        store.shutdown();
+    }
+
+    private static AddAuthenticatedDataRequest createAddRequest(int payload,
+                                                                KeyPair keyPair,
+                                                                long created) throws GeneralSecurityException {
+        return TestDistributedData.createAddRequest(new TestDistributedData(new byte[]{(byte) payload}, META_DATA),
+                keyPair,
+                1,
+                created);
+    }
+
+    private static ByteArray getKey(AddAuthenticatedDataRequest request) {
+        return new ByteArray(request.getAuthenticatedSequentialData().getAuthenticatedData().getHash());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage.auth;
+
+import bisq.security.DigestUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthenticatedDataTest {
+    @Test
+    void testSerializedDataAndHashAreCached() {
+        DefaultAuthenticatedData authenticatedData = new DefaultAuthenticatedData(new TestDistributedData(new byte[]{1, 2, 3}));
+        byte[] expected = authenticatedData.toProto().toByteArray();
+
+        byte[] serialized = authenticatedData.serialize();
+        assertArrayEquals(expected, serialized);
+        assertSame(serialized, authenticatedData.serialize());
+
+        byte[] hash = authenticatedData.getHash();
+        assertArrayEquals(DigestUtil.hash(expected), hash);
+        assertSame(hash, authenticatedData.getHash());
+
+        // Cached fields must not affect equality
+        DefaultAuthenticatedData other = new DefaultAuthenticatedData(new TestDistributedData(new byte[]{1, 2, 3}));
+        assertEquals(authenticatedData, other);
+        assertEquals(authenticatedData.hashCode(), other.hashCode());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage.auth;
+
+import bisq.common.proto.UnresolvableProtobufMessageException;
+import bisq.network.p2p.services.data.storage.DistributedData;
+import bisq.network.p2p.services.data.storage.DistributedDataResolver;
+import bisq.network.p2p.services.data.storage.MetaData;
+import bisq.security.DigestUtil;
+import bisq.security.SignatureUtil;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.BytesValue;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.Arrays;
+
+/**
+ * DistributedData for tests, with a payload which is neither parsed nor verified. The subclass is used for testing
+ * the queries by class.
+ */
+public class TestDistributedData implements DistributedData {
+    public static class Derived extends TestDistributedData {
+        public Derived(String payload) {
+            super(payload);
+        }
+
+        private Derived(byte[] payload) {
+            super(payload);
+        }
+    }
+
+    /**
+     * Needed for deserializing requests with TestDistributedData. The payload is wrapped in a BytesValue. Payloads
+     * created from a string start with the class name, which tells us if the data was a Derived instance.
+     */
+    public static void addResolver() {
+        DistributedDataResolver.addResolver("google.protobuf.BytesValue", any -> {
+            try {
+                byte[] payload = any.unpack(BytesValue.class).getValue().toByteArray();
+                boolean isDerived = new String(payload, StandardCharsets.UTF_8).startsWith(Derived.class.getSimpleName());
+                return isDerived ? new Derived(payload) : new TestDistributedData(payload);
+            } catch (InvalidProtocolBufferException e) {
+                throw new UnresolvableProtobufMessageException(e);
+            }
+        });
+    }
+
+    public static AddAuthenticatedDataRequest createAddRequest(TestDistributedData data,
+                                                               KeyPair keyPair,
+                                                               int sequenceNumber,
+                                                               long created) throws GeneralSecurityException {
+        byte[] pubKeyHash = DigestUtil.hash(keyPair.getPublic().getEncoded());
+        AuthenticatedSequentialData sequentialData = new AuthenticatedSequentialData(new DefaultAuthenticatedData(data),
+                sequenceNumber,
+                pubKeyHash,
+                created);
+        byte[] signature = SignatureUtil.sign(sequentialData.serialize(), keyPair.getPrivate());
+        return new AddAuthenticatedDataRequest(sequentialData, signature, keyPair.getPublic());
+    }
+
+    private final byte[] payload;
+    private final MetaData metaData;
+
+    public TestDistributedData(byte[] payload) {
+        this(payload, new MetaData(TestDistributedData.class.getSimpleName()));
+    }
+
+    public TestDistributedData(byte[] payload, MetaData metaData) {
+        this.payload = payload;
+        this.metaData = metaData;
+    }
+
+    public TestDistributedData(String payload) {
+        // The class is part of the payload, so that equal payloads of different classes get different hashes
+        this.payload = (getClass().getSimpleName() + payload).getBytes(StandardCharsets.UTF_8);
+        metaData = new MetaData(TestDistributedData.class.getSimpleName());
+    }
+
+    @Override
+    public BytesValue toProto() {
+        return BytesValue.of(ByteString.copyFrom(payload));
+    }
+
+    @Override
+    public void verify() {
+    }
+
+    @Override
+    public MetaData getMetaData() {
+        return metaData;
+    }
+
+    @Override
+    public boolean isDataInvalid(byte[] pubKeyHash) {
+        return false;
+    }
+
+    @Override
+    public double getCostFactor() {
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o != null && o.getClass() == getClass() && Arrays.equals(payload, ((TestDistributedData) o).payload);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(payload);
+    }
+}
@@ -0,0 +1,60 @@
+package bisq.network.p2p.services.peergroup;
+
+import bisq.network.common.Address;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PeerScoreTest {
+    @Test
+    void testDefaultScore() {
+        PeerScore peerScore = new PeerScore(new Address("127.0.0.1:8000"));
+        assertEquals(PeerScore.DEFAULT_SCORE, peerScore.getScore(), 1e-9);
+    }
+
+    @Test
+    void testFastAndReliablePeerScoresHigher() {
+        PeerScore fast = new PeerScore(new Address("127.0.0.1:8000"));
+        fast.onSuccess();
+        fast.addRtt(200);
+        fast.addHandshakeTime(400);
+
+        PeerScore slow = new PeerScore(new Address("127.0.0.1:8001"));
+        slow.onSuccess();
+        slow.addRtt(5000);
+        slow.addHandshakeTime(10000);
+
+        PeerScore unreliable = new PeerScore(new Address("127.0.0.1:8002"));
+        unreliable.onFailure();
+        unreliable.onFailure();
+        unreliable.addRtt(200);
+        unreliable.addHandshakeTime(400);
+
+        assertTrue(fast.getScore() > PeerScore.DEFAULT_SCORE);
+        assertTrue(fast.getScore() > slow.getScore());
+        assertTrue(fast.getScore() > unreliable.getScore());
+    }
+
+    @Test
+    void testInventoryBytesIncreaseScore() {
+        PeerScore peerScore = new PeerScore(new Address("127.0.0.1:8000"));
+        double before = peerScore.getScore();
+        peerScore.addInventoryBytesReceived(1024 * 1024);
+        assertTrue(peerScore.getScore() > before);
+    }
+
+    @Test
+    void testRttIsSmoothed() {
+        PeerScore peerScore = new PeerScore(new Address("127.0.0.1:8000"));
+        peerScore.addRtt(1000);
+        double afterFirst = peerScore.getScore();
+        peerScore.addRtt(100);
+        double afterSecond = peerScore.getScore();
+        // A single fast sample improves the score but does not replace the average
+        PeerScore fresh = new PeerScore(new Address("127.0.0.1:8001"));
+        fresh.addRtt(100);
+        assertTrue(afterSecond > afterFirst);
+        assertTrue(afterSecond < fresh.getScore());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.services.peergroup.exchange;
+
+import bisq.network.common.Address;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeerExchangeRaceTest {
+    // The attempts by their address in the order they got started
+    private final Map<Address, CompletableFuture<Boolean>> attempts = new LinkedHashMap<>();
+
+    @Test
+    void testCancelsPendingAttemptsIfNumRequiredReached() {
+        List<Address> candidates = createCandidates(5);
+        PeerExchangeRace race = createRace(candidates, 2, 3);
+        race.start();
+        assertEquals(candidates.subList(0, 3), new ArrayList<>(attempts.keySet()));
+
+        attempts.get(candidates.get(0)).complete(true);
+        assertTrue(race.getResultFuture().isDone());
+        assertFalse(race.getCompletedFuture().isDone());
+        // The completed attempt starts the next candidate
+        assertEquals(candidates.subList(0, 4), new ArrayList<>(attempts.keySet()));
+
+        attempts.get(candidates.get(2)).complete(true);
+        assertTrue(race.hasReachedNumRequired());
+        assertTrue(attempts.get(candidates.get(1)).isCancelled());
+        assertTrue(attempts.get(candidates.get(3)).isCancelled());
+        assertTrue(race.getCompletedFuture().isDone());
+        // The last candidate is not used
+        assertEquals(4, attempts.size());
+        assertEquals(2, race.getNumSuccess());
+        assertEquals(0, race.getNumFailures());
+        assertEquals(2, race.getNumCancelled());
+    }
+
+    @Test
+    void testCompletesIfAllAttemptsFail() {
+        List<Address> candidates = createCandidates(4);
+        PeerExchangeRace race = createRace(candidates, 2, 2);
+        race.start();
+
+        attempts.get(candidates.get(0)).complete(false);
+        attempts.get(candidates.get(1)).completeExceptionally(new RuntimeException());
+        attempts.get(candidates.get(2)).complete(false);
+        assertFalse(race.getResultFuture().isDone());
+        assertFalse(race.getCompletedFuture().isDone());
+
+        attempts.get(candidates.get(3)).complete(false);
+        assertTrue(race.getResultFuture().isDone());
+        assertTrue(race.getCompletedFuture().isDone());
+        assertEquals(0, race.getNumSuccess());
+        assertEquals(4, race.getNumFailures());
+        assertEquals(0, race.getNumCancelled());
+    }
+
+    @Test
+    void testNumConcurrentAttemptsIsCapped() {
+        List<Address> candidates = createCandidates(10);
+        PeerExchangeRace race = createRace(candidates, candidates.size(), 3);
+        race.start();
+
+        int completed = 0;
+        while (completed < attempts.size()) {
+            int numPending = attempts.size() - completed;
+            assertEquals(Math.min(3, candidates.size() - completed), numPending);
+            new ArrayList<>(attempts.values()).get(completed).complete(completed % 2 == 0);
+            completed++;
+        }
+        assertEquals(candidates, new ArrayList<>(attempts.keySet()));
+        assertTrue(race.getCompletedFuture().isDone());
+        assertEquals(5, race.getNumSuccess());
+        assertEquals(5, race.getNumFailures());
+    }
+
+    private PeerExchangeRace createRace(List<Address> candidates, int numRequired, int maxConcurrentAttempts) {
+        return new PeerExchangeRace(candidates, numRequired, maxConcurrentAttempts, (peerAddress, race) -> {
+            CompletableFuture<Boolean> attempt = new CompletableFuture<>();
+            attempts.put(peerAddress, attempt);
+            return attempt;
+        });
+    }
+
+    private static List<Address> createCandidates(int numCandidates) {
+        return IntStream.range(0, numCandidates)
+                .mapToObj(i -> new Address("127.0.0.1", 8000 + i))
+                .collect(Collectors.toList());
+    }
+}
@@ -55,9 +55,7 @@ public class OfferMessageService implements Service, DataService.Listener {
 
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
-        networkService.addDataServiceListener(this);
-        networkService.getDataService().ifPresent(dataService ->
-                dataService.getAuthenticatedData().forEach(this::onAuthenticatedDataAdded));
+        networkService.addDataServiceListenerAndReplay(this, OfferMessage.class);
         return CompletableFuture.completedFuture(true);
     }
 
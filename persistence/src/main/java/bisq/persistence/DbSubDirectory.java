@@ -3,6 +3,8 @@ package bisq.persistence;
 import lombok.Getter;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Optional;
 
 @Getter
 public enum DbSubDirectory {
@@ -17,4 +19,13 @@ public enum DbSubDirectory {
     DbSubDirectory(String subDir) {
         this.dbPath = "db" + File.separator + subDir;
     }
+
+    /**
+     * @param subDir The sub directory of a store relative to the base dir (e.g. db/network_db/authenticated_data_store)
+     */
+    public static Optional<DbSubDirectory> fromSubDir(String subDir) {
+        return Arrays.stream(values())
+                .filter(value -> subDir.equals(value.getDbPath()) || subDir.startsWith(value.getDbPath() + File.separator))
+                .findFirst();
+    }
 }
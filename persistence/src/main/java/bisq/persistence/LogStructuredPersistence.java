@@ -0,0 +1,275 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import bisq.common.data.ByteArray;
+import bisq.common.data.FixedSizeByteArrayMap;
+import bisq.common.metrics.Metrics;
+import bisq.common.threading.ExecutorFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Persistence for stores which are a map of entries. Instead of rewriting the whole store at each write, only the
+ * entries which got added, replaced or removed since the last write are appended to a {@link SegmentLog}. The log gets
+ * compacted in the background once it contains more than twice as many records as the store has entries. At read,
+ * the log is replayed.
+ * <p>
+ * Changes are detected by comparing the entries with the ones of the last written store by reference, thus the store
+ * instances passed to persist must not be mutated afterward (as it is the case with the clones used by the
+ * PersistenceClients). Values are expected to be immutable. If the entries are a {@link FixedSizeByteArrayMap}, the
+ * clones share the pages which did not change, and only the changed pages get compared.
+ * <p>
+ * If there is no log yet, we read the store file of the default persistence and write all its entries to the log at
+ * the first write. After that, the store file is deleted.
+ */
+@Slf4j
+public abstract class LogStructuredPersistence<V, T extends PersistableStore<T>> extends Persistence<T> {
+    public static final String LOG_DIRECTORY_POSTFIX = "_log";
+    private static final long MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final int MIN_RECORDS_FOR_COMPACTION = 1000;
+
+    private static final ExecutorService compactionExecutor = ExecutorFactory.newSingleThreadExecutor("Persistence-compaction");
+
+    private final SegmentLog segmentLog;
+    private final String storeName;
+    private Map<ByteArray, V> lastPersisted = new HashMap<>();
+    private boolean hasLog;
+    private long numRecords;
+    private boolean compactionInProgress;
+
+    public LogStructuredPersistence(String directory, String fileName) {
+        this(directory, fileName, Optional.empty());
+    }
+
+    public LogStructuredPersistence(String directory, String fileName, Optional<DbSubDirectory> dbSubDirectory) {
+        super(directory, fileName, dbSubDirectory);
+        storeName = getStorePath().getFileName().toString();
+        segmentLog = new SegmentLog(getLogDirectory(getStorePath()), MAX_SEGMENT_SIZE);
+    }
+
+    public static Path getLogDirectory(Path storePath) {
+        String fileName = storePath.getFileName().toString();
+        if (fileName.endsWith(EXTENSION)) {
+            fileName = fileName.substring(0, fileName.length() - EXTENSION.length());
+        }
+        return storePath.resolveSibling(fileName + LOG_DIRECTORY_POSTFIX);
+    }
+
+    protected abstract Map<ByteArray, V> getEntries(T persistableStore);
+
+    protected abstract byte[] serializeValue(V value);
+
+    protected abstract V deserializeValue(byte[] bytes) throws Exception;
+
+    protected abstract T createStore(Map<ByteArray, V> entries);
+
+    @Override
+    protected synchronized Optional<T> read() {
+        hasLog = segmentLog.hasSegments();
+        if (!hasLog) {
+            return super.read();
+        }
+
+        long ts = System.nanoTime();
+        Map<ByteArray, byte[]> serializedValues = new HashMap<>();
+        try {
+            numRecords = segmentLog.replay(new SegmentLog.Handler() {
+                @Override
+                public void onPut(byte[] key, byte[] value) {
+                    serializedValues.put(new ByteArray(key), value);
+                }
+
+                @Override
+                public void onRemove(byte[] key) {
+                    serializedValues.remove(new ByteArray(key));
+                }
+
+                @Override
+                public void onSnapshot() {
+                    serializedValues.clear();
+                }
+            });
+        } catch (IOException e) {
+            log.error("Couldn't replay log of {}", storeName, e);
+            return Optional.empty();
+        }
+
+        // We deserialize only the remaining values
+        Map<ByteArray, V> entries = new HashMap<>();
+        serializedValues.forEach((key, bytes) -> {
+            try {
+                entries.put(key, deserializeValue(bytes));
+            } catch (Exception e) {
+                log.warn("Couldn't deserialize value for key {} of {}. We ignore that entry.", key, storeName, e);
+            }
+        });
+        lastPersisted = entries;
+        log.info("Replayed {} records of {} in {} ms. Store has {} entries.",
+                numRecords, storeName, (System.nanoTime() - ts) / 1_000_000, entries.size());
+        return Optional.of(createStore(new HashMap<>(entries)));
+    }
+
+    @Override
+    protected synchronized void persist(T persistableStore) {
+        long ts = System.nanoTime();
+        long bytesWrittenBefore = segmentLog.getBytesWritten();
+        Map<ByteArray, V> entries = getEntries(persistableStore);
+        List<Map.Entry<ByteArray, V>> puts = new ArrayList<>();
+        List<ByteArray> removes = new ArrayList<>();
+        collectChanges(lastPersisted, entries, puts, removes);
+        int numChanges = 0;
+        boolean isMigration = !hasLog;
+        try {
+            if (isMigration) {
+                segmentLog.appendSnapshot();
+                numChanges++;
+            }
+            for (Map.Entry<ByteArray, V> entry : puts) {
+                segmentLog.appendPut(entry.getKey().getBytes(), serializeValue(entry.getValue()));
+                numChanges++;
+            }
+            for (ByteArray key : removes) {
+                segmentLog.appendRemove(key.getBytes());
+                numChanges++;
+            }
+            segmentLog.flush();
+        } catch (IOException e) {
+            // We keep lastPersisted, so the next write appends the changes again. Applying a record twice is harmless.
+            log.error("Couldn't append to log of {}", storeName, e);
+            return;
+        } finally {
+            numRecords += numChanges;
+        }
+        lastPersisted = entries;
+        if (isMigration) {
+            // If the migration failed, we repeat it at the next write, starting with a new snapshot
+            hasLog = true;
+            deleteStoreFile();
+        }
+
+        Metrics.latencyHistogram("bisq_persistence_write_ms", "Time for writing a store to disk",
+                        "store", storeName)
+                .observeMillisSince(ts);
+        Metrics.counter("bisq_persistence_log_bytes_written_total", "Bytes appended to the persistence log",
+                        "store", storeName)
+                .add(segmentLog.getBytesWritten() - bytesWrittenBefore);
+
+        maybeCompact();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @SuppressWarnings("unchecked")
+    private static <V> void collectChanges(Map<ByteArray, V> previous,
+                                           Map<ByteArray, V> current,
+                                           List<Map.Entry<ByteArray, V>> puts,
+                                           List<ByteArray> removes) {
+        if (previous instanceof FixedSizeByteArrayMap && current instanceof FixedSizeByteArrayMap) {
+            ((FixedSizeByteArrayMap<V>) current).forEachChange((FixedSizeByteArrayMap<V>) previous,
+                    (key, value) -> puts.add(Map.entry(key, value)),
+                    removes::add);
+            return;
+        }
+
+        current.forEach((key, value) -> {
+            if (previous.get(key) != value) {
+                puts.add(Map.entry(key, value));
+            }
+        });
+        previous.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(removes::add);
+    }
+
+    // The entries of the store file are in the log now. If we kept the file, it would be read again if the log got
+    // lost, and it would hold outdated data.
+    private void deleteStoreFile() {
+        try {
+            if (Files.deleteIfExists(getStorePath())) {
+                log.info("Deleted {} as its data got migrated to the log", storeName);
+            }
+        } catch (IOException e) {
+            log.warn("Couldn't delete {} after the migration to the log", storeName, e);
+        }
+    }
+
+    private void maybeCompact() {
+        if (compactionInProgress ||
+                numRecords < MIN_RECORDS_FOR_COMPACTION ||
+                numRecords < 2L * lastPersisted.size()) {
+            return;
+        }
+
+        long snapshotSegmentId;
+        try {
+            snapshotSegmentId = segmentLog.reserveSnapshotSegmentId();
+        } catch (IOException e) {
+            log.error("Couldn't start compaction of {}", storeName, e);
+            return;
+        }
+        compactionInProgress = true;
+        long numRecordsBefore = numRecords;
+        // Snapshot record and one record per entry
+        long numRecordsAfter = lastPersisted.size() + 1;
+        numRecords = numRecordsAfter;
+        Map<ByteArray, V> snapshot = lastPersisted;
+        CompletableFuture.runAsync(() -> compact(snapshot, snapshotSegmentId), compactionExecutor)
+                .whenComplete((nil, throwable) -> {
+                    synchronized (this) {
+                        compactionInProgress = false;
+                        if (throwable != null) {
+                            log.error("Compaction of {} failed", storeName, throwable);
+                            // The old segments are still there
+                            numRecords += numRecordsBefore - numRecordsAfter;
+                        } else {
+                            log.info("Compacted log of {} from {} to {} records", storeName, numRecordsBefore, snapshot.size());
+                        }
+                    }
+                });
+    }
+
+    private void compact(Map<ByteArray, V> snapshot, long snapshotSegmentId) {
+        Thread.currentThread().setName("Persistence.compact-" + storeName);
+        long ts = System.nanoTime();
+        Iterator<Map.Entry<byte[], byte[]>> entries = snapshot.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey().getBytes(), serializeValue(entry.getValue())))
+                .iterator();
+        try {
+            segmentLog.writeSnapshot(snapshotSegmentId, entries);
+        } catch (IOException e) {
+            throw new CouldNotSerializePersistableStore(e);
+        }
+        Metrics.latencyHistogram("bisq_persistence_log_compaction_ms", "Time for compacting the persistence log",
+                        "store", storeName)
+                .observeMillisSince(ts);
+    }
+}
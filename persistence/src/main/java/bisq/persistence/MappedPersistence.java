@@ -0,0 +1,177 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence;
+
+import bisq.common.data.ByteArray;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Persistence for stores which are a map of entries, using the {@link MappedStoreFile} format. At read, only the index
+ * of the file is read and the store is created with loaders for the values, which deserialize a value at its first
+ * access. So reading a large store does not delay the startup, the values get loaded when they are needed or by a
+ * warm-up of the store in the background.
+ * <p>
+ * If there is no mapped file yet, we read the store file of the default persistence. The first write creates the
+ * mapped file.
+ * <p>
+ * On Windows, a mapped file cannot be replaced until the mapping got released, which happens after all values are
+ * loaded and the garbage collector has collected the mapping. A write failing for that reason is logged and the next
+ * write tries again.
+ */
+@Slf4j
+public abstract class MappedPersistence<V, T extends PersistableStore<T>> extends Persistence<T> {
+    public static final String MAPPED_EXTENSION = ".mapped";
+
+    private final Path mappedStorePath;
+    private final String storeName;
+    private final Counter loadedValuesCounter;
+
+    public MappedPersistence(String directory, String fileName) {
+        this(directory, fileName, Optional.empty());
+    }
+
+    public MappedPersistence(String directory, String fileName, Optional<DbSubDirectory> dbSubDirectory) {
+        super(directory, fileName, dbSubDirectory);
+        storeName = getStorePath().getFileName().toString();
+        mappedStorePath = getMappedStorePath(getStorePath());
+        loadedValuesCounter = Metrics.counter("bisq_persistence_lazy_values_loaded_total",
+                "Number of values loaded lazily from a mapped store file",
+                "store", storeName);
+    }
+
+    public static Path getMappedStorePath(Path storePath) {
+        String fileName = storePath.getFileName().toString();
+        if (fileName.endsWith(EXTENSION)) {
+            fileName = fileName.substring(0, fileName.length() - EXTENSION.length());
+        }
+        return storePath.resolveSibling(fileName + MAPPED_EXTENSION);
+    }
+
+    /**
+     * Passes all entries of the store. Values which are not loaded yet are passed with the loader created at read, so
+     * that we can write them without deserializing them.
+     */
+    protected abstract void forEachEntry(T persistableStore,
+                                         BiConsumer<ByteArray, V> valueConsumer,
+                                         BiConsumer<ByteArray, Supplier<? extends V>> loaderConsumer);
+
+    protected abstract byte[] serializeValue(V value);
+
+    protected abstract V deserializeValue(byte[] bytes) throws Exception;
+
+    /**
+     * @param loaders The loaders return null if a value could not be deserialized.
+     */
+    protected abstract T createStore(Map<ByteArray, Supplier<V>> loaders);
+
+    @Override
+    protected Optional<T> read() {
+        if (!Files.exists(mappedStorePath)) {
+            return super.read();
+        }
+
+        long ts = System.nanoTime();
+        MappedStoreFile mappedStoreFile;
+        try {
+            mappedStoreFile = MappedStoreFile.open(mappedStorePath);
+        } catch (IOException e) {
+            log.error("Couldn't read {}. We try to read the default store file.", mappedStorePath, e);
+            return super.read();
+        }
+
+        Map<ByteArray, Supplier<V>> loaders = new HashMap<>(mappedStoreFile.size() * 4 / 3 + 1);
+        for (int i = 0; i < mappedStoreFile.size(); i++) {
+            loaders.put(new ByteArray(mappedStoreFile.getKey(i)), new ValueLoader(mappedStoreFile, i));
+        }
+        T store = createStore(loaders);
+        Metrics.latencyHistogram("bisq_persistence_read_ms", "Time for reading a store from disk",
+                        "store", storeName)
+                .observeMillisSince(ts);
+        log.info("Read index of {} with {} entries in {} ms", storeName, loaders.size(), (System.nanoTime() - ts) / 1_000_000);
+        return Optional.of(store);
+    }
+
+    @Override
+    protected void persist(T persistableStore) {
+        long ts = System.nanoTime();
+        List<Map.Entry<byte[], byte[]>> serialized = new ArrayList<>();
+        forEachEntry(persistableStore,
+                (key, value) -> serialized.add(Map.entry(key.getBytes(), serializeValue(value))),
+                (key, loader) -> {
+                    // A value which is not loaded is unchanged, so we copy its bytes from the mapped file
+                    Optional<byte[]> bytes = loader instanceof MappedPersistence<?, ?>.ValueLoader
+                            ? ((MappedPersistence<?, ?>.ValueLoader) loader).readBytes()
+                            : Optional.ofNullable(loader.get()).map(this::serializeValue);
+                    bytes.ifPresent(value -> serialized.add(Map.entry(key.getBytes(), value)));
+                });
+        try {
+            MappedStoreFile.write(mappedStorePath, serialized);
+        } catch (IOException e) {
+            log.error("Couldn't write {}", mappedStorePath, e);
+            return;
+        }
+        Metrics.latencyHistogram("bisq_persistence_write_ms", "Time for writing a store to disk",
+                        "store", storeName)
+                .observeMillisSince(ts);
+    }
+
+    private final class ValueLoader implements Supplier<V> {
+        private final MappedStoreFile mappedStoreFile;
+        private final int index;
+
+        private ValueLoader(MappedStoreFile mappedStoreFile, int index) {
+            this.mappedStoreFile = mappedStoreFile;
+            this.index = index;
+        }
+
+        @Override
+        public V get() {
+            try {
+                V value = deserializeValue(mappedStoreFile.readValue(index));
+                loadedValuesCounter.increment();
+                return value;
+            } catch (Exception e) {
+                log.warn("Couldn't load value {} of {}. We ignore that entry.", index, storeName, e);
+                return null;
+            }
+        }
+
+        // A value which does not match its checksum would be ignored at loading, so we do not write it
+        private Optional<byte[]> readBytes() {
+            try {
+                return Optional.of(mappedStoreFile.readValue(index));
+            } catch (IOException e) {
+                log.warn("Couldn't read value {} of {}. We ignore that entry.", index, storeName, e);
+                return Optional.empty();
+            }
+        }
+    }
+}
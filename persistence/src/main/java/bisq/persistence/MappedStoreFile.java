@@ -0,0 +1,194 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence;
+
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * File format for key-value stores which can be read without deserializing the values. The file is memory-mapped and
+ * only the index is read when opening it, values are read on request.
+ * <p>
+ * Layout: magic (int), number of entries (int), CRC32 of the index (int), the index and the values. An index entry is
+ * the key length (int), the key, the offset (int) and length (int) of the value and the CRC32 of the value (int).
+ */
+public final class MappedStoreFile {
+    private static final int MAGIC = 0x42534d31; // "BSM1"
+    private static final int HEADER_SIZE = 12;
+    private static final int INDEX_ENTRY_SIZE = 16;
+    // Values are accessed via int offsets in a MappedByteBuffer
+    private static final long MAX_FILE_SIZE = Integer.MAX_VALUE;
+
+    @Getter
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final byte[][] keys;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int[] checksums;
+
+    /**
+     * Writes the entries to a temp file and renames it to the given path once complete.
+     */
+    public static void write(Path path, List<Map.Entry<byte[], byte[]>> entries) throws IOException {
+        long indexSize = 0;
+        long valuesSize = 0;
+        for (Map.Entry<byte[], byte[]> entry : entries) {
+            indexSize += INDEX_ENTRY_SIZE + entry.getKey().length;
+            valuesSize += entry.getValue().length;
+        }
+        if (HEADER_SIZE + indexSize + valuesSize > MAX_FILE_SIZE) {
+            throw new IOException("Store is too large for " + path);
+        }
+
+        ByteBuffer index = ByteBuffer.allocate((int) indexSize);
+        CRC32 crc32 = new CRC32();
+        int offset = (int) (HEADER_SIZE + indexSize);
+        for (Map.Entry<byte[], byte[]> entry : entries) {
+            byte[] value = entry.getValue();
+            crc32.reset();
+            crc32.update(value);
+            index.putInt(entry.getKey().length)
+                    .put(entry.getKey())
+                    .putInt(offset)
+                    .putInt(value.length)
+                    .putInt((int) crc32.getValue());
+            offset += value.length;
+        }
+        crc32.reset();
+        crc32.update(index.array());
+
+        Files.createDirectories(path.getParent());
+        Path tempPath = path.resolveSibling(PersistableStoreFileManager.TEMP_FILE_PREFIX + path.getFileName());
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(entries.size());
+            outputStream.writeInt((int) crc32.getValue());
+            outputStream.write(index.array());
+            for (Map.Entry<byte[], byte[]> entry : entries) {
+                outputStream.write(entry.getValue());
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the file and reads the index.
+     *
+     * @throws IOException If the file cannot be read or the index is corrupted.
+     */
+    public static MappedStoreFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > MAX_FILE_SIZE) {
+                throw new IOException("Invalid size " + size + " of " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            return new MappedStoreFile(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    private MappedStoreFile(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Unknown format of " + path);
+        }
+        int numEntries = buffer.getInt(4);
+        int indexChecksum = buffer.getInt(8);
+        if (numEntries < 0 || (long) numEntries * INDEX_ENTRY_SIZE > buffer.capacity() - HEADER_SIZE) {
+            throw new IOException("Invalid number of entries " + numEntries + " in " + path);
+        }
+
+        keys = new byte[numEntries][];
+        offsets = new int[numEntries];
+        lengths = new int[numEntries];
+        checksums = new int[numEntries];
+        ByteBuffer index = buffer.duplicate();
+        index.position(HEADER_SIZE);
+        try {
+            for (int i = 0; i < numEntries; i++) {
+                int keyLength = index.getInt();
+                if (keyLength < 0 || keyLength > index.remaining()) {
+                    throw new IOException("Invalid key length in index of " + path);
+                }
+                keys[i] = new byte[keyLength];
+                index.get(keys[i]);
+                offsets[i] = index.getInt();
+                lengths[i] = index.getInt();
+                checksums[i] = index.getInt();
+                if (offsets[i] < 0 || lengths[i] < 0 || (long) offsets[i] + lengths[i] > buffer.capacity()) {
+                    throw new IOException("Invalid value position in index of " + path);
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted index of " + path, e);
+        }
+
+        CRC32 crc32 = new CRC32();
+        ByteBuffer indexBytes = buffer.duplicate();
+        indexBytes.position(HEADER_SIZE).limit(index.position());
+        crc32.update(indexBytes);
+        if ((int) crc32.getValue() != indexChecksum) {
+            throw new IOException("Index checksum mismatch in " + path);
+        }
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public byte[] getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Copies the value from the mapped file. Can be called concurrently.
+     *
+     * @throws IOException If the value does not match its checksum.
+     */
+    public byte[] readValue(int index) throws IOException {
+        byte[] value = new byte[lengths[index]];
+        // Absolute reads on a duplicate, as the position of a shared buffer is not thread safe
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offsets[index]);
+        duplicate.get(value);
+        CRC32 crc32 = new CRC32();
+        crc32.update(value);
+        if ((int) crc32.getValue() != checksums[index]) {
+            throw new IOException("Checksum mismatch of value " + index + " in " + path);
+        }
+        return value;
+    }
+}
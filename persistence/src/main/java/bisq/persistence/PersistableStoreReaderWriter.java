@@ -17,28 +17,66 @@
 
 package bisq.persistence;
 
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.Metrics;
 import bisq.common.util.FileUtils;
 import com.google.protobuf.Any;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Optional;
-
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads and writes a store as delimited Any protobuf. If compression is enabled, the protobuf is written deflate
+ * compressed after a header of a magic and the compression format. At read, the format is detected by the header, so
+ * that files are readable independent of the setting. A raw file cannot start with the magic, as the second byte of
+ * a delimited Any with a length below 128 is the tag of its type_url field (0x0A).
+ */
 @Slf4j
 public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
+    private static final byte[] COMPRESSED_MAGIC = {'B', 'S', 'Q', 'Z'};
+    private static final int FORMAT_DEFLATE = 1;
 
     private final PersistableStoreFileManager storeFileManager;
     private final Path storeFilePath;
     private final Path parentDirectoryPath;
+    private final boolean useCompression;
+    @Nullable
+    private final Histogram compressionTimeHistogram;
+    private volatile double compressionRatio = 1;
 
     public PersistableStoreReaderWriter(PersistableStoreFileManager storeFileManager) {
+        this(storeFileManager, false);
+    }
+
+    public PersistableStoreReaderWriter(PersistableStoreFileManager storeFileManager, boolean useCompression) {
         this.storeFileManager = storeFileManager;
         this.storeFilePath = storeFileManager.getStoreFilePath();
         this.parentDirectoryPath = storeFilePath.getParent();
+        this.useCompression = useCompression;
+
+        if (useCompression) {
+            String storeName = storeFilePath.getFileName().toString();
+            compressionTimeHistogram = Metrics.latencyHistogram("bisq_persistence_compression_ms",
+                    "Time for serializing and compressing a store", "store", storeName);
+            Metrics.gauge("bisq_persistence_compression_ratio", "Uncompressed size divided by compressed size of the last write",
+                    () -> compressionRatio, "store", storeName);
+        } else {
+            compressionTimeHistogram = null;
+        }
     }
 
     public synchronized Optional<T> read() {
@@ -63,10 +101,14 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
     public synchronized void write(T persistableStore) {
         storeFileManager.createParentDirectoriesIfNotExisting();
 
+        long ts = System.nanoTime();
         try {
             writeStoreToTempFile(persistableStore);
             storeFileManager.tryToBackupCurrentStoreFile();
             storeFileManager.renameTempFileToCurrentFile();
+            Metrics.latencyHistogram("bisq_persistence_write_ms", "Time for writing a store to disk",
+                            "store", storeFilePath.getFileName().toString())
+                    .observeMillisSince(ts);
 
         } catch (CouldNotSerializePersistableStore e) {
             log.error("Couldn't serialize " + persistableStore, e);
@@ -79,12 +121,27 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
 
     private PersistableStore<?> readStoreFromFile() throws IOException {
         File storeFile = storeFilePath.toFile();
-        try (FileInputStream fileInputStream = new FileInputStream(storeFile)) {
-            Any any = Any.parseDelimitedFrom(fileInputStream);
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(storeFile))) {
+            Any any = Any.parseDelimitedFrom(isCompressed(inputStream) ? new InflaterInputStream(inputStream) : inputStream);
             return PersistableStore.fromAny(any);
         }
     }
 
+    // Consumes the header if the file is compressed, otherwise the stream is reset to its start
+    private static boolean isCompressed(InputStream inputStream) throws IOException {
+        inputStream.mark(COMPRESSED_MAGIC.length + 1);
+        byte[] header = inputStream.readNBytes(COMPRESSED_MAGIC.length);
+        if (!Arrays.equals(header, COMPRESSED_MAGIC)) {
+            inputStream.reset();
+            return false;
+        }
+        int format = inputStream.read();
+        if (format != FORMAT_DEFLATE) {
+            throw new IOException("Unsupported compression format " + format);
+        }
+        return true;
+    }
+
     private void tryToBackupCorruptedStoreFile() {
         try {
             FileUtils.backupCorruptedFile(
@@ -109,9 +166,38 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
             // external PersistableStore implementations (at deserialization we would have an issue otherwise as
             // it requires static access).
             Any any = persistableStore.toAny();
-            any.writeDelimitedTo(fileOutputStream);
+            if (useCompression) {
+                writeCompressed(any, fileOutputStream);
+            } else {
+                any.writeDelimitedTo(fileOutputStream);
+            }
         } catch (IOException e) {
             throw new CouldNotSerializePersistableStore(e);
         }
     }
+
+    private void writeCompressed(Any any, FileOutputStream fileOutputStream) throws IOException {
+        long ts = System.nanoTime();
+        fileOutputStream.write(COMPRESSED_MAGIC);
+        fileOutputStream.write(FORMAT_DEFLATE);
+        // Periodic rewrites of large stores favour speed over the last few percent of compression
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(fileOutputStream, deflater);
+            OutputStream outputStream = new BufferedOutputStream(deflaterOutputStream);
+            any.writeDelimitedTo(outputStream);
+            outputStream.flush();
+            deflaterOutputStream.finish();
+            if (deflater.getBytesWritten() > 0) {
+                compressionRatio = (double) deflater.getBytesRead() / deflater.getBytesWritten();
+            }
+        } finally {
+            deflater.end();
+        }
+        if (compressionTimeHistogram != null) {
+            compressionTimeHistogram.observeMillisSince(ts);
+        }
+        log.debug("Wrote {} with compression ratio {} in {} ms", storeFilePath.getFileName(),
+                String.format("%.2f", compressionRatio), (System.nanoTime() - ts) / 1_000_000);
+    }
 }
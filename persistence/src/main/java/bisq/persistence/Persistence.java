@@ -17,7 +17,7 @@
 
 package bisq.persistence;
 
-import bisq.common.threading.ExecutorFactory;
+import bisq.common.application.StartupTimeline;
 import bisq.common.util.StringUtils;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -25,25 +25,39 @@ import lombok.extern.slf4j.Slf4j;
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
 @Slf4j
 public class Persistence<T extends PersistableStore<T>> {
     public static final String EXTENSION = ".protobuf";
 
-    private static final ExecutorService executorService = ExecutorFactory.newSingleThreadExecutor("Persistence-io-pool");
-
     @Getter
     private final Path storePath;
+    @Getter
+    private final Optional<DbSubDirectory> dbSubDirectory;
 
     private final PersistableStoreReaderWriter<T> persistableStoreReaderWriter;
+    private final PersistenceScheduler scheduler;
 
     public Persistence(String directory, String fileName) {
+        this(directory, fileName, Optional.empty());
+    }
+
+    public Persistence(String directory, String fileName, Optional<DbSubDirectory> dbSubDirectory) {
+        this(directory, fileName, dbSubDirectory, false);
+    }
+
+    /**
+     * @param useCompression If true, the store is written compressed. Compressed and uncompressed files are both
+     *                       readable independent of that setting.
+     */
+    public Persistence(String directory, String fileName, Optional<DbSubDirectory> dbSubDirectory, boolean useCompression) {
         String storageFileName = StringUtils.camelCaseToSnakeCase(fileName);
         storePath = Path.of(directory, storageFileName + EXTENSION);
+        this.dbSubDirectory = dbSubDirectory;
         var storeFileManager = new PersistableStoreFileManager(storePath);
-        persistableStoreReaderWriter = new PersistableStoreReaderWriter<>(storeFileManager);
+        persistableStoreReaderWriter = new PersistableStoreReaderWriter<>(storeFileManager, useCompression);
+        scheduler = new PersistenceScheduler(dbSubDirectory);
     }
 
     public CompletableFuture<Optional<T>> readAsync(Consumer<T> consumer) {
@@ -51,18 +65,38 @@ public class Persistence<T extends PersistableStore<T>> {
     }
 
     public CompletableFuture<Optional<T>> readAsync() {
-        return CompletableFuture.supplyAsync(persistableStoreReaderWriter::read, executorService);
+        return scheduler.submit(() -> {
+            long ts = System.nanoTime();
+            Optional<T> result = read();
+            StartupTimeline.record("read", storePath.getFileName().toString(), ts);
+            return result;
+        });
     }
 
     public CompletableFuture<Void> persistAsync(T serializable) {
-        return CompletableFuture.runAsync(() -> {
+        return scheduler.submit(() -> {
             Thread.currentThread().setName("Persistence.persist-" + storePath);
             persist(serializable);
-        }, executorService);
+            return null;
+        });
     }
 
+    /**
+     * @return A future which completes after all previously submitted tasks of that store are done.
+     */
     public CompletableFuture<Void> flush() {
-        return CompletableFuture.runAsync(() -> Thread.currentThread().setName("Flush-Persistence.persist-" + storePath), executorService);
+        return scheduler.submit(() -> {
+            Thread.currentThread().setName("Flush-Persistence.persist-" + storePath);
+            return null;
+        });
+    }
+
+    int getPriority() {
+        return PersistenceScheduler.getPriority(dbSubDirectory);
+    }
+
+    protected Optional<T> read() {
+        return persistableStoreReaderWriter.read();
     }
 
     protected void persist(T persistableStore) {
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.Metrics;
+import bisq.common.threading.PriorityThreadPool;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Schedules the IO tasks of one Persistence instance (a lane) on a pool shared by all stores. Tasks of the same store
+ * are executed in the order they got submitted and never concurrently, while tasks of different stores run in
+ * parallel. Stores for private data, settings and wallets go ahead of the network data and cache stores, so that a
+ * large network data store write does not delay e.g. the write of a trade.
+ */
+@Slf4j
+class PersistenceScheduler {
+    static final int HIGH_PRIORITY = 0;
+    static final int LOW_PRIORITY = 1;
+    private static final int NUM_THREADS = 4;
+
+    private static final PriorityThreadPool POOL = new PriorityThreadPool("Persistence-io-pool", NUM_THREADS);
+
+    static {
+        Metrics.gauge("bisq_persistence_pool_active_threads", "Number of threads of the persistence pool executing a task",
+                POOL::getActiveCount);
+        Metrics.gauge("bisq_persistence_pool_queue_size", "Number of tasks waiting in the persistence pool queue",
+                POOL::getQueueSize);
+    }
+
+    static int getPriority(Optional<DbSubDirectory> dbSubDirectory) {
+        return dbSubDirectory
+                .map(value -> value == DbSubDirectory.NETWORK_DB || value == DbSubDirectory.CACHE ? LOW_PRIORITY : HIGH_PRIORITY)
+                .orElse(HIGH_PRIORITY);
+    }
+
+    private final int priority;
+    private final Histogram queueWaitHistogram;
+    private CompletableFuture<?> lastTask = CompletableFuture.completedFuture(null);
+
+    PersistenceScheduler(Optional<DbSubDirectory> dbSubDirectory) {
+        priority = getPriority(dbSubDirectory);
+        String lane = dbSubDirectory.map(value -> value.name().toLowerCase()).orElse("other");
+        queueWaitHistogram = Metrics.latencyHistogram("bisq_persistence_queue_wait_ms",
+                "Time a persistence task waited until it got executed", "db", lane);
+    }
+
+    synchronized <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        // We wait for the previous task of that store, independent of its result
+        CompletableFuture<T> future = lastTask
+                .handle((result, throwable) -> null)
+                .thenCompose(nil -> POOL.supplyAsync(() -> {
+                    queueWaitHistogram.observeMillisSince(queuedAt);
+                    return task.get();
+                }, priority));
+        lastTask = future;
+        return future;
+    }
+}
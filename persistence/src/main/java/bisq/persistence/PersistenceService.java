@@ -23,20 +23,33 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 @Slf4j
 public class PersistenceService {
     @Getter
     private final String baseDir;
+    // If true, the stores of the network data and the cache are written compressed
+    private final boolean useCompression;
     @Getter
     protected final List<PersistenceClient<? extends PersistableProto>> clients = new CopyOnWriteArrayList<>();
     protected final List<Persistence<? extends PersistableProto>> persistenceInstances = new CopyOnWriteArrayList<>();
+    private final Map<PersistenceClient<? extends PersistableProto>, CompletableFuture<Boolean>> readFutures = new ConcurrentHashMap<>();
 
     public PersistenceService(String baseDir) {
+        this(baseDir, false);
+    }
+
+    public PersistenceService(String baseDir, boolean useCompression) {
         this.baseDir = baseDir;
+        this.useCompression = useCompression;
     }
 
     public <T extends PersistableStore<T>> Persistence<T> getOrCreatePersistence(PersistenceClient<T> client,
@@ -56,33 +69,57 @@ public class PersistenceService {
                                                                                  String subDir,
                                                                                  String fileName,
                                                                                  PersistableStore<T> persistableStore) {
+        Optional<DbSubDirectory> dbSubDirectory = DbSubDirectory.fromSubDir(subDir);
+        // The network data and cache stores are large and compress well (e.g. chat messages and offers)
+        boolean compress = useCompression && dbSubDirectory
+                .filter(value -> value == DbSubDirectory.NETWORK_DB || value == DbSubDirectory.CACHE)
+                .isPresent();
+        Persistence<T> persistence = new Persistence<>(baseDir + File.separator + subDir,
+                fileName,
+                dbSubDirectory,
+                compress);
+        return addPersistence(client, persistence, persistableStore);
+    }
+
+    /**
+     * Registers a custom Persistence implementation (e.g. LogStructuredPersistence) for the given client.
+     */
+    public <T extends PersistableStore<T>> Persistence<T> addPersistence(PersistenceClient<T> client,
+                                                                        Persistence<T> persistence,
+                                                                        PersistableStore<T> persistableStore) {
         PersistableStoreResolver.addResolver(persistableStore.getResolver());
         clients.add(client);
-        Persistence<T> persistence = new Persistence<>(baseDir + File.separator + subDir, fileName);
         persistenceInstances.add(persistence);
         return persistence;
     }
 
+    /**
+     * Reads all stores in parallel. Stores with private data and settings are read before the network data stores
+     * (see PersistenceScheduler), so services not depending on the network data can start before the network data are
+     * read (see whenLocalDataRead and whenNetworkDataRead).
+     */
     public CompletableFuture<Boolean> readAllPersisted() {
+        // The scheduler orders by priority only the tasks waiting for a thread, so we submit by priority as well
         return CompletableFutureUtils.allOf(clients.stream()
-                        .map(persistenceClient -> persistenceClient.readPersisted()
-                                .whenComplete((optionalResult, throwable) -> {
-                                    String storagePath = persistenceClient.getPersistence().getStorePath()
-                                            .toAbsolutePath().toString();
-                                    if (throwable == null) {
-                                        if (optionalResult.isPresent()) {
-                                            log.info("Read persisted data from {}", storagePath);
-                                        } else {
-                                            log.debug("No persisted data at {} found", storagePath);
-                                        }
-                                    } else {
-                                        log.error("Error at read persisted data from: {}", storagePath);
-                                        throwable.printStackTrace();
-                                    }
-                                })))
+                        .sorted(Comparator.comparingInt(persistenceClient -> persistenceClient.getPersistence().getPriority()))
+                        .map(persistenceClient -> readFutures.computeIfAbsent(persistenceClient, this::readPersisted)))
                 .thenApply(list -> true);
     }
 
+    /**
+     * @return A future which completes once all stores outside the network data directory are read.
+     */
+    public CompletableFuture<Boolean> whenLocalDataRead() {
+        return whenRead(dbSubDirectory -> dbSubDirectory.filter(value -> value == DbSubDirectory.NETWORK_DB).isEmpty());
+    }
+
+    /**
+     * @return A future which completes once all network data stores are read.
+     */
+    public CompletableFuture<Boolean> whenNetworkDataRead() {
+        return whenRead(dbSubDirectory -> dbSubDirectory.filter(value -> value == DbSubDirectory.NETWORK_DB).isPresent());
+    }
+
     public CompletableFuture<Boolean> persistAllClients() {
         return CompletableFutureUtils.allOf(clients.stream()
                         .map(persistenceClient -> persistenceClient.persist()
@@ -95,4 +132,31 @@ public class PersistenceService {
                                 })))
                 .thenApply(list -> true);
     }
-}
\ No newline at end of file
+
+    private CompletableFuture<Boolean> readPersisted(PersistenceClient<? extends PersistableProto> persistenceClient) {
+        return persistenceClient.readPersisted()
+                .whenComplete((optionalResult, throwable) -> {
+                    String storagePath = persistenceClient.getPersistence().getStorePath()
+                            .toAbsolutePath().toString();
+                    if (throwable == null) {
+                        if (optionalResult.isPresent()) {
+                            log.info("Read persisted data from {}", storagePath);
+                        } else {
+                            log.debug("No persisted data at {} found", storagePath);
+                        }
+                    } else {
+                        log.error("Error at read persisted data from: {}", storagePath);
+                        throwable.printStackTrace();
+                    }
+                })
+                .thenApply(optionalResult -> true);
+    }
+
+    // Only covers the stores read by readAllPersisted
+    private CompletableFuture<Boolean> whenRead(Predicate<Optional<DbSubDirectory>> dbSubDirectoryFilter) {
+        return CompletableFutureUtils.allOf(readFutures.entrySet().stream()
+                        .filter(entry -> dbSubDirectoryFilter.test(entry.getKey().getPersistence().getDbSubDirectory()))
+                        .map(Map.Entry::getValue))
+                .thenApply(list -> true);
+    }
+}
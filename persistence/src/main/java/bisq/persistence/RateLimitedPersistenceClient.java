@@ -17,61 +17,125 @@
 
 package bisq.persistence;
 
-import lombok.Getter;
+import bisq.common.metrics.Metrics;
+import bisq.common.threading.ExecutorFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * This implementation of PersistenceClient drops persist requests if they happen too frequently.
- * It registers a shutdown hook and persists at shutdown. If the JVM got terminated non-gracefully
- * (e.g. kill signal or JVM crash) the shutdown hook is not executed (but any other approach to write in such cases
- * would fail as well).
- * As there is no guarantee that the last data are persisted in case of such unexpected terminations, it should be only
- * used if data loss is not critical (e.g. network data) and when write frequency is rather high.
+ * This implementation of PersistenceClient coalesces frequent persist requests. A persist call marks the store as
+ * changed and the store gets written once no further change happened for the quiet period, but latest after the max.
+ * staleness since the first unwritten change. So a burst of changes results in one write which contains the last
+ * change.
+ * <p>
+ * Changes which are not written yet get lost if the application terminates before. Owners have to call flush at
+ * shutdown. It should be only used if data loss is not critical (e.g. network data) and when write frequency is
+ * rather high.
  */
 @Slf4j
 public abstract class RateLimitedPersistenceClient<T extends PersistableStore<T>> implements PersistenceClient<T> {
-    private volatile long lastWrite;
-    @Getter
-    private volatile boolean dropped;
-    private volatile boolean writeInProgress;
+    private static final ScheduledExecutorService writeScheduler = ExecutorFactory.newSingleThreadScheduledExecutor("Persistence-write-scheduler");
+
+    // All fields are guarded by this. firstChangeTime is 0 if there is no unwritten change.
+    private long firstChangeTime;
+    private long lastChangeTime;
+    private CompletableFuture<Boolean> pendingWrite = new CompletableFuture<>();
 
     public RateLimitedPersistenceClient() {
-        //todo (Critical) check if we want to use ShutdownHook here
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            Thread.currentThread().setName("RateLimitedPersistenceClient-shutdownHook-" + getPersistence().getStorePath());
-            persistOnShutdown();
-        }));
     }
 
+    /**
+     * @return A future which completes once the write containing that change is done.
+     */
     @Override
-    public CompletableFuture<Boolean> persist() {
-        boolean tooFast = System.currentTimeMillis() - lastWrite < getMaxWriteRateInMs();
-        dropped = tooFast || writeInProgress;
-        if (dropped) {
-            return CompletableFuture.completedFuture(false);
+    public synchronized CompletableFuture<Boolean> persist() {
+        lastChangeTime = System.currentTimeMillis();
+        if (firstChangeTime == 0) {
+            firstChangeTime = lastChangeTime;
+            scheduleWrite(getQuietPeriodInMs());
         } else {
-            lastWrite = System.currentTimeMillis();
-            writeInProgress = true;
-            dropped = false;
-            return getPersistence()
-                    .persistAsync(getPersistableStore().getClone())
-                    .handle((r, t) -> {
-                        writeInProgress = false;
-                        return true;
-                    });
+            Metrics.counter("bisq_persistence_coalesced_writes_total",
+                            "Number of persist requests which got merged into a pending write",
+                            "store", getStoreName())
+                    .increment();
+        }
+        return pendingWrite;
+    }
+
+    /**
+     * Writes the unwritten changes without waiting for the quiet period.
+     *
+     * @return A future which completes once all writes of that store are done.
+     */
+    public CompletableFuture<Boolean> flush() {
+        synchronized (this) {
+            if (firstChangeTime != 0) {
+                return write();
+            }
         }
+        return getPersistence().flush().thenApply(nil -> true);
     }
 
-    protected long getMaxWriteRateInMs() {
+    /**
+     * Time without further changes after which we write the store.
+     */
+    protected long getQuietPeriodInMs() {
         return 1000;
     }
 
-    private void persistOnShutdown() {
-        if (dropped) {
-            dropped = false;
-            getPersistence().persist(getPersistableStore().getClone());
+    /**
+     * Max. time after the first unwritten change until we write the store, even if changes keep coming in.
+     */
+    protected long getMaxStalenessInMs() {
+        return 10_000;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void scheduleWrite(long delayMs) {
+        writeScheduler.schedule(this::maybeWrite, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void maybeWrite() {
+        if (firstChangeTime == 0) {
+            // Got flushed in the meantime
+            return;
+        }
+        long dueTime = Math.min(lastChangeTime + getQuietPeriodInMs(), firstChangeTime + getMaxStalenessInMs());
+        long remaining = dueTime - System.currentTimeMillis();
+        if (remaining > 0) {
+            scheduleWrite(remaining);
+        } else {
+            write();
         }
     }
-}
\ No newline at end of file
+
+    // Must be called while holding the lock, so that no change gets between the clone and the reset of the state
+    private CompletableFuture<Boolean> write() {
+        Metrics.latencyHistogram("bisq_persistence_write_delay_ms",
+                        "Time from the first unwritten change until the store got written",
+                        "store", getStoreName())
+                .observe(System.currentTimeMillis() - firstChangeTime);
+        firstChangeTime = 0;
+        CompletableFuture<Boolean> future = pendingWrite;
+        pendingWrite = new CompletableFuture<>();
+        getPersistence().persistAsync(getPersistableStore().getClone())
+                .whenComplete((nil, throwable) -> {
+                    if (throwable != null) {
+                        log.error("Writing {} failed", getStoreName(), throwable);
+                    }
+                    future.complete(throwable == null);
+                });
+        return future;
+    }
+
+    private String getStoreName() {
+        return getPersistence().getStorePath().getFileName().toString();
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of put and remove records for a key-value store, split into segment files which are replayed in the
+ * order of their id.
+ * <p>
+ * Each record is framed as: payload length (int), CRC32 of the payload (int), payload. The payload is the record
+ * type (byte), the key length (int), the key and for puts the value. At replay, an incomplete or corrupted record (e.g.
+ * a torn write at a crash) ends the replay. Later records could depend on the lost ones (e.g. a put after a lost
+ * remove), thus we truncate the segment at the broken record and delete the later segments. After startup, we always
+ * append to a new segment.
+ * <p>
+ * A snapshot segment starts with a snapshot record which clears all state from previous segments. It is written to a
+ * temp file and renamed once complete, after that the older segments are deleted. Appends go to a new segment in the
+ * meantime, so compaction does not block writes.
+ */
+@Slf4j
+public class SegmentLog {
+    public static final String SEGMENT_PREFIX = "segment_";
+    public static final String SEGMENT_EXTENSION = ".log";
+    private static final String TEMP_FILE_PREFIX = "temp_";
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte SNAPSHOT = 3;
+    private static final int HEADER_SIZE = 8;
+    private static final int MIN_PAYLOAD_SIZE = 5;
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final class SegmentReplay {
+        private final long numRecords;
+        // Size of the valid records, or -1 if the segment has no broken record
+        private final long validSize;
+
+        private SegmentReplay(long numRecords, long validSize) {
+            this.numRecords = numRecords;
+            this.validSize = validSize;
+        }
+
+        private boolean isBroken() {
+            return validSize >= 0;
+        }
+    }
+
+    public interface Handler {
+        void onPut(byte[] key, byte[] value);
+
+        void onRemove(byte[] key);
+
+        void onSnapshot();
+    }
+
+    @Getter
+    private final Path directory;
+    private final long maxSegmentSize;
+    private final CRC32 crc32 = new CRC32();
+    private long lastSegmentId;
+    @Nullable
+    private DataOutputStream activeSegment;
+    private long activeSegmentSize;
+    @Getter
+    private volatile long bytesWritten;
+
+    public SegmentLog(Path directory, long maxSegmentSize) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        lastSegmentId = listSegmentIds().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    public boolean hasSegments() {
+        return !listSegmentIds().isEmpty();
+    }
+
+    /**
+     * @return The number of replayed records.
+     */
+    public synchronized long replay(Handler handler) throws IOException {
+        deleteTempFiles();
+        long numRecords = 0;
+        List<Long> segmentIds = listSegmentIds();
+        for (int i = 0; i < segmentIds.size(); i++) {
+            Path segmentPath = getSegmentPath(segmentIds.get(i));
+            SegmentReplay segmentReplay = replaySegment(segmentPath, handler);
+            numRecords += segmentReplay.numRecords;
+            if (segmentReplay.isBroken()) {
+                truncate(segmentPath, segmentReplay.validSize);
+                List<Long> laterSegmentIds = segmentIds.subList(i + 1, segmentIds.size());
+                if (!laterSegmentIds.isEmpty()) {
+                    log.warn("We delete the {} segments after the broken record in {}", laterSegmentIds.size(), segmentPath);
+                }
+                for (long segmentId : laterSegmentIds) {
+                    Files.deleteIfExists(getSegmentPath(segmentId));
+                }
+                break;
+            }
+        }
+        return numRecords;
+    }
+
+    public synchronized void appendPut(byte[] key, byte[] value) throws IOException {
+        append(PUT, key, value);
+    }
+
+    public synchronized void appendRemove(byte[] key) throws IOException {
+        append(REMOVE, key, EMPTY);
+    }
+
+    /**
+     * Clears all state of the previous records at replay.
+     */
+    public synchronized void appendSnapshot() throws IOException {
+        append(SNAPSHOT, EMPTY, EMPTY);
+    }
+
+    public synchronized void flush() throws IOException {
+        if (activeSegment != null) {
+            activeSegment.flush();
+        }
+    }
+
+    /**
+     * Closes the active segment and reserves the next id for a snapshot segment. Appends done after that call go to
+     * a later segment.
+     */
+    public synchronized long reserveSnapshotSegmentId() throws IOException {
+        closeActiveSegment();
+        return ++lastSegmentId;
+    }
+
+    /**
+     * Writes all entries to the reserved snapshot segment and deletes all older segments. Can be called concurrently
+     * with appends.
+     */
+    public void writeSnapshot(long snapshotSegmentId, Iterator<Map.Entry<byte[], byte[]>> entries) throws IOException {
+        Files.createDirectories(directory);
+        Path segmentPath = getSegmentPath(snapshotSegmentId);
+        Path tempPath = directory.resolve(TEMP_FILE_PREFIX + segmentPath.getFileName());
+        CRC32 crc32 = new CRC32();
+        long size = 0;
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            size += writeRecord(outputStream, crc32, SNAPSHOT, EMPTY, EMPTY);
+            while (entries.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = entries.next();
+                size += writeRecord(outputStream, crc32, PUT, entry.getKey(), entry.getValue());
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+        Files.move(tempPath, segmentPath, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (this) {
+            bytesWritten += size;
+        }
+
+        for (long segmentId : listSegmentIds()) {
+            if (segmentId < snapshotSegmentId) {
+                Files.deleteIfExists(getSegmentPath(segmentId));
+            }
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        closeActiveSegment();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void append(byte type, byte[] key, byte[] value) throws IOException {
+        int recordSize = HEADER_SIZE + MIN_PAYLOAD_SIZE + key.length + value.length;
+        if (activeSegment != null && activeSegmentSize > 0 && activeSegmentSize + recordSize > maxSegmentSize) {
+            closeActiveSegment();
+        }
+        if (activeSegment == null) {
+            Files.createDirectories(directory);
+            lastSegmentId++;
+            activeSegment = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(getSegmentPath(lastSegmentId),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+            activeSegmentSize = 0;
+        }
+        writeRecord(activeSegment, crc32, type, key, value);
+        activeSegmentSize += recordSize;
+        bytesWritten += recordSize;
+    }
+
+    private static int writeRecord(DataOutputStream outputStream,
+                                   CRC32 crc32,
+                                   byte type,
+                                   byte[] key,
+                                   byte[] value) throws IOException {
+        int payloadSize = MIN_PAYLOAD_SIZE + key.length + value.length;
+        byte[] payload = ByteBuffer.allocate(payloadSize)
+                .put(type)
+                .putInt(key.length)
+                .put(key)
+                .put(value)
+                .array();
+        crc32.reset();
+        crc32.update(payload);
+        outputStream.writeInt(payloadSize);
+        outputStream.writeInt((int) crc32.getValue());
+        outputStream.write(payload);
+        return HEADER_SIZE + payloadSize;
+    }
+
+    private SegmentReplay replaySegment(Path segmentPath, Handler handler) throws IOException {
+        long numRecords = 0;
+        long size = Files.size(segmentPath);
+        long position = 0;
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentPath)))) {
+            while (size - position >= HEADER_SIZE) {
+                int payloadSize = inputStream.readInt();
+                int checksum = inputStream.readInt();
+                long remaining = size - position - HEADER_SIZE;
+                if (payloadSize < MIN_PAYLOAD_SIZE || payloadSize > remaining) {
+                    log.warn("Invalid record size {} in {}. We skip the remaining {} bytes.",
+                            payloadSize, segmentPath, remaining);
+                    return new SegmentReplay(numRecords, position);
+                }
+                byte[] payload = new byte[payloadSize];
+                inputStream.readFully(payload);
+
+                crc32.reset();
+                crc32.update(payload);
+                if ((int) crc32.getValue() != checksum || !applyRecord(payload, handler)) {
+                    log.warn("Corrupted record in {}. We skip the remaining {} bytes.",
+                            segmentPath, remaining - payloadSize);
+                    return new SegmentReplay(numRecords, position);
+                }
+                position += HEADER_SIZE + payloadSize;
+                numRecords++;
+            }
+        }
+        if (position < size) {
+            log.warn("Incomplete record header at the end of {}", segmentPath);
+            return new SegmentReplay(numRecords, position);
+        }
+        return new SegmentReplay(numRecords, -1);
+    }
+
+    private static boolean applyRecord(byte[] payload, Handler handler) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte type = buffer.get();
+        int keyLength = buffer.getInt();
+        if (keyLength < 0 || keyLength > buffer.remaining()) {
+            return false;
+        }
+        byte[] key = new byte[keyLength];
+        buffer.get(key);
+        switch (type) {
+            case PUT: {
+                byte[] value = new byte[buffer.remaining()];
+                buffer.get(value);
+                handler.onPut(key, value);
+                return true;
+            }
+            case REMOVE: {
+                handler.onRemove(key);
+                return true;
+            }
+            case SNAPSHOT: {
+                handler.onSnapshot();
+                return true;
+            }
+            default: {
+                return false;
+            }
+        }
+    }
+
+    private static void truncate(Path segmentPath, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private void closeActiveSegment() throws IOException {
+        if (activeSegment != null) {
+            try {
+                activeSegment.close();
+            } finally {
+                activeSegment = null;
+            }
+        }
+    }
+
+    private Path getSegmentPath(long segmentId) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%010d", segmentId) + SEGMENT_EXTENSION);
+    }
+
+    private List<Long> listSegmentIds() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(path -> path.getFileName().toString())
+                    .filter(fileName -> fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_EXTENSION))
+                    .map(fileName -> fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_EXTENSION.length()))
+                    .flatMap(id -> {
+                        try {
+                            return Stream.of(Long.parseLong(id));
+                        } catch (NumberFormatException e) {
+                            return Stream.empty();
+                        }
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.error("Couldn't list segments of {}", directory, e);
+            return List.of();
+        }
+    }
+
+    private void deleteTempFiles() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : paths.filter(path -> path.getFileName().toString().startsWith(TEMP_FILE_PREFIX))
+                    .collect(Collectors.toList())) {
+                log.info("Delete incomplete snapshot {}", path);
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
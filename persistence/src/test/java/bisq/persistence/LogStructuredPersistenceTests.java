@@ -0,0 +1,159 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import bisq.common.data.ByteArray;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogStructuredPersistenceTests {
+    private static class TimestampStoreLogPersistence extends LogStructuredPersistence<Long, TimestampStore> {
+        // Keep the same key instances between writes as DataStore does
+        private final Map<String, ByteArray> keys = new HashMap<>();
+
+        TimestampStoreLogPersistence(Path directory) {
+            super(directory.toString(), "TimestampStore");
+        }
+
+        @Override
+        protected Map<ByteArray, Long> getEntries(TimestampStore persistableStore) {
+            Map<ByteArray, Long> entries = new HashMap<>();
+            persistableStore.getTimestampsByProfileId().forEach((key, value) ->
+                    entries.put(keys.computeIfAbsent(key, k -> new ByteArray(k.getBytes(StandardCharsets.UTF_8))), value));
+            return entries;
+        }
+
+        @Override
+        protected byte[] serializeValue(Long value) {
+            return ByteBuffer.allocate(8).putLong(value).array();
+        }
+
+        @Override
+        protected Long deserializeValue(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getLong();
+        }
+
+        @Override
+        protected TimestampStore createStore(Map<ByteArray, Long> entries) {
+            TimestampStore timestampStore = new TimestampStore();
+            entries.forEach((key, value) ->
+                    timestampStore.getTimestampsByProfileId().put(new String(key.getBytes(), StandardCharsets.UTF_8), value));
+            return timestampStore;
+        }
+    }
+
+    @Test
+    void persistAndReplay(@TempDir Path tempDir) {
+        var persistence = new TimestampStoreLogPersistence(tempDir);
+        assertThat(persistence.read()).isEmpty();
+
+        TimestampStore timestampStore = new TimestampStore();
+        Map<String, Long> timestamps = timestampStore.getTimestampsByProfileId();
+        timestamps.put("A", 1000L);
+        timestamps.put("B", 2000L);
+        persistence.persist(timestampStore.getClone());
+
+        timestamps.put("C", 3000L);
+        timestamps.remove("A");
+        persistence.persist(timestampStore.getClone());
+
+        Optional<TimestampStore> persisted = new TimestampStoreLogPersistence(tempDir).read();
+        assertThat(persisted).isPresent();
+        assertThat(persisted.get().getTimestampsByProfileId()).isEqualTo(Map.of("B", 2000L, "C", 3000L));
+    }
+
+    @Test
+    void appendOnlyChanges(@TempDir Path tempDir) throws Exception {
+        var persistence = new TimestampStoreLogPersistence(tempDir);
+        persistence.read();
+        TimestampStore timestampStore = new TimestampStore();
+        Map<String, Long> timestamps = timestampStore.getTimestampsByProfileId();
+        for (int i = 0; i < 500; i++) {
+            timestamps.put("key" + i, 10_000L + i);
+        }
+        persistence.persist(timestampStore.getClone());
+        long sizeAfterFirstWrite = getLogSize(persistence);
+
+        timestamps.put("key0", 1L);
+        persistence.persist(timestampStore.getClone());
+        // Only one record for the changed entry got appended
+        long appended = getLogSize(persistence) - sizeAfterFirstWrite;
+        assertThat(appended).isLessThan(50);
+
+        assertThat(new TimestampStoreLogPersistence(tempDir).read().orElseThrow().getTimestampsByProfileId())
+                .isEqualTo(timestamps);
+    }
+
+    @Test
+    void compaction(@TempDir Path tempDir) throws Exception {
+        var persistence = new TimestampStoreLogPersistence(tempDir);
+        persistence.read();
+        TimestampStore timestampStore = new TimestampStore();
+        Map<String, Long> timestamps = timestampStore.getTimestampsByProfileId();
+        for (int i = 0; i < 3000; i++) {
+            timestamps.put("key" + (i % 10), (long) i);
+            persistence.persist(timestampStore.getClone());
+        }
+
+        // Compaction runs in the background
+        long deadline = System.currentTimeMillis() + 5000;
+        while (getLogSize(persistence) > 30_000 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        // Without compaction the log would have about 75 kb
+        assertThat(getLogSize(persistence)).isLessThan(30_000);
+        assertThat(new TimestampStoreLogPersistence(tempDir).read().orElseThrow().getTimestampsByProfileId())
+                .isEqualTo(timestamps);
+    }
+
+    @Test
+    void migrateFromStoreFile(@TempDir Path tempDir) {
+        TimestampStore timestampStore = new TimestampStore();
+        timestampStore.getTimestampsByProfileId().put("A", 1L);
+        PersistableStoreResolver.addResolver(timestampStore.getResolver());
+        var legacyPersistence = new Persistence<TimestampStore>(tempDir.toString(), "TimestampStore");
+        legacyPersistence.persist(timestampStore);
+
+        var persistence = new TimestampStoreLogPersistence(tempDir);
+        TimestampStore persisted = persistence.read().orElseThrow();
+        assertThat(persisted.getTimestampsByProfileId()).isEqualTo(Map.of("A", 1L));
+
+        // At the first write all entries get written to the log, and the store file gets deleted
+        assertThat(persistence.getStorePath()).exists();
+        persistence.persist(persisted.getClone());
+        assertThat(persistence.getStorePath()).doesNotExist();
+        assertThat(new TimestampStoreLogPersistence(tempDir).read().orElseThrow().getTimestampsByProfileId())
+                .isEqualTo(Map.of("A", 1L));
+    }
+
+    private static long getLogSize(Persistence<?> persistence) throws Exception {
+        Path logDirectory = LogStructuredPersistence.getLogDirectory(persistence.getStorePath());
+        try (var paths = Files.list(logDirectory)) {
+            return paths.mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+}
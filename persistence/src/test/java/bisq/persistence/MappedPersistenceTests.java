@@ -0,0 +1,125 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence;
+
+import bisq.common.data.ByteArray;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedPersistenceTests {
+    private static class TimestampStoreMappedPersistence extends MappedPersistence<Long, TimestampStore> {
+        private Map<String, Supplier<Long>> loaders = new HashMap<>();
+        private int numDeserialized;
+
+        TimestampStoreMappedPersistence(Path directory) {
+            super(directory.toString(), "TimestampStore");
+        }
+
+        @Override
+        protected void forEachEntry(TimestampStore persistableStore,
+                                    BiConsumer<ByteArray, Long> valueConsumer,
+                                    BiConsumer<ByteArray, Supplier<? extends Long>> loaderConsumer) {
+            persistableStore.getTimestampsByProfileId().forEach((key, value) ->
+                    valueConsumer.accept(new ByteArray(key.getBytes(StandardCharsets.UTF_8)), value));
+        }
+
+        @Override
+        protected byte[] serializeValue(Long value) {
+            return ByteBuffer.allocate(8).putLong(value).array();
+        }
+
+        @Override
+        protected Long deserializeValue(byte[] bytes) {
+            numDeserialized++;
+            return ByteBuffer.wrap(bytes).getLong();
+        }
+
+        // TimestampStore has no lazy values, so we keep the loaders for the tests
+        @Override
+        protected TimestampStore createStore(Map<ByteArray, Supplier<Long>> loaders) {
+            this.loaders = new HashMap<>();
+            loaders.forEach((key, loader) -> this.loaders.put(new String(key.getBytes(), StandardCharsets.UTF_8), loader));
+            return new TimestampStore();
+        }
+    }
+
+    @Test
+    void valuesAreDeserializedAtAccess(@TempDir Path tempDir) {
+        TimestampStore timestampStore = new TimestampStore();
+        for (int i = 0; i < 100; i++) {
+            timestampStore.getTimestampsByProfileId().put("key" + i, (long) i);
+        }
+        new TimestampStoreMappedPersistence(tempDir).persist(timestampStore);
+
+        var persistence = new TimestampStoreMappedPersistence(tempDir);
+        assertThat(persistence.read()).isPresent();
+        assertThat(persistence.loaders).hasSize(100);
+        assertThat(persistence.numDeserialized).isEqualTo(0);
+
+        assertThat(persistence.loaders.get("key42").get()).isEqualTo(42L);
+        assertThat(persistence.numDeserialized).isEqualTo(1);
+        persistence.loaders.forEach((key, loader) -> assertThat(loader.get()).isEqualTo(Long.parseLong(key.substring(3))));
+    }
+
+    @Test
+    void corruptedValueIsIgnored(@TempDir Path tempDir) throws Exception {
+        TimestampStore timestampStore = new TimestampStore();
+        timestampStore.getTimestampsByProfileId().put("A", 1L);
+        timestampStore.getTimestampsByProfileId().put("B", 2L);
+        var persistence = new TimestampStoreMappedPersistence(tempDir);
+        persistence.persist(timestampStore);
+
+        // The values are at the end of the file, the last byte belongs to the last value
+        Path mappedStorePath = MappedPersistence.getMappedStorePath(persistence.getStorePath());
+        byte[] bytes = Files.readAllBytes(mappedStorePath);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(mappedStorePath, bytes);
+
+        persistence = new TimestampStoreMappedPersistence(tempDir);
+        assertThat(persistence.read()).isPresent();
+        long numLoaded = persistence.loaders.values().stream().map(Supplier::get).filter(value -> value != null).count();
+        assertThat(numLoaded).isEqualTo(1);
+    }
+
+    @Test
+    void corruptedIndexFallsBackToStoreFile(@TempDir Path tempDir) throws Exception {
+        TimestampStore timestampStore = new TimestampStore();
+        timestampStore.getTimestampsByProfileId().put("A", 1L);
+        PersistableStoreResolver.addResolver(timestampStore.getResolver());
+        new Persistence<TimestampStore>(tempDir.toString(), "TimestampStore").persist(timestampStore);
+
+        var persistence = new TimestampStoreMappedPersistence(tempDir);
+        Path mappedStorePath = MappedPersistence.getMappedStorePath(persistence.getStorePath());
+        Files.write(mappedStorePath, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13});
+
+        TimestampStore persisted = persistence.read().orElseThrow();
+        assertThat(persisted.getTimestampsByProfileId()).isEqualTo(Map.of("A", 1L));
+        assertThat(persistence.loaders).isEmpty();
+    }
+}
@@ -22,6 +22,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
@@ -69,6 +70,37 @@ public class PersistableStoreReaderWriterTests {
         assertThat(readTimestampsByProfileId.get("C")).isEqualTo(3L);
     }
 
+    @Test
+    void writeAndReadCompressedStore(@TempDir Path tempDir) throws IOException {
+        var timestampStore = new TimestampStore();
+        Map<String, Long> timestampsByProfileId = timestampStore.getTimestampsByProfileId();
+        for (int i = 0; i < 1000; i++) {
+            timestampsByProfileId.put("profileId_" + i, 1_700_000_000_000L + i);
+        }
+
+        ProtoResolver<PersistableStore<?>> resolver = timestampStore.getResolver();
+        PersistableStoreResolver.addResolver(resolver);
+
+        Path compressedFilePath = tempDir.resolve("compressedProtoFile");
+        new PersistableStoreReaderWriter<TimestampStore>(new PersistableStoreFileManager(compressedFilePath), true)
+                .write(timestampStore);
+        Path uncompressedFilePath = tempDir.resolve("protoFile");
+        new PersistableStoreReaderWriter<TimestampStore>(new PersistableStoreFileManager(uncompressedFilePath))
+                .write(timestampStore);
+        assertThat(Files.size(compressedFilePath)).isLessThan(Files.size(uncompressedFilePath) / 2);
+
+        // The format is detected at read, independent of the compression setting
+        var persistableStoreReaderWriter = new PersistableStoreReaderWriter<TimestampStore>(new PersistableStoreFileManager(compressedFilePath));
+        Optional<TimestampStore> readOptionalStore = persistableStoreReaderWriter.read();
+        assertThat(readOptionalStore.isPresent()).isTrue();
+        assertThat(readOptionalStore.get().getTimestampsByProfileId()).isEqualTo(timestampsByProfileId);
+
+        persistableStoreReaderWriter = new PersistableStoreReaderWriter<>(new PersistableStoreFileManager(uncompressedFilePath), true);
+        readOptionalStore = persistableStoreReaderWriter.read();
+        assertThat(readOptionalStore.isPresent()).isTrue();
+        assertThat(readOptionalStore.get().getTimestampsByProfileId()).isEqualTo(timestampsByProfileId);
+    }
+
     @Test
     void writeStoreTwice(@TempDir Path tempDir) {
         var timestampStore = new TimestampStore();
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PersistenceSchedulerTests {
+    @Test
+    void tasksOfSameStoreAreExecutedInOrder() {
+        PersistenceScheduler scheduler = new PersistenceScheduler(Optional.of(DbSubDirectory.PRIVATE));
+        List<Integer> result = new CopyOnWriteArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int index = i;
+            futures.add(scheduler.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                result.add(index);
+                running.decrementAndGet();
+                if (index % 10 == 0) {
+                    throw new IllegalStateException("Failing task must not break the lane");
+                }
+                return null;
+            }));
+        }
+        futures.forEach(future -> future.handle((r, t) -> null).join());
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add(i);
+        }
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    void storesRunInParallel() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CompletableFuture<Boolean> first = new PersistenceScheduler(Optional.of(DbSubDirectory.NETWORK_DB))
+                .submit(() -> countDownAndAwait(bothStarted));
+        CompletableFuture<Boolean> second = new PersistenceScheduler(Optional.of(DbSubDirectory.SETTINGS))
+                .submit(() -> countDownAndAwait(bothStarted));
+        assertThat(first.join()).isEqualTo(true);
+        assertThat(second.join()).isEqualTo(true);
+    }
+
+    @Test
+    void criticalStoresGoFirst() throws InterruptedException {
+        // Block all pool threads
+        List<CountDownLatch> releaseLatches = new ArrayList<>();
+        CountDownLatch allBlocked = new CountDownLatch(4);
+        List<CompletableFuture<Boolean>> blockingTasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            CountDownLatch release = new CountDownLatch(1);
+            releaseLatches.add(release);
+            blockingTasks.add(new PersistenceScheduler(Optional.of(DbSubDirectory.CACHE)).submit(() -> {
+                allBlocked.countDown();
+                return await(release);
+            }));
+        }
+        allBlocked.await();
+
+        List<String> result = new CopyOnWriteArrayList<>();
+        CompletableFuture<Object> networkDbTask = new PersistenceScheduler(Optional.of(DbSubDirectory.NETWORK_DB))
+                .submit(() -> result.add("network_db"));
+        CompletableFuture<Object> privateTask = new PersistenceScheduler(Optional.of(DbSubDirectory.PRIVATE))
+                .submit(() -> result.add("private"));
+
+        // We release only one thread, so the execution order is deterministic
+        releaseLatches.get(0).countDown();
+        CompletableFuture.allOf(networkDbTask, privateTask).join();
+        releaseLatches.forEach(CountDownLatch::countDown);
+        blockingTasks.forEach(CompletableFuture::join);
+        assertThat(result).isEqualTo(List.of("private", "network_db"));
+    }
+
+    @Test
+    void priority() {
+        assertThat(PersistenceScheduler.getPriority(DbSubDirectory.fromSubDir(DbSubDirectory.PRIVATE.getDbPath())))
+                .isEqualTo(PersistenceScheduler.HIGH_PRIORITY);
+        assertThat(PersistenceScheduler.getPriority(DbSubDirectory.fromSubDir(DbSubDirectory.NETWORK_DB.getDbPath() + File.separator + "store")))
+                .isEqualTo(PersistenceScheduler.LOW_PRIORITY);
+        assertThat(PersistenceScheduler.getPriority(DbSubDirectory.fromSubDir("other")))
+                .isEqualTo(PersistenceScheduler.HIGH_PRIORITY);
+    }
+
+    private static boolean countDownAndAwait(CountDownLatch latch) {
+        latch.countDown();
+        return await(latch);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            latch.await();
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PersistenceServiceTests {
+    private final List<DbSubDirectory> readOrder = new CopyOnWriteArrayList<>();
+
+    @Test
+    void localAndNetworkDataAreTrackedSeparately(@TempDir Path tempDir) {
+        PersistenceService persistenceService = new PersistenceService(tempDir.toString());
+        // The network store is registered first, but read last
+        TestClient network = new TestClient(persistenceService, DbSubDirectory.NETWORK_DB);
+        TestClient settings = new TestClient(persistenceService, DbSubDirectory.SETTINGS);
+        TestClient privateData = new TestClient(persistenceService, DbSubDirectory.PRIVATE);
+
+        CompletableFuture<Boolean> allRead = persistenceService.readAllPersisted();
+        CompletableFuture<Boolean> localDataRead = persistenceService.whenLocalDataRead();
+        CompletableFuture<Boolean> networkDataRead = persistenceService.whenNetworkDataRead();
+        assertThat(readOrder).hasSize(3);
+        assertThat(readOrder.get(2)).isEqualTo(DbSubDirectory.NETWORK_DB);
+
+        network.getReadFuture().complete(Optional.empty());
+        assertThat(networkDataRead).isCompletedWithValue(true);
+        assertThat(localDataRead).isNotDone();
+        assertThat(allRead).isNotDone();
+
+        settings.getReadFuture().complete(Optional.empty());
+        assertThat(localDataRead).isNotDone();
+        privateData.getReadFuture().complete(Optional.of(new TimestampStore()));
+        assertThat(localDataRead).isCompletedWithValue(true);
+        assertThat(allRead).isCompletedWithValue(true);
+    }
+
+    @Test
+    void localDataReadDoesNotWaitForNetworkData(@TempDir Path tempDir) {
+        PersistenceService persistenceService = new PersistenceService(tempDir.toString());
+        TestClient network = new TestClient(persistenceService, DbSubDirectory.NETWORK_DB);
+        TestClient cache = new TestClient(persistenceService, DbSubDirectory.CACHE);
+
+        persistenceService.readAllPersisted();
+        CompletableFuture<Boolean> networkDataRead = persistenceService.whenNetworkDataRead();
+        cache.getReadFuture().complete(Optional.empty());
+        assertThat(persistenceService.whenLocalDataRead()).isCompletedWithValue(true);
+        assertThat(networkDataRead).isNotDone();
+
+        network.getReadFuture().complete(Optional.empty());
+        assertThat(networkDataRead).isCompletedWithValue(true);
+    }
+
+    @Getter
+    private class TestClient implements PersistenceClient<TimestampStore> {
+        private final TimestampStore persistableStore = new TimestampStore();
+        private final Persistence<TimestampStore> persistence;
+        private final CompletableFuture<Optional<TimestampStore>> readFuture = new CompletableFuture<>();
+        private final DbSubDirectory dbSubDirectory;
+
+        TestClient(PersistenceService persistenceService, DbSubDirectory dbSubDirectory) {
+            this.dbSubDirectory = dbSubDirectory;
+            persistence = persistenceService.getOrCreatePersistence(this, dbSubDirectory, persistableStore);
+        }
+
+        @Override
+        public CompletableFuture<Optional<TimestampStore>> readPersisted() {
+            readOrder.add(dbSubDirectory);
+            return readFuture;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence;
+
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitedPersistenceClientTests {
+    @Test
+    void burstOfChangesResultsInOneWrite(@TempDir Path tempDir) {
+        TestClient client = new TestClient(tempDir, 100, 10_000);
+        CompletableFuture<Boolean> first = null;
+        for (int i = 0; i < 10; i++) {
+            client.getPersistableStore().getTimestampsByProfileId().put("id", (long) i);
+            CompletableFuture<Boolean> future = client.persist();
+            if (first == null) {
+                first = future;
+            }
+            assertThat(future).isSameAs(first);
+        }
+
+        assertThat(first.join()).isTrue();
+        assertThat(client.getPersistence().getWritten()).hasSize(1);
+        assertThat(client.getPersistence().getWritten().get(0).getTimestampsByProfileId()).containsEntry("id", 9L);
+    }
+
+    @Test
+    void continuousChangesAreWrittenAfterMaxStaleness(@TempDir Path tempDir) throws InterruptedException {
+        TestClient client = new TestClient(tempDir, 200, 500);
+        long ts = System.currentTimeMillis();
+        CompletableFuture<Boolean> future = client.persist();
+        while (!future.isDone() && System.currentTimeMillis() - ts < 5000) {
+            client.persist();
+            Thread.sleep(50);
+        }
+
+        assertThat(future.join()).isTrue();
+        assertThat(System.currentTimeMillis() - ts).isLessThan(5000);
+    }
+
+    @Test
+    void flushWritesPendingChange(@TempDir Path tempDir) {
+        TestClient client = new TestClient(tempDir, 60_000, 60_000);
+        assertThat(client.flush().join()).isTrue();
+        assertThat(client.getPersistence().getWritten()).isEmpty();
+
+        client.getPersistableStore().getTimestampsByProfileId().put("id", 1L);
+        CompletableFuture<Boolean> pending = client.persist();
+        assertThat(client.flush().join()).isTrue();
+        assertThat(pending.join()).isTrue();
+        assertThat(client.getPersistence().getWritten()).hasSize(1);
+    }
+
+    private static class TestPersistence extends Persistence<TimestampStore> {
+        @Getter
+        private final List<TimestampStore> written = new CopyOnWriteArrayList<>();
+
+        TestPersistence(Path directory) {
+            super(directory.toString(), "TimestampStore", Optional.of(DbSubDirectory.CACHE));
+        }
+
+        @Override
+        protected void persist(TimestampStore persistableStore) {
+            written.add(persistableStore);
+        }
+    }
+
+    @Getter
+    private static class TestClient extends RateLimitedPersistenceClient<TimestampStore> {
+        private final TestPersistence persistence;
+        private final TimestampStore persistableStore = new TimestampStore();
+        private final long quietPeriodInMs;
+        private final long maxStalenessInMs;
+
+        TestClient(Path directory, long quietPeriodInMs, long maxStalenessInMs) {
+            persistence = new TestPersistence(directory);
+            this.quietPeriodInMs = quietPeriodInMs;
+            this.maxStalenessInMs = maxStalenessInMs;
+        }
+    }
+}
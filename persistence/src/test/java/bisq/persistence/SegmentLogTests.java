@@ -0,0 +1,207 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SegmentLogTests {
+    private static final long MAX_SEGMENT_SIZE = 1024;
+
+    @Test
+    void appendAndReplay(@TempDir Path tempDir) throws IOException {
+        SegmentLog segmentLog = new SegmentLog(tempDir, MAX_SEGMENT_SIZE);
+        assertThat(segmentLog.hasSegments()).isFalse();
+
+        segmentLog.appendPut(bytes("A"), bytes("1"));
+        segmentLog.appendPut(bytes("B"), bytes("2"));
+        segmentLog.appendPut(bytes("A"), bytes("3"));
+        segmentLog.appendRemove(bytes("B"));
+        segmentLog.close();
+
+        Map<String, String> state = new HashMap<>();
+        long numRecords = new SegmentLog(tempDir, MAX_SEGMENT_SIZE).replay(handler(state));
+        assertThat(numRecords).isEqualTo(4);
+        assertThat(state).isEqualTo(Map.of("A", "3"));
+    }
+
+    @Test
+    void rollSegments(@TempDir Path tempDir) throws IOException {
+        SegmentLog segmentLog = new SegmentLog(tempDir, MAX_SEGMENT_SIZE);
+        for (int i = 0; i < 100; i++) {
+            segmentLog.appendPut(bytes("key" + i), new byte[100]);
+        }
+        segmentLog.close();
+        assertThat(listSegments(tempDir).size()).isGreaterThan(10);
+
+        Map<String, String> state = new HashMap<>();
+        new SegmentLog(tempDir, MAX_SEGMENT_SIZE).replay(handler(state));
+        assertThat(state).hasSize(100);
+    }
+
+    @Test
+    void ignoreTornWriteAtEndOfSegment(@TempDir Path tempDir) throws IOException {
+        SegmentLog segmentLog = new SegmentLog(tempDir, MAX_SEGMENT_SIZE);
+        segmentLog.appendPut(bytes("A"), bytes("1"));
+        segmentLog.appendPut(bytes("B"), bytes("2"));
+        segmentLog.close();
+
+        Path segment = listSegments(tempDir).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        segmentLog = new SegmentLog(tempDir, MAX_SEGMENT_SIZE);
+        Map<String, String> state = new HashMap<>();
+        assertThat(segmentLog.replay(handler(state))).isEqualTo(1);
+        assertThat(state).isEqualTo(Map.of("A", "1"));
+
+        // New records are appended to a new segment, not after the broken record
+        segmentLog.appendPut(bytes("C"), bytes("3"));
+        segmentLog.close();
+        state.clear();
+        new SegmentLog(tempDir, MAX_SEGMENT_SIZE).replay(handler(state));
+        assertThat(state).isEqualTo(Map.of("A", "1", "C", "3"));
+    }
+
+    @Test
+    void detectCorruptedRecord(@TempDir Path tempDir) throws IOException {
+        SegmentLog segmentLog = new SegmentLog(tempDir, MAX_SEGMENT_SIZE);
+        segmentLog.appendPut(bytes("A"), bytes("1"));
+        segmentLog.appendPut(bytes("B"), bytes("2"));
+        segmentLog.close();
+
+        Path segment = listSegments(tempDir).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // Flip the last byte of the value of the second record
+            file.seek(file.length() - 1);
+            int value = file.read();
+            file.seek(file.length() - 1);
+            file.write(value ^ 0xFF);
+        }
+
+        Map<String, String> state = new HashMap<>();
+        assertThat(new SegmentLog(tempDir, MAX_SEGMENT_SIZE).replay(handler(state))).isEqualTo(1);
+        assertThat(state).isEqualTo(Map.of("A", "1"));
+    }
+
+    @Test
+    void truncateLogAtCorruptedRecord(@TempDir Path tempDir) throws IOException {
+        SegmentLog segmentLog = new SegmentLog(tempDir, MAX_SEGMENT_SIZE);
+        segmentLog.appendPut(bytes("A"), bytes("1"));
+        segmentLog.appendPut(bytes("B"), bytes("2"));
+        segmentLog.close();
+        long firstSegmentSize = Files.size(listSegments(tempDir).get(0));
+
+        // Records in later segments could depend on the lost one (here the remove of B)
+        segmentLog = new SegmentLog(tempDir, MAX_SEGMENT_SIZE);
+        segmentLog.appendRemove(bytes("B"));
+        segmentLog.appendPut(bytes("C"), bytes("3"));
+        segmentLog.close();
+        assertThat(listSegments(tempDir)).hasSize(2);
+
+        Path firstSegment = listSegments(tempDir).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(firstSegment.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            int value = file.read();
+            file.seek(file.length() - 1);
+            file.write(value ^ 0xFF);
+        }
+
+        segmentLog = new SegmentLog(tempDir, MAX_SEGMENT_SIZE);
+        Map<String, String> state = new HashMap<>();
+        assertThat(segmentLog.replay(handler(state))).isEqualTo(1);
+        assertThat(state).isEqualTo(Map.of("A", "1"));
+        assertThat(listSegments(tempDir)).containsExactly(firstSegment);
+        assertThat(Files.size(firstSegment)).isLessThan(firstSegmentSize);
+
+        segmentLog.appendPut(bytes("D"), bytes("4"));
+        segmentLog.close();
+        state.clear();
+        assertThat(new SegmentLog(tempDir, MAX_SEGMENT_SIZE).replay(handler(state))).isEqualTo(2);
+        assertThat(state).isEqualTo(Map.of("A", "1", "D", "4"));
+    }
+
+    @Test
+    void snapshotReplacesOlderSegments(@TempDir Path tempDir) throws IOException {
+        SegmentLog segmentLog = new SegmentLog(tempDir, MAX_SEGMENT_SIZE);
+        for (int i = 0; i < 50; i++) {
+            segmentLog.appendPut(bytes("A"), new byte[100]);
+        }
+        long snapshotSegmentId = segmentLog.reserveSnapshotSegmentId();
+        // Appends during compaction go to a later segment
+        segmentLog.appendPut(bytes("B"), bytes("2"));
+        segmentLog.flush();
+
+        segmentLog.writeSnapshot(snapshotSegmentId, Map.of(bytes("A"), bytes("1")).entrySet().iterator());
+        segmentLog.close();
+        assertThat(listSegments(tempDir)).hasSize(2);
+
+        Map<String, String> state = new HashMap<>();
+        long numRecords = new SegmentLog(tempDir, MAX_SEGMENT_SIZE).replay(handler(state));
+        assertThat(numRecords).isEqualTo(3);
+        assertThat(state).isEqualTo(Map.of("A", "1", "B", "2"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static SegmentLog.Handler handler(Map<String, String> state) {
+        return new SegmentLog.Handler() {
+            @Override
+            public void onPut(byte[] key, byte[] value) {
+                state.put(string(key), string(value));
+            }
+
+            @Override
+            public void onRemove(byte[] key) {
+                state.remove(string(key));
+            }
+
+            @Override
+            public void onSnapshot() {
+                state.clear();
+            }
+        };
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().startsWith(SegmentLog.SEGMENT_PREFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
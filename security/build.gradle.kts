@@ -1,6 +1,7 @@
 plugins {
     id("bisq.java-library")
     id("bisq.protobuf")
+    id("bisq.java-integration-tests")
 }
 
 dependencies {
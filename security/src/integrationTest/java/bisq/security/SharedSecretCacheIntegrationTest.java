@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+@Slf4j
+public class SharedSecretCacheIntegrationTest {
+    private final KeyPair keyPairSender = KeyGeneration.generateKeyPair();
+    private final KeyPair keyPairReceiver = KeyGeneration.generateKeyPair();
+    private final PubKey receiverPubKey = new PubKey(keyPairReceiver.getPublic(), "receiverKeyId");
+
+    public SharedSecretCacheIntegrationTest() throws GeneralSecurityException {
+    }
+
+    // Simple benchmark for a chat like exchange of messages between 2 identities. With the cache we got about twice
+    // the throughput, as signing and verifying remain as main costs.
+    @Test
+    void benchmarkMessagesPerSecond() throws GeneralSecurityException {
+        int numMessages = 300;
+        byte[] message = new byte[1000];
+
+        // Warm up
+        runWithoutCache(message, 50);
+        runWithCache(message, 50, new SharedSecretCache(), new SharedSecretCache());
+
+        long ts = System.nanoTime();
+        runWithoutCache(message, numMessages);
+        double withoutCache = numMessages / ((System.nanoTime() - ts) / 1e9);
+
+        ts = System.nanoTime();
+        runWithCache(message, numMessages, new SharedSecretCache(), new SharedSecretCache());
+        double withCache = numMessages / ((System.nanoTime() - ts) / 1e9);
+
+        log.info("Encrypt and decrypt of {} messages: without cache {} msg/sec; with cache {} msg/sec",
+                numMessages, Math.round(withoutCache), Math.round(withCache));
+    }
+
+    private void runWithoutCache(byte[] message, int numMessages) throws GeneralSecurityException {
+        for (int i = 0; i < numMessages; i++) {
+            ConfidentialData confidentialData = HybridEncryption.encryptAndSign(message, keyPairReceiver.getPublic(), keyPairSender);
+            assertArrayEquals(message, HybridEncryption.decryptAndVerify(confidentialData, keyPairReceiver));
+        }
+    }
+
+    private void runWithCache(byte[] message,
+                              int numMessages,
+                              SharedSecretCache senderCache,
+                              SharedSecretCache receiverCache) throws GeneralSecurityException {
+        for (int i = 0; i < numMessages; i++) {
+            ConfidentialData confidentialData = HybridEncryption.encryptAndSign(message, receiverPubKey, keyPairSender,
+                    "senderKeyId", senderCache);
+            assertArrayEquals(message, HybridEncryption.decryptAndVerify(confidentialData, keyPairReceiver, "receiverKeyId", receiverCache));
+        }
+    }
+}
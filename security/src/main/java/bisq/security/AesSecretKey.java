@@ -40,6 +40,15 @@ public class AesSecretKey implements SecretKey {
         Arrays.fill(encoded, (byte) 0);
     }
 
+    public boolean isCleared() {
+        for (byte b : encoded) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public String getAlgorithm() {
         return "AES";
@@ -18,12 +18,14 @@
 package bisq.security;
 
 import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.crypto.SecretKey;
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PublicKey;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -41,13 +43,23 @@ public class HybridEncryption {
             throws GeneralSecurityException {
         // Create shared secret with our private key and receivers public key
         SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(senderKeyPair.getPrivate(), receiverPublicKey);
+        return encryptAndSign(message, sharedAesSecretKey, senderKeyPair);
+    }
 
-        byte[] iv = AesGcm.generateIv().getIV();
-        byte[] cipherText = AesGcm.encrypt(sharedAesSecretKey, iv, message);
-        byte[] signature = SignatureUtil.sign(cipherText, senderKeyPair.getPrivate());
-
-        byte[] senderPublicKeyAsBytes = senderKeyPair.getPublic().getEncoded();
-        return new ConfidentialData(senderPublicKeyAsBytes, iv, cipherText, signature);
+    /**
+     * Same as {@link #encryptAndSign(byte[], PublicKey, KeyPair)} but takes the shared secret from the
+     * sharedSecretCache if we have already communicated with that receiver.
+     */
+    public static ConfidentialData encryptAndSign(byte[] message,
+                                                  PubKey receiverPubKey,
+                                                  KeyPair senderKeyPair,
+                                                  String senderKeyId,
+                                                  SharedSecretCache sharedSecretCache) throws GeneralSecurityException {
+        SecretKey sharedAesSecretKey = sharedSecretCache.getSharedAesSecretKey(senderKeyId,
+                senderKeyPair.getPrivate(),
+                receiverPubKey.getHash(),
+                receiverPubKey.getPublicKey());
+        return encryptAndSign(message, sharedAesSecretKey, senderKeyPair);
     }
 
     public static byte[] decryptAndVerify(ConfidentialData confidentialData, KeyPair receiversKeyPair) throws GeneralSecurityException {
@@ -63,4 +75,42 @@ public class HybridEncryption {
         SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(receiversKeyPair.getPrivate(), senderPublicKey);
         return AesGcm.decrypt(sharedAesSecretKey, iv, cipherText);
     }
+
+    /**
+     * Same as {@link #decryptAndVerify(ConfidentialData, KeyPair)} but takes the decoded sender public key and the
+     * shared secret from the sharedSecretCache if we have already communicated with that sender.
+     */
+    public static byte[] decryptAndVerify(ConfidentialData confidentialData,
+                                          KeyPair receiversKeyPair,
+                                          String receiversKeyId,
+                                          SharedSecretCache sharedSecretCache) throws GeneralSecurityException {
+        byte[] encodedSenderPublicKey = confidentialData.getSenderPublicKey();
+        byte[] iv = confidentialData.getIv();
+        byte[] cipherText = confidentialData.getCipherText();
+        byte[] signature = confidentialData.getSignature();
+
+        byte[] senderPublicKeyHash = DigestUtil.hash(encodedSenderPublicKey);
+        Optional<PublicKey> cachedSenderPublicKey = sharedSecretCache.findPeerPublicKey(receiversKeyId, senderPublicKeyHash);
+        PublicKey senderPublicKey = cachedSenderPublicKey.isPresent()
+                ? cachedSenderPublicKey.get()
+                : KeyGeneration.generatePublic(encodedSenderPublicKey);
+        // We verify the signature before we do the key agreement, so invalid messages do not pollute the cache
+        checkArgument(SignatureUtil.verify(cipherText, signature, senderPublicKey), "Invalid signature");
+
+        SecretKey sharedAesSecretKey = sharedSecretCache.getSharedAesSecretKey(receiversKeyId,
+                receiversKeyPair.getPrivate(),
+                senderPublicKeyHash,
+                senderPublicKey);
+        return AesGcm.decrypt(sharedAesSecretKey, iv, cipherText);
+    }
+
+    private static ConfidentialData encryptAndSign(byte[] message, SecretKey sharedAesSecretKey, KeyPair senderKeyPair)
+            throws GeneralSecurityException {
+        byte[] iv = AesGcm.generateIv().getIV();
+        byte[] cipherText = AesGcm.encrypt(sharedAesSecretKey, iv, message);
+        byte[] signature = SignatureUtil.sign(cipherText, senderKeyPair.getPrivate());
+
+        byte[] senderPublicKeyAsBytes = senderKeyPair.getPublic().getEncoded();
+        return new ConfidentialData(senderPublicKeyAsBytes, iv, cipherText, signature);
+    }
 }
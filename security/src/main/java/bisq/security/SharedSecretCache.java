@@ -0,0 +1,157 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.common.data.ByteArray;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Metrics;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded and expiring cache of the AES keys derived by the ECDH key agreement between one of our key pairs and a
+ * peer's public key. Confidential messages between the same two identities (e.g. trade chats or trade protocol
+ * messages) would otherwise repeat the key agreement and the decoding of the peer's public key for each message.
+ * <p>
+ * Entries are keyed by our key ID and the hash of the peer's public key. The key material of evicted entries gets
+ * zeroed.
+ */
+@Slf4j
+public class SharedSecretCache {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    public static final long DEFAULT_EXPIRE_AFTER_ACCESS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final Counter HITS = Metrics.counter("bisq_security_shared_secret_cache_requests_total",
+            "Number of lookups in the shared secret cache", "result", "hit");
+    private static final Counter MISSES = Metrics.counter("bisq_security_shared_secret_cache_requests_total",
+            "Number of lookups in the shared secret cache", "result", "miss");
+
+    private final Cache<CacheKey, Entry> cache;
+
+    public SharedSecretCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_EXPIRE_AFTER_ACCESS);
+    }
+
+    public SharedSecretCache(int maxSize, long expireAfterAccess) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess, TimeUnit.MILLISECONDS)
+                .removalListener((RemovalNotification<CacheKey, Entry> notification) -> notification.getValue().destroy())
+                .build();
+    }
+
+    /**
+     * @return The AES key shared with the peer. If not cached we do the key agreement and add the result to the cache.
+     */
+    public SecretKey getSharedAesSecretKey(String myKeyId,
+                                           PrivateKey myPrivateKey,
+                                           byte[] peerPublicKeyHash,
+                                           PublicKey peerPublicKey) throws GeneralSecurityException {
+        CacheKey cacheKey = new CacheKey(myKeyId, peerPublicKeyHash);
+        Entry entry = cache.getIfPresent(cacheKey);
+        if (entry != null) {
+            // The entry might have been evicted and destroyed in the meantime, in which case we derive it again.
+            Optional<SecretKey> secretKey = entry.getSecretKey();
+            if (secretKey.isPresent()) {
+                HITS.increment();
+                return secretKey.get();
+            }
+        }
+
+        MISSES.increment();
+        SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(myPrivateKey, peerPublicKey);
+        cache.put(cacheKey, new Entry(peerPublicKey, sharedAesSecretKey.getEncoded()));
+        return sharedAesSecretKey;
+    }
+
+    /**
+     * @return The already decoded public key of the peer if we have a cached shared secret with that peer.
+     */
+    public Optional<PublicKey> findPeerPublicKey(String myKeyId, byte[] peerPublicKeyHash) {
+        return Optional.ofNullable(cache.getIfPresent(new CacheKey(myKeyId, peerPublicKeyHash)))
+                .map(Entry::getPeerPublicKey);
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes all entries and zeroes their key material.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        cache.cleanUp();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Inner classes
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @EqualsAndHashCode
+    private static final class CacheKey {
+        private final String myKeyId;
+        private final ByteArray peerPublicKeyHash;
+
+        private CacheKey(String myKeyId, byte[] peerPublicKeyHash) {
+            this.myKeyId = myKeyId;
+            this.peerPublicKeyHash = new ByteArray(peerPublicKeyHash);
+        }
+    }
+
+    private static final class Entry {
+        private final PublicKey peerPublicKey;
+        private final byte[] secretKeyBytes;
+        private boolean destroyed;
+
+        private Entry(PublicKey peerPublicKey, byte[] secretKeyBytes) {
+            this.peerPublicKey = peerPublicKey;
+            this.secretKeyBytes = secretKeyBytes;
+        }
+
+        private PublicKey getPeerPublicKey() {
+            return peerPublicKey;
+        }
+
+        // SecretKeySpec copies the bytes, so a returned key stays valid after the entry got destroyed.
+        private synchronized Optional<SecretKey> getSecretKey() {
+            if (destroyed) {
+                return Optional.empty();
+            }
+            return Optional.of(new SecretKeySpec(secretKeyBytes, "AES"));
+        }
+
+        private synchronized void destroy() {
+            Arrays.fill(secretKeyBytes, (byte) 0);
+            destroyed = true;
+        }
+    }
+}
@@ -25,11 +25,17 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
+import java.util.HashMap;
+import java.util.Map;
 
 public class SignatureUtil {
     public static final String SHA256withECDSA = "SHA256withECDSA";
     public static final String SHA256withDSA = "SHA256withDSA";
 
+    // Signature instances are not thread safe, and getInstance requires a provider lookup, so we keep one instance
+    // per thread and algorithm. initSign and initVerify reset the state of a reused instance.
+    private static final ThreadLocal<Map<String, Signature>> SIGNATURE_BY_ALGORITHM = ThreadLocal.withInitial(HashMap::new);
+
     static {
         if (java.security.Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
             Security.addProvider(new BouncyCastleProvider());
@@ -41,10 +47,16 @@ public class SignatureUtil {
     }
 
     public static byte[] sign(byte[] message, PrivateKey privateKey, String algorithm) throws GeneralSecurityException {
-        Signature signature = Signature.getInstance(algorithm, "BC");
-        signature.initSign(privateKey);
-        signature.update(message);
-        return signature.sign();
+        Signature signature = getSignature(algorithm);
+        try {
+            signature.initSign(privateKey);
+            signature.update(message);
+            return signature.sign();
+        } catch (GeneralSecurityException | RuntimeException e) {
+            // We do not reuse an instance which might be left in an undefined state
+            SIGNATURE_BY_ALGORITHM.get().remove(algorithm);
+            throw e;
+        }
     }
 
     public static boolean verify(byte[] message, byte[] signature, PublicKey publicKey) throws GeneralSecurityException {
@@ -52,10 +64,25 @@ public class SignatureUtil {
     }
 
     public static boolean verify(byte[] message, byte[] signature, PublicKey publicKey, String algorithm) throws GeneralSecurityException {
-        Signature sig = Signature.getInstance(algorithm, "BC");
-        sig.initVerify(publicKey);
-        sig.update(message);
-        return sig.verify(signature);
+        Signature sig = getSignature(algorithm);
+        try {
+            sig.initVerify(publicKey);
+            sig.update(message);
+            return sig.verify(signature);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            SIGNATURE_BY_ALGORITHM.get().remove(algorithm);
+            throw e;
+        }
+    }
+
+    private static Signature getSignature(String algorithm) throws GeneralSecurityException {
+        Map<String, Signature> map = SIGNATURE_BY_ALGORITHM.get();
+        Signature signature = map.get(algorithm);
+        if (signature == null) {
+            signature = Signature.getInstance(algorithm, "BC");
+            map.put(algorithm, signature);
+        }
+        return signature;
     }
 
     // input: a base-64 bitcoin sig
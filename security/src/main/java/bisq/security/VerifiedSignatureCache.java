@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.common.data.ByteArray;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Metrics;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+
+/**
+ * Bounded LRU memo of successfully verified signatures. The same data requests get verified again each time they
+ * arrive by gossip, are contained in the inventory from another peer or are checked again after a restart. With
+ * the memo a repeated verification of known-good data is a SHA-256 hash and a map lookup.
+ * <p>
+ * The memo key is the SHA-256 hash over the encoded public key, the signature and the signed message. Only valid
+ * signatures are memoized, so that invalid data sent by malicious peers cannot evict the entries of valid data.
+ */
+public class VerifiedSignatureCache {
+    private static final int MAX_SIZE = 20_000;
+
+    private static final Counter HITS = Metrics.counter("bisq_security_verified_signature_cache_requests_total",
+            "Number of lookups in the verified signature cache", "result", "hit");
+    private static final Counter MISSES = Metrics.counter("bisq_security_verified_signature_cache_requests_total",
+            "Number of lookups in the verified signature cache", "result", "miss");
+
+    private static final Cache<ByteArray, Boolean> VERIFIED = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    static {
+        Metrics.gauge("bisq_security_verified_signature_cache_size", "Number of entries in the verified signature cache",
+                VERIFIED::size);
+    }
+
+    /**
+     * Same as {@link SignatureUtil#verify(byte[], byte[], PublicKey)} but returns a memoized result if the same
+     * signature of the same message by the same key was already verified successfully.
+     */
+    public static boolean verify(byte[] message, byte[] signature, PublicKey publicKey) throws GeneralSecurityException {
+        ByteArray key = getKey(message, signature, publicKey);
+        if (VERIFIED.getIfPresent(key) != null) {
+            HITS.increment();
+            return true;
+        }
+
+        MISSES.increment();
+        boolean isValid = SignatureUtil.verify(message, signature, publicKey);
+        if (isValid) {
+            VERIFIED.put(key, Boolean.TRUE);
+        }
+        return isValid;
+    }
+
+    public static void invalidateAll() {
+        VERIFIED.invalidateAll();
+    }
+
+    private static ByteArray getKey(byte[] message, byte[] signature, PublicKey publicKey) {
+        try {
+            byte[] encodedPublicKey = publicKey.getEncoded();
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // We prefix the variable length fields with their length to get an unambiguous encoding
+            digest.update(ByteBuffer.allocate(4).putInt(encodedPublicKey.length).array());
+            digest.update(encodedPublicKey);
+            digest.update(ByteBuffer.allocate(4).putInt(signature.length).array());
+            digest.update(signature);
+            digest.update(message);
+            return new ByteArray(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package bisq.security.keys;
 
 import bisq.common.encoding.Hex;
+import bisq.common.metrics.Metrics;
 import org.bouncycastle.jcajce.provider.asymmetric.util.EC5Util;
 import org.bouncycastle.jce.ECNamedCurveTable;
 import org.bouncycastle.jce.ECPointUtil;
@@ -30,6 +31,8 @@ import java.security.spec.ECGenParameterSpec;
 import java.security.spec.EncodedKeySpec;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.HashMap;
+import java.util.Map;
 
 public class KeyGeneration {
     public static final String ECDH = "ECDH";
@@ -37,10 +40,16 @@ public class KeyGeneration {
     private static final String ECDSA = "ECDSA";
     public static final String DSA = "DSA";
 
+    private static final PublicKeyCache PUBLIC_KEY_CACHE = new PublicKeyCache(PublicKeyCache.DEFAULT_MAX_SIZE);
+    // KeyFactory is not thread safe, and getInstance requires a provider lookup, so we keep one instance per thread.
+    private static final ThreadLocal<Map<String, KeyFactory>> KEY_FACTORY_BY_ALGORITHM = ThreadLocal.withInitial(HashMap::new);
+
     static {
         if (java.security.Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
             Security.addProvider(new BouncyCastleProvider());
         }
+        Metrics.gauge("bisq_security_public_key_cache_size", "Number of decoded public keys in the cache",
+                PUBLIC_KEY_CACHE::size);
     }
 
     public static KeyPair generateKeyPair() throws GeneralSecurityException {
@@ -55,8 +64,10 @@ public class KeyGeneration {
     }
 
     public static PublicKey generatePublic(byte[] encodedKey, String algorithm) throws GeneralSecurityException {
-        EncodedKeySpec keySpec = new X509EncodedKeySpec(encodedKey);
-        return KeyFactory.getInstance(algorithm).generatePublic(keySpec);
+        return PUBLIC_KEY_CACHE.getOrDecode(encodedKey, algorithm, () -> {
+            EncodedKeySpec keySpec = new X509EncodedKeySpec(encodedKey);
+            return getKeyFactory(algorithm).generatePublic(keySpec);
+        });
     }
 
     public static PublicKey generatePublicFromCompressed(byte[] compressedKey) throws GeneralSecurityException {
@@ -76,7 +87,7 @@ public class KeyGeneration {
 
     public static PrivateKey generatePrivate(byte[] encodedKey, String algorithm) throws GeneralSecurityException {
         EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(encodedKey);
-        return KeyFactory.getInstance(algorithm).generatePrivate(keySpec);
+        return getKeyFactory(algorithm).generatePrivate(keySpec);
     }
 
     public static byte[] encodePublicKey(PublicKey publicKey) {
@@ -98,4 +109,14 @@ public class KeyGeneration {
             throw new RuntimeException(e);
         }
     }
+
+    private static KeyFactory getKeyFactory(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, KeyFactory> map = KEY_FACTORY_BY_ALGORITHM.get();
+        KeyFactory keyFactory = map.get(algorithm);
+        if (keyFactory == null) {
+            keyFactory = KeyFactory.getInstance(algorithm);
+            map.put(algorithm, keyFactory);
+        }
+        return keyFactory;
+    }
 }
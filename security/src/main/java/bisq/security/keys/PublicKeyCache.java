@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security.keys;
+
+import bisq.common.data.ByteArray;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Metrics;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.EqualsAndHashCode;
+
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+
+/**
+ * Bounded concurrent cache of decoded public keys by their encoded bytes. Keys of user profiles, offers or
+ * authorized data are decoded over and over again when we process data from the network, and the decoding with a
+ * KeyFactory is rather expensive. PublicKey instances are immutable, so we can share them.
+ */
+public class PublicKeyCache {
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private static final Counter HITS = Metrics.counter("bisq_security_public_key_cache_requests_total",
+            "Number of lookups in the decoded public key cache", "result", "hit");
+    private static final Counter MISSES = Metrics.counter("bisq_security_public_key_cache_requests_total",
+            "Number of lookups in the decoded public key cache", "result", "miss");
+
+    interface Decoder {
+        PublicKey decode() throws GeneralSecurityException;
+    }
+
+    private final Cache<CacheKey, PublicKey> cache;
+
+    public PublicKeyCache(int maxSize) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    PublicKey getOrDecode(byte[] encodedKey, String algorithm, Decoder decoder) throws GeneralSecurityException {
+        PublicKey publicKey = cache.getIfPresent(new CacheKey(algorithm, encodedKey));
+        if (publicKey != null) {
+            HITS.increment();
+            return publicKey;
+        }
+
+        MISSES.increment();
+        publicKey = decoder.decode();
+        // We copy the bytes as the caller might reuse the array
+        cache.put(new CacheKey(algorithm, encodedKey.clone()), publicKey);
+        return publicKey;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @EqualsAndHashCode
+    private static final class CacheKey {
+        private final String algorithm;
+        private final ByteArray encodedKey;
+
+        private CacheKey(String algorithm, byte[] encodedKey) {
+            this.algorithm = algorithm;
+            this.encodedKey = new ByteArray(encodedKey);
+        }
+    }
+}
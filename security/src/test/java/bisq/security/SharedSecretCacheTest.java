@@ -0,0 +1,104 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedSecretCacheTest {
+    private final KeyPair keyPairSender = KeyGeneration.generateKeyPair();
+    private final KeyPair keyPairReceiver = KeyGeneration.generateKeyPair();
+    private final PubKey receiverPubKey = new PubKey(keyPairReceiver.getPublic(), "receiverKeyId");
+
+    public SharedSecretCacheTest() throws GeneralSecurityException {
+    }
+
+    @Test
+    void testCachedKeyMatchesKeyAgreement() throws GeneralSecurityException {
+        SharedSecretCache cache = new SharedSecretCache();
+        SecretKey expected = AesGcm.generateSharedAesSecretKey(keyPairSender.getPrivate(), keyPairReceiver.getPublic());
+
+        SecretKey first = cache.getSharedAesSecretKey("senderKeyId", keyPairSender.getPrivate(),
+                receiverPubKey.getHash(), receiverPubKey.getPublicKey());
+        SecretKey second = cache.getSharedAesSecretKey("senderKeyId", keyPairSender.getPrivate(),
+                receiverPubKey.getHash(), receiverPubKey.getPublicKey());
+
+        assertArrayEquals(expected.getEncoded(), first.getEncoded());
+        assertArrayEquals(expected.getEncoded(), second.getEncoded());
+        assertEquals(1, cache.size());
+        assertTrue(cache.findPeerPublicKey("senderKeyId", receiverPubKey.getHash()).isPresent());
+        assertTrue(cache.findPeerPublicKey("otherKeyId", receiverPubKey.getHash()).isEmpty());
+    }
+
+    @Test
+    void testReturnedKeyStaysValidAfterEviction() throws GeneralSecurityException {
+        SharedSecretCache cache = new SharedSecretCache(1, SharedSecretCache.DEFAULT_EXPIRE_AFTER_ACCESS);
+        SecretKey secretKey = cache.getSharedAesSecretKey("senderKeyId", keyPairSender.getPrivate(),
+                receiverPubKey.getHash(), receiverPubKey.getPublicKey());
+        byte[] expected = secretKey.getEncoded();
+
+        KeyPair otherKeyPair = KeyGeneration.generateKeyPair();
+        PubKey otherPubKey = new PubKey(otherKeyPair.getPublic(), "otherKeyId");
+        cache.getSharedAesSecretKey("senderKeyId", keyPairSender.getPrivate(), otherPubKey.getHash(), otherPubKey.getPublicKey());
+        assertEquals(1, cache.size());
+        assertTrue(cache.findPeerPublicKey("senderKeyId", receiverPubKey.getHash()).isEmpty());
+        assertArrayEquals(expected, secretKey.getEncoded());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEncryptionWithCache() throws GeneralSecurityException {
+        SharedSecretCache senderCache = new SharedSecretCache();
+        SharedSecretCache receiverCache = new SharedSecretCache();
+        for (int i = 0; i < 3; i++) {
+            byte[] message = ("hello" + i).getBytes();
+            ConfidentialData confidentialData = HybridEncryption.encryptAndSign(message, receiverPubKey,
+                    keyPairSender, "senderKeyId", senderCache);
+            // Decryption without cache must work as well
+            assertArrayEquals(message, HybridEncryption.decryptAndVerify(confidentialData, keyPairReceiver));
+            assertArrayEquals(message, HybridEncryption.decryptAndVerify(confidentialData, keyPairReceiver,
+                    "receiverKeyId", receiverCache));
+        }
+        assertEquals(1, senderCache.size());
+        assertEquals(1, receiverCache.size());
+    }
+
+    @Test
+    void testInvalidSignatureDoesNotGetCached() throws GeneralSecurityException {
+        SharedSecretCache receiverCache = new SharedSecretCache();
+        ConfidentialData confidentialData = HybridEncryption.encryptAndSign("hello".getBytes(), keyPairReceiver.getPublic(), keyPairSender);
+        byte[] fakeSignature = SignatureUtil.sign(confidentialData.getCipherText(), KeyGeneration.generateKeyPair().getPrivate());
+        ConfidentialData withFakeSig = new ConfidentialData(confidentialData.getSenderPublicKey(),
+                confidentialData.getIv(),
+                confidentialData.getCipherText(),
+                fakeSignature);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> HybridEncryption.decryptAndVerify(withFakeSig, keyPairReceiver, "receiverKeyId", receiverCache));
+        assertEquals(0, receiverCache.size());
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VerifiedSignatureCacheTest {
+    @Test
+    void testVerify() throws GeneralSecurityException {
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        KeyPair otherKeyPair = KeyGeneration.generateKeyPair();
+        byte[] message = "hello".getBytes();
+        byte[] signature = SignatureUtil.sign(message, keyPair.getPrivate());
+
+        assertTrue(VerifiedSignatureCache.verify(message, signature, keyPair.getPublic()));
+        // Memoized result
+        assertTrue(VerifiedSignatureCache.verify(message, signature, keyPair.getPublic()));
+
+        // A memoized valid signature must not make other combinations valid
+        assertFalse(VerifiedSignatureCache.verify("other".getBytes(), signature, keyPair.getPublic()));
+        assertFalse(VerifiedSignatureCache.verify(message, signature, otherKeyPair.getPublic()));
+        byte[] otherSignature = SignatureUtil.sign("other".getBytes(), keyPair.getPrivate());
+        assertFalse(VerifiedSignatureCache.verify(message, otherSignature, keyPair.getPublic()));
+
+        VerifiedSignatureCache.invalidateAll();
+        assertTrue(VerifiedSignatureCache.verify(message, signature, keyPair.getPublic()));
+    }
+}
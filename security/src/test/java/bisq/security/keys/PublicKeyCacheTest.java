@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security.keys;
+
+import bisq.security.SignatureUtil;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PublicKeyCacheTest {
+    @Test
+    void testDecodedKeyGetsReused() throws GeneralSecurityException {
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        byte[] encoded = keyPair.getPublic().getEncoded();
+
+        PublicKey first = KeyGeneration.generatePublic(encoded);
+        PublicKey second = KeyGeneration.generatePublic(encoded.clone());
+        assertSame(first, second);
+        assertArrayEquals(encoded, first.getEncoded());
+
+        byte[] message = "hello".getBytes();
+        byte[] signature = SignatureUtil.sign(message, keyPair.getPrivate());
+        assertTrue(SignatureUtil.verify(message, signature, second));
+    }
+
+    @Test
+    void testCacheKeyIsNotAffectedByMutatedInput() throws GeneralSecurityException {
+        PublicKeyCache cache = new PublicKeyCache(10);
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        byte[] encoded = keyPair.getPublic().getEncoded();
+        AtomicInteger numDecoded = new AtomicInteger();
+        PublicKeyCache.Decoder decoder = () -> {
+            numDecoded.incrementAndGet();
+            return keyPair.getPublic();
+        };
+
+        byte[] input = encoded.clone();
+        cache.getOrDecode(input, KeyGeneration.ECDH, decoder);
+        input[input.length - 1]++;
+        cache.getOrDecode(encoded, KeyGeneration.ECDH, decoder);
+        assertEquals(1, numDecoded.get());
+
+        // Different algorithm is a different entry
+        cache.getOrDecode(encoded, KeyGeneration.DSA, decoder);
+        assertEquals(2, numDecoded.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testInvalidKeyIsNotCached() {
+        PublicKeyCache cache = new PublicKeyCache(10);
+        assertThrows(GeneralSecurityException.class, () -> cache.getOrDecode(new byte[]{1, 2, 3}, KeyGeneration.ECDH, () -> {
+            throw new GeneralSecurityException("invalid");
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testSignatureReuseAfterFailure() throws GeneralSecurityException {
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        byte[] message = "hello".getBytes();
+        byte[] signature = SignatureUtil.sign(message, keyPair.getPrivate());
+
+        // A malformed signature must not leave the thread local Signature instance in a broken state
+        try {
+            SignatureUtil.verify(message, new byte[]{1, 2, 3}, keyPair.getPublic());
+        } catch (GeneralSecurityException ignore) {
+        }
+        assertTrue(SignatureUtil.verify(message, signature, keyPair.getPublic()));
+        assertFalse(SignatureUtil.verify("other".getBytes(), signature, keyPair.getPublic()));
+    }
+}
@@ -54,7 +54,7 @@ public class BannedUserService implements PersistenceClient<BannedUserStore>, Se
 
     @Override
     public CompletableFuture<Boolean> initialize() {
-        authorizedBondedRolesService.addListener(this);
+        authorizedBondedRolesService.addListener(this, BannedUserProfileData.class);
         return CompletableFuture.completedFuture(true);
     }
 
@@ -112,6 +112,7 @@ public class UserIdentityService implements PersistenceClient<UserIdentityStore>
         if (rePublishUserProfilesExecutor != null) {
             ExecutorFactory.shutdownAndAwaitTermination(rePublishUserProfilesExecutor);
         }
+        persistableStore.clearAesSecretKey();
         return CompletableFuture.completedFuture(true);
     }
 
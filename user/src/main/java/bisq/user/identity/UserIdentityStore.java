@@ -31,6 +31,10 @@ import lombok.extern.slf4j.Slf4j;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -55,8 +59,15 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
     private long lastUserProfilePublishingDate;
 
     private transient Optional<AesSecretKey> aesSecretKey = Optional.empty();
+    // If read from encrypted data, the userIdentities are not available until decrypted. Until then, we persist the
+    // encryptedData we have read.
+    private transient boolean plainTextAvailable = true;
+    // Shared with our clones, so that the clone used for persisting can reuse the encrypted data if the
+    // userIdentities have not changed.
+    private final transient EncryptionCache encryptionCache;
 
     public UserIdentityStore() {
+        encryptionCache = new EncryptionCache();
     }
 
     private UserIdentityStore(@Nullable String selectedUserIdentityId,
@@ -65,6 +76,7 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
         this.userIdentities.setAll(userIdentities);
         setSelectedUserIdentityId(selectedUserIdentityId);
         this.lastUserProfilePublishingDate = lastUserProfilePublishingDate;
+        encryptionCache = new EncryptionCache();
     }
 
     private UserIdentityStore(EncryptedData encryptedData,
@@ -73,6 +85,8 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
         this.encryptedData = Optional.of(encryptedData);
         this.scryptParameters = Optional.of(scryptParameters);
         this.lastUserProfilePublishingDate = lastUserProfilePublishingDate;
+        plainTextAvailable = false;
+        encryptionCache = new EncryptionCache();
     }
 
     private UserIdentityStore(@Nullable String selectedUserIdentityId,
@@ -80,7 +94,9 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
                               Optional<EncryptedData> encryptedData,
                               Optional<ScryptParameters> scryptParameters,
                               Optional<AesSecretKey> aesSecretKey,
-                              long lastUserProfilePublishingDate) {
+                              long lastUserProfilePublishingDate,
+                              boolean plainTextAvailable,
+                              EncryptionCache encryptionCache) {
         this.userIdentities.setAll(userIdentities);
         setSelectedUserIdentityId(selectedUserIdentityId);
 
@@ -88,6 +104,8 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
         this.scryptParameters = scryptParameters;
         this.aesSecretKey = aesSecretKey;
         this.lastUserProfilePublishingDate = lastUserProfilePublishingDate;
+        this.plainTextAvailable = plainTextAvailable;
+        this.encryptionCache = encryptionCache;
     }
 
 
@@ -97,16 +115,13 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
 
     @Override
     public bisq.user.protobuf.UserIdentityStore toProto() {
-        if (aesSecretKey.isPresent()) {
-            long ts = System.currentTimeMillis();
-            // We put the data we want to encrypt into a protobuf object.
-            bisq.user.protobuf.UserIdentityStore.Builder plainTextProtoBuilder = bisq.user.protobuf.UserIdentityStore.newBuilder()
-                    .addAllUserIdentities(userIdentities.stream().map(UserIdentity::toProto).collect(Collectors.toSet()));
-            Optional.ofNullable(getSelectedUserIdentityId()).ifPresent(plainTextProtoBuilder::setSelectedUserIdentityId);
-            bisq.user.protobuf.UserIdentityStore plainTextProto = plainTextProtoBuilder.build();
-            encryptedData = Optional.of(encryptPlainTextProto(plainTextProto));
-
-            log.info("Encryption at toProto took {} ms", System.currentTimeMillis() - ts);
+        // If the key got cleared or the encrypted data are not decrypted yet, we persist the encrypted data we have.
+        if (aesSecretKey.isPresent() || (scryptParameters.isPresent() && encryptedData.isPresent())) {
+            // A clone shares the key with the store and must not encrypt with it once it got cleared
+            if (aesSecretKey.isPresent() && !aesSecretKey.get().isCleared() && plainTextAvailable) {
+                encryptedData = Optional.of(getOrEncrypt());
+            }
+            checkArgument(encryptedData.isPresent());
             checkArgument(scryptParameters.isPresent());
             bisq.user.protobuf.UserIdentityStore.Builder builder = bisq.user.protobuf.UserIdentityStore.newBuilder()
                     .setEncryptedData(encryptedData.get().toProto())
@@ -167,7 +182,9 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
                 encryptedData,
                 scryptParameters,
                 aesSecretKey,
-                lastUserProfilePublishingDate);
+                lastUserProfilePublishingDate,
+                plainTextAvailable,
+                encryptionCache);
     }
 
     @Override
@@ -178,6 +195,8 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
         lastUserProfilePublishingDate = persisted.getLastUserProfilePublishingDate();
         encryptedData = persisted.getEncryptedData();
         scryptParameters = persisted.scryptParameters;
+        plainTextAvailable = persisted.plainTextAvailable;
+        encryptionCache.clear();
 
         Optional<AesSecretKey> persistedOptionalKey = persisted.aesSecretKey;
         if (persistedOptionalKey.isPresent()) {
@@ -218,16 +237,7 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
     CompletableFuture<EncryptedData> encrypt() {
         checkArgument(aesSecretKey.isPresent(), "aesSecretKey must be present at encrypt.");
         checkArgument(scryptParameters.isPresent(), "scryptParameters must be present at encrypt.");
-        long ts = System.currentTimeMillis();
-        return CompletableFuture.supplyAsync(() -> {
-            bisq.user.protobuf.UserIdentityStore.Builder builder = bisq.user.protobuf.UserIdentityStore.newBuilder()
-                    .addAllUserIdentities(userIdentities.stream().map(UserIdentity::toProto).collect(Collectors.toSet()));
-            Optional.ofNullable(getSelectedUserIdentityId()).ifPresent(builder::setSelectedUserIdentityId);
-            bisq.user.protobuf.UserIdentityStore plainTextProto = builder.build();
-            EncryptedData encryptedData = encryptPlainTextProto(plainTextProto);
-            log.info("encrypt took {} ms", System.currentTimeMillis() - ts);
-            return encryptedData;
-        }).whenComplete((encrypted, throwable) -> {
+        return CompletableFuture.supplyAsync(this::getOrEncrypt).whenComplete((encrypted, throwable) -> {
             if (throwable == null && encrypted != null) {
                 this.encryptedData = Optional.of(encrypted);
             }
@@ -245,6 +255,9 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
                 userIdentities.clear();
                 userIdentities.addAll(decrypted.getUserIdentities());
                 setSelectedUserIdentityId(decrypted.getSelectedUserIdentityId());
+                plainTextAvailable = true;
+                // The encryptedData match the decrypted data, so we do not need to encrypt at the next persist.
+                encryptionCache.put(userIdentities, getSelectedUserIdentityId(), aesSecretKey, encryptedData.get());
                 log.info("decrypt took {} ms", System.currentTimeMillis() - ts);
                 return null;
             } catch (GeneralSecurityException | IOException e) {
@@ -262,8 +275,12 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
             ScryptKeyDeriver scryptKeyDeriver = new ScryptKeyDeriver(scryptParameters.get());
             try {
                 AesSecretKey keyFromPassword = scryptKeyDeriver.deriveKeyFromPassword(password);
-                checkArgument(keyFromPassword.equals(aesSecretKey.get()),
-                        "Provided password does not match our aesKey.");
+                try {
+                    checkArgument(keyFromPassword.equals(aesSecretKey.get()),
+                            "Provided password does not match our aesKey.");
+                } finally {
+                    keyFromPassword.clear();
+                }
                 scryptParameters = Optional.empty();
                 deleteAesSecretKey();
                 log.info("removePassword took {} ms", System.currentTimeMillis() - ts);
@@ -276,6 +293,22 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
 
     void clearEncryptedData() {
         encryptedData = Optional.empty();
+        encryptionCache.clear();
+    }
+
+    /**
+     * Zeros the key. The encryptedData get updated before, so that persisting afterwards writes the latest data.
+     * Changes of the userIdentities after that are not persisted until the key is derived again.
+     */
+    void clearAesSecretKey() {
+        if (aesSecretKey.isEmpty()) {
+            return;
+        }
+        if (plainTextAvailable) {
+            encryptedData = Optional.of(getOrEncrypt());
+        }
+        // Zeroing the key object clears it for our clones as well, and the cache does not keep a reference
+        deleteAesSecretKey();
     }
 
 
@@ -345,10 +378,31 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
     }
 
     private void setAesSecretKey(Optional<AesSecretKey> aesSecretKey) {
+        // The cached encryptedData are only valid for the previous key
+        encryptionCache.clear();
         this.aesSecretKey.ifPresent(AesSecretKey::clear);
         this.aesSecretKey = aesSecretKey;
     }
 
+    private EncryptedData getOrEncrypt() {
+        AesSecretKey key = aesSecretKey.orElseThrow();
+        String selectedUserIdentityId = getSelectedUserIdentityId();
+        Optional<EncryptedData> cached = encryptionCache.get(userIdentities, selectedUserIdentityId, key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long ts = System.currentTimeMillis();
+        // We put the data we want to encrypt into a protobuf object.
+        bisq.user.protobuf.UserIdentityStore.Builder builder = bisq.user.protobuf.UserIdentityStore.newBuilder()
+                .addAllUserIdentities(userIdentities.stream().map(UserIdentity::toProto).collect(Collectors.toSet()));
+        Optional.ofNullable(selectedUserIdentityId).ifPresent(builder::setSelectedUserIdentityId);
+        EncryptedData encrypted = encryptPlainTextProto(builder.build());
+        encryptionCache.put(userIdentities, selectedUserIdentityId, key, encrypted);
+        log.info("Encryption took {} ms", System.currentTimeMillis() - ts);
+        return encrypted;
+    }
+
     private EncryptedData encryptPlainTextProto(bisq.user.protobuf.UserIdentityStore plainTextProto) {
         try {
             byte[] plainText = ProtobufUtils.getByteArrayFromProto(Any.pack(plainTextProto));
@@ -359,4 +413,50 @@ public final class UserIdentityStore implements PersistableStore<UserIdentitySto
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The last encrypted data with the plain text they have been created from. UserIdentity is immutable, so we
+     * compare the userIdentities by reference, which is much cheaper than serializing and encrypting them.
+     */
+    private static final class EncryptionCache {
+        private Set<UserIdentity> userIdentities = Collections.emptySet();
+        @Nullable
+        private String selectedUserIdentityId;
+        @Nullable
+        private AesSecretKey aesSecretKey;
+        @Nullable
+        private EncryptedData encryptedData;
+
+        synchronized Optional<EncryptedData> get(Collection<UserIdentity> userIdentities,
+                                                 @Nullable String selectedUserIdentityId,
+                                                 AesSecretKey aesSecretKey) {
+            if (encryptedData == null ||
+                    this.aesSecretKey != aesSecretKey ||
+                    !Objects.equals(this.selectedUserIdentityId, selectedUserIdentityId) ||
+                    this.userIdentities.size() != userIdentities.size() ||
+                    !this.userIdentities.containsAll(userIdentities)) {
+                return Optional.empty();
+            }
+            return Optional.of(encryptedData);
+        }
+
+        synchronized void put(Collection<UserIdentity> userIdentities,
+                              @Nullable String selectedUserIdentityId,
+                              AesSecretKey aesSecretKey,
+                              EncryptedData encryptedData) {
+            Set<UserIdentity> snapshot = Collections.newSetFromMap(new IdentityHashMap<>());
+            snapshot.addAll(userIdentities);
+            this.userIdentities = snapshot;
+            this.selectedUserIdentityId = selectedUserIdentityId;
+            this.aesSecretKey = aesSecretKey;
+            this.encryptedData = encryptedData;
+        }
+
+        synchronized void clear() {
+            userIdentities = Collections.emptySet();
+            selectedUserIdentityId = null;
+            aesSecretKey = null;
+            encryptedData = null;
+        }
+    }
+}
@@ -61,8 +61,7 @@ public class UserProfileService implements PersistenceClient<UserProfileStore>,
 
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
-        networkService.addDataServiceListener(this);
-        networkService.getDataService().ifPresent(ds -> ds.getAuthenticatedData().forEach(this::onAuthenticatedDataAdded));
+        networkService.addDataServiceListenerAndReplay(this, UserProfile.class);
         return CompletableFuture.completedFuture(true);
     }
 
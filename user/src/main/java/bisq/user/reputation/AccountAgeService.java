@@ -23,7 +23,6 @@ import bisq.common.timer.Scheduler;
 import bisq.common.util.MathUtils;
 import bisq.network.NetworkService;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
-import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedDistributedData;
 import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceClient;
@@ -40,7 +39,6 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -120,10 +118,8 @@ public class AccountAgeService extends SourceReputationService<AuthorizedAccount
     }
 
     @Override
-    protected Optional<AuthorizedAccountAgeData> findRelevantData(AuthorizedDistributedData authorizedDistributedData) {
-        return authorizedDistributedData instanceof AuthorizedAccountAgeData ?
-                Optional.of((AuthorizedAccountAgeData) authorizedDistributedData) :
-                Optional.empty();
+    protected Class<AuthorizedAccountAgeData> getDataClass() {
+        return AuthorizedAccountAgeData.class;
     }
 
     @Override
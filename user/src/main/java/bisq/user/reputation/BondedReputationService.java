@@ -21,7 +21,6 @@ import bisq.bonded_roles.bonded_role.AuthorizedBondedRolesService;
 import bisq.common.data.ByteArray;
 import bisq.common.util.MathUtils;
 import bisq.network.NetworkService;
-import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedDistributedData;
 import bisq.user.banned.BannedUserService;
 import bisq.user.identity.UserIdentityService;
 import bisq.user.profile.UserProfile;
@@ -30,8 +29,6 @@ import bisq.user.reputation.data.AuthorizedBondedReputationData;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Optional;
-
 import static com.google.common.base.Preconditions.checkArgument;
 
 @Getter
@@ -49,10 +46,8 @@ public class BondedReputationService extends SourceReputationService<AuthorizedB
     }
 
     @Override
-    protected Optional<AuthorizedBondedReputationData> findRelevantData(AuthorizedDistributedData authorizedDistributedData) {
-        return authorizedDistributedData instanceof AuthorizedBondedReputationData ?
-                Optional.of((AuthorizedBondedReputationData) authorizedDistributedData) :
-                Optional.empty();
+    protected Class<AuthorizedBondedReputationData> getDataClass() {
+        return AuthorizedBondedReputationData.class;
     }
 
     @Override
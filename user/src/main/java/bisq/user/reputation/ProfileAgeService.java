@@ -22,7 +22,6 @@ import bisq.common.data.ByteArray;
 import bisq.common.timer.Scheduler;
 import bisq.network.NetworkService;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
-import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedDistributedData;
 import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceClient;
@@ -101,10 +100,8 @@ public class ProfileAgeService extends SourceReputationService<AuthorizedTimesta
     }
 
     @Override
-    protected Optional<AuthorizedTimestampData> findRelevantData(AuthorizedDistributedData authorizedDistributedData) {
-        return authorizedDistributedData instanceof AuthorizedTimestampData ?
-                Optional.of((AuthorizedTimestampData) authorizedDistributedData) :
-                Optional.empty();
+    protected Class<AuthorizedTimestampData> getDataClass() {
+        return AuthorizedTimestampData.class;
     }
 
     @Override
@@ -159,8 +156,7 @@ public class ProfileAgeService extends SourceReputationService<AuthorizedTimesta
             // We check if we have some userProfiles which have not been timestamped yet.
             // If so, we request timestamping of the missing one.
             var timeStamped = networkService.getDataService()
-                    .map(service -> service.getAuthorizedData()
-                            .filter(authorizedData -> authorizedData.getAuthorizedDistributedData() instanceof AuthorizedTimestampData)
+                    .map(service -> service.getAuthorizedData(AuthorizedTimestampData.class)
                             .map(authorizedData -> (AuthorizedTimestampData) authorizedData.getAuthorizedDistributedData())
                             .map(AuthorizedTimestampData::getProfileId)
                             .collect(Collectors.toSet()));
@@ -22,7 +22,6 @@ import bisq.common.data.ByteArray;
 import bisq.common.timer.Scheduler;
 import bisq.common.util.MathUtils;
 import bisq.network.NetworkService;
-import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedDistributedData;
 import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceClient;
@@ -39,7 +38,6 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -115,10 +113,8 @@ public class SignedWitnessService extends SourceReputationService<AuthorizedSign
     }
 
     @Override
-    protected Optional<AuthorizedSignedWitnessData> findRelevantData(AuthorizedDistributedData authorizedDistributedData) {
-        return authorizedDistributedData instanceof AuthorizedSignedWitnessData ?
-                Optional.of((AuthorizedSignedWitnessData) authorizedDistributedData) :
-                Optional.empty();
+    protected Class<AuthorizedSignedWitnessData> getDataClass() {
+        return AuthorizedSignedWitnessData.class;
     }
 
     @Override
@@ -79,7 +79,7 @@ public abstract class SourceReputationService<T extends AuthorizedDistributedDat
 
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
-        authorizedBondedRolesService.addListener(this);
+        authorizedBondedRolesService.addListener(this, getDataClass());
         return CompletableFuture.completedFuture(true);
     }
 
@@ -114,7 +114,14 @@ public abstract class SourceReputationService<T extends AuthorizedDistributedDat
                 });
     }
 
-    protected abstract Optional<T> findRelevantData(AuthorizedDistributedData authorizedDistributedData);
+    // Used for subscribing only to the AuthorizedData holding the data relevant for this service
+    protected abstract Class<T> getDataClass();
+
+    private Optional<T> findRelevantData(AuthorizedDistributedData authorizedDistributedData) {
+        return getDataClass().isInstance(authorizedDistributedData) ?
+                Optional.of(getDataClass().cast(authorizedDistributedData)) :
+                Optional.empty();
+    }
 
     // Some services don't support multiple entries and will override that method
     protected void addToDataSet(Set<T> dataSet, T data) {
@@ -0,0 +1,152 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.user.identity;
+
+import bisq.identity.Identity;
+import bisq.network.common.AddressByTransportTypeMap;
+import bisq.network.identity.NetworkId;
+import bisq.security.AesSecretKey;
+import bisq.security.EncryptedData;
+import bisq.security.keys.KeyBundle;
+import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
+import bisq.security.keys.TorKeyGeneration;
+import bisq.security.pow.ProofOfWork;
+import bisq.user.profile.UserProfile;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserIdentityStoreTest {
+    private static final String PASSWORD = "password";
+
+    @Test
+    void testEncryptedDataGetReusedIfUnchanged() {
+        UserIdentityStore store = new UserIdentityStore();
+        store.getUserIdentities().add(createUserIdentity("alice"));
+        store.deriveKeyFromPassword(PASSWORD).join();
+        EncryptedData encrypted = store.encrypt().join();
+
+        store.toProto();
+        assertSame(encrypted, store.getEncryptedData().orElseThrow());
+
+        // The clone used for persisting shares the cache
+        UserIdentityStore clone = store.getClone();
+        clone.toProto();
+        assertSame(encrypted, clone.getEncryptedData().orElseThrow());
+    }
+
+    @Test
+    void testEncryptedDataGetUpdatedIfUserIdentitiesChanged() {
+        UserIdentityStore store = new UserIdentityStore();
+        UserIdentity alice = createUserIdentity("alice");
+        store.getUserIdentities().add(alice);
+        AesSecretKey key = store.deriveKeyFromPassword(PASSWORD).join();
+        EncryptedData encrypted = store.encrypt().join();
+
+        UserIdentity bob = createUserIdentity("bob");
+        store.getUserIdentities().add(bob);
+        bisq.user.protobuf.UserIdentityStore proto = store.toProto();
+        assertNotEquals(encrypted, store.getEncryptedData().orElseThrow());
+
+        UserIdentityStore persisted = UserIdentityStore.fromProto(proto);
+        persisted.decrypt(key).join();
+        assertEquals(Set.of(alice, bob), persisted.getUserIdentities());
+    }
+
+    @Test
+    void testPasswordChangeInvalidatesCache() {
+        UserIdentityStore store = new UserIdentityStore();
+        store.getUserIdentities().add(createUserIdentity("alice"));
+        // Setting a new key zeros the previous one, so we keep a copy
+        AesSecretKey previousKey = AesSecretKey.getClone(store.deriveKeyFromPassword(PASSWORD).join());
+        EncryptedData encrypted = store.encrypt().join();
+
+        store.removeKey(PASSWORD).join();
+        AesSecretKey newKey = store.deriveKeyFromPassword("newPassword").join();
+        bisq.user.protobuf.UserIdentityStore proto = store.toProto();
+        assertNotEquals(encrypted, store.getEncryptedData().orElseThrow());
+        assertNotEquals(previousKey, newKey);
+
+        UserIdentityStore persisted = UserIdentityStore.fromProto(proto);
+        assertThrows(RuntimeException.class, () -> persisted.decrypt(previousKey).join());
+        persisted.decrypt(newKey).join();
+        assertEquals(store.getUserIdentities(), persisted.getUserIdentities());
+    }
+
+    @Test
+    void testClearAesSecretKey() {
+        UserIdentityStore store = new UserIdentityStore();
+        UserIdentity alice = createUserIdentity("alice");
+        store.getUserIdentities().add(alice);
+        AesSecretKey key = store.deriveKeyFromPassword(PASSWORD).join();
+        AesSecretKey keyCopy = AesSecretKey.getClone(key);
+        store.encrypt().join();
+        UserIdentityStore clone = store.getClone();
+
+        UserIdentity bob = createUserIdentity("bob");
+        store.getUserIdentities().add(bob);
+        store.clearAesSecretKey();
+        assertTrue(store.getAESSecretKey().isEmpty());
+        assertTrue(key.isCleared());
+
+        // The encrypted data have been updated before the key got cleared
+        UserIdentityStore persisted = UserIdentityStore.fromProto(store.toProto());
+        persisted.decrypt(keyCopy).join();
+        assertEquals(Set.of(alice, bob), persisted.getUserIdentities());
+
+        // A clone holding the cleared key must not encrypt with it
+        EncryptedData clonesEncryptedData = clone.getEncryptedData().orElseThrow();
+        clone.toProto();
+        assertSame(clonesEncryptedData, clone.getEncryptedData().orElseThrow());
+    }
+
+    @Test
+    void testPersistEncryptedDataWhileLocked() {
+        UserIdentityStore store = new UserIdentityStore();
+        store.getUserIdentities().add(createUserIdentity("alice"));
+        store.deriveKeyFromPassword(PASSWORD).join();
+        store.encrypt().join();
+        store.clearAesSecretKey();
+
+        // Read from disk but not decrypted yet, so we persist the encrypted data as they are
+        bisq.user.protobuf.UserIdentityStore proto = store.toProto();
+        UserIdentityStore persisted = UserIdentityStore.fromProto(proto);
+        assertTrue(persisted.getUserIdentities().isEmpty());
+        assertEquals(proto, persisted.toProto());
+        assertEquals(proto, persisted.getClone().toProto());
+    }
+
+    private static UserIdentity createUserIdentity(String nickName) {
+        try {
+            KeyPair keyPair = KeyGeneration.generateKeyPair();
+            String keyId = nickName + "KeyId";
+            KeyBundle keyBundle = new KeyBundle(keyId, keyPair, TorKeyGeneration.generateKeyPair());
+            NetworkId networkId = new NetworkId(new AddressByTransportTypeMap(), new PubKey(keyPair.getPublic(), keyId));
+            ProofOfWork proofOfWork = new ProofOfWork(new byte[0], 0, null, 0, new byte[0], 0);
+            UserProfile userProfile = new UserProfile(nickName, proofOfWork, networkId, "", "");
+            return new UserIdentity(new Identity(nickName, networkId, keyBundle), userProfile);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}